@@ -0,0 +1,264 @@
+package org.example.Model;
+
+import org.example.Controller.MemoryController;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
+
+public class AdaptiveReplacement implements PageReplacementAlgorithm {
+    public static final String NAME = "ADAPTIVE";
+    private static final int SET_BITS = 6; // Pages are hashed into 64 sets; a few of them are sampled
+
+    private final PageReplacementAlgorithm[] policies; // Each tracks the real resident pages; the live one picks victims
+    private final PageReplacementAlgorithm[] shadows; // Each simulates its own small memory over the sampled pages
+    private final BitSet[] shadowResident; // Pages resident in each shadow memory
+    private final int[] shadowSizes;
+    private final long[] epochMisses; // Shadow faults during the current epoch
+    private final long[] totalMisses;
+    private final int epochLength; // References between decisions
+    private final int sampledSets; // Sets sampled, out of 64
+    private int livePolicy;
+    private long epochReferences;
+    private long epochs;
+    private int residentPages; // Real resident pages; the most ever seen sizes the shadows
+    private int maxResidentPages;
+    private long switches;
+    private int replacementCount;
+    private Consumer<String> switchListener; // Told about every switch, e.g. the controller's log
+
+    // Default constructor: FIFO against LRU, deciding every 1000 references on 1/8 of the pages
+    public AdaptiveReplacement() {
+        this(1000, 8, "FIFO", "LRU");
+    }
+
+    /**
+     * @param epochLength References between decisions.
+     * @param sampledSets Sets, out of 64, whose pages are fed to the shadows.
+     * @param policyNames The candidate policies (at least two); the first one starts live.
+     */
+    public AdaptiveReplacement(int epochLength, int sampledSets, String... policyNames) {
+        if (epochLength <= 0 || sampledSets <= 0 || sampledSets > 1 << SET_BITS) {
+            throw new IllegalArgumentException("Epoch length must be greater than 0 and sampled sets between 1 and " + (1 << SET_BITS) + ".");
+        }
+        if (policyNames.length < 2) {
+            throw new IllegalArgumentException("Adaptive replacement needs at least two policies.");
+        }
+        this.policies = new PageReplacementAlgorithm[policyNames.length];
+        this.shadows = new PageReplacementAlgorithm[policyNames.length];
+        this.shadowResident = new BitSet[policyNames.length];
+        for (int i = 0; i < policyNames.length; i++) {
+            if (NAME.equalsIgnoreCase(policyNames[i])) {
+                throw new IllegalArgumentException("Adaptive replacement cannot choose between adaptive policies.");
+            }
+            policies[i] = PageReplacementAlgorithm.forName(policyNames[i]);
+            shadows[i] = PageReplacementAlgorithm.forName(policyNames[i]);
+            shadowResident[i] = new BitSet();
+        }
+        this.shadowSizes = new int[policyNames.length];
+        this.epochMisses = new long[policyNames.length];
+        this.totalMisses = new long[policyNames.length];
+        this.epochLength = epochLength;
+        this.sampledSets = sampledSets;
+    }
+
+    @Override
+    public void replacePage(int pageNumber, MemoryController memoryController) {
+        if (memoryController.isPageInMemory(pageNumber)) {
+            memoryController.getMemoryLogger().log("Page " + pageNumber + " is already in memory.");
+            return;
+        }
+
+        if (!memoryController.hasFreeFrameFor(pageNumber) && residentPages > 0) {
+            int victim = memoryController.chooseVictim(this, pageNumber); // Chosen by the live policy
+            memoryController.removePageFromMemory(victim);
+            memoryController.getMemoryLogger().log("Page " + victim + " replaced by page " + pageNumber
+                    + " (" + policies[livePolicy].getName() + ")");
+            replacementCount++;
+        }
+
+        memoryController.loadPageIntoMemory(memoryController.getPageFromVirtualMemory(pageNumber));
+    }
+
+    @Override
+    public int selectVictim(IntPredicate preferred) {
+        return policies[livePolicy].selectVictim(preferred);
+    }
+
+    @Override
+    public void pageLoaded(int pageNumber) {
+        for (PageReplacementAlgorithm policy : policies) {
+            policy.pageLoaded(pageNumber);
+        }
+        maxResidentPages = Math.max(maxResidentPages, ++residentPages);
+        recordReference(pageNumber);
+    }
+
+    @Override
+    public void pageAccessed(int pageNumber) {
+        for (PageReplacementAlgorithm policy : policies) {
+            policy.pageAccessed(pageNumber);
+        }
+        recordReference(pageNumber);
+    }
+
+    @Override
+    public void pageRemoved(int pageNumber) {
+        for (PageReplacementAlgorithm policy : policies) {
+            policy.pageRemoved(pageNumber);
+        }
+        residentPages--;
+    }
+
+    // Feed a sampled reference to every shadow, and decide at the end of an epoch
+    private void recordReference(int pageNumber) {
+        if (((pageNumber * 0x9E3779B9) >>> (Integer.SIZE - SET_BITS)) < sampledSets) {
+            int capacity = Math.max(1, (int) ((long) maxResidentPages * sampledSets >>> SET_BITS));
+            for (int i = 0; i < shadows.length; i++) {
+                referenceShadow(i, pageNumber, capacity);
+            }
+        }
+        if (++epochReferences == epochLength) {
+            endEpoch();
+        }
+    }
+
+    private void referenceShadow(int shadow, int pageNumber, int capacity) {
+        PageReplacementAlgorithm policy = shadows[shadow];
+        if (shadowResident[shadow].get(pageNumber)) {
+            policy.pageAccessed(pageNumber);
+            return;
+        }
+        epochMisses[shadow]++;
+        totalMisses[shadow]++;
+        if (shadowSizes[shadow] >= capacity) {
+            int victim = policy.selectVictim(page -> false);
+            policy.pageRemoved(victim);
+            shadowResident[shadow].clear(victim);
+            shadowSizes[shadow]--;
+        }
+        shadowResident[shadow].set(pageNumber);
+        shadowSizes[shadow]++;
+        policy.pageLoaded(pageNumber);
+    }
+
+    // Switch to the policy whose shadow faulted least this epoch, if it beat the live one
+    private void endEpoch() {
+        int best = livePolicy;
+        for (int i = 0; i < policies.length; i++) {
+            if (epochMisses[i] < epochMisses[best]) {
+                best = i;
+            }
+        }
+        if (best != livePolicy) {
+            String message = "Adaptive Replacement: Switched from " + policies[livePolicy].getName() + " to "
+                    + policies[best].getName() + " after epoch " + (epochs + 1) + " (sampled faults: " + describeMisses(epochMisses) + ")";
+            livePolicy = best;
+            switches++;
+            if (switchListener != null) {
+                switchListener.accept(message);
+            }
+        }
+        Arrays.fill(epochMisses, 0);
+        epochReferences = 0;
+        epochs++;
+    }
+
+    private String describeMisses(long[] misses) {
+        StringBuilder description = new StringBuilder();
+        for (int i = 0; i < policies.length; i++) {
+            description.append(i == 0 ? "" : ", ").append(policies[i].getName()).append(' ').append(misses[i]);
+        }
+        return description.toString();
+    }
+
+    /**
+     * @param switchListener Receives a message on every switch (null for none).
+     */
+    public void setSwitchListener(Consumer<String> switchListener) {
+        this.switchListener = switchListener;
+    }
+
+    // Name of the policy choosing victims now
+    public String getLivePolicyName() {
+        return policies[livePolicy].getName();
+    }
+
+    public long getSwitchCount() {
+        return switches;
+    }
+
+    /**
+     * Live policy, switches and the faults each shadow saw on the sampled pages.
+     * @return A one-line summary.
+     */
+    public String getStatistics() {
+        return "Adaptive Replacement: Live Policy: " + getLivePolicyName() + ", Epochs: " + epochs
+                + ", Switches: " + switches + ", Sampled Faults: [" + describeMisses(totalMisses) + "]";
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    // Epoch length, sampled sets and the candidate policies, e.g. "1000,8,FIFO,LRU"
+    @Override
+    public String getParameters() {
+        StringBuilder parameters = new StringBuilder().append(epochLength).append(',').append(sampledSets);
+        for (PageReplacementAlgorithm policy : policies) {
+            parameters.append(',').append(policy.getName());
+        }
+        return parameters.toString();
+    }
+
+    @Override
+    public int getReplacementCount() {
+        return replacementCount;
+    }
+
+    @Override
+    public void writeSnapshot(SnapshotOutput out) throws IOException {
+        out.putString(getParameters()); // The per-policy sections below depend on it
+        out.putInt(livePolicy);
+        out.putLong(epochReferences);
+        out.putLong(epochs);
+        out.putInt(residentPages);
+        out.putInt(maxResidentPages);
+        out.putLong(switches);
+        out.putInt(replacementCount);
+        out.putLongArray(epochMisses);
+        out.putLongArray(totalMisses);
+        for (int i = 0; i < policies.length; i++) {
+            policies[i].writeSnapshot(out);
+            shadows[i].writeSnapshot(out);
+            out.putLongArray(shadowResident[i].toLongArray());
+        }
+    }
+
+    @Override
+    public void readSnapshot(SnapshotInput in) throws IOException {
+        String parameters = in.getString();
+        if (!parameters.equals(getParameters())) {
+            throw new IOException("Snapshot adaptive replacement settings are " + parameters
+                    + " but this simulation uses " + getParameters() + ".");
+        }
+        livePolicy = in.getInt();
+        epochReferences = in.getLong();
+        epochs = in.getLong();
+        residentPages = in.getInt();
+        maxResidentPages = in.getInt();
+        switches = in.getLong();
+        replacementCount = in.getInt();
+        System.arraycopy(in.getLongArray(), 0, epochMisses, 0, epochMisses.length);
+        System.arraycopy(in.getLongArray(), 0, totalMisses, 0, totalMisses.length);
+        for (int i = 0; i < policies.length; i++) {
+            policies[i].readSnapshot(in);
+            shadows[i].readSnapshot(in);
+            shadowResident[i] = BitSet.valueOf(in.getLongArray());
+            shadowSizes[i] = shadowResident[i].cardinality();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package org.example.Model;
+
+public class AddressTranslator {
+    private final int pageSize; // Page size in bytes (power of 2)
+    private final int offsetBits; // log2(pageSize): low bits of an address that select the byte in a page
+    private final long offsetMask; // pageSize - 1
+
+    // Constructor
+    public AddressTranslator(int pageSize) {
+        if (pageSize <= 0 || (pageSize & (pageSize - 1)) != 0) {
+            throw new IllegalArgumentException("Page size must be a power of 2.");
+        }
+        this.pageSize = pageSize;
+        this.offsetBits = Integer.numberOfTrailingZeros(pageSize);
+        this.offsetMask = pageSize - 1;
+    }
+
+    /**
+     * Split off the virtual page number of an address.
+     * @param virtualAddress The virtual byte address.
+     * @return The virtual page number.
+     */
+    public int getPageNumber(long virtualAddress) {
+        return (int) (virtualAddress >>> offsetBits);
+    }
+
+    /**
+     * Split off the offset of an address within its page.
+     * @param address A virtual or physical byte address.
+     * @return The byte offset within the page.
+     */
+    public int getOffset(long address) {
+        return (int) (address & offsetMask);
+    }
+
+    /**
+     * Combine a frame number and a page offset into a physical address.
+     * @param frameNumber The physical frame holding the page.
+     * @param offset The byte offset within the page.
+     * @return The physical byte address.
+     */
+    public long toPhysicalAddress(int frameNumber, int offset) {
+        return ((long) frameNumber << offsetBits) | offset;
+    }
+
+    /**
+     * Get the first byte address of a page or frame.
+     * @param pageNumber The page or frame number.
+     * @return The byte address of offset 0.
+     */
+    public long toAddress(int pageNumber) {
+        return (long) pageNumber << offsetBits;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public int getOffsetBits() {
+        return offsetBits;
+    }
+}
@@ -1,17 +1,17 @@
-package org.example.View;
-
-import javax.swing.*;
-import java.awt.*;
-
-public class AlgorithmSelectionPanel extends JPanel {
-    public JComboBox<String> algorithmComboBox;
-
-    public AlgorithmSelectionPanel() {
-        setBorder(BorderFactory.createTitledBorder("Algorithm Selection"));
-        setLayout(new FlowLayout(FlowLayout.LEFT));
-
-        algorithmComboBox = new JComboBox<>(new String[]{"FIFO", "LRU"});
-        add(new JLabel("Algorithm:"));
-        add(algorithmComboBox);
-    }
-}
+package org.example.View;
+
+import javax.swing.*;
+import java.awt.*;
+
+public class AlgorithmSelectionPanel extends JPanel {
+    public JComboBox<String> algorithmComboBox;
+
+    public AlgorithmSelectionPanel() {
+        setBorder(BorderFactory.createTitledBorder("Algorithm Selection"));
+        setLayout(new FlowLayout(FlowLayout.LEFT));
+
+        algorithmComboBox = new JComboBox<>(new String[]{"FIFO", "LRU", "Sampled-LRU", "Adaptive"});
+        add(new JLabel("Algorithm:"));
+        add(algorithmComboBox);
+    }
+}
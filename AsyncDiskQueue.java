@@ -0,0 +1,219 @@
+package org.example.Model;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+public class AsyncDiskQueue {
+    private final int queueDepth; // Number of requests the disk services concurrently
+    private final long serviceTimeNanos; // Simulated time to service one request
+    private final long[] channelFreeAt; // Simulated time at which each queue slot becomes idle
+
+    // Outstanding requests, a binary min-heap on (completion time, submission order), so
+    // they complete in simulated-time order whatever thread or timing the caller has
+    private long[] pendingTimes = new long[16];
+    private long[] pendingOrder = new long[16];
+    private int[] pendingPages = new int[16];
+
+    private int outstandingCount; // Requests submitted but not yet completed
+    private int maxOutstanding; // Highest number of requests outstanding at once
+    private long submittedCount; // Total requests submitted
+    private long totalServiceNanos; // Sum of service times (the cost if faults were serialized)
+    private long totalQueueWaitNanos; // Time requests spent waiting for a free slot
+    private long busyNanos; // Time during which at least one request was in service
+    private long busyUntil; // Latest completion time seen so far
+
+    // Constructor
+    public AsyncDiskQueue(int queueDepth, long serviceTimeNanos) {
+        if (queueDepth <= 0) {
+            throw new IllegalArgumentException("Queue depth must be greater than 0.");
+        }
+        if (serviceTimeNanos < 0) {
+            throw new IllegalArgumentException("Service time must be non-negative.");
+        }
+        this.queueDepth = queueDepth;
+        this.serviceTimeNanos = serviceTimeNanos;
+        this.channelFreeAt = new long[queueDepth];
+    }
+
+    /**
+     * Queue a page read issued at the given simulated time.
+     * The request is placed on the slot that frees up first, so up to queueDepth
+     * requests are serviced in parallel and the rest wait their turn. It stays
+     * outstanding until completeNext takes it.
+     * @param pageNumber The page being read.
+     * @param issueTime The simulated time at which the fault was raised.
+     * @return The simulated completion time of the read.
+     */
+    public synchronized long submit(int pageNumber, long issueTime) {
+        int slot = 0;
+        for (int i = 1; i < queueDepth; i++) {
+            if (channelFreeAt[i] < channelFreeAt[slot]) {
+                slot = i;
+            }
+        }
+        long startTime = Math.max(issueTime, channelFreeAt[slot]);
+        long completionTime = startTime + serviceTimeNanos;
+        channelFreeAt[slot] = completionTime;
+
+        submittedCount++;
+        totalServiceNanos += serviceTimeNanos;
+        totalQueueWaitNanos += startTime - issueTime;
+        busyNanos += Math.max(0, completionTime - Math.max(startTime, busyUntil));
+        busyUntil = Math.max(busyUntil, completionTime);
+
+        if (outstandingCount == pendingTimes.length) {
+            pendingTimes = Arrays.copyOf(pendingTimes, outstandingCount * 2);
+            pendingOrder = Arrays.copyOf(pendingOrder, outstandingCount * 2);
+            pendingPages = Arrays.copyOf(pendingPages, outstandingCount * 2);
+        }
+        int index = outstandingCount++;
+        maxOutstanding = Math.max(maxOutstanding, outstandingCount);
+        while (index > 0 && before(completionTime, submittedCount, (index - 1) / 2)) {
+            move((index - 1) / 2, index);
+            index = (index - 1) / 2;
+        }
+        pendingTimes[index] = completionTime;
+        pendingOrder[index] = submittedCount;
+        pendingPages[index] = pageNumber;
+        return completionTime;
+    }
+
+    /**
+     * @return Simulated completion time of the earliest outstanding read, or Long.MAX_VALUE if none.
+     */
+    public synchronized long getNextCompletionTime() {
+        return outstandingCount == 0 ? Long.MAX_VALUE : pendingTimes[0];
+    }
+
+    /**
+     * Take the earliest outstanding read off the queue; its completion time is
+     * getNextCompletionTime as read just before.
+     * @return The page it read, or -1 if no read is outstanding.
+     */
+    public synchronized int completeNext() {
+        if (outstandingCount == 0) {
+            return -1;
+        }
+        int pageNumber = pendingPages[0];
+        int last = --outstandingCount;
+        long time = pendingTimes[last];
+        long order = pendingOrder[last];
+        int page = pendingPages[last];
+        int index = 0;
+        while (2 * index + 1 < outstandingCount) {
+            int child = 2 * index + 1;
+            if (child + 1 < outstandingCount && before(pendingTimes[child + 1], pendingOrder[child + 1], child)) {
+                child++;
+            }
+            if (before(time, order, child)) {
+                break;
+            }
+            move(child, index);
+            index = child;
+        }
+        pendingTimes[index] = time;
+        pendingOrder[index] = order;
+        pendingPages[index] = page;
+        return pageNumber;
+    }
+
+    // True if a request orders before the one at a heap position
+    private boolean before(long time, long order, int index) {
+        return time < pendingTimes[index] || (time == pendingTimes[index] && order < pendingOrder[index]);
+    }
+
+    private void move(int from, int to) {
+        pendingTimes[to] = pendingTimes[from];
+        pendingOrder[to] = pendingOrder[from];
+        pendingPages[to] = pendingPages[from];
+    }
+
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    public long getServiceTimeNanos() {
+        return serviceTimeNanos;
+    }
+
+    public synchronized int getOutstandingCount() {
+        return outstandingCount;
+    }
+
+    public synchronized int getMaxOutstanding() {
+        return maxOutstanding;
+    }
+
+    public synchronized long getSubmittedCount() {
+        return submittedCount;
+    }
+
+    public synchronized long getTotalServiceNanos() {
+        return totalServiceNanos;
+    }
+
+    public synchronized long getTotalQueueWaitNanos() {
+        return totalQueueWaitNanos;
+    }
+
+    public synchronized long getBusyNanos() {
+        return busyNanos;
+    }
+
+    /**
+     * Get the share of fault latency hidden by servicing requests in parallel.
+     * @return The hidden fraction as a percentage (0 when nothing overlapped).
+     */
+    public synchronized double getOverlapPercentage() {
+        return totalServiceNanos == 0 ? 0 : (1 - busyNanos / (double) totalServiceNanos) * 100;
+    }
+
+    /**
+     * Save the slot timeline and statistics. The queue must have no outstanding requests.
+     * @param out The snapshot being written.
+     */
+    public synchronized void writeSnapshot(SnapshotOutput out) throws IOException {
+        if (outstandingCount > 0) {
+            throw new IllegalStateException("Cannot snapshot the disk queue with requests outstanding.");
+        }
+        out.putLongArray(channelFreeAt);
+        out.putInt(maxOutstanding);
+        out.putLong(submittedCount);
+        out.putLong(totalServiceNanos);
+        out.putLong(totalQueueWaitNanos);
+        out.putLong(busyNanos);
+        out.putLong(busyUntil);
+    }
+
+    /**
+     * Restore the state saved by writeSnapshot into a queue of the same depth.
+     * @param in The snapshot being read.
+     */
+    public synchronized void readSnapshot(SnapshotInput in) throws IOException {
+        long[] savedFreeAt = in.getLongArray();
+        if (savedFreeAt.length != queueDepth) {
+            throw new IOException("Snapshot disk queue has depth " + savedFreeAt.length + ", expected " + queueDepth + ".");
+        }
+        System.arraycopy(savedFreeAt, 0, channelFreeAt, 0, queueDepth);
+        maxOutstanding = in.getInt();
+        submittedCount = in.getLong();
+        totalServiceNanos = in.getLong();
+        totalQueueWaitNanos = in.getLong();
+        busyNanos = in.getLong();
+        busyUntil = in.getLong();
+    }
+
+    /**
+     * Print disk queue statistics.
+     */
+    public synchronized void printStatistics() {
+        System.out.println("Disk Queue Statistics:");
+        System.out.println("Queue Depth: " + queueDepth);
+        System.out.println("Requests: " + submittedCount);
+        System.out.println("Max Outstanding: " + maxOutstanding);
+        System.out.println("Serialized Service Time: " + totalServiceNanos + " ns");
+        System.out.println("Disk Busy Time: " + busyNanos + " ns");
+        System.out.println("Queue Wait Time: " + totalQueueWaitNanos + " ns");
+        System.out.println("Latency Hidden by Overlap: " + String.format("%.2f", getOverlapPercentage()) + "%");
+    }
+}
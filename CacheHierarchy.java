@@ -0,0 +1,285 @@
+package org.example.Model;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+public class CacheHierarchy {
+    public enum Replacement {
+        LRU,
+        FIFO,
+        RANDOM
+    }
+
+    private final int levelCount;
+    private final long[] sizes; // Bytes per level, L1 first
+    private final int[] ways;
+    private final int[] lineSizes;
+    private final Replacement[] replacements;
+    private final long[] hitNanos; // Latency of a hit at each level
+    private final int[] sets;
+    private final int[] lineShifts; // log2 of each line size
+    private final long[][] tags; // Per level, sets * ways line addresses (set-major), -1 if empty
+    private final long[][] stamps; // Per level, the last use (LRU) or fill (FIFO) of each line
+    private long clock;
+    private long randomState;
+    private final long[] accesses; // Per level, data and page-walk accesses that reached it
+    private final long[] misses;
+    private final long[] walkAccesses; // Per level, accesses made by page-table walks
+    private final long[] walkMisses;
+
+    /**
+     * A desktop-like hierarchy: 32 KB 8-way L1 (1 ns), 1 MB 16-way L2 (4 ns) and an
+     * 8 MB 16-way last-level cache (12 ns), 64-byte lines, LRU.
+     */
+    public CacheHierarchy() {
+        this(parseLevels("32768/8/64/LRU/1,1048576/16/64/LRU/4,8388608/16/64/LRU/12"));
+    }
+
+    private CacheHierarchy(String[][] levels) {
+        this(Arrays.stream(levels).mapToLong(level -> Long.parseLong(level[0])).toArray(),
+                Arrays.stream(levels).mapToInt(level -> Integer.parseInt(level[1])).toArray(),
+                Arrays.stream(levels).mapToInt(level -> Integer.parseInt(level[2])).toArray(),
+                Arrays.stream(levels).map(level -> Replacement.valueOf(level[3].toUpperCase())).toArray(Replacement[]::new),
+                Arrays.stream(levels).mapToLong(level -> Long.parseLong(level[4])).toArray());
+    }
+
+    /**
+     * @param sizes Capacity of each level in bytes, L1 first.
+     * @param ways Associativity of each level.
+     * @param lineSizes Line size of each level in bytes (a power of 2).
+     * @param replacements Replacement policy of each level.
+     * @param hitNanos Latency of a hit at each level.
+     */
+    public CacheHierarchy(long[] sizes, int[] ways, int[] lineSizes, Replacement[] replacements, long[] hitNanos) {
+        levelCount = sizes.length;
+        if (levelCount == 0 || ways.length != levelCount || lineSizes.length != levelCount
+                || replacements.length != levelCount || hitNanos.length != levelCount) {
+            throw new IllegalArgumentException("Every cache level needs a size, associativity, line size, replacement and latency.");
+        }
+        this.sizes = sizes.clone();
+        this.ways = ways.clone();
+        this.lineSizes = lineSizes.clone();
+        this.replacements = replacements.clone();
+        this.hitNanos = hitNanos.clone();
+        this.sets = new int[levelCount];
+        this.lineShifts = new int[levelCount];
+        this.tags = new long[levelCount][];
+        this.stamps = new long[levelCount][];
+        for (int level = 0; level < levelCount; level++) {
+            if (lineSizes[level] <= 0 || Integer.bitCount(lineSizes[level]) != 1 || ways[level] <= 0 || hitNanos[level] < 0
+                    || sizes[level] % ((long) ways[level] * lineSizes[level]) != 0 || sizes[level] == 0) {
+                throw new IllegalArgumentException("Cache level " + (level + 1)
+                        + " must hold a whole number of sets of power-of-2 lines, with a non-negative latency.");
+            }
+            sets[level] = Math.toIntExact(sizes[level] / ((long) ways[level] * lineSizes[level]));
+            lineShifts[level] = Integer.numberOfTrailingZeros(lineSizes[level]);
+            tags[level] = new long[sets[level] * ways[level]];
+            Arrays.fill(tags[level], -1);
+            stamps[level] = new long[tags[level].length];
+        }
+        this.randomState = 0x9E3779B97F4A7C15L;
+        this.accesses = new long[levelCount];
+        this.misses = new long[levelCount];
+        this.walkAccesses = new long[levelCount];
+        this.walkMisses = new long[levelCount];
+    }
+
+    /**
+     * Build a hierarchy from its specification, as getSpecification writes it.
+     * @param specification Levels separated by commas, L1 first, each
+     *                      "size/ways/lineSize/replacement/hitNanos", e.g. "32768/8/64/LRU/1".
+     * @return The hierarchy.
+     */
+    public static CacheHierarchy parse(String specification) {
+        try {
+            return new CacheHierarchy(parseLevels(specification));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cache specification \"" + specification
+                    + "\", expected size/ways/lineSize/replacement/hitNanos per level.", e);
+        }
+    }
+
+    private static String[][] parseLevels(String specification) {
+        return Arrays.stream(specification.split(",")).map(level -> level.trim().split("/"))
+                .peek(fields -> {
+                    if (fields.length != 5) {
+                        throw new IllegalArgumentException("A cache level has five fields.");
+                    }
+                }).toArray(String[][]::new);
+    }
+
+    public String getSpecification() {
+        StringBuilder specification = new StringBuilder();
+        for (int level = 0; level < levelCount; level++) {
+            specification.append(level == 0 ? "" : ",").append(sizes[level]).append('/').append(ways[level]).append('/')
+                    .append(lineSizes[level]).append('/').append(replacements[level]).append('/').append(hitNanos[level]);
+        }
+        return specification.toString();
+    }
+
+    /**
+     * Look up a physical address level by level; a miss fills the line into every level
+     * that missed, so the levels are neither inclusive nor exclusive.
+     * @param physicalAddress The byte address.
+     * @param pageWalk True if a page-table walk reads it, counted apart from data accesses.
+     * @return The level that hit (0 for L1), or -1 if memory has to be read.
+     */
+    public synchronized int access(long physicalAddress, boolean pageWalk) {
+        int hitLevel = -1;
+        for (int level = 0; level < levelCount; level++) {
+            accesses[level]++;
+            if (pageWalk) {
+                walkAccesses[level]++;
+            }
+            if (lookup(level, physicalAddress >>> lineShifts[level])) {
+                hitLevel = level;
+                break;
+            }
+            misses[level]++;
+            if (pageWalk) {
+                walkMisses[level]++;
+            }
+        }
+        for (int level = (hitLevel == -1 ? levelCount : hitLevel) - 1; level >= 0; level--) {
+            fill(level, physicalAddress >>> lineShifts[level]);
+        }
+        return hitLevel;
+    }
+
+    private boolean lookup(int level, long line) {
+        int first = (int) (line % sets[level]) * ways[level];
+        long[] levelTags = tags[level];
+        for (int way = first; way < first + ways[level]; way++) {
+            if (levelTags[way] == line) {
+                if (replacements[level] == Replacement.LRU) {
+                    stamps[level][way] = ++clock;
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void fill(int level, long line) {
+        int first = (int) (line % sets[level]) * ways[level];
+        long[] levelTags = tags[level];
+        long[] levelStamps = stamps[level];
+        int victim = -1;
+        for (int way = first; way < first + ways[level] && victim == -1; way++) {
+            if (levelTags[way] == -1) {
+                victim = way;
+            }
+        }
+        if (victim == -1) {
+            if (replacements[level] == Replacement.RANDOM) {
+                victim = first + (int) Long.remainderUnsigned(nextRandom(), ways[level]);
+            } else {
+                victim = first; // Oldest use (LRU) or oldest fill (FIFO)
+                for (int way = first + 1; way < first + ways[level]; way++) {
+                    if (levelStamps[way] < levelStamps[victim]) {
+                        victim = way;
+                    }
+                }
+            }
+        }
+        levelTags[victim] = line;
+        levelStamps[victim] = ++clock;
+    }
+
+    private long nextRandom() {
+        randomState ^= randomState >>> 12;
+        randomState ^= randomState << 25;
+        randomState ^= randomState >>> 27;
+        return randomState * 0x2545F4914F6CDD1DL;
+    }
+
+    /**
+     * Drop the cached lines of a physical range, e.g. a frame refilled from disk.
+     * @param physicalAddress First byte of the range.
+     * @param length Bytes in the range.
+     */
+    public synchronized void invalidate(long physicalAddress, int length) {
+        for (int level = 0; level < levelCount; level++) {
+            long lastLine = (physicalAddress + length - 1) >>> lineShifts[level];
+            for (long line = physicalAddress >>> lineShifts[level]; line <= lastLine; line++) {
+                int first = (int) (line % sets[level]) * ways[level];
+                for (int way = first; way < first + ways[level]; way++) {
+                    if (tags[level][way] == line) {
+                        tags[level][way] = -1;
+                    }
+                }
+            }
+        }
+    }
+
+    public int getLevelCount() {
+        return levelCount;
+    }
+
+    // Latency of a hit at a level (0 for L1)
+    public long getHitNanos(int level) {
+        return hitNanos[level];
+    }
+
+    public synchronized long getMisses(int level) {
+        return misses[level];
+    }
+
+    public synchronized long getWalkMisses(int level) {
+        return walkMisses[level];
+    }
+
+    private String getLevelName(int level) {
+        return level == levelCount - 1 && levelCount > 1 ? "LLC" : "L" + (level + 1);
+    }
+
+    /**
+     * Hit ratio of each level, and the accesses and misses of page-table walks apart.
+     * @return A one-line summary.
+     */
+    public synchronized String getStatistics() {
+        StringBuilder summary = new StringBuilder("CPU Caches:");
+        for (int level = 0; level < levelCount; level++) {
+            summary.append(level == 0 ? " " : "; ").append(getLevelName(level)).append(' ').append(sizes[level] / 1024)
+                    .append(" KB ").append(ways[level]).append("-way ").append(replacements[level]).append(": ")
+                    .append(String.format("%.2f", accesses[level] == 0 ? 0.0 : 100.0 * (accesses[level] - misses[level]) / accesses[level]))
+                    .append("% hits of ").append(accesses[level]).append(", page walks ").append(walkMisses[level])
+                    .append(" misses of ").append(walkAccesses[level]);
+        }
+        return summary.toString();
+    }
+
+    /**
+     * Save the cached lines and statistics (the specification is saved by the caller).
+     * @param out The snapshot being written.
+     */
+    public synchronized void writeSnapshot(SnapshotOutput out) throws IOException {
+        for (int level = 0; level < levelCount; level++) {
+            out.putLongArray(tags[level]);
+            out.putLongArray(stamps[level]);
+        }
+        out.putLong(clock);
+        out.putLong(randomState);
+        out.putLongArray(accesses);
+        out.putLongArray(misses);
+        out.putLongArray(walkAccesses);
+        out.putLongArray(walkMisses);
+    }
+
+    /**
+     * Restore the state saved by writeSnapshot.
+     * @param in The snapshot being read.
+     */
+    public synchronized void readSnapshot(SnapshotInput in) throws IOException {
+        for (int level = 0; level < levelCount; level++) {
+            System.arraycopy(in.getLongArray(), 0, tags[level], 0, tags[level].length);
+            System.arraycopy(in.getLongArray(), 0, stamps[level], 0, stamps[level].length);
+        }
+        clock = in.getLong();
+        randomState = in.getLong();
+        System.arraycopy(in.getLongArray(), 0, accesses, 0, levelCount);
+        System.arraycopy(in.getLongArray(), 0, misses, 0, levelCount);
+        System.arraycopy(in.getLongArray(), 0, walkAccesses, 0, levelCount);
+        System.arraycopy(in.getLongArray(), 0, walkMisses, 0, levelCount);
+    }
+}
@@ -0,0 +1,348 @@
+package org.example.Model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+public class CompressedSwapPool {
+    public static final int SLOT_SIZE = 64; // Bytes per pool slot; a compressed page occupies whole slots
+
+    private final int pageSize; // Bytes per uncompressed page
+    private final int compressionLevel; // Deflater level, 1 (fastest) to 9 (smallest)
+    private final int maxCompressedLength; // Pages that compress worse than this are rejected and go to disk
+    private final long compressNanos; // Simulated CPU time to compress one page
+    private final long decompressNanos; // Simulated CPU time to decompress one page
+
+    private final ByteBuffer pool; // Off-heap storage, slotCount * SLOT_SIZE bytes
+    private final int slotCount;
+    private final int[] freeSlots; // Stack of unused slots
+    private int freeSlotCount;
+    private int[][] entrySlots; // Slots holding each page's compressed data, in order; null when not stored
+    private int[] compressedLengths; // Compressed bytes per stored page (the page arrays grow with copy-on-write pages)
+    private final BitSet staleOnDisk; // Stored pages that were dirty when evicted, so their disk copy is out of date
+
+    // Stored pages in LRU order, doubly linked through page-indexed arrays
+    private int[] lruPrevious;
+    private int[] lruNext;
+    private int lruOldest = -1;
+    private int lruNewest = -1;
+    private int storedCount;
+    private long storedCompressedBytes;
+
+    private final Deflater deflater;
+    private final Inflater inflater;
+    private final byte[] pageBuffer; // Uncompressed page being compressed, or the last page decompressed
+    private final byte[] stagedBuffer; // Output of compress, waiting for commit
+    private final byte[] gatherBuffer; // Compressed bytes of one entry, gathered from its slots
+    private int stagedLength = -1;
+
+    private final LongAdder storeCounter;
+    private final LongAdder rejectCounter;
+    private final LongAdder loadCounter;
+    private final LongAdder uncompressedBytes; // Bytes of every page stored so far, for the compression ratio
+    private final LongAdder compressedBytes; // Their compressed size
+    private final LatencyHistogram compressCpu; // Measured nanoseconds spent in the compressor per page
+    private final LatencyHistogram decompressCpu; // Measured nanoseconds spent in the decompressor per page
+
+    // Constructor with the simulated costs of Deflater.BEST_SPEED on a 4 KB page
+    public CompressedSwapPool(int virtualPages, int pageSize, long capacityBytes, int compressionLevel, MetricsRegistry metricsRegistry) {
+        this(virtualPages, pageSize, capacityBytes, compressionLevel, 20_000, 5_000, metricsRegistry);
+    }
+
+    /**
+     * Creates a pool of compressed pages, like zswap in front of a swap device.
+     * The simulated costs are charged to the clock; the real time spent compressing is measured separately.
+     * @param virtualPages Number of virtual pages that can be stored.
+     * @param pageSize Bytes per page.
+     * @param capacityBytes Size of the pool; rounded down to whole slots.
+     * @param compressionLevel Deflater level, 1 (fastest) to 9 (smallest).
+     * @param compressNanos Simulated time to compress one page.
+     * @param decompressNanos Simulated time to decompress one page.
+     * @param metricsRegistry Registry the pool reports stores, loads and CPU time into.
+     */
+    public CompressedSwapPool(int virtualPages, int pageSize, long capacityBytes, int compressionLevel,
+                              long compressNanos, long decompressNanos, MetricsRegistry metricsRegistry) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Compressed swap needs pages with contents.");
+        }
+        if (capacityBytes < SLOT_SIZE || capacityBytes / SLOT_SIZE > Integer.MAX_VALUE / SLOT_SIZE) {
+            throw new IllegalArgumentException("Pool size must be between " + SLOT_SIZE + " bytes and "
+                    + (Integer.MAX_VALUE / SLOT_SIZE) * (long) SLOT_SIZE + " bytes.");
+        }
+        if (compressionLevel < Deflater.BEST_SPEED || compressionLevel > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("Compression level must be between 1 and 9.");
+        }
+        if (compressNanos < 0 || decompressNanos < 0) {
+            throw new IllegalArgumentException("Compression costs must be non-negative.");
+        }
+        this.pageSize = pageSize;
+        this.compressionLevel = compressionLevel;
+        this.maxCompressedLength = pageSize * 3 / 4; // zram's "huge" class: not worth storing compressed
+        this.compressNanos = compressNanos;
+        this.decompressNanos = decompressNanos;
+        this.slotCount = (int) (capacityBytes / SLOT_SIZE);
+        this.pool = ByteBuffer.allocateDirect(slotCount * SLOT_SIZE);
+        this.freeSlots = new int[slotCount];
+        for (int i = 0; i < slotCount; i++) {
+            freeSlots[i] = slotCount - 1 - i; // Low slots are handed out first
+        }
+        this.freeSlotCount = slotCount;
+        this.entrySlots = new int[virtualPages][];
+        this.compressedLengths = new int[virtualPages];
+        this.staleOnDisk = new BitSet(virtualPages);
+        this.lruPrevious = new int[virtualPages];
+        this.lruNext = new int[virtualPages];
+        this.deflater = new Deflater(compressionLevel);
+        this.inflater = new Inflater();
+        this.pageBuffer = new byte[pageSize];
+        this.stagedBuffer = new byte[maxCompressedLength];
+        this.gatherBuffer = new byte[maxCompressedLength];
+        this.storeCounter = metricsRegistry.counter(MetricsRegistry.ZSWAP_STORES);
+        this.rejectCounter = metricsRegistry.counter(MetricsRegistry.ZSWAP_REJECTS);
+        this.loadCounter = metricsRegistry.counter(MetricsRegistry.ZSWAP_LOADS);
+        this.uncompressedBytes = metricsRegistry.counter(MetricsRegistry.ZSWAP_UNCOMPRESSED_BYTES);
+        this.compressedBytes = metricsRegistry.counter(MetricsRegistry.ZSWAP_COMPRESSED_BYTES);
+        this.compressCpu = metricsRegistry.histogram(MetricsRegistry.ZSWAP_COMPRESS_CPU);
+        this.decompressCpu = metricsRegistry.histogram(MetricsRegistry.ZSWAP_DECOMPRESS_CPU);
+    }
+
+    /**
+     * Compress a page and hold the result until commit. Pages that compress to more than
+     * three quarters of a page, or to more than the whole pool, are rejected.
+     * @param contents The page contents (pageSize bytes from the buffer's position).
+     * @return The compressed length, or -1 if the page is rejected.
+     */
+    public synchronized int compress(ByteBuffer contents) {
+        long start = System.nanoTime();
+        contents.get(contents.position(), pageBuffer, 0, pageSize);
+        deflater.reset();
+        deflater.setInput(pageBuffer, 0, pageSize);
+        deflater.finish();
+        int length = deflater.deflate(stagedBuffer, 0, stagedBuffer.length);
+        boolean fits = deflater.finished() && slotsFor(length) <= slotCount;
+        compressCpu.record(System.nanoTime() - start);
+        stagedLength = fits ? length : -1;
+        if (!fits) {
+            rejectCounter.increment();
+        }
+        return stagedLength;
+    }
+
+    /**
+     * @param compressedLength A length returned by compress.
+     * @return True if the pool has enough free slots for it without evicting anything.
+     */
+    public synchronized boolean hasRoomFor(int compressedLength) {
+        return slotsFor(compressedLength) <= freeSlotCount;
+    }
+
+    /**
+     * Store the page compressed by the last call to compress as the most recently used entry.
+     * The caller makes room first (hasRoomFor), writing back entries from getLeastRecentPage.
+     * @param pageNumber The page.
+     * @param stale True if the disk copy of the page is out of date (the page was dirty).
+     */
+    public synchronized void commit(int pageNumber, boolean stale) {
+        if (stagedLength == -1 || !hasRoomFor(stagedLength)) {
+            throw new IllegalStateException("No compressed page is staged, or the pool has no room for it.");
+        }
+        remove(pageNumber);
+        putEntry(pageNumber, stagedBuffer, stagedLength, stale);
+        storeCounter.increment();
+        uncompressedBytes.add(pageSize);
+        compressedBytes.add(stagedLength);
+        stagedLength = -1;
+    }
+
+    private void putEntry(int pageNumber, byte[] data, int length, boolean stale) {
+        if (pageNumber >= entrySlots.length) {
+            int pageCapacity = Math.max(pageNumber + 1, entrySlots.length * 2);
+            entrySlots = Arrays.copyOf(entrySlots, pageCapacity);
+            compressedLengths = Arrays.copyOf(compressedLengths, pageCapacity);
+            lruPrevious = Arrays.copyOf(lruPrevious, pageCapacity);
+            lruNext = Arrays.copyOf(lruNext, pageCapacity);
+        }
+        int[] slots = new int[slotsFor(length)];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = freeSlots[--freeSlotCount];
+            int offset = i * SLOT_SIZE;
+            pool.put(slots[i] * SLOT_SIZE, data, offset, Math.min(SLOT_SIZE, length - offset));
+        }
+        entrySlots[pageNumber] = slots;
+        compressedLengths[pageNumber] = length;
+        staleOnDisk.set(pageNumber, stale);
+        storedCount++;
+        storedCompressedBytes += length;
+        // Link in as the newest entry
+        lruPrevious[pageNumber] = lruNewest;
+        lruNext[pageNumber] = -1;
+        if (lruNewest != -1) {
+            lruNext[lruNewest] = pageNumber;
+        } else {
+            lruOldest = pageNumber;
+        }
+        lruNewest = pageNumber;
+    }
+
+    /**
+     * Decompress a stored page. The entry stays in the pool until removed.
+     * @param pageNumber A stored page.
+     * @return The page contents, valid until the next call on this pool.
+     */
+    public synchronized ByteBuffer load(int pageNumber) {
+        if (!contains(pageNumber)) {
+            throw new IllegalArgumentException("Page " + pageNumber + " is not in the compressed pool.");
+        }
+        long start = System.nanoTime();
+        int length = gather(pageNumber, gatherBuffer);
+        inflater.reset();
+        inflater.setInput(gatherBuffer, 0, length);
+        try {
+            if (inflater.inflate(pageBuffer, 0, pageSize) != pageSize) {
+                throw new IllegalStateException("Compressed page " + pageNumber + " is truncated.");
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Compressed page " + pageNumber + " is corrupt.", e);
+        }
+        decompressCpu.record(System.nanoTime() - start);
+        return ByteBuffer.wrap(pageBuffer).asReadOnlyBuffer();
+    }
+
+    /**
+     * Decompress a page being faulted back in and drop it from the pool (an exclusive load).
+     * @param pageNumber A stored page.
+     * @param target Buffer to copy the contents into, from its position.
+     */
+    public synchronized void loadInto(int pageNumber, ByteBuffer target) {
+        target.put(target.position(), load(pageNumber), 0, pageSize);
+        loadCounter.increment();
+        remove(pageNumber);
+    }
+
+    private int gather(int pageNumber, byte[] target) {
+        int[] slots = entrySlots[pageNumber];
+        int length = compressedLengths[pageNumber];
+        for (int i = 0; i < slots.length; i++) {
+            int offset = i * SLOT_SIZE;
+            pool.get(slots[i] * SLOT_SIZE, target, offset, Math.min(SLOT_SIZE, length - offset));
+        }
+        return length;
+    }
+
+    /**
+     * Drop a stored page and free its slots.
+     * @param pageNumber The page; ignored if it is not stored.
+     */
+    public synchronized void remove(int pageNumber) {
+        int[] slots = pageNumber < entrySlots.length ? entrySlots[pageNumber] : null;
+        if (slots == null) {
+            return;
+        }
+        for (int slot : slots) {
+            freeSlots[freeSlotCount++] = slot;
+        }
+        entrySlots[pageNumber] = null;
+        staleOnDisk.clear(pageNumber);
+        storedCount--;
+        storedCompressedBytes -= compressedLengths[pageNumber];
+        int previous = lruPrevious[pageNumber];
+        int next = lruNext[pageNumber];
+        if (previous != -1) {
+            lruNext[previous] = next;
+        } else {
+            lruOldest = next;
+        }
+        if (next != -1) {
+            lruPrevious[next] = previous;
+        } else {
+            lruNewest = previous;
+        }
+    }
+
+    private static int slotsFor(int compressedLength) {
+        return (compressedLength + SLOT_SIZE - 1) / SLOT_SIZE;
+    }
+
+    public synchronized boolean contains(int pageNumber) {
+        return pageNumber < entrySlots.length && entrySlots[pageNumber] != null;
+    }
+
+    public synchronized boolean isStale(int pageNumber) {
+        return staleOnDisk.get(pageNumber);
+    }
+
+    /**
+     * @return The page stored longest ago, the next to be written back to disk, or -1 if the pool is empty.
+     */
+    public synchronized int getLeastRecentPage() {
+        return lruOldest;
+    }
+
+    public synchronized int getStoredPageCount() {
+        return storedCount;
+    }
+
+    public synchronized long getStoredCompressedBytes() {
+        return storedCompressedBytes;
+    }
+
+    // Bytes taken by stored pages, including the unused end of their last slot
+    public synchronized long getUsedBytes() {
+        return (long) (slotCount - freeSlotCount) * SLOT_SIZE;
+    }
+
+    public long getCapacityBytes() {
+        return (long) slotCount * SLOT_SIZE;
+    }
+
+    public int getCompressionLevel() {
+        return compressionLevel;
+    }
+
+    public long getCompressNanos() {
+        return compressNanos;
+    }
+
+    public long getDecompressNanos() {
+        return decompressNanos;
+    }
+
+    /**
+     * Save the stored pages, oldest first, with their compressed bytes (the configuration is saved by the caller).
+     * @param out The snapshot being written.
+     */
+    public synchronized void writeSnapshot(SnapshotOutput out) throws IOException {
+        out.putInt(storedCount);
+        for (int page = lruOldest; page != -1; page = lruNext[page]) {
+            int length = gather(page, gatherBuffer);
+            out.putInt(page);
+            out.putBoolean(staleOnDisk.get(page));
+            out.putInt(length);
+            out.putBytes(gatherBuffer, 0, length);
+        }
+    }
+
+    /**
+     * Restore the state saved by writeSnapshot into an empty pool of the same configuration.
+     * Entries are packed into slots afresh, so the slot layout may differ from the saved pool.
+     * @param in The snapshot being read.
+     */
+    public synchronized void readSnapshot(SnapshotInput in) throws IOException {
+        int count = in.getInt();
+        for (int i = 0; i < count; i++) {
+            int page = in.getInt();
+            boolean stale = in.getBoolean();
+            int length = in.getInt();
+            if (length > gatherBuffer.length || slotsFor(length) > freeSlotCount) {
+                throw new IOException("Snapshot compressed pool does not fit the configured pool.");
+            }
+            in.getBytes(gatherBuffer, 0, length);
+            putEntry(page, gatherBuffer, length, stale);
+        }
+    }
+}
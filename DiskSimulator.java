@@ -1,49 +1,213 @@
-package org.example.Model;
-
-import java.util.HashMap;
-import java.util.Map;
-
-public class DiskSimulator {
-    // Map to store pages in "disk," using page number as the key and Page object as the value
-    private Map<Integer, Page> diskStorage;
-
-    public DiskSimulator() {
-        diskStorage = new HashMap<>();
-    }
-
-    // Adds a page to disk storage (when it is removed from physical memory)
-    public void storePage(Page page) {
-        diskStorage.put(page.getPageNumber(), page);
-        page.setInMemory(false); // Mark page as not in memory
-    }
-
-    // Retrieves a page from disk storage (when it needs to be loaded back into physical memory)
-    public Page retrievePage(int pageNumber) {
-        Page page = diskStorage.get(pageNumber);
-        if (page != null) {
-            diskStorage.remove(pageNumber); // Remove from disk once it's loaded back
-            page.setInMemory(true); // Mark page as in memory
-        }
-        return page;
-    }
-
-    // Checks if a specific page is stored on disk
-    public boolean isPageOnDisk(int pageNumber) {
-        return diskStorage.containsKey(pageNumber);
-    }
-
-    // Removes a page from disk storage (used when a page is permanently removed)
-    public void removePage(int pageNumber) {
-        diskStorage.remove(pageNumber);
-    }
-
-    // Clears the entire disk storage (useful for resetting the simulation)
-    public void clearDisk() {
-        diskStorage.clear();
-    }
-
-    // Returns the total number of pages currently stored on disk
-    public int getDiskPageCount() {
-        return diskStorage.size();
-    }
-}
+package org.example.Model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class DiskSimulator {
+    // Map to store pages in "disk," using page number as the key and Page object as the value
+    private Map<Integer, Page> diskStorage;
+    private static final int MAX_CHUNK_BYTES = 1 << 26; // Off-heap content storage grows in chunks of at most 64 MB
+
+    // Contents of pages that were written back, one slot per page in direct-buffer chunks
+    // as in PhysicalMemory, so swapped-out pages cost no heap; pages never written read as zeros
+    private int slotSize; // Bytes per page, fixed by the first write
+    private int slotsPerChunk;
+    private final List<ByteBuffer> chunks;
+    private int[] pageSlots; // Slot holding each page's contents, -1 if the page was never written back
+    private int[] freeSlots; // Stack of slots released by discarded pages
+    private int freeSlotCount;
+    private int usedSlots; // Slots handed out so far, free or not
+    private long readLatencyNanos; // Simulated time to read one page from disk
+    private long writeLatencyNanos; // Simulated time to write one page to disk
+
+    // Default constructor with typical SSD latencies
+    public DiskSimulator() {
+        this(100_000, 200_000);
+    }
+
+    public DiskSimulator(long readLatencyNanos, long writeLatencyNanos) {
+        if (readLatencyNanos < 0 || writeLatencyNanos < 0) {
+            throw new IllegalArgumentException("Disk latencies must be non-negative.");
+        }
+        diskStorage = new HashMap<>();
+        chunks = new ArrayList<>();
+        pageSlots = new int[0];
+        freeSlots = new int[0];
+        this.readLatencyNanos = readLatencyNanos;
+        this.writeLatencyNanos = writeLatencyNanos;
+    }
+
+    // Adds a page to disk storage (when it is removed from physical memory)
+    public void storePage(Page page) {
+        diskStorage.put(page.getPageNumber(), page);
+        page.setInMemory(false); // Mark page as not in memory
+    }
+
+    // Writes a resident page back to disk without evicting it (background write-back)
+    public void writePage(Page page) {
+        diskStorage.put(page.getPageNumber(), page);
+        page.setDirty(false);
+    }
+
+    // Saves a page's contents (e.g., a frame being written back)
+    public void writePageContents(int pageNumber, ByteBuffer contents) {
+        if (slotSize == 0) {
+            slotSize = contents.remaining();
+            slotsPerChunk = Math.max(1, MAX_CHUNK_BYTES / Math.max(1, slotSize));
+        } else if (contents.remaining() != slotSize) {
+            throw new IllegalArgumentException("Page contents must be " + slotSize + " bytes.");
+        }
+        int slot = getSlot(pageNumber);
+        if (slot == -1) {
+            slot = allocateSlot();
+            if (pageNumber >= pageSlots.length) {
+                int oldLength = pageSlots.length;
+                pageSlots = Arrays.copyOf(pageSlots, Math.max(pageNumber + 1, oldLength * 2));
+                Arrays.fill(pageSlots, oldLength, pageSlots.length, -1);
+            }
+            pageSlots[pageNumber] = slot;
+        }
+        chunks.get(slot / slotsPerChunk).put((slot % slotsPerChunk) * slotSize, contents, contents.position(), slotSize);
+    }
+
+    // Copies a page's saved contents into a frame; returns false if the page was never written back
+    public boolean readPageContents(int pageNumber, ByteBuffer target) {
+        int slot = getSlot(pageNumber);
+        if (slot == -1) {
+            return false;
+        }
+        target.put(target.position(), chunks.get(slot / slotsPerChunk), (slot % slotsPerChunk) * slotSize,
+                Math.min(slotSize, target.remaining()));
+        return true;
+    }
+
+    private int getSlot(int pageNumber) {
+        return pageNumber < pageSlots.length ? pageSlots[pageNumber] : -1;
+    }
+
+    // A released slot if there is one, otherwise the next one, adding a chunk when the last is full
+    private int allocateSlot() {
+        if (freeSlotCount > 0) {
+            return freeSlots[--freeSlotCount];
+        }
+        if (usedSlots == chunks.size() * slotsPerChunk) {
+            chunks.add(ByteBuffer.allocateDirect(slotsPerChunk * slotSize));
+        }
+        return usedSlots++;
+    }
+
+    private void releaseSlot(int pageNumber) {
+        int slot = getSlot(pageNumber);
+        if (slot != -1) {
+            pageSlots[pageNumber] = -1;
+            if (freeSlotCount == freeSlots.length) {
+                freeSlots = Arrays.copyOf(freeSlots, Math.max(16, freeSlotCount * 2));
+            }
+            freeSlots[freeSlotCount++] = slot;
+        }
+    }
+
+    // Retrieves a page from disk storage (when it needs to be loaded back into physical memory)
+    public Page retrievePage(int pageNumber) {
+        Page page = diskStorage.get(pageNumber);
+        if (page != null) {
+            diskStorage.remove(pageNumber); // Remove from disk once it's loaded back
+            page.setInMemory(true); // Mark page as in memory
+        }
+        return page;
+    }
+
+    // Checks if a specific page is stored on disk
+    public boolean isPageOnDisk(int pageNumber) {
+        return diskStorage.containsKey(pageNumber);
+    }
+
+    // Removes a page from disk storage (used when a page is permanently removed)
+    public void removePage(int pageNumber) {
+        diskStorage.remove(pageNumber);
+    }
+
+    // Drops a page and its contents (e.g. a page no process maps any more)
+    public void discardPage(int pageNumber) {
+        diskStorage.remove(pageNumber);
+        releaseSlot(pageNumber);
+    }
+
+    // Clears the entire disk storage (useful for resetting the simulation)
+    public void clearDisk() {
+        diskStorage.clear();
+        chunks.clear();
+        pageSlots = new int[0];
+        freeSlotCount = 0;
+        usedSlots = 0;
+    }
+
+    // Saves the latencies, which pages are on disk and the written-back contents
+    public void writeSnapshot(SnapshotOutput out) throws IOException {
+        out.putLong(readLatencyNanos);
+        out.putLong(writeLatencyNanos);
+        int[] storedPages = new int[diskStorage.size()];
+        int index = 0;
+        for (int pageNumber : diskStorage.keySet()) {
+            storedPages[index++] = pageNumber;
+        }
+        out.putIntArray(storedPages);
+        out.putInt(slotSize);
+        out.putIntArray(pageSlots);
+        out.putIntArray(freeSlots, freeSlotCount);
+        out.putInt(usedSlots);
+        out.putInt(chunks.size());
+        for (ByteBuffer chunk : chunks) {
+            out.putBuffer(chunk.duplicate().clear()); // Written in bulk, as PhysicalMemory writes frames
+        }
+    }
+
+    // Restores the state saved by writeSnapshot, resolving stored pages in the restored virtual memory
+    public void readSnapshot(SnapshotInput in, VirtualMemory virtualMemory) throws IOException {
+        readLatencyNanos = in.getLong();
+        writeLatencyNanos = in.getLong();
+        diskStorage.clear();
+        for (int pageNumber : in.getIntArray()) {
+            diskStorage.put(pageNumber, virtualMemory.getPage(pageNumber));
+        }
+        slotSize = in.getInt();
+        slotsPerChunk = Math.max(1, MAX_CHUNK_BYTES / Math.max(1, slotSize));
+        pageSlots = in.getIntArray();
+        freeSlots = in.getIntArray();
+        freeSlotCount = freeSlots.length;
+        usedSlots = in.getInt();
+        chunks.clear();
+        int chunkCount = in.getInt();
+        for (int i = 0; i < chunkCount; i++) {
+            chunks.add(in.mapPrivate((long) slotsPerChunk * slotSize)); // Mapped copy-on-write, like the frames
+        }
+    }
+
+    // Returns the total number of pages currently stored on disk
+    public int getDiskPageCount() {
+        return diskStorage.size();
+    }
+
+    // Returns the simulated time needed to read one page
+    public long getReadLatencyNanos() {
+        return readLatencyNanos;
+    }
+
+    public void setReadLatencyNanos(long readLatencyNanos) {
+        this.readLatencyNanos = readLatencyNanos;
+    }
+
+    // Returns the simulated time needed to write one page
+    public long getWriteLatencyNanos() {
+        return writeLatencyNanos;
+    }
+
+    public void setWriteLatencyNanos(long writeLatencyNanos) {
+        this.writeLatencyNanos = writeLatencyNanos;
+    }
+}
@@ -0,0 +1,171 @@
+package org.example.Model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ExecutionJournal {
+    /**
+     * State mutations recorded in the journal.
+     */
+    public enum EventType {
+        MAP, // Page placed in a frame (page, frame)
+        EVICT, // Page chosen as replacement victim and removed (page, frame, last access stamp of the frame)
+        UNMAP, // Page removed for another reason, e.g. a cold frame reclaimed for readahead (page, frame, last access stamp)
+        WRITE_BACK, // Dirty page written to disk, on its way out or by the write-back flusher (page, frame)
+        DIRTY, // Resident page written for the first time since it was clean (page, frame)
+        TLB_INSERT, // Translation added to the TLB (page, frame, pages covered if a huge page)
+        TLB_EVICT, // Translation pushed out of a full TLB (page, frame, pages covered if a huge page)
+        TLB_INVALIDATE, // Translation removed because its page left memory or moved (page, pages covered if a huge page)
+        PREFETCH, // Page read ahead (page, frame)
+        MIGRATE, // Page moved to another frame to collapse a huge page (page, new frame)
+        HUGE_PROMOTE, // Region mapped as a huge page (first page, first frame, pages covered)
+        HUGE_DEMOTE // Huge page split into base pages (first page, first frame, pages covered)
+    }
+
+    private static final EventType[] EVENT_TYPES = EventType.values();
+
+    // References, as packed TraceRecords, in a ring indexed by reference number
+    private final long[] references;
+    private long firstReference; // Number of the oldest reference still held
+    private long referenceEnd; // Number one past the newest reference
+
+    // Events in parallel primitive rings, so journaling allocates nothing per event
+    private final long[] eventReference; // Reference during which the event happened
+    private final byte[] eventType;
+    private final int[] eventPage;
+    private final int[] eventFrame;
+    private final long[] eventValue;
+    private long firstEvent; // Sequence number of the oldest event still held
+    private long eventEnd; // Sequence number one past the newest event
+    private long currentReference; // Reference that new events are attributed to
+
+    /**
+     * @param referenceCapacity Number of most recent references kept.
+     * @param eventCapacity Number of most recent events kept.
+     * @param firstReference Number of the first reference that will be journaled.
+     */
+    public ExecutionJournal(int referenceCapacity, int eventCapacity, long firstReference) {
+        if (referenceCapacity <= 0 || eventCapacity <= 0) {
+            throw new IllegalArgumentException("Journal capacities must be greater than 0.");
+        }
+        this.references = new long[referenceCapacity];
+        this.eventReference = new long[eventCapacity];
+        this.eventType = new byte[eventCapacity];
+        this.eventPage = new int[eventCapacity];
+        this.eventFrame = new int[eventCapacity];
+        this.eventValue = new long[eventCapacity];
+        this.firstReference = firstReference;
+        this.referenceEnd = firstReference;
+        this.currentReference = firstReference;
+    }
+
+    /**
+     * Append the next reference; later events are attributed to it.
+     * @param record The reference, packed by TraceRecord.
+     */
+    public void recordReference(long record) {
+        references[(int) (referenceEnd % references.length)] = record;
+        currentReference = referenceEnd++;
+        if (referenceEnd - firstReference > references.length) {
+            firstReference = referenceEnd - references.length;
+        }
+    }
+
+    /**
+     * Append an event to the current reference.
+     */
+    public void recordEvent(EventType type, int pageNumber, int frameNumber, long value) {
+        int slot = (int) (eventEnd % eventReference.length);
+        eventReference[slot] = currentReference;
+        eventType[slot] = (byte) type.ordinal();
+        eventPage[slot] = pageNumber;
+        eventFrame[slot] = frameNumber;
+        eventValue[slot] = value;
+        eventEnd++;
+        if (eventEnd - firstEvent > eventReference.length) {
+            firstEvent = eventEnd - eventReference.length;
+        }
+    }
+
+    /**
+     * Forget every reference numbered referenceNumber or later, and their events,
+     * e.g. when the simulation was moved back and is taking a different path.
+     * @param referenceNumber The first reference to drop.
+     */
+    public void truncate(long referenceNumber) {
+        referenceEnd = Math.max(firstReference, Math.min(referenceEnd, referenceNumber));
+        while (eventEnd > firstEvent && eventReference[(int) ((eventEnd - 1) % eventReference.length)] >= referenceNumber) {
+            eventEnd--;
+        }
+    }
+
+    /**
+     * @param referenceNumber A reference between getFirstReference and getReferenceEnd.
+     * @return The packed reference.
+     */
+    public long getReference(long referenceNumber) {
+        if (referenceNumber < firstReference || referenceNumber >= referenceEnd) {
+            throw new IllegalArgumentException("Reference " + referenceNumber + " is no longer in the journal.");
+        }
+        return references[(int) (referenceNumber % references.length)];
+    }
+
+    public long getFirstReference() {
+        return firstReference;
+    }
+
+    public long getReferenceEnd() {
+        return referenceEnd;
+    }
+
+    public long getEventCount() {
+        return eventEnd - firstEvent;
+    }
+
+    /**
+     * Describe the events of one reference, for display. Only this query allocates.
+     * @param referenceNumber The reference.
+     * @return One line per event, in the order they happened (empty if none are held).
+     */
+    public List<String> describeEvents(long referenceNumber) {
+        List<String> lines = new ArrayList<>();
+        // Events are in reference order, so the first event of the reference can be found by bisection
+        long low = firstEvent;
+        long high = eventEnd;
+        while (low < high) {
+            long middle = (low + high) >>> 1;
+            if (eventReference[(int) (middle % eventReference.length)] < referenceNumber) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        for (long sequence = low; sequence < eventEnd; sequence++) {
+            int slot = (int) (sequence % eventReference.length);
+            if (eventReference[slot] != referenceNumber) {
+                break;
+            }
+            EventType type = EVENT_TYPES[eventType[slot]];
+            StringBuilder line = new StringBuilder(type.name()).append(": Page ").append(eventPage[slot]);
+            if (eventFrame[slot] != -1) {
+                line.append(", Frame ").append(eventFrame[slot]);
+            }
+            if (type == EventType.EVICT || type == EventType.UNMAP) {
+                // Frames are stamped with the reference count after the access, so #n is stamp - 1
+                line.append(eventValue[slot] == 0 ? ", never accessed" : ", last accessed by #" + (eventValue[slot] - 1));
+            } else if (eventValue[slot] > 1) {
+                line.append(", huge page of ").append(eventValue[slot]).append(" pages");
+            }
+            lines.add(line.toString());
+        }
+        return lines;
+    }
+
+    /**
+     * @param referenceNumber The reference.
+     * @return A readable form of the reference (read or write, process and page).
+     */
+    public String describeReference(long referenceNumber) {
+        return "#" + referenceNumber + " " + TraceRecord.toString(getReference(referenceNumber));
+    }
+}
@@ -1,43 +1,88 @@
-package org.example.Model;
-
-import org.example.Controller.MemoryController;
-
-import java.util.LinkedList;
-import java.util.Queue;
-
-public class FIFOReplacement implements PageReplacementAlgorithm {
-    private Queue<Integer> pageQueue; // Tracks the order of pages loaded into memory
-    private int replacementCount; // Tracks the number of page replacements
-
-    public FIFOReplacement() {
-        this.pageQueue = new LinkedList<>();
-        this.replacementCount = 0;
-    }
-
-    @Override
-    public void replacePage(int pageNumber, MemoryController memoryController) {
-        // Check if the page is already in memory
-        if (memoryController.isPageInMemory(pageNumber)) {
-            memoryController.getMemoryLogger().log("Page " + pageNumber + " is already in memory.");
-            return;
-        }
-
-        // Check if memory is full and replacement is needed
-        if (memoryController.isMemoryFull()) {
-            int oldestPage = pageQueue.poll(); // Get the oldest page in memory
-            memoryController.removePageFromMemory(oldestPage); // Remove the oldest page
-            memoryController.getMemoryLogger().log("Page " + oldestPage + " replaced by page " + pageNumber);
-            replacementCount++; // Increment the replacement counter
-        }
-
-        // Load the new page into memory
-        memoryController.loadPageIntoMemory(memoryController.getPageFromVirtualMemory(pageNumber));
-        pageQueue.add(pageNumber); // Add the new page to the queue
-        memoryController.getMemoryLogger().log("Page " + pageNumber + " loaded into memory.");
-    }
-
-    @Override
-    public int getReplacementCount() {
-        return replacementCount; // Return the total number of page replacements
-    }
-}
+package org.example.Model;
+
+import org.example.Controller.MemoryController;
+
+import java.io.IOException;
+import java.util.LinkedHashSet;
+import java.util.function.IntPredicate;
+
+public class FIFOReplacement implements PageReplacementAlgorithm {
+    private LinkedHashSet<Integer> pageQueue; // Tracks the order of pages loaded into memory (O(1) removal)
+    private int replacementCount; // Tracks the number of page replacements
+
+    public FIFOReplacement() {
+        this.pageQueue = new LinkedHashSet<>();
+        this.replacementCount = 0;
+    }
+
+    @Override
+    public void replacePage(int pageNumber, MemoryController memoryController) {
+        // Check if the page is already in memory
+        if (memoryController.isPageInMemory(pageNumber)) {
+            memoryController.getMemoryLogger().log("Page " + pageNumber + " is already in memory.");
+            return;
+        }
+
+        // Check if memory is full and replacement is needed
+        if (!memoryController.hasFreeFrameFor(pageNumber) && !pageQueue.isEmpty()) {
+            int oldestPage = memoryController.chooseVictim(this, pageNumber); // Get the oldest (preferably clean) page
+            memoryController.removePageFromMemory(oldestPage); // Remove the oldest page
+            memoryController.getMemoryLogger().log("Page " + oldestPage + " replaced by page " + pageNumber);
+            replacementCount++; // Increment the replacement counter
+        }
+
+        // Load the new page into memory (the controller reports it back through pageLoaded)
+        memoryController.loadPageIntoMemory(memoryController.getPageFromVirtualMemory(pageNumber));
+        memoryController.getMemoryLogger().log("Page " + pageNumber + " loaded into memory.");
+    }
+
+    @Override
+    public int selectVictim(IntPredicate preferred) {
+        for (int pageNumber : pageQueue) {
+            if (preferred.test(pageNumber)) {
+                return pageNumber;
+            }
+        }
+        return pageQueue.isEmpty() ? -1 : pageQueue.iterator().next();
+    }
+
+    @Override
+    public void pageLoaded(int pageNumber) {
+        pageQueue.add(pageNumber); // Add the new page to the queue
+    }
+
+    @Override
+    public void pageRemoved(int pageNumber) {
+        pageQueue.remove(pageNumber);
+    }
+
+    @Override
+    public void writeSnapshot(SnapshotOutput out) throws IOException {
+        int[] queue = new int[pageQueue.size()];
+        int index = 0;
+        for (int pageNumber : pageQueue) {
+            queue[index++] = pageNumber;
+        }
+        out.putIntArray(queue);
+        out.putInt(replacementCount);
+    }
+
+    @Override
+    public void readSnapshot(SnapshotInput in) throws IOException {
+        pageQueue.clear();
+        for (int pageNumber : in.getIntArray()) {
+            pageQueue.add(pageNumber);
+        }
+        replacementCount = in.getInt();
+    }
+
+    @Override
+    public String getName() {
+        return "FIFO";
+    }
+
+    @Override
+    public int getReplacementCount() {
+        return replacementCount; // Return the total number of page replacements
+    }
+}
@@ -0,0 +1,291 @@
+package org.example.Model;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.IntPredicate;
+
+public class FaultFrequencyAllocator {
+    public enum Scope {
+        LOCAL, // A process at its limit replaces one of its own pages
+        GLOBAL // Any process may take a frame; pages of processes over their limit go first
+    }
+
+    private final int frameCount; // Frames of physical memory, which the allocations share
+    private final int initialFrames; // Allocation of a process on its first fault
+    private final int window; // References of a process between adjustments
+    private final double lowerThreshold; // Fault rate below which the allocation shrinks
+    private final double upperThreshold; // Fault rate above which the allocation grows
+    private final Scope scope;
+    private final Map<Integer, Allocation> allocations; // By process id, in id order for reports
+    private int[] pageOwners; // Process whose fault loaded each resident page, -1 if not resident
+    private long grows;
+    private long shrinks;
+
+    private static class Allocation {
+        int limit; // Frames the process may hold
+        int resident; // Frames it holds
+        long windowReferences;
+        long windowFaults;
+        double lastFaultRate; // Fault rate of the last complete window
+
+        Allocation(int limit) {
+            this.limit = limit;
+        }
+    }
+
+    /**
+     * Default thresholds: grow above a 10% fault rate, shrink below 2%, judged every 200
+     * references; each process starts with an eighth of memory.
+     * @param frameCount Frames of physical memory.
+     * @param scope Local or global replacement.
+     */
+    public FaultFrequencyAllocator(int frameCount, Scope scope) {
+        this(frameCount, Math.max(1, frameCount / 8), 200, 0.02, 0.10, scope);
+    }
+
+    /**
+     * @param frameCount Frames of physical memory.
+     * @param initialFrames Allocation of a process when it first faults.
+     * @param window References of a process between adjustments.
+     * @param lowerThreshold Fault rate (faults per reference) below which the allocation shrinks.
+     * @param upperThreshold Fault rate above which the allocation grows.
+     * @param scope Local or global replacement.
+     */
+    public FaultFrequencyAllocator(int frameCount, int initialFrames, int window, double lowerThreshold,
+                                   double upperThreshold, Scope scope) {
+        if (frameCount <= 0 || initialFrames <= 0 || initialFrames > frameCount || window <= 0) {
+            throw new IllegalArgumentException("Initial frames must be between 1 and the frame count, and the window greater than 0.");
+        }
+        if (lowerThreshold < 0 || upperThreshold > 1 || lowerThreshold >= upperThreshold) {
+            throw new IllegalArgumentException("Thresholds must satisfy 0 <= lower < upper <= 1.");
+        }
+        this.frameCount = frameCount;
+        this.initialFrames = initialFrames;
+        this.window = window;
+        this.lowerThreshold = lowerThreshold;
+        this.upperThreshold = upperThreshold;
+        this.scope = scope;
+        this.allocations = new TreeMap<>();
+        this.pageOwners = new int[64];
+        Arrays.fill(pageOwners, -1);
+    }
+
+    private Allocation allocationOf(int processId) {
+        return allocations.computeIfAbsent(processId, id -> new Allocation(initialFrames));
+    }
+
+    /**
+     * Count a reference of a process and, at the end of its window, move its allocation by
+     * an eighth (at least one frame) toward its fault rate: up above the upper threshold,
+     * down below the lower one. An allocation grows only into frames not allocated to other
+     * processes, so a process faulting heavily cannot take memory the others were given.
+     * Frames over a lowered limit are reclaimed by later replacements.
+     * @param processId The process.
+     * @param fault True if the reference faulted.
+     * @return The change of the allocation in frames, 0 if it stays.
+     */
+    public synchronized int recordReference(int processId, boolean fault) {
+        Allocation allocation = allocationOf(processId);
+        allocation.windowReferences++;
+        if (fault) {
+            allocation.windowFaults++;
+        }
+        if (allocation.windowReferences < window) {
+            return 0;
+        }
+        double faultRate = (double) allocation.windowFaults / allocation.windowReferences;
+        allocation.lastFaultRate = faultRate;
+        allocation.windowReferences = 0;
+        allocation.windowFaults = 0;
+        int step = Math.max(1, allocation.limit / 8);
+        int limit = allocation.limit;
+        if (faultRate > upperThreshold) {
+            limit += (int) Math.max(0, Math.min(step, frameCount - getTotalLimit()));
+        } else if (faultRate < lowerThreshold) {
+            limit = Math.max(1, limit - step);
+        }
+        int change = limit - allocation.limit;
+        allocation.limit = limit;
+        if (change > 0) {
+            grows++;
+        } else if (change < 0) {
+            shrinks++;
+        }
+        return change;
+    }
+
+    // Called by the controller when a page is placed in a frame on behalf of a process
+    public synchronized void pageLoaded(int pageNumber, int processId) {
+        if (pageNumber >= pageOwners.length) {
+            int oldLength = pageOwners.length;
+            pageOwners = Arrays.copyOf(pageOwners, Math.max(pageNumber + 1, oldLength * 2));
+            Arrays.fill(pageOwners, oldLength, pageOwners.length, -1);
+        }
+        pageOwners[pageNumber] = processId;
+        allocationOf(processId).resident++;
+    }
+
+    // Called by the controller when a page leaves memory
+    public synchronized void pageRemoved(int pageNumber) {
+        if (pageNumber < pageOwners.length && pageOwners[pageNumber] != -1) {
+            allocations.get(pageOwners[pageNumber]).resident--;
+            pageOwners[pageNumber] = -1;
+        }
+    }
+
+    /**
+     * With local replacement a process that holds its whole allocation gets no free frame.
+     * @param processId The process about to load a page.
+     * @return True if it has to replace one of its own pages instead.
+     */
+    public synchronized boolean isAtLimit(int processId) {
+        if (scope != Scope.LOCAL) {
+            return false;
+        }
+        Allocation allocation = allocationOf(processId);
+        return allocation.resident >= allocation.limit;
+    }
+
+    /**
+     * Pages that may be evicted for a process's fault: its own pages when it is at its limit
+     * under local replacement, otherwise pages of processes holding more than their limit.
+     * @param processId The faulting process.
+     * @return The filter, or null if every page may be evicted.
+     */
+    public synchronized IntPredicate getVictimFilter(int processId) {
+        if (isAtLimit(processId)) {
+            return page -> getOwner(page) == processId;
+        }
+        for (Allocation allocation : allocations.values()) {
+            if (allocation.resident > allocation.limit) {
+                return page -> isOverLimit(getOwner(page));
+            }
+        }
+        return null;
+    }
+
+    // Process owning a resident page, -1 if none
+    public synchronized int getOwner(int pageNumber) {
+        return pageNumber < pageOwners.length ? pageOwners[pageNumber] : -1;
+    }
+
+    private synchronized boolean isOverLimit(int processId) {
+        Allocation allocation = processId == -1 ? null : allocations.get(processId);
+        return allocation != null && allocation.resident > allocation.limit;
+    }
+
+    // Frames the process may hold
+    public synchronized int getLimit(int processId) {
+        return allocationOf(processId).limit;
+    }
+
+    public synchronized int getResident(int processId) {
+        return allocationOf(processId).resident;
+    }
+
+    // Sum of all allocations; above the frame count when memory is overcommitted
+    public synchronized long getTotalLimit() {
+        long total = 0;
+        for (Allocation allocation : allocations.values()) {
+            total += allocation.limit;
+        }
+        return total;
+    }
+
+    public synchronized int[] getProcessIds() {
+        return allocations.keySet().stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    public Scope getScope() {
+        return scope;
+    }
+
+    public int getInitialFrames() {
+        return initialFrames;
+    }
+
+    public int getWindow() {
+        return window;
+    }
+
+    public double getLowerThreshold() {
+        return lowerThreshold;
+    }
+
+    public double getUpperThreshold() {
+        return upperThreshold;
+    }
+
+    /**
+     * Allocation, resident frames and last fault rate of every process, and the adjustments made.
+     * @return A one-line summary.
+     */
+    public synchronized String getSummary() {
+        StringBuilder summary = new StringBuilder("Fault-Frequency Allocation (" + scope + "): ");
+        for (Map.Entry<Integer, Allocation> entry : allocations.entrySet()) {
+            Allocation allocation = entry.getValue();
+            summary.append("Process ").append(entry.getKey()).append(' ').append(allocation.resident).append('/')
+                    .append(allocation.limit).append(" frames (").append(String.format("%.1f", allocation.lastFaultRate * 100))
+                    .append("% faults), ");
+        }
+        return summary.append("Grows: ").append(grows).append(", Shrinks: ").append(shrinks).toString();
+    }
+
+    /**
+     * Save the allocations, page owners and counters (the configuration is saved by the caller).
+     * @param out The snapshot being written.
+     */
+    public synchronized void writeSnapshot(SnapshotOutput out) throws IOException {
+        int count = allocations.size();
+        int[] processIds = new int[count];
+        int[] limits = new int[count];
+        int[] resident = new int[count];
+        long[] windowCounts = new long[2 * count];
+        long[] faultRates = new long[count];
+        int index = 0;
+        for (Map.Entry<Integer, Allocation> entry : allocations.entrySet()) {
+            Allocation allocation = entry.getValue();
+            processIds[index] = entry.getKey();
+            limits[index] = allocation.limit;
+            resident[index] = allocation.resident;
+            windowCounts[2 * index] = allocation.windowReferences;
+            windowCounts[2 * index + 1] = allocation.windowFaults;
+            faultRates[index] = Double.doubleToLongBits(allocation.lastFaultRate);
+            index++;
+        }
+        out.putIntArray(processIds);
+        out.putIntArray(limits);
+        out.putIntArray(resident);
+        out.putLongArray(windowCounts);
+        out.putLongArray(faultRates);
+        out.putIntArray(pageOwners);
+        out.putLong(grows);
+        out.putLong(shrinks);
+    }
+
+    /**
+     * Restore the state saved by writeSnapshot.
+     * @param in The snapshot being read.
+     */
+    public synchronized void readSnapshot(SnapshotInput in) throws IOException {
+        int[] processIds = in.getIntArray();
+        int[] limits = in.getIntArray();
+        int[] resident = in.getIntArray();
+        long[] windowCounts = in.getLongArray();
+        long[] faultRates = in.getLongArray();
+        allocations.clear();
+        for (int i = 0; i < processIds.length; i++) {
+            Allocation allocation = new Allocation(limits[i]);
+            allocation.resident = resident[i];
+            allocation.windowReferences = windowCounts[2 * i];
+            allocation.windowFaults = windowCounts[2 * i + 1];
+            allocation.lastFaultRate = Double.longBitsToDouble(faultRates[i]);
+            allocations.put(processIds[i], allocation);
+        }
+        pageOwners = in.getIntArray();
+        grows = in.getLong();
+        shrinks = in.getLong();
+    }
+}
@@ -0,0 +1,91 @@
+package org.example.Model;
+
+import java.util.SplittableRandom;
+
+public class ForkServerWorkload implements WorkloadGenerator {
+    private final int parentProcessId; // The server process, which forks a worker per request
+    private final int firstPage; // Lowest page of the server's memory
+    private final int pageCount; // Number of pages the server initializes and its workers use
+    private final int workerCount; // Workers forked, one after another
+    private final int referencesPerWorker; // References each worker makes before exiting
+    private final double writeFraction; // Probability that a worker's reference is a write
+    private final SplittableRandom random; // Seeded source, so the same seed replays the same workload
+
+    private long initialized; // Pages the server has written so far
+    private int worker; // Worker being run
+    private int workerReferences; // References made by the current worker; -1 before its fork
+    private boolean exhausted;
+
+    /**
+     * A pre-forking server: the parent writes its whole memory once, then forks one worker
+     * per request. Each worker reads and writes random pages of the inherited memory and
+     * exits, so only the pages workers write have to be copied.
+     * @param parentProcessId The server process; workers run as parentProcessId + 1.
+     * @param firstPage Lowest page of the server's memory.
+     * @param pageCount Number of pages of the server's memory.
+     * @param workerCount Number of workers (requests).
+     * @param referencesPerWorker References made by each worker.
+     * @param writeFraction Probability that a worker's reference is a write.
+     * @param seed Random seed.
+     */
+    public ForkServerWorkload(int parentProcessId, int firstPage, int pageCount, int workerCount,
+                              int referencesPerWorker, double writeFraction, long seed) {
+        if (parentProcessId < 0 || parentProcessId >= TraceRecord.MAX_PROCESS_ID) {
+            throw new IllegalArgumentException("Process id must be between 0 and " + (TraceRecord.MAX_PROCESS_ID - 1) + ".");
+        }
+        if (firstPage < 0 || pageCount <= 0 || (long) firstPage + pageCount > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Page region must be non-empty and within the page number range.");
+        }
+        if (workerCount <= 0 || referencesPerWorker <= 0) {
+            throw new IllegalArgumentException("Worker count and references per worker must be greater than 0.");
+        }
+        if (writeFraction < 0 || writeFraction > 1) {
+            throw new IllegalArgumentException("Write fraction must be between 0 and 1.");
+        }
+        this.parentProcessId = parentProcessId;
+        this.firstPage = firstPage;
+        this.pageCount = pageCount;
+        this.workerCount = workerCount;
+        this.referencesPerWorker = referencesPerWorker;
+        this.writeFraction = writeFraction;
+        this.random = new SplittableRandom(seed);
+        this.workerReferences = -1;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return !exhausted;
+    }
+
+    @Override
+    public long next() {
+        if (exhausted) {
+            throw new IllegalStateException("Workload is exhausted.");
+        }
+        if (initialized < pageCount) {
+            return TraceRecord.pack(parentProcessId, firstPage + (int) initialized++, true);
+        }
+        int child = parentProcessId + 1;
+        if (workerReferences == -1) {
+            workerReferences = 0;
+            return TraceRecord.packFork(parentProcessId, child);
+        }
+        if (workerReferences == referencesPerWorker) {
+            workerReferences = -1;
+            exhausted = ++worker == workerCount;
+            return TraceRecord.packExit(child);
+        }
+        workerReferences++;
+        boolean write = writeFraction > 0 && random.nextDouble() < writeFraction;
+        return TraceRecord.pack(child, firstPage + random.nextInt(pageCount), write);
+    }
+
+    public int getWorkerCount() {
+        return workerCount;
+    }
+
+    // Workers that have exited so far
+    public int getCompletedWorkerCount() {
+        return worker;
+    }
+}
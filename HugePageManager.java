@@ -0,0 +1,142 @@
+package org.example.Model;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+
+public class HugePageManager {
+    private final int pagesPerHugePage; // Base pages per huge page
+    private final int hugePageShift; // log2(pagesPerHugePage)
+    private final int[] residentPagesPerRegion; // Resident base pages of each aligned huge-page region
+    private final BitSet fullRegions; // Regions that became fully resident and are waiting to be promoted
+
+    /**
+     * @param pagesPerHugePage Base pages per huge page (a power of 2 of at least 2).
+     * @param virtualPages Number of virtual pages; a partial last region is never promoted.
+     */
+    public HugePageManager(int pagesPerHugePage, int virtualPages) {
+        if (pagesPerHugePage < 2 || Integer.bitCount(pagesPerHugePage) != 1) {
+            throw new IllegalArgumentException("A huge page must be a power of 2 of at least two pages.");
+        }
+        this.pagesPerHugePage = pagesPerHugePage;
+        this.hugePageShift = Integer.numberOfTrailingZeros(pagesPerHugePage);
+        this.residentPagesPerRegion = new int[virtualPages >>> hugePageShift];
+        this.fullRegions = new BitSet(residentPagesPerRegion.length);
+    }
+
+    public int getPagesPerHugePage() {
+        return pagesPerHugePage;
+    }
+
+    // Huge page (aligned region) a base page belongs to
+    public int getRegion(int pageNumber) {
+        return pageNumber >>> hugePageShift;
+    }
+
+    public int getFirstPage(int region) {
+        return region << hugePageShift;
+    }
+
+    // True if the page's region can become a huge page (it is not the partial last region)
+    public boolean isTracked(int pageNumber) {
+        return getRegion(pageNumber) < residentPagesPerRegion.length;
+    }
+
+    public int getRegionCount() {
+        return residentPagesPerRegion.length;
+    }
+
+    /**
+     * Count a page that became resident; a region it completes waits to be promoted.
+     * @param pageNumber The page.
+     */
+    public void pageLoaded(int pageNumber) {
+        int region = getRegion(pageNumber);
+        if (region < residentPagesPerRegion.length && ++residentPagesPerRegion[region] == pagesPerHugePage) {
+            fullRegions.set(region);
+        }
+    }
+
+    /**
+     * Count a page that left memory. The caller splits the huge page it belonged to.
+     * @param pageNumber The page.
+     */
+    public void pageEvicted(int pageNumber) {
+        int region = getRegion(pageNumber);
+        if (region < residentPagesPerRegion.length) {
+            residentPagesPerRegion[region]--;
+            fullRegions.clear(region);
+        }
+    }
+
+    public boolean hasFullRegions() {
+        return !fullRegions.isEmpty();
+    }
+
+    /**
+     * Take the next region that became fully resident since it was last promoted.
+     * @return The region, or -1 if none is waiting.
+     */
+    public int pollFullRegion() {
+        int region = fullRegions.nextSetBit(0);
+        if (region != -1) {
+            fullRegions.clear(region);
+        }
+        return region;
+    }
+
+    public boolean isFullyResident(int region) {
+        return residentPagesPerRegion[region] == pagesPerHugePage;
+    }
+
+    /**
+     * Recount resident pages from scratch, e.g. after a snapshot is restored.
+     * @param resident Whether a page is resident.
+     * @param hugePage Whether a region is already mapped as a huge page.
+     */
+    public void countResidentPages(IntPredicate resident, IntPredicate hugePage) {
+        Arrays.fill(residentPagesPerRegion, 0);
+        fullRegions.clear();
+        for (int pageNumber = 0; pageNumber < residentPagesPerRegion.length << hugePageShift; pageNumber++) {
+            if (resident.test(pageNumber)) {
+                residentPagesPerRegion[pageNumber >>> hugePageShift]++;
+            }
+        }
+        for (int region = 0; region < residentPagesPerRegion.length; region++) {
+            if (isFullyResident(region) && !hugePage.test(region)) {
+                fullRegions.set(region);
+            }
+        }
+    }
+
+    /**
+     * Choose the aligned run of frames a fully resident region is collapsed into: the one
+     * already holding the most of the region's pages in place, so as few pages as possible
+     * are moved. Runs holding other huge pages are skipped.
+     * @param region The region.
+     * @param frameOfPage Frame holding a page.
+     * @param frameCount Frames in physical memory.
+     * @param hugePageRun Whether an aligned run (by index) holds a huge page.
+     * @return The first frame of the run, or -1 if every run already holds a huge page.
+     */
+    public int chooseTargetFrames(int region, IntUnaryOperator frameOfPage, int frameCount, IntPredicate hugePageRun) {
+        int firstPage = getFirstPage(region);
+        int offsetMask = pagesPerHugePage - 1;
+        int runs = frameCount >>> hugePageShift;
+        int[] inPlace = new int[runs];
+        for (int i = 0; i < pagesPerHugePage; i++) {
+            int frameNumber = frameOfPage.applyAsInt(firstPage + i);
+            if ((frameNumber & offsetMask) == i && (frameNumber >>> hugePageShift) < runs) {
+                inPlace[frameNumber >>> hugePageShift]++;
+            }
+        }
+        int target = -1;
+        for (int run = 0; run < runs; run++) {
+            if ((target == -1 || inPlace[run] > inPlace[target]) && !hugePageRun.test(run)) {
+                target = run;
+            }
+        }
+        return target == -1 ? -1 : target << hugePageShift;
+    }
+}
@@ -0,0 +1,71 @@
+package org.example.Model;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+public class InterleavedWorkload implements WorkloadGenerator {
+    private final WorkloadGenerator[] processes; // One workload per process, each tagged with its own process id
+    private final int quantum; // Mean number of consecutive references before switching process
+    private final SplittableRandom random; // Seeded scheduler
+    private int liveCount; // Processes (at the front of the array) that still have references
+    private int current; // Process currently scheduled
+    private long burstRemaining; // References left in the current burst
+
+    /**
+     * Several processes sharing the memory. The scheduler picks a process at random and
+     * runs it for a burst of references, averaging quantum references, before the next pick.
+     * @param processes The per-process workloads (their process ids are kept as they are).
+     * @param quantum Mean burst length in references (1 interleaves reference by reference).
+     * @param seed Random seed for the scheduler.
+     */
+    public InterleavedWorkload(List<? extends WorkloadGenerator> processes, int quantum, long seed) {
+        if (processes.isEmpty()) {
+            throw new IllegalArgumentException("An interleaved workload needs at least one process.");
+        }
+        if (quantum <= 0) {
+            throw new IllegalArgumentException("Scheduling quantum must be greater than 0.");
+        }
+        this.processes = processes.toArray(new WorkloadGenerator[0]);
+        this.quantum = quantum;
+        this.random = new SplittableRandom(seed);
+        this.liveCount = this.processes.length;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (liveCount > 0) {
+            if (burstRemaining > 0 && processes[current].hasNext()) {
+                return true;
+            }
+            if (!processes[current].hasNext()) {
+                // Swap the finished process out of the live range
+                liveCount--;
+                WorkloadGenerator finished = processes[current];
+                processes[current] = processes[liveCount];
+                processes[liveCount] = finished;
+            }
+            if (liveCount > 0) {
+                current = random.nextInt(liveCount);
+                burstRemaining = quantum == 1 ? 1 : 1 + random.nextInt(2 * quantum - 1);
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public long next() {
+        if (!hasNext()) {
+            throw new IllegalStateException("Workload is exhausted.");
+        }
+        burstRemaining--;
+        return processes[current].next();
+    }
+
+    public int getProcessCount() {
+        return processes.length;
+    }
+
+    public int getQuantum() {
+        return quantum;
+    }
+}
@@ -1,49 +1,111 @@
-package org.example.Model;
-
-import org.example.Controller.MemoryController;
-
-import java.util.HashMap;
-import java.util.Map;
-
-public class LRUReplacement implements PageReplacementAlgorithm {
-    private Map<Integer, Long> accessTimeMap; // Tracks last access time for each page
-
-    public LRUReplacement() {
-        this.accessTimeMap = new HashMap<>();
-    }
-
-    @Override
-    public void replacePage(int pageNumber, MemoryController memoryController) {
-        if (memoryController.isPageInMemory(pageNumber)) {
-            memoryController.getMemoryLogger().log("Page " + pageNumber + " is already in memory.");
-            updateAccessTime(pageNumber);
-            return;
-        }
-
-        if (memoryController.isMemoryFull()) {
-            int leastRecentlyUsedPage = findLeastRecentlyUsedPage();
-            memoryController.removePageFromMemory(leastRecentlyUsedPage);
-            memoryController.getMemoryLogger().log("Page " + leastRecentlyUsedPage + " replaced by page " + pageNumber);
-        }
-
-        memoryController.loadPageIntoMemory(memoryController.getPageFromVirtualMemory(pageNumber));
-        updateAccessTime(pageNumber);
-    }
-
-    @Override
-    public int getReplacementCount() {
-        return 0;
-        //TO BE IMPLEMENTED
-    }
-
-    private int findLeastRecentlyUsedPage() {
-        return accessTimeMap.entrySet()
-                .stream()
-                .min(Map.Entry.comparingByValue())
-                .get().getKey();
-    }
-
-    private void updateAccessTime(int pageNumber) {
-        accessTimeMap.put(pageNumber, System.currentTimeMillis());
-    }
-}
+package org.example.Model;
+
+import org.example.Controller.MemoryController;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntPredicate;
+
+public class LRUReplacement implements PageReplacementAlgorithm {
+    private Map<Integer, Long> accessTimeMap; // Tracks last access time for each resident page
+    private long accessClock; // Logical clock, so accesses within the same millisecond stay ordered
+    private int replacementCount; // Tracks the number of page replacements
+
+    public LRUReplacement() {
+        this.accessTimeMap = new HashMap<>();
+        this.accessClock = 0;
+        this.replacementCount = 0;
+    }
+
+    @Override
+    public void replacePage(int pageNumber, MemoryController memoryController) {
+        if (memoryController.isPageInMemory(pageNumber)) {
+            memoryController.getMemoryLogger().log("Page " + pageNumber + " is already in memory.");
+            updateAccessTime(pageNumber);
+            return;
+        }
+
+        if (!memoryController.hasFreeFrameFor(pageNumber) && !accessTimeMap.isEmpty()) {
+            int leastRecentlyUsedPage = memoryController.chooseVictim(this, pageNumber);
+            memoryController.removePageFromMemory(leastRecentlyUsedPage);
+            memoryController.getMemoryLogger().log("Page " + leastRecentlyUsedPage + " replaced by page " + pageNumber);
+            replacementCount++;
+        }
+
+        memoryController.loadPageIntoMemory(memoryController.getPageFromVirtualMemory(pageNumber));
+    }
+
+    @Override
+    public void writeSnapshot(SnapshotOutput out) throws IOException {
+        int[] pageNumbers = new int[accessTimeMap.size()];
+        long[] accessTimes = new long[accessTimeMap.size()];
+        int index = 0;
+        for (Map.Entry<Integer, Long> entry : accessTimeMap.entrySet()) {
+            pageNumbers[index] = entry.getKey();
+            accessTimes[index] = entry.getValue();
+            index++;
+        }
+        out.putIntArray(pageNumbers);
+        out.putLongArray(accessTimes);
+        out.putLong(accessClock);
+        out.putInt(replacementCount);
+    }
+
+    @Override
+    public void readSnapshot(SnapshotInput in) throws IOException {
+        int[] pageNumbers = in.getIntArray();
+        long[] accessTimes = in.getLongArray();
+        accessTimeMap.clear();
+        for (int i = 0; i < pageNumbers.length; i++) {
+            accessTimeMap.put(pageNumbers[i], accessTimes[i]);
+        }
+        accessClock = in.getLong();
+        replacementCount = in.getInt();
+    }
+
+    @Override
+    public String getName() {
+        return "LRU";
+    }
+
+    @Override
+    public int getReplacementCount() {
+        return replacementCount;
+    }
+
+    @Override
+    public int selectVictim(IntPredicate preferred) {
+        int victim = -1;
+        long victimTime = Long.MAX_VALUE;
+        boolean victimPreferred = false;
+        for (Map.Entry<Integer, Long> entry : accessTimeMap.entrySet()) {
+            boolean isPreferred = preferred.test(entry.getKey());
+            if ((isPreferred && !victimPreferred) || (isPreferred == victimPreferred && entry.getValue() < victimTime)) {
+                victim = entry.getKey();
+                victimTime = entry.getValue();
+                victimPreferred = isPreferred;
+            }
+        }
+        return victim;
+    }
+
+    @Override
+    public void pageLoaded(int pageNumber) {
+        updateAccessTime(pageNumber);
+    }
+
+    @Override
+    public void pageAccessed(int pageNumber) {
+        updateAccessTime(pageNumber);
+    }
+
+    @Override
+    public void pageRemoved(int pageNumber) {
+        accessTimeMap.remove(pageNumber);
+    }
+
+    private void updateAccessTime(int pageNumber) {
+        accessTimeMap.put(pageNumber, ++accessClock);
+    }
+}
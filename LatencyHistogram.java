@@ -0,0 +1,146 @@
+package org.example.Model;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 5; // 32 linear sub-buckets per power of two (~3% relative error)
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_HALF = SUB_BUCKET_COUNT / 2;
+
+    private final AtomicLongArray buckets; // Log-linear buckets, as in HdrHistogram
+    private final LongAdder count; // Number of recorded values
+    private final LongAdder sum; // Sum of recorded values
+    private final LongAccumulator max; // Largest recorded value
+
+    // Constructor
+    public LatencyHistogram() {
+        this.buckets = new AtomicLongArray(SUB_BUCKET_COUNT + (64 - SUB_BUCKET_BITS) * SUB_BUCKET_HALF);
+        this.count = new LongAdder();
+        this.sum = new LongAdder();
+        this.max = new LongAccumulator(Math::max, 0);
+    }
+
+    /**
+     * Record one latency. Safe to call from many threads without locking.
+     * @param value The latency (nanoseconds); negative values are recorded as 0.
+     */
+    public void record(long value) {
+        long clamped = Math.max(0, value);
+        buckets.incrementAndGet(indexFor(clamped));
+        count.increment();
+        sum.add(clamped);
+        max.accumulate(clamped);
+    }
+
+    private static int indexFor(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - (SUB_BUCKET_BITS - 1);
+        int top = (int) (value >>> shift); // In [SUB_BUCKET_HALF, SUB_BUCKET_COUNT)
+        return SUB_BUCKET_COUNT + (shift - 1) * SUB_BUCKET_HALF + (top - SUB_BUCKET_HALF);
+    }
+
+    private static long highestValueAt(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int offset = index - SUB_BUCKET_COUNT;
+        int shift = offset / SUB_BUCKET_HALF + 1;
+        long top = SUB_BUCKET_HALF + offset % SUB_BUCKET_HALF;
+        return ((top + 1) << shift) - 1;
+    }
+
+    /**
+     * Get the value below which the given share of recorded values fall.
+     * @param percentile The percentile (0 to 100).
+     * @return The latency at that percentile (upper bound of its bucket), or 0 if empty.
+     */
+    public long getPercentile(double percentile) {
+        long total = count.sum();
+        if (total == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(total * Math.min(100, Math.max(0, percentile)) / 100));
+        long seen = 0;
+        for (int i = 0; i < buckets.length(); i++) {
+            seen += buckets.get(i);
+            if (seen >= target) {
+                return Math.min(highestValueAt(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    public double getMean() {
+        long total = count.sum();
+        return total == 0 ? 0 : sum.sum() / (double) total;
+    }
+
+    /**
+     * Clear all recorded values.
+     */
+    public void reset() {
+        for (int i = 0; i < buckets.length(); i++) {
+            buckets.set(i, 0);
+        }
+        count.reset();
+        sum.reset();
+        max.reset();
+    }
+
+    /**
+     * Save the buckets and totals. Not atomic with respect to concurrent record calls,
+     * so it should be taken while the simulation is paused.
+     * @param out The snapshot being written.
+     */
+    public void writeSnapshot(SnapshotOutput out) throws IOException {
+        long[] values = new long[buckets.length()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = buckets.get(i);
+        }
+        out.putLongArray(values);
+        out.putLong(count.sum());
+        out.putLong(sum.sum());
+        out.putLong(max.get());
+    }
+
+    /**
+     * Replace the recorded values with those saved by writeSnapshot.
+     * @param in The snapshot being read.
+     */
+    public void readSnapshot(SnapshotInput in) throws IOException {
+        long[] values = in.getLongArray();
+        if (values.length != buckets.length()) {
+            throw new IOException("Snapshot histogram has " + values.length + " buckets, expected " + buckets.length() + ".");
+        }
+        reset();
+        for (int i = 0; i < values.length; i++) {
+            buckets.set(i, values[i]);
+        }
+        count.add(in.getLong());
+        sum.add(in.getLong());
+        max.accumulate(in.getLong());
+    }
+
+    /**
+     * Summary line with count, mean and the usual percentiles.
+     * @return The formatted summary.
+     */
+    public String summary() {
+        return String.format("count=%d mean=%.2f p50=%d p90=%d p99=%d p99.9=%d max=%d",
+                getCount(), getMean(), getPercentile(50), getPercentile(90),
+                getPercentile(99), getPercentile(99.9), getMax());
+    }
+}
@@ -0,0 +1,74 @@
+package org.example.Model;
+
+public class LatencyModel {
+    private long tlbHitNanos; // Cost of a TLB lookup
+    private long pageWalkNanosPerLevel; // Cost of reading one level of the page table
+    private int pageTableLevels; // Number of levels walked on a TLB miss
+    private long memoryAccessNanos; // Cost of the data access itself
+
+    // Default constructor with typical DRAM-era latencies
+    public LatencyModel() {
+        this(1, 100, 4, 100);
+    }
+
+    public LatencyModel(long tlbHitNanos, long pageWalkNanosPerLevel, int pageTableLevels, long memoryAccessNanos) {
+        if (tlbHitNanos < 0 || pageWalkNanosPerLevel < 0 || memoryAccessNanos < 0) {
+            throw new IllegalArgumentException("Latencies must be non-negative.");
+        }
+        if (pageTableLevels <= 0) {
+            throw new IllegalArgumentException("Page table must have at least one level.");
+        }
+        this.tlbHitNanos = tlbHitNanos;
+        this.pageWalkNanosPerLevel = pageWalkNanosPerLevel;
+        this.pageTableLevels = pageTableLevels;
+        this.memoryAccessNanos = memoryAccessNanos;
+    }
+
+    // getters and setters
+    public long getTlbHitNanos() {
+        return tlbHitNanos;
+    }
+
+    public void setTlbHitNanos(long tlbHitNanos) {
+        this.tlbHitNanos = tlbHitNanos;
+    }
+
+    public long getPageWalkNanosPerLevel() {
+        return pageWalkNanosPerLevel;
+    }
+
+    public void setPageWalkNanosPerLevel(long pageWalkNanosPerLevel) {
+        this.pageWalkNanosPerLevel = pageWalkNanosPerLevel;
+    }
+
+    public int getPageTableLevels() {
+        return pageTableLevels;
+    }
+
+    public void setPageTableLevels(int pageTableLevels) {
+        this.pageTableLevels = pageTableLevels;
+    }
+
+    public long getMemoryAccessNanos() {
+        return memoryAccessNanos;
+    }
+
+    public void setMemoryAccessNanos(long memoryAccessNanos) {
+        this.memoryAccessNanos = memoryAccessNanos;
+    }
+
+    // Cost of a full page table walk (all levels)
+    public long getPageWalkNanos() {
+        return pageWalkNanosPerLevel * pageTableLevels;
+    }
+
+    // Cost of a walk that reads only some levels, the others being found in the page-walk cache
+    public long getPageWalkNanos(int levelsRead) {
+        return pageWalkNanosPerLevel * levelsRead;
+    }
+
+    // Cost of a walk ending at a huge-page entry, which sits one level above the base-page entries
+    public long getHugePageWalkNanos() {
+        return pageWalkNanosPerLevel * Math.max(1, pageTableLevels - 1);
+    }
+}
@@ -0,0 +1,344 @@
+package org.example.Model;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+public class LoadController {
+    public enum Policy {
+        MONITOR, // Detect and time thrashing, but never suspend (the run without load control)
+        LARGEST_WORKING_SET, // Suspend the process whose working set frees the most memory
+        LAST_ACTIVATED // Suspend the process started or resumed most recently
+    }
+
+    private final int frameCount; // Frames of physical memory the working sets have to fit in
+    private final int checkInterval; // References between decisions
+    private final int workingSetWindow; // A process's working set: distinct pages of its last this many references
+    private final double upperFaultRate; // Thrashing when the fault rate is above this and the working sets do not fit
+    private final double lowerFaultRate; // A suspended process is resumed only below this
+    private final Policy policy;
+    private final boolean swapOut; // Evict a suspended process's working set rather than let replacement age it out
+    private final Map<Integer, ProcessState> processes; // By process id
+    private final ArrayDeque<Integer> suspended; // Suspended processes, in suspension order; the first is resumed first
+
+    private long references;
+    private long windowReferences;
+    private long windowFaults;
+    private double lastFaultRate; // Fault rate of the last interval
+    private long activations; // Orders processes by activation, for LAST_ACTIVATED
+    private boolean thrashing;
+    private long thrashingSince; // Simulated time the current thrashing episode started
+    private long thrashingTime; // Simulated nanoseconds spent thrashing in finished episodes
+    private long episodes;
+    private long suspensions;
+    private long resumptions;
+    private long swappedOutPages;
+    private long firstTime = -1; // Simulated time of the first reference seen
+    private long lastTime;
+
+    private class ProcessState {
+        final int[] window = new int[workingSetWindow]; // Pages of the last references, a ring
+        final Map<Integer, Integer> pageCounts = new HashMap<>(); // References of each page in the window
+        int position;
+        int filled;
+        long lastReference; // Value of references at the process's latest reference
+        long activation;
+        boolean isSuspended;
+
+        void record(int pageNumber) {
+            if (filled == window.length) {
+                int oldest = window[position];
+                if (pageCounts.merge(oldest, -1, Integer::sum) == 0) {
+                    pageCounts.remove(oldest);
+                }
+            } else {
+                filled++;
+            }
+            window[position] = pageNumber;
+            position = (position + 1) % window.length;
+            pageCounts.merge(pageNumber, 1, Integer::sum);
+        }
+    }
+
+    /**
+     * Default settings: decide every 500 references, working sets over each process's last
+     * 1000 references, thrashing above a 20% fault rate, resume below 5%.
+     * @param frameCount Frames of physical memory.
+     * @param policy Which process to suspend, or MONITOR to only measure.
+     * @param swapOut Evict the working set of a suspended process at once.
+     */
+    public LoadController(int frameCount, Policy policy, boolean swapOut) {
+        this(frameCount, 500, 1000, 0.05, 0.20, policy, swapOut);
+    }
+
+    /**
+     * @param frameCount Frames of physical memory.
+     * @param checkInterval References between decisions.
+     * @param workingSetWindow References of a process its working set is measured over.
+     * @param lowerFaultRate Fault rate (faults per reference) below which a suspended process may be resumed.
+     * @param upperFaultRate Fault rate above which memory is thrashing, if the working sets do not fit.
+     * @param policy Which process to suspend, or MONITOR to only measure.
+     * @param swapOut Evict the working set of a suspended process at once.
+     */
+    public LoadController(int frameCount, int checkInterval, int workingSetWindow, double lowerFaultRate,
+                          double upperFaultRate, Policy policy, boolean swapOut) {
+        if (frameCount <= 0 || checkInterval <= 0 || workingSetWindow <= 0) {
+            throw new IllegalArgumentException("Frame count, check interval and working-set window must be greater than 0.");
+        }
+        if (lowerFaultRate < 0 || upperFaultRate > 1 || lowerFaultRate >= upperFaultRate) {
+            throw new IllegalArgumentException("Fault rates must satisfy 0 <= lower < upper <= 1.");
+        }
+        this.frameCount = frameCount;
+        this.checkInterval = checkInterval;
+        this.workingSetWindow = workingSetWindow;
+        this.lowerFaultRate = lowerFaultRate;
+        this.upperFaultRate = upperFaultRate;
+        this.policy = policy;
+        this.swapOut = swapOut;
+        this.processes = new TreeMap<>();
+        this.suspended = new ArrayDeque<>();
+    }
+
+    private ProcessState stateOf(int processId) {
+        return processes.computeIfAbsent(processId, id -> {
+            ProcessState state = new ProcessState();
+            state.activation = activations++;
+            return state;
+        });
+    }
+
+    /**
+     * Count a reference made by a process.
+     * @param processId The process.
+     * @param pageNumber The page it referenced (after its own page map).
+     * @param fault True if the reference faulted.
+     * @param now Simulated time after the reference.
+     * @return True when a decision is due; the caller then calls evaluate.
+     */
+    public synchronized boolean recordReference(int processId, int pageNumber, boolean fault, long now) {
+        ProcessState state = stateOf(processId);
+        state.record(pageNumber);
+        state.lastReference = ++references;
+        if (firstTime == -1) {
+            firstTime = now;
+        }
+        lastTime = now;
+        windowReferences++;
+        if (fault) {
+            windowFaults++;
+        }
+        return windowReferences >= checkInterval;
+    }
+
+    /**
+     * Judge the last interval: memory is thrashing when its fault rate is above the upper
+     * threshold while the working sets of the running processes do not fit in memory.
+     * @param now Simulated time.
+     * @return True if memory is thrashing.
+     */
+    public synchronized boolean evaluate(long now) {
+        double faultRate = windowReferences == 0 ? 0 : (double) windowFaults / windowReferences;
+        windowReferences = 0;
+        windowFaults = 0;
+        boolean overloaded = faultRate > upperFaultRate && getActiveWorkingSetSize() > frameCount;
+        if (overloaded && !thrashing) {
+            thrashingSince = now;
+            episodes++;
+        } else if (!overloaded && thrashing) {
+            thrashingTime += now - thrashingSince;
+        }
+        thrashing = overloaded;
+        lastFaultRate = faultRate;
+        return thrashing;
+    }
+
+    /**
+     * The process to suspend while thrashing. The last running process is never suspended.
+     * @return Its id, or -1 for none (or with the MONITOR policy).
+     */
+    public synchronized int chooseProcessToSuspend() {
+        if (policy == Policy.MONITOR || !thrashing) {
+            return -1;
+        }
+        int chosen = -1;
+        int running = 0;
+        for (Map.Entry<Integer, ProcessState> entry : processes.entrySet()) {
+            ProcessState state = entry.getValue();
+            if (state.isSuspended || isIdle(state)) {
+                continue;
+            }
+            running++;
+            ProcessState best = chosen == -1 ? null : processes.get(chosen);
+            if (best == null
+                    || (policy == Policy.LARGEST_WORKING_SET && state.pageCounts.size() > best.pageCounts.size())
+                    || (policy == Policy.LAST_ACTIVATED && state.activation > best.activation)) {
+                chosen = entry.getKey();
+            }
+        }
+        return running > 1 ? chosen : -1;
+    }
+
+    /**
+     * The suspended process to resume once the pressure is gone: the fault rate is below the
+     * lower threshold and its working set fits next to those of the running processes.
+     * @param force Resume the first suspended process whatever the pressure (nothing else is left to run).
+     * @return Its id, or -1 for none.
+     */
+    public synchronized int chooseProcessToResume(boolean force) {
+        Integer first = suspended.peekFirst();
+        if (first == null) {
+            return -1;
+        }
+        if (force) {
+            return first;
+        }
+        if (thrashing || lastFaultRate >= lowerFaultRate
+                || getActiveWorkingSetSize() + processes.get(first).pageCounts.size() > frameCount) {
+            return -1;
+        }
+        return first;
+    }
+
+    // Called by the controller when it suspends a process
+    public synchronized void suspend(int processId) {
+        ProcessState state = stateOf(processId);
+        if (!state.isSuspended) {
+            state.isSuspended = true;
+            suspended.addLast(processId);
+            suspensions++;
+        }
+    }
+
+    // Called by the controller when it resumes a process
+    public synchronized void resume(int processId) {
+        ProcessState state = processes.get(processId);
+        if (state != null && state.isSuspended) {
+            state.isSuspended = false;
+            state.activation = activations++;
+            suspended.remove(processId);
+            resumptions++;
+        }
+    }
+
+    public synchronized boolean isSuspended(int processId) {
+        ProcessState state = processes.get(processId);
+        return state != null && state.isSuspended;
+    }
+
+    // Forget an exited process
+    public synchronized void processExited(int processId) {
+        processes.remove(processId);
+        suspended.remove(processId);
+    }
+
+    /**
+     * Pages of a process's working set that no running process's working set holds, the
+     * pages to swap out when it is suspended.
+     * @param processId The suspended process.
+     * @return The pages.
+     */
+    public synchronized int[] getSwapOutPages(int processId) {
+        ProcessState state = processes.get(processId);
+        if (state == null) {
+            return new int[0];
+        }
+        return state.pageCounts.keySet().stream().mapToInt(Integer::intValue).filter(page -> {
+            for (ProcessState other : processes.values()) {
+                if (other != state && !other.isSuspended && other.pageCounts.containsKey(page)) {
+                    return false;
+                }
+            }
+            return true;
+        }).toArray();
+    }
+
+    // Count pages evicted by a swap-out
+    public synchronized void recordSwapOut(int pages) {
+        swappedOutPages += pages;
+    }
+
+    // A running process with no reference in the last working-set window has finished or is blocked
+    private boolean isIdle(ProcessState state) {
+        return references - state.lastReference > workingSetWindow;
+    }
+
+    // Sum of the working-set sizes of the running processes
+    public synchronized long getActiveWorkingSetSize() {
+        long total = 0;
+        for (ProcessState state : processes.values()) {
+            if (!state.isSuspended && !isIdle(state)) {
+                total += state.pageCounts.size();
+            }
+        }
+        return total;
+    }
+
+    public synchronized int getWorkingSetSize(int processId) {
+        ProcessState state = processes.get(processId);
+        return state == null ? 0 : state.pageCounts.size();
+    }
+
+    public synchronized boolean isThrashing() {
+        return thrashing;
+    }
+
+    // Simulated nanoseconds spent thrashing, including a current episode
+    public synchronized long getThrashingTime() {
+        return thrashingTime + (thrashing ? lastTime - thrashingSince : 0);
+    }
+
+    /**
+     * References completed per simulated second since the first reference seen.
+     * @return The throughput, 0 before any time has passed.
+     */
+    public synchronized double getThroughput() {
+        long elapsed = lastTime - Math.max(0, firstTime);
+        return elapsed <= 0 ? 0 : references * 1e9 / elapsed;
+    }
+
+    public Policy getPolicy() {
+        return policy;
+    }
+
+    public boolean isSwapOut() {
+        return swapOut;
+    }
+
+    public int getCheckInterval() {
+        return checkInterval;
+    }
+
+    public int getWorkingSetWindow() {
+        return workingSetWindow;
+    }
+
+    public double getLowerFaultRate() {
+        return lowerFaultRate;
+    }
+
+    public double getUpperFaultRate() {
+        return upperFaultRate;
+    }
+
+    public synchronized long getSuspensions() {
+        return suspensions;
+    }
+
+    public synchronized long getResumptions() {
+        return resumptions;
+    }
+
+    /**
+     * Time spent thrashing, suspensions and throughput.
+     * @return A one-line summary.
+     */
+    public synchronized String getSummary() {
+        long elapsed = lastTime - Math.max(0, firstTime);
+        return "Load Control (" + policy + (swapOut ? ", swap-out" : "") + "): Thrashing: "
+                + String.format("%.1f", elapsed <= 0 ? 0.0 : getThrashingTime() * 100.0 / elapsed) + "% of "
+                + String.format("%.3f", elapsed / 1e6) + " ms (" + episodes + " episode(s)), Suspensions: " + suspensions
+                + ", Resumptions: " + resumptions + ", Swapped Out: " + swappedOutPages + " page(s), Throughput: "
+                + String.format("%.0f", getThroughput()) + " references/s";
+    }
+}
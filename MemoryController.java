@@ -1,216 +1,2657 @@
-package org.example.Controller;
-
-import org.example.Model.*;
-import org.example.View.*;
-
-import javax.swing.*;
-import java.util.List;
-import java.util.Map;
-
-public class MemoryController {
-    private VirtualMemory virtualMemory;
-    private PhysicalMemory physicalMemory;
-    private PageTable pageTable;
-    private TranslationLookasideBuffer tlb;
-    private int pageFaultCounter;
-    private PageReplacementAlgorithm pageReplacementAlgorithm;
-    private int simulationSpeed;
-    private MemoryLogger memoryLogger;
-    private EventLogPanel eventLogPanel;
-
-    public MemoryController(int virtualMemorySize, int physicalMemorySize, PageReplacementAlgorithm replacementAlgorithm, int tlbEntries, EventLogPanel eventLogPanel) {
-        this.virtualMemory = new VirtualMemory(virtualMemorySize);
-        this.physicalMemory = new PhysicalMemory(physicalMemorySize);
-        this.pageTable = new PageTable();
-        this.tlb = new TranslationLookasideBuffer(tlbEntries);
-        this.pageFaultCounter = 0;
-        this.pageReplacementAlgorithm = replacementAlgorithm;
-        this.simulationSpeed = 500; // Default simulation speed (500ms delay)
-        this.memoryLogger = new MemoryLogger("MemoryLog.txt");
-        this.eventLogPanel = eventLogPanel;
-    }
-
-    // Helper Methods to Retrieve Data for Tables
-
-    /**
-     * Retrieves all TLB entries as a map.
-     * @return Map of Virtual Page Number to Physical Frame Number.
-     */
-    public Map<Integer, Integer> getTLBEntries() {
-        return tlb.getEntries(); // Assumes tlb.getEntries() returns a Map<Integer, Integer>
-    }
-
-    /**
-     * Retrieves the entire Page Table as a map.
-     * @return Map of Page Number to Frame Number.
-     */
-    public Map<Integer, Integer> getPageTableMap() {
-        return pageTable.getPageTableMap(); // Use PageTable's method to get the map
-    }
-
-    /**
-     * Retrieves all frames in physical memory.
-     * @return List of Frame objects.
-     */
-    public List<Frame> getPhysicalMemoryFrames() {
-        return physicalMemory.getFrames(); // Use PhysicalMemory's method to get frames
-    }
-
-    // Existing Methods
-
-    public void requestPage(int pageNumber) {
-        if (pageNumber < 0 || pageNumber >= virtualMemory.getSize()) {
-            eventLogPanel.log("Error: Requested page number " + pageNumber + " is out of bounds.");
-            return;
-        }
-
-        Page page = virtualMemory.getPage(pageNumber);
-
-        // Step 1: Check the TLB for the page
-        int frameNumber = tlb.getFrameNumber(pageNumber);
-        if (frameNumber != -1) {
-            // TLB hit
-            eventLogPanel.log("TLB Hit: Page " + pageNumber + " found in TLB (Frame " + frameNumber + ")");
-            applySimulationSpeed();
-            return;
-        } else {
-            eventLogPanel.log("TLB Miss: Page " + pageNumber + " not found in TLB.");
-        }
-
-        // Step 2: Check the Page Table
-        frameNumber = pageTable.getFrameForPage(pageNumber);
-        if (frameNumber != -1) {
-            // Page table hit
-            eventLogPanel.log("Page Table Hit: Page " + pageNumber + " found in Frame " + frameNumber);
-            tlb.addEntry(pageNumber, frameNumber); // Update TLB
-            eventLogPanel.log("TLB Updated: Page " + pageNumber + " added to TLB (Frame " + frameNumber + ")");
-        } else {
-            // Step 3: Page fault
-            pageFaultCounter++;
-            eventLogPanel.log("Page Fault: Page " + pageNumber + " not found in memory. Loading from secondary memory...");
-            loadPageIntoMemory(page);
-        }
-
-        applySimulationSpeed();
-    }
-
-    public void loadPageIntoMemory(Page page) {
-        Frame freeFrame = physicalMemory.getFreeFrame();
-
-        if (freeFrame != null) {
-            // Use free frame to load the page
-            freeFrame.setLoadedPage(page);
-            page.setInMemory(true);
-            page.setFrameNumber(freeFrame.getFrameNumber());
-
-            // Update the Page Table and TLB
-            pageTable.mapPageToFrame(page.getPageNumber(), freeFrame.getFrameNumber());
-            tlb.addEntry(page.getPageNumber(), freeFrame.getFrameNumber());
-
-            eventLogPanel.log("Page Loaded: Page " + page.getPageNumber() + " loaded into Frame " + freeFrame.getFrameNumber());
-        } else {
-            // No free frames; use page replacement
-            eventLogPanel.log("Memory Full: No free frames available. Using page replacement algorithm.");
-            try {
-                pageReplacementAlgorithm.replacePage(page.getPageNumber(), this);
-            } catch (NullPointerException e) {
-                JOptionPane.showMessageDialog(null, "Frames are full. Unable to load new pages.",
-                        "Memory Full", JOptionPane.ERROR_MESSAGE);
-            }
-        }
-    }
-
-    private void applySimulationSpeed() {
-        try {
-            Thread.sleep(simulationSpeed);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            System.err.println("Simulation interrupted.");
-        }
-    }
-
-    public int getPageFaultCount() {
-        return pageFaultCounter;
-    }
-
-    public String getMemoryUsagePercentage() {
-        int totalFrames = physicalMemory.getSize();
-        int usedFrames = totalFrames - physicalMemory.getFreeFrameCount(); // Frames in use
-        return String.format("%.2f", (usedFrames * 100.0) / totalFrames) + "%";
-    }
-
-    public void removePageFromMemory(int pageNumber) {
-        int frameNumber = pageTable.getFrameForPage(pageNumber);
-        if (frameNumber != -1) {
-            Frame frame = physicalMemory.getFrame(frameNumber);
-            frame.setLoadedPage(null); // Clear the frame
-            pageTable.removePage(pageNumber); // Remove mapping from the Page Table
-            tlb.clear(); // Clear TLB as the mapping is no longer valid
-
-            eventLogPanel.log("Page Removed: Page " + pageNumber + " removed from Frame " + frameNumber);
-        }
-    }
-
-    public MemoryLogger getMemoryLogger() {
-        return memoryLogger;
-    }
-
-    public boolean isMemoryFull() {
-        return physicalMemory.isFull();
-    }
-
-    public boolean isPageInMemory(int pageNumber) {
-        return pageTable.isPageInMemory(pageNumber);
-    }
-
-    public Page getPageFromVirtualMemory(int pageNumber) {
-        if (pageNumber < 0 || pageNumber >= virtualMemory.getSize()) {
-            throw new IllegalArgumentException("Page number " + pageNumber + " is out of bounds. Valid range: 0 to " + (virtualMemory.getSize() - 1));
-        }
-        return virtualMemory.getPage(pageNumber);
-    }
-
-    public String getPageFaultRate() {
-        int totalRequests = pageFaultCounter + pageTable.getAccessCount(); // Total page requests
-        if (totalRequests == 0) {
-            return "0.00%"; // No requests, fault rate is 0%
-        }
-        return String.format("%.2f", (pageFaultCounter * 100.0) / totalRequests) + "%";
-    }
-
-    public String getPageReplacementCount() {
-        if (pageReplacementAlgorithm instanceof FIFOReplacement) {
-            return String.valueOf(((FIFOReplacement) pageReplacementAlgorithm).getReplacementCount());
-        }
-        // Add similar handling for other algorithms (e.g., LRUReplacement)
-        return "0";
-    }
-
-    public ListModel<Object> getVirtualMemory() {
-        DefaultListModel<Object> virtualMemoryModel = new DefaultListModel<>();
-        for (int i = 0; i < virtualMemory.getSize(); i++) {
-            Page page = virtualMemory.getPage(i);
-            String pageDetails = "Page " + i + " - ";
-            if (page.isInMemory()) {
-                pageDetails += "In Memory (Frame " + page.getFrameNumber() + ")";
-            } else {
-                pageDetails += "Not in Memory";
-            }
-            virtualMemoryModel.addElement(pageDetails);
-        }
-        return virtualMemoryModel;
-    }
-
-    public void loadInstruction(int address, String data) {
-        String[] dataItems = data.split(",");
-        eventLogPanel.log("Loading instructions at address " + address + ": " + data);
-        for (String item : dataItems) {
-            try {
-                int pageNumber = Integer.parseInt(item.trim(), 16);
-                requestPage(pageNumber);
-            } catch (NumberFormatException e) {
-                eventLogPanel.log("Error: Invalid data format \"" + item + "\". Skipping...");
-            }
-        }
-    }
-}
+package org.example.Controller;
+
+import org.example.Model.*;
+import org.example.View.*;
+
+import java.nio.ByteBuffer;
+import javax.swing.*;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntPredicate;
+import java.util.stream.Collectors;
+
+public class MemoryController {
+    public static final int DEFAULT_PAGE_SIZE = 4096; // Bytes per page when none is given
+    private static final int MAX_HELD_BACK_RECORDS = 1 << 16; // Per process under load control (512 KB), before it is made to run them
+
+    private VirtualMemory virtualMemory;
+    private final int virtualPageCount; // Pages in each address space (virtualMemory also holds copy-on-write copies)
+    private PhysicalMemory physicalMemory;
+    private PageTable pageTable;
+    private TranslationLookasideBuffer tlb;
+    private PageReplacementAlgorithm pageReplacementAlgorithm;
+    private int simulationSpeed;
+    private MemoryLogger memoryLogger;
+    private EventLogPanel eventLogPanel;
+    private DiskSimulator diskSimulator;
+    private LatencyModel latencyModel;
+    private SimulationClock simulationClock;
+    private AsyncDiskQueue asyncDiskQueue;
+    private final Map<Integer, CompletableFuture<Integer>> inFlightFaults; // Faults waiting on the disk queue
+    private ReadaheadPrefetcher readaheadPrefetcher; // Optional readahead stage, null when disabled
+    private WriteBackFlusher writeBackFlusher; // Background flusher for dirty pages, null when disabled
+    private boolean preferCleanVictims; // Ask replacement algorithms to evict clean pages first
+    private final MetricsRegistry metricsRegistry; // Every counter, histogram and rate of this simulation
+    private final LongAdder referenceCounter; // Hot-path counters, cached from the registry
+    private final LongAdder pageFaultCounter;
+    private final LatencyHistogram simulatedLatency; // Simulated nanoseconds per reference
+    private final LatencyHistogram wallLatency; // Wall-clock nanoseconds spent simulating each reference
+    private final SlidingWindowRate recentFaults; // Faults over the most recent references
+    private final AddressTranslator addressTranslator; // Splits virtual addresses into page number and offset
+    private SessionRecorder sessionRecorder; // Records every reference for headless replay, null when not recording
+    private MissRatioCurveEstimator missRatioEstimator; // Estimates LRU miss ratios for all memory sizes, null when off
+    private TimeTravelDebugger timeTravelDebugger; // Checkpoints for stepping back, null when time travel is off
+    private ExecutionJournal executionJournal; // Journal of references and state mutations, null when time travel is off
+    private boolean replaying; // Re-executing journaled references: nothing is recorded, logged or delayed
+    private boolean replacementInProgress; // The replacement algorithm is choosing and removing a victim
+    private HugePageManager hugePageManager; // Huge-page regions and promotion planning, null when huge pages are off
+    private NumaTopology numaTopology; // Nodes of physical memory, null when memory is uniform
+    private boolean zoneReclaim; // A full node evicts its own pages rather than spilling onto other nodes
+    private NumaBalancer numaBalancer; // Moves pages that are mostly accessed remotely, null when off
+    private int allocatingProcessId; // Process whose reference is being served, for node-local allocation
+    private CompressedSwapPool compressedSwap; // Compressed tier between memory and disk, null when off
+    private ProcessTable processTable; // Per-process address spaces, null until the first fork
+    private boolean discardingPage; // Removing a page no process maps: its contents are not kept
+    private SamePageMerger samePageMerger; // Merges frames with identical contents, null when off
+    private FaultFrequencyAllocator faultFrequencyAllocator; // Per-process resident-set limits, null when frames are one pool
+    private LoadController loadController; // Suspends processes while memory thrashes, null when off
+    private PageWalkCache pageWalkCache; // Caches upper-level page-table entries, null when every walk reads every level
+    private CacheHierarchy cpuCaches; // Physically indexed CPU caches behind translation, null when every access goes to memory
+    private int accessOffset; // Byte offset within the page of the address being accessed, 0 for page references
+
+    public MemoryController(int virtualMemorySize, int physicalMemorySize, PageReplacementAlgorithm replacementAlgorithm, int tlbEntries, EventLogPanel eventLogPanel) {
+        this(virtualMemorySize, physicalMemorySize, DEFAULT_PAGE_SIZE, replacementAlgorithm, tlbEntries, eventLogPanel);
+    }
+
+    /**
+     * @param virtualMemorySize Number of virtual pages.
+     * @param physicalMemorySize Number of physical frames.
+     * @param pageSize Bytes per page (power of 2), used to translate byte addresses.
+     */
+    public MemoryController(int virtualMemorySize, int physicalMemorySize, int pageSize, PageReplacementAlgorithm replacementAlgorithm, int tlbEntries, EventLogPanel eventLogPanel) {
+        this.addressTranslator = new AddressTranslator(pageSize);
+        this.virtualMemory = new VirtualMemory(virtualMemorySize);
+        this.virtualPageCount = virtualMemorySize;
+        this.physicalMemory = new PhysicalMemory(physicalMemorySize, pageSize);
+        this.metricsRegistry = new MetricsRegistry();
+        this.referenceCounter = metricsRegistry.counter(MetricsRegistry.REFERENCES);
+        this.pageFaultCounter = metricsRegistry.counter(MetricsRegistry.PAGE_FAULTS);
+        this.simulatedLatency = metricsRegistry.histogram(MetricsRegistry.SIMULATED_LATENCY);
+        this.wallLatency = metricsRegistry.histogram(MetricsRegistry.WALL_LATENCY);
+        this.recentFaults = metricsRegistry.rate(MetricsRegistry.RECENT_FAULTS, 16, 64);
+        this.pageTable = new PageTable(metricsRegistry);
+        this.tlb = new TranslationLookasideBuffer(tlbEntries, metricsRegistry);
+        this.pageReplacementAlgorithm = replacementAlgorithm;
+        if (replacementAlgorithm instanceof AdaptiveReplacement adaptive) {
+            adaptive.setSwitchListener(message -> {
+                metricsRegistry.increment(MetricsRegistry.POLICY_SWITCHES);
+                log(message);
+            });
+        }
+        this.simulationSpeed = 500; // Default simulation speed (500ms delay)
+        this.memoryLogger = new MemoryLogger("MemoryLog.txt", 1000); // Keep the most recent entries only
+        this.eventLogPanel = eventLogPanel;
+        this.diskSimulator = new DiskSimulator();
+        this.latencyModel = new LatencyModel();
+        this.simulationClock = new SimulationClock();
+        this.asyncDiskQueue = new AsyncDiskQueue(4, diskSimulator.getReadLatencyNanos());
+        this.inFlightFaults = new HashMap<>();
+        this.writeBackFlusher = new WriteBackFlusher();
+        this.preferCleanVictims = false;
+    }
+
+    // Helper Methods to Retrieve Data for Tables
+
+    /**
+     * Retrieves all TLB entries as a map.
+     * @return Map of Virtual Page Number to Physical Frame Number.
+     */
+    public Map<Integer, Integer> getTLBEntries() {
+        return tlb.getEntries(); // Assumes tlb.getEntries() returns a Map<Integer, Integer>
+    }
+
+    /**
+     * Retrieves the entire Page Table as a map.
+     * @return Map of Page Number to Frame Number.
+     */
+    public Map<Integer, Integer> getPageTableMap() {
+        return pageTable.getPageTableMap(); // Use PageTable's method to get the map
+    }
+
+    /**
+     * Retrieves all frames in physical memory.
+     * @return List of Frame objects.
+     */
+    public List<Frame> getPhysicalMemoryFrames() {
+        return physicalMemory.getFrames(); // Use PhysicalMemory's method to get frames
+    }
+
+    // Existing Methods
+
+    public synchronized void requestPage(int pageNumber) {
+        requestPage(0, pageNumber);
+    }
+
+    /**
+     * Reference a page on behalf of a process.
+     * The process id only matters to per-process stages such as readahead stream detection.
+     * @param processId The process making the reference.
+     * @param pageNumber The page to reference.
+     */
+    public synchronized void requestPage(int processId, int pageNumber) {
+        requestPage(processId, pageNumber, false);
+    }
+
+    /**
+     * Reference a page on behalf of a process, as a read or a write.
+     * A write marks the page dirty, so it has to be written back before its frame is reused.
+     * @param processId The process making the reference.
+     * @param pageNumber The page to reference.
+     * @param write True for a write, false for a read.
+     */
+    public synchronized int requestPage(int processId, int pageNumber, boolean write) {
+        if (pageNumber < 0 || pageNumber >= virtualPageCount) {
+            log("Error: Requested page number " + pageNumber + " is out of bounds.");
+            return -1;
+        }
+        if (!replaying) {
+            if (sessionRecorder != null) {
+                sessionRecorder.record(processId, pageNumber, write);
+            }
+            if (timeTravelDebugger != null) {
+                timeTravelDebugger.beforeReference(TraceRecord.pack(processId, pageNumber, write));
+            }
+        }
+        if (!inFlightFaults.isEmpty()) {
+            completeDueFaults(); // Asynchronous reads the simulated clock has passed land first
+        }
+
+        long wallStart = System.nanoTime();
+        long simulatedStart = simulationClock.getCurrentTime();
+        allocatingProcessId = processId;
+        simulationClock.recordReference();
+        referenceCounter.increment();
+        boolean pageFault = false;
+        if (processTable != null) {
+            // Step 0: The process's own page map names the page, which may be shared with other processes
+            int virtualPage = pageNumber;
+            pageNumber = processTable.translate(processId, virtualPage);
+            if (write && processTable.getMapCount(pageNumber) > 1) {
+                pageFault = copyOnWrite(processId, virtualPage, pageNumber);
+                pageNumber = processTable.translate(processId, virtualPage);
+            }
+        }
+        if (missRatioEstimator != null && !replaying) {
+            missRatioEstimator.recordReference(pageNumber); // The page after translation, so private copies stay apart
+        }
+        Page page = virtualMemory.getPage(pageNumber);
+
+        // Step 1: Check the TLB for the page
+        simulationClock.advance(SimulationClock.Component.TLB, latencyModel.getTlbHitNanos());
+        int frameNumber = tlb.getFrameNumber(pageNumber);
+        if (frameNumber != -1) {
+            // TLB hit
+            log("TLB Hit: Page " + pageNumber + " found in TLB (Frame " + frameNumber + ")");
+            pageReplacementAlgorithm.pageAccessed(pageNumber);
+        } else {
+            log("TLB Miss: Page " + pageNumber + " not found in TLB.");
+
+            // Step 2: Check the Page Table (a walk ending at a huge-page entry is one level shorter)
+            int hugePage = hugePageManager == null ? -1 : hugePageManager.getRegion(pageNumber);
+            int hugeFrame = hugePage == -1 ? -1 : pageTable.getHugePageFrame(hugePage);
+            simulationClock.advance(SimulationClock.Component.PAGE_WALK, getWalkNanos(pageNumber, hugeFrame != -1));
+            frameNumber = pageTable.getFrameForPage(pageNumber);
+            if (frameNumber != -1) {
+                // Page table hit
+                log("Page Table Hit: Page " + pageNumber + " found in Frame " + frameNumber);
+                if (hugeFrame != -1) {
+                    metricsRegistry.increment(MetricsRegistry.HUGE_PAGE_WALKS);
+                    addHugeTlbEntry(hugePage, hugeFrame); // One entry covers the whole region
+                    log("TLB Updated: Huge Page " + hugePage + " added to TLB (Frames "
+                            + hugeFrame + "-" + (hugeFrame + hugePageManager.getPagesPerHugePage() - 1) + ")");
+                } else {
+                    addTlbEntry(pageNumber, frameNumber); // Update TLB
+                    log("TLB Updated: Page " + pageNumber + " added to TLB (Frame " + frameNumber + ")");
+                }
+                pageReplacementAlgorithm.pageAccessed(pageNumber);
+            } else {
+                // Step 3: Page fault
+                pageFault = true;
+                pageFaultCounter.increment();
+                if (compressedSwap != null && compressedSwap.contains(pageNumber)) {
+                    log("Page Fault: Page " + pageNumber + " not found in memory. Decompressing it from compressed swap...");
+                    simulationClock.advance(SimulationClock.Component.COMPRESSION, compressedSwap.getDecompressNanos());
+                } else {
+                    log("Page Fault: Page " + pageNumber + " not found in memory. Loading from secondary memory...");
+                    simulationClock.advance(SimulationClock.Component.DISK_READ, diskSimulator.getReadLatencyNanos());
+                }
+                loadPageIntoMemory(page);
+            }
+        }
+
+        // Collapse regions this fault completed before the data access, so the frame returned stays valid
+        if (hugePageManager != null && hugePageManager.hasFullRegions()) {
+            promoteFullRegions();
+        }
+
+        frameNumber = page.getFrameNumber();
+        chargeMemoryAccess(processId, pageNumber, frameNumber);
+        if (frameNumber != -1) {
+            physicalMemory.getFrame(frameNumber).setLastAccessTime(simulationClock.getReferenceCount());
+            if (write) {
+                if (!page.isDirty()) {
+                    journal(ExecutionJournal.EventType.DIRTY, pageNumber, frameNumber, 0);
+                }
+                page.setDirty(true);
+                if (writeBackFlusher != null) {
+                    writeBackFlusher.markDirty(pageNumber);
+                }
+            }
+        }
+        runReferenceStages(processId, pageNumber, write, pageFault);
+        simulatedLatency.record(simulationClock.getCurrentTime() - simulatedStart);
+        wallLatency.record(System.nanoTime() - wallStart);
+        recentFaults.record(simulationClock.getReferenceCount(), pageFault ? 1 : 0);
+        if (replaying) {
+            return frameNumber;
+        }
+        if (timeTravelDebugger != null) {
+            timeTravelDebugger.afterReference();
+        }
+        applySimulationSpeed();
+        return frameNumber;
+    }
+
+    // The stages that watch every reference (synchronous or asynchronous) once it is made
+    private void runReferenceStages(int processId, int pageNumber, boolean write, boolean pageFault) {
+        if (faultFrequencyAllocator != null) {
+            adjustAllocation(processId, pageFault);
+        }
+        if (readaheadPrefetcher != null) {
+            performReadahead(processId, pageNumber, pageFault);
+        }
+        if (writeBackFlusher != null && writeBackFlusher.recordReference()) {
+            flushDirtyPages(write ? pageNumber : -1);
+        }
+        if (numaBalancer != null && numaBalancer.recordReference()) {
+            migrateRemotePages();
+        }
+        if (samePageMerger != null && samePageMerger.recordReference()) {
+            mergeSamePages(pageNumber);
+        }
+    }
+
+    /**
+     * Translate a virtual byte address and reference its page.
+     * The address is split into page number and offset with a shift and a mask,
+     * and the offset is carried over unchanged into the frame.
+     * @param processId The process making the reference.
+     * @param virtualAddress The virtual byte address.
+     * @param write True for a write, false for a read.
+     * @return The physical byte address, or -1 if the address is out of range or the page could not be loaded.
+     */
+    public synchronized long accessAddress(int processId, long virtualAddress, boolean write) {
+        if (virtualAddress < 0 || virtualAddress >= getVirtualAddressSpaceSize()) {
+            log("Error: Virtual address 0x" + Long.toHexString(virtualAddress).toUpperCase() + " is out of bounds.");
+            return -1;
+        }
+        int pageNumber = addressTranslator.getPageNumber(virtualAddress);
+        int offset = addressTranslator.getOffset(virtualAddress);
+        accessOffset = offset;
+        int frameNumber;
+        try {
+            frameNumber = requestPage(processId, pageNumber, write);
+        } finally {
+            accessOffset = 0;
+        }
+        if (frameNumber == -1) {
+            return -1;
+        }
+        long physicalAddress = addressTranslator.toPhysicalAddress(frameNumber, offset);
+        log("Address Translation: VA 0x" + Long.toHexString(virtualAddress).toUpperCase() + " = Page " + pageNumber
+                + " + Offset " + offset + " -> Frame " + frameNumber + " -> PA 0x" + Long.toHexString(physicalAddress).toUpperCase());
+        return physicalAddress;
+    }
+
+    /**
+     * Settings that determine how this simulation behaves, in the form stored in session traces.
+     * @return The configuration, keyed by the SessionRecorder constants.
+     */
+    public synchronized Map<String, String> getSessionConfiguration() {
+        Map<String, String> configuration = new LinkedHashMap<>();
+        configuration.put(SessionRecorder.VIRTUAL_PAGES, Integer.toString(virtualPageCount));
+        configuration.put(SessionRecorder.PHYSICAL_FRAMES, Integer.toString(physicalMemory.getSize()));
+        configuration.put(SessionRecorder.PAGE_SIZE, Integer.toString(getPageSize()));
+        configuration.put(SessionRecorder.TLB_ENTRIES, Integer.toString(tlb.getMaxEntries()));
+        configuration.put(SessionRecorder.HUGE_PAGE_SIZE, Integer.toString(getHugePageSize()));
+        configuration.put(SessionRecorder.HUGE_TLB_ENTRIES, Integer.toString(tlb.getHugeMaxEntries()));
+        configuration.put(SessionRecorder.NUMA_NODES, Integer.toString(numaTopology == null ? 1 : numaTopology.getNodeCount()));
+        if (numaTopology != null) {
+            configuration.put(SessionRecorder.NUMA_POLICY, numaTopology.getDefaultPolicy().name());
+            configuration.put(SessionRecorder.NUMA_REMOTE_DISTANCE, Integer.toString(numaTopology.getDistance(0, 1)));
+            configuration.put(SessionRecorder.NUMA_ZONE_RECLAIM, Boolean.toString(zoneReclaim));
+            configuration.put(SessionRecorder.NUMA_BALANCING, Boolean.toString(numaBalancer != null));
+        }
+        configuration.put(SessionRecorder.COMPRESSED_SWAP_BYTES,
+                Long.toString(compressedSwap == null ? 0 : compressedSwap.getCapacityBytes()));
+        if (compressedSwap != null) {
+            configuration.put(SessionRecorder.COMPRESSION_LEVEL, Integer.toString(compressedSwap.getCompressionLevel()));
+        }
+        configuration.put(SessionRecorder.SAME_PAGE_MERGING, Boolean.toString(samePageMerger != null));
+        if (samePageMerger != null) {
+            configuration.put(SessionRecorder.MERGE_PAGES_PER_SCAN, Integer.toString(samePageMerger.getPagesPerScan()));
+            configuration.put(SessionRecorder.MERGE_SCAN_INTERVAL, Integer.toString(samePageMerger.getScanInterval()));
+        }
+        configuration.put(SessionRecorder.FAULT_FREQUENCY_SCOPE,
+                faultFrequencyAllocator == null ? "OFF" : faultFrequencyAllocator.getScope().name());
+        if (faultFrequencyAllocator != null) {
+            configuration.put(SessionRecorder.FAULT_FREQUENCY_INITIAL_FRAMES, Integer.toString(faultFrequencyAllocator.getInitialFrames()));
+            configuration.put(SessionRecorder.FAULT_FREQUENCY_WINDOW, Integer.toString(faultFrequencyAllocator.getWindow()));
+            configuration.put(SessionRecorder.FAULT_FREQUENCY_LOWER, Double.toString(faultFrequencyAllocator.getLowerThreshold()));
+            configuration.put(SessionRecorder.FAULT_FREQUENCY_UPPER, Double.toString(faultFrequencyAllocator.getUpperThreshold()));
+        }
+        configuration.put(SessionRecorder.PAGE_WALK_CACHE, pageWalkCache == null ? "off"
+                : Arrays.stream(pageWalkCache.getEntries()).mapToObj(Integer::toString).collect(Collectors.joining(",")));
+        configuration.put(SessionRecorder.CPU_CACHES, cpuCaches == null ? "off" : cpuCaches.getSpecification());
+        configuration.put(SessionRecorder.ALGORITHM, pageReplacementAlgorithm.getName());
+        configuration.put(SessionRecorder.ALGORITHM_PARAMETERS, pageReplacementAlgorithm.getParameters());
+        configuration.put(SessionRecorder.READAHEAD, Boolean.toString(readaheadPrefetcher != null));
+        configuration.put(SessionRecorder.WRITE_BACK, Boolean.toString(writeBackFlusher != null));
+        configuration.put(SessionRecorder.PREFER_CLEAN_VICTIMS, Boolean.toString(preferCleanVictims));
+        return configuration;
+    }
+
+    /**
+     * Start recording every reference made through requestPage (directly, by address or by
+     * instruction) into a session trace. Asynchronous references are refused and time travel
+     * cannot jump while recording.
+     * @param path The trace file to create; any earlier recording is stopped first.
+     * @return The recorder.
+     */
+    public synchronized SessionRecorder startRecording(Path path) throws IOException {
+        stopRecording();
+        sessionRecorder = new SessionRecorder(path, getPageSize(), getSessionConfiguration());
+        log("Recording session to " + path);
+        return sessionRecorder;
+    }
+
+    /**
+     * Stop recording and close the session trace, if one is being recorded.
+     */
+    public synchronized void stopRecording() throws IOException {
+        if (sessionRecorder != null) {
+            SessionRecorder recorder = sessionRecorder;
+            sessionRecorder = null;
+            recorder.close();
+            log("Session recording stopped after " + recorder.getRecordCount() + " references.");
+        }
+    }
+
+    public synchronized SessionRecorder getSessionRecorder() {
+        return sessionRecorder;
+    }
+
+    /**
+     * Feed every live reference made through requestPage to a miss ratio curve estimator,
+     * alongside the simulation. Like recording, this observes the references only; it is
+     * not part of snapshots and is not rewound by time travel.
+     * @param missRatioEstimator The estimator, or null to stop estimating.
+     */
+    public synchronized void setMissRatioEstimator(MissRatioCurveEstimator missRatioEstimator) {
+        this.missRatioEstimator = missRatioEstimator;
+    }
+
+    public synchronized MissRatioCurveEstimator getMissRatioEstimator() {
+        return missRatioEstimator;
+    }
+
+    /**
+     * Save the complete simulation state: page table, TLB order, frames and their contents,
+     * replacement-algorithm internals, disk, clock, metrics and the optional stages.
+     * Restoring it with restoreSnapshot continues exactly where this simulation stands,
+     * so experiments can start from a warmed-up memory instead of replaying the warm-up.
+     * @param path The snapshot file to create.
+     */
+    public synchronized void saveSnapshot(Path path) throws IOException {
+        writeState(path);
+        log("Snapshot saved to " + path);
+    }
+
+    synchronized void writeState(Path path) throws IOException {
+        if (!inFlightFaults.isEmpty()) {
+            throw new IllegalStateException("Cannot snapshot while asynchronous faults are in flight.");
+        }
+        try (SnapshotOutput out = new SnapshotOutput(path)) {
+            Map<String, String> configuration = getSessionConfiguration();
+            out.putInt(configuration.size());
+            for (Map.Entry<String, String> entry : configuration.entrySet()) {
+                out.putString(entry.getKey());
+                out.putString(entry.getValue());
+            }
+            out.putInt(simulationSpeed);
+            out.putBoolean(preferCleanVictims);
+            out.putLong(latencyModel.getTlbHitNanos());
+            out.putLong(latencyModel.getPageWalkNanosPerLevel());
+            out.putInt(latencyModel.getPageTableLevels());
+            out.putLong(latencyModel.getMemoryAccessNanos());
+            out.putInt(asyncDiskQueue.getQueueDepth());
+            out.putLong(asyncDiskQueue.getServiceTimeNanos());
+            asyncDiskQueue.writeSnapshot(out);
+            virtualMemory.writeSnapshot(out);
+            physicalMemory.writeSnapshot(out);
+            pageTable.writeSnapshot(out);
+            tlb.writeSnapshot(out);
+            pageReplacementAlgorithm.writeSnapshot(out);
+            diskSimulator.writeSnapshot(out);
+            simulationClock.writeSnapshot(out);
+            metricsRegistry.writeSnapshot(out);
+            out.putBoolean(readaheadPrefetcher != null);
+            if (readaheadPrefetcher != null) {
+                out.putInt(readaheadPrefetcher.getInitialWindow());
+                out.putInt(readaheadPrefetcher.getMaxWindow());
+                out.putInt(readaheadPrefetcher.getMaxStride());
+                out.putLong(readaheadPrefetcher.getColdAge());
+                readaheadPrefetcher.writeSnapshot(out);
+            }
+            out.putBoolean(writeBackFlusher != null);
+            if (writeBackFlusher != null) {
+                out.putInt(writeBackFlusher.getFlushInterval());
+                out.putInt(writeBackFlusher.getDirtyThreshold());
+                out.putInt(writeBackFlusher.getMaxRunLength());
+                writeBackFlusher.writeSnapshot(out);
+            }
+            out.putBoolean(numaTopology != null);
+            if (numaTopology != null) {
+                out.putInt(numaTopology.getNodeCount());
+                out.putBoolean(zoneReclaim);
+                numaTopology.writeSnapshot(out);
+                out.putBoolean(numaBalancer != null);
+                if (numaBalancer != null) {
+                    out.putInt(numaBalancer.getScanInterval());
+                    out.putInt(numaBalancer.getMigrationThreshold());
+                    numaBalancer.writeSnapshot(out);
+                }
+            }
+            out.putBoolean(processTable != null);
+            if (processTable != null) {
+                processTable.writeSnapshot(out);
+            }
+            out.putBoolean(compressedSwap != null);
+            if (compressedSwap != null) {
+                out.putLong(compressedSwap.getCapacityBytes());
+                out.putInt(compressedSwap.getCompressionLevel());
+                out.putLong(compressedSwap.getCompressNanos());
+                out.putLong(compressedSwap.getDecompressNanos());
+                compressedSwap.writeSnapshot(out);
+            }
+            out.putBoolean(samePageMerger != null);
+            if (samePageMerger != null) {
+                out.putInt(samePageMerger.getPagesPerScan());
+                out.putInt(samePageMerger.getScanInterval());
+                samePageMerger.writeSnapshot(out);
+            }
+            out.putBoolean(faultFrequencyAllocator != null);
+            if (faultFrequencyAllocator != null) {
+                out.putInt(faultFrequencyAllocator.getInitialFrames());
+                out.putInt(faultFrequencyAllocator.getWindow());
+                out.putLong(Double.doubleToLongBits(faultFrequencyAllocator.getLowerThreshold()));
+                out.putLong(Double.doubleToLongBits(faultFrequencyAllocator.getUpperThreshold()));
+                out.putString(faultFrequencyAllocator.getScope().name());
+                faultFrequencyAllocator.writeSnapshot(out);
+            }
+            out.putBoolean(pageWalkCache != null);
+            if (pageWalkCache != null) {
+                out.putInt(pageWalkCache.getLevels());
+                out.putInt(pageWalkCache.getBitsPerLevel());
+                out.putIntArray(pageWalkCache.getEntries());
+                pageWalkCache.writeSnapshot(out);
+            }
+            out.putBoolean(cpuCaches != null);
+            if (cpuCaches != null) {
+                out.putString(cpuCaches.getSpecification());
+                cpuCaches.writeSnapshot(out);
+            }
+        }
+    }
+
+    /**
+     * Create a simulation from a snapshot written by saveSnapshot. Frame contents are
+     * memory-mapped copy-on-write, so restoring is fast and never modifies the snapshot.
+     * @param path The snapshot file.
+     * @param eventLogPanel The panel to log events to, or null when running headless.
+     * @return The restored controller.
+     */
+    public static MemoryController restoreSnapshot(Path path, EventLogPanel eventLogPanel) throws IOException {
+        try (SnapshotInput in = new SnapshotInput(path)) {
+            Map<String, String> configuration = readConfiguration(in);
+            MemoryController memoryController = new MemoryController(
+                    Integer.parseInt(configuration.get(SessionRecorder.VIRTUAL_PAGES)),
+                    Integer.parseInt(configuration.get(SessionRecorder.PHYSICAL_FRAMES)),
+                    Integer.parseInt(configuration.get(SessionRecorder.PAGE_SIZE)),
+                    PageReplacementAlgorithm.forName(configuration.get(SessionRecorder.ALGORITHM),
+                            configuration.get(SessionRecorder.ALGORITHM_PARAMETERS)),
+                    Integer.parseInt(configuration.get(SessionRecorder.TLB_ENTRIES)),
+                    eventLogPanel);
+            int hugePageSize = Integer.parseInt(configuration.getOrDefault(SessionRecorder.HUGE_PAGE_SIZE, "0"));
+            if (hugePageSize != 0) {
+                memoryController.configureHugePages(hugePageSize,
+                        Integer.parseInt(configuration.get(SessionRecorder.HUGE_TLB_ENTRIES)));
+            }
+            memoryController.readSnapshot(in);
+            memoryController.log("Snapshot restored from " + path);
+            return memoryController;
+        }
+    }
+
+    /**
+     * Restore this simulation, in place, to a snapshot taken of it (or of an identically
+     * configured one) by saveSnapshot. The event log and session recorder are kept;
+     * time travel is disabled, since the journal no longer leads to the restored state.
+     * @param path The snapshot file.
+     */
+    public synchronized void restoreState(Path path) throws IOException {
+        disableTimeTravel();
+        readState(path);
+        log("Snapshot restored from " + path);
+    }
+
+    synchronized void readState(Path path) throws IOException {
+        if (!inFlightFaults.isEmpty()) {
+            throw new IllegalStateException("Cannot restore while asynchronous faults are in flight.");
+        }
+        try (SnapshotInput in = new SnapshotInput(path)) {
+            Map<String, String> configuration = readConfiguration(in);
+            Map<String, String> current = getSessionConfiguration();
+            for (String key : new String[] {SessionRecorder.VIRTUAL_PAGES, SessionRecorder.PHYSICAL_FRAMES,
+                    SessionRecorder.PAGE_SIZE, SessionRecorder.TLB_ENTRIES, SessionRecorder.ALGORITHM,
+                    SessionRecorder.ALGORITHM_PARAMETERS, SessionRecorder.HUGE_PAGE_SIZE, SessionRecorder.HUGE_TLB_ENTRIES,
+                    SessionRecorder.NUMA_NODES}) {
+                if (!current.get(key).equals(configuration.get(key))) {
+                    throw new IOException("Snapshot " + key + " is " + configuration.get(key)
+                            + " but this simulation uses " + current.get(key) + ".");
+                }
+            }
+            int speed = simulationSpeed;
+            readSnapshot(in);
+            simulationSpeed = speed; // The speed is a viewing preference, not simulation state
+        }
+    }
+
+    private static Map<String, String> readConfiguration(SnapshotInput in) throws IOException {
+        Map<String, String> configuration = new LinkedHashMap<>();
+        int propertyCount = in.getInt();
+        for (int i = 0; i < propertyCount; i++) {
+            String key = in.getString();
+            configuration.put(key, in.getString());
+        }
+        return configuration;
+    }
+
+    private synchronized void readSnapshot(SnapshotInput in) throws IOException {
+        simulationSpeed = in.getInt();
+        preferCleanVictims = in.getBoolean();
+        latencyModel = new LatencyModel(in.getLong(), in.getLong(), in.getInt(), in.getLong());
+        configureAsyncDiskQueue(in.getInt(), in.getLong());
+        asyncDiskQueue.readSnapshot(in);
+        virtualMemory.readSnapshot(in);
+        physicalMemory.readSnapshot(in, virtualMemory);
+        pageTable.readSnapshot(in);
+        tlb.readSnapshot(in);
+        if (hugePageManager != null) {
+            countResidentPages();
+        }
+        pageReplacementAlgorithm.readSnapshot(in);
+        diskSimulator.readSnapshot(in, virtualMemory);
+        simulationClock.readSnapshot(in);
+        metricsRegistry.readSnapshot(in);
+        readaheadPrefetcher = null;
+        if (in.getBoolean()) {
+            readaheadPrefetcher = new ReadaheadPrefetcher(in.getInt(), in.getInt(), in.getInt(), in.getLong());
+            readaheadPrefetcher.readSnapshot(in);
+        }
+        writeBackFlusher = null;
+        if (in.getBoolean()) {
+            writeBackFlusher = new WriteBackFlusher(in.getInt(), in.getInt(), in.getInt());
+            writeBackFlusher.readSnapshot(in);
+        }
+        numaTopology = null;
+        numaBalancer = null;
+        zoneReclaim = false;
+        if (in.getBoolean()) {
+            numaTopology = new NumaTopology(in.getInt(), physicalMemory.getSize(), latencyModel.getMemoryAccessNanos(),
+                    NumaTopology.LOCAL_DISTANCE); // Distances and latencies are part of the saved state
+            zoneReclaim = in.getBoolean();
+            numaTopology.readSnapshot(in);
+            if (in.getBoolean()) {
+                numaBalancer = new NumaBalancer(virtualPageCount, in.getInt(), in.getInt());
+                numaBalancer.readSnapshot(in);
+            }
+        }
+        processTable = null;
+        if (in.getBoolean()) {
+            processTable = new ProcessTable(virtualPageCount);
+            processTable.readSnapshot(in);
+        }
+        compressedSwap = null;
+        if (in.getBoolean()) {
+            compressedSwap = new CompressedSwapPool(virtualPageCount, getPageSize(), in.getLong(), in.getInt(),
+                    in.getLong(), in.getLong(), metricsRegistry);
+            compressedSwap.readSnapshot(in);
+        }
+        samePageMerger = null;
+        if (in.getBoolean()) {
+            samePageMerger = new SamePageMerger(in.getInt(), in.getInt());
+            samePageMerger.readSnapshot(in);
+        }
+        faultFrequencyAllocator = null;
+        if (in.getBoolean()) {
+            faultFrequencyAllocator = new FaultFrequencyAllocator(physicalMemory.getSize(), in.getInt(), in.getInt(),
+                    Double.longBitsToDouble(in.getLong()), Double.longBitsToDouble(in.getLong()),
+                    FaultFrequencyAllocator.Scope.valueOf(in.getString()));
+            faultFrequencyAllocator.readSnapshot(in);
+        }
+        pageWalkCache = null;
+        if (in.getBoolean()) {
+            pageWalkCache = new PageWalkCache(in.getInt(), in.getInt(), in.getIntArray());
+            pageWalkCache.readSnapshot(in);
+        }
+        cpuCaches = null;
+        if (in.getBoolean()) {
+            cpuCaches = CacheHierarchy.parse(in.getString());
+            cpuCaches.readSnapshot(in);
+        }
+    }
+
+    /**
+     * Turn huge pages on or off. With huge pages on, an aligned region of base pages that
+     * becomes fully resident is collapsed into a contiguous, aligned run of frames (moving
+     * pages as needed, as khugepaged does) and mapped as one huge page: a single TLB entry
+     * covers it and its page walk stops one level early. Evicting any of its pages splits it.
+     * @param hugePageSize Bytes per huge page (a power of 2 multiple of the page size), or 0 to turn huge pages off.
+     * @param hugeTlbEntries TLB entries reserved for huge pages.
+     */
+    public synchronized void configureHugePages(int hugePageSize, int hugeTlbEntries) {
+        int pageSize = getPageSize();
+        if (hugePageSize != 0) {
+            if (hugePageSize < 2 * pageSize || (hugePageSize & (hugePageSize - 1)) != 0) {
+                throw new IllegalArgumentException("Huge page size must be a power of 2 of at least two pages ("
+                        + 2 * pageSize + " bytes).");
+            }
+            if (hugePageSize / pageSize > physicalMemory.getSize()) {
+                throw new IllegalArgumentException("A huge page of " + hugePageSize + " bytes does not fit in physical memory.");
+            }
+            if (hugeTlbEntries <= 0) {
+                throw new IllegalArgumentException("Huge pages need at least one TLB entry.");
+            }
+        }
+        for (int region = 0; hugePageManager != null && region < hugePageManager.getRegionCount(); region++) {
+            demoteRegion(region);
+        }
+        int pagesPerHugePage = hugePageSize / pageSize;
+        tlb.configureHugePages(pagesPerHugePage, hugePageSize == 0 ? 0 : hugeTlbEntries);
+        if (pagesPerHugePage == 0) {
+            hugePageManager = null;
+            log("Huge pages disabled.");
+            return;
+        }
+        hugePageManager = new HugePageManager(pagesPerHugePage, virtualPageCount);
+        countResidentPages();
+        log("Huge pages enabled: " + hugePageSize + " bytes (" + pagesPerHugePage + " pages), "
+                + hugeTlbEntries + " TLB entries.");
+    }
+
+    /**
+     * Size of a huge page in bytes.
+     * @return The huge page size, or 0 when huge pages are off.
+     */
+    public synchronized int getHugePageSize() {
+        return hugePageManager == null ? 0 : hugePageManager.getPagesPerHugePage() * getPageSize();
+    }
+
+    /**
+     * Collapse the region containing a page into a huge page now, instead of waiting for
+     * the region to become fully resident through faults.
+     * @param pageNumber Any page of the region.
+     * @return True if the region is now a huge page; false if it is not fully resident.
+     */
+    public synchronized boolean promoteHugePage(int pageNumber) {
+        if (hugePageManager == null) {
+            throw new IllegalStateException("Huge pages are not enabled.");
+        }
+        return hugePageManager.isTracked(pageNumber) && promoteRegion(hugePageManager.getRegion(pageNumber));
+    }
+
+    /**
+     * Split the huge page containing a page back into base pages. The pages stay resident.
+     * @param pageNumber Any page of the region.
+     * @return True if the region was a huge page.
+     */
+    public synchronized boolean demoteHugePage(int pageNumber) {
+        if (hugePageManager == null) {
+            throw new IllegalStateException("Huge pages are not enabled.");
+        }
+        return hugePageManager.isTracked(pageNumber) && demoteRegion(hugePageManager.getRegion(pageNumber));
+    }
+
+    public synchronized int getHugePageCount() {
+        return pageTable.getHugePageCount();
+    }
+
+    public int getTlbBaseHitCount() {
+        return tlb.getBaseHitCount();
+    }
+
+    public int getTlbHugeHitCount() {
+        return tlb.getHugeHitCount();
+    }
+
+    /**
+     * Hits, walks and promotions per page size, for judging what huge pages do to TLB reach.
+     * @return A one-line summary.
+     */
+    public synchronized String getHugePageStatistics() {
+        long walks = metricsRegistry.getCount(MetricsRegistry.PAGE_TABLE_ACCESSES);
+        long hugeWalks = metricsRegistry.getCount(MetricsRegistry.HUGE_PAGE_WALKS);
+        long reach = (long) tlb.getMaxEntries() * getPageSize() + (long) tlb.getHugeMaxEntries() * getHugePageSize();
+        return "TLB Hits Base / Huge: " + tlb.getBaseHitCount() + " / " + tlb.getHugeHitCount()
+                + ", Walks Base / Huge: " + (walks - hugeWalks) + " / " + hugeWalks
+                + ", Huge Pages: " + pageTable.getHugePageCount()
+                + " (Promoted " + metricsRegistry.getCount(MetricsRegistry.HUGE_PAGE_PROMOTIONS)
+                + ", Split " + metricsRegistry.getCount(MetricsRegistry.HUGE_PAGE_DEMOTIONS)
+                + ", Pages Moved " + metricsRegistry.getCount(MetricsRegistry.HUGE_PAGE_MIGRATIONS) + ")"
+                + ", TLB Reach: " + reach / 1024 + " KB";
+    }
+
+    private void countResidentPages() {
+        hugePageManager.countResidentPages(pageNumber -> virtualMemory.getPage(pageNumber).isInMemory(),
+                region -> pageTable.getHugePageFrame(region) != -1);
+    }
+
+    private void promoteFullRegions() {
+        for (int region = hugePageManager.pollFullRegion(); region != -1; region = hugePageManager.pollFullRegion()) {
+            promoteRegion(region);
+        }
+    }
+
+    private boolean promoteRegion(int region) {
+        if (pageTable.getHugePageFrame(region) != -1) {
+            return true;
+        }
+        if (!hugePageManager.isFullyResident(region)) {
+            return false;
+        }
+        int pagesPerHugePage = hugePageManager.getPagesPerHugePage();
+        int firstPage = hugePageManager.getFirstPage(region);
+        int offsetMask = pagesPerHugePage - 1;
+        int firstFrame = hugePageManager.chooseTargetFrames(region,
+                pageNumber -> virtualMemory.getPage(pageNumber).getFrameNumber(), physicalMemory.getSize(),
+                run -> isHugePageRun(run * pagesPerHugePage));
+        if (firstFrame == -1) {
+            return false; // Every aligned run already holds a huge page
+        }
+
+        int moved = 0;
+        for (int i = 0; i < pagesPerHugePage; i++) {
+            int source = virtualMemory.getPage(firstPage + i).getFrameNumber();
+            if (source != firstFrame + i) {
+                moved += exchangeFrames(source, firstFrame + i);
+            }
+        }
+        pageTable.mapHugePage(region, firstFrame);
+        if (pageWalkCache != null) {
+            pageWalkCache.invalidate(firstPage); // The directory entry now maps the page itself
+        }
+        for (int i = 0; i < pagesPerHugePage; i++) {
+            invalidateTlbEntry(firstPage + i); // The huge entry replaces the base entries
+        }
+        metricsRegistry.increment(MetricsRegistry.HUGE_PAGE_PROMOTIONS);
+        journal(ExecutionJournal.EventType.HUGE_PROMOTE, firstPage, firstFrame, pagesPerHugePage);
+        log("Huge Page Promoted: Pages " + firstPage + "-" + (firstPage + offsetMask) + " mapped to Frames "
+                + firstFrame + "-" + (firstFrame + offsetMask) + " (" + moved + " page(s) moved)");
+        return true;
+    }
+
+    private boolean isHugePageRun(int firstFrame) {
+        Page page = physicalMemory.getFrame(firstFrame).getLoadedPage();
+        return page != null && pageTable.getHugePageFrame(hugePageManager.getRegion(page.getPageNumber())) == firstFrame;
+    }
+
+    // Swap the pages held by two frames, updating every translation; returns the number of pages moved
+    private int exchangeFrames(int source, int target) {
+        Page moving = physicalMemory.getFrame(source).getLoadedPage();
+        Page displaced = physicalMemory.getFrame(target).getLoadedPage();
+        physicalMemory.swapFrames(source, target);
+        relocatePage(moving, target);
+        metricsRegistry.increment(MetricsRegistry.HUGE_PAGE_MIGRATIONS);
+        if (displaced == null) {
+            return 1;
+        }
+        relocatePage(displaced, source);
+        metricsRegistry.increment(MetricsRegistry.HUGE_PAGE_MIGRATIONS);
+        return 2;
+    }
+
+    private void relocatePage(Page page, int frameNumber) {
+        page.setFrameNumber(frameNumber);
+        pageTable.mapPageToFrame(page.getPageNumber(), frameNumber);
+        invalidateTlbEntry(page.getPageNumber());
+        journal(ExecutionJournal.EventType.MIGRATE, page.getPageNumber(), frameNumber, 0);
+    }
+
+    private void invalidateTlbEntry(int pageNumber) {
+        if (tlb.containsPage(pageNumber)) {
+            tlb.removeEntry(pageNumber);
+            journal(ExecutionJournal.EventType.TLB_INVALIDATE, pageNumber, -1, 0);
+        }
+    }
+
+    private boolean demoteRegion(int region) {
+        int firstFrame = pageTable.getHugePageFrame(region);
+        if (firstFrame == -1) {
+            return false;
+        }
+        int firstPage = hugePageManager.getFirstPage(region);
+        int pagesPerHugePage = hugePageManager.getPagesPerHugePage();
+        pageTable.removeHugePage(region);
+        if (pageWalkCache != null) {
+            pageWalkCache.invalidate(firstPage);
+        }
+        if (tlb.removeHugeEntry(region)) {
+            journal(ExecutionJournal.EventType.TLB_INVALIDATE, firstPage, -1, pagesPerHugePage);
+        }
+        metricsRegistry.increment(MetricsRegistry.HUGE_PAGE_DEMOTIONS);
+        journal(ExecutionJournal.EventType.HUGE_DEMOTE, firstPage, firstFrame, pagesPerHugePage);
+        log("Huge Page Split: Pages " + firstPage + "-" + (firstPage + pagesPerHugePage - 1)
+                + " are base pages again");
+        return true;
+    }
+
+    /**
+     * Start journaling references and state mutations and taking periodic checkpoints, so the
+     * simulation can be stepped back or jumped to any journaled reference. Asynchronous
+     * references are refused while time travel is enabled.
+     * @param checkpointInterval References between checkpoints; a jump re-executes at most this many.
+     * @param checkpointsKept Checkpoints kept on disk; older history is forgotten.
+     * @return The debugger.
+     */
+    public synchronized TimeTravelDebugger enableTimeTravel(int checkpointInterval, int checkpointsKept) throws IOException {
+        disableTimeTravel();
+        if (!inFlightFaults.isEmpty()) {
+            throw new IllegalStateException("Cannot enable time travel while asynchronous faults are in flight.");
+        }
+        timeTravelDebugger = new TimeTravelDebugger(this, checkpointInterval, checkpointsKept);
+        executionJournal = timeTravelDebugger.getJournal();
+        log("Time travel enabled: checkpoint every " + checkpointInterval + " references, "
+                + checkpointsKept + " kept.");
+        return timeTravelDebugger;
+    }
+
+    /**
+     * Stop journaling and delete the checkpoints, if time travel is enabled.
+     */
+    public synchronized void disableTimeTravel() {
+        if (timeTravelDebugger != null) {
+            TimeTravelDebugger debugger = timeTravelDebugger;
+            timeTravelDebugger = null;
+            executionJournal = null;
+            debugger.close();
+            log("Time travel disabled.");
+        }
+    }
+
+    public synchronized TimeTravelDebugger getTimeTravelDebugger() {
+        return timeTravelDebugger;
+    }
+
+    public synchronized ExecutionJournal getExecutionJournal() {
+        return executionJournal;
+    }
+
+    /**
+     * Number of references made so far; the next reference made gets this number.
+     */
+    public synchronized long getReferenceNumber() {
+        return simulationClock.getReferenceCount();
+    }
+
+    /**
+     * Move the simulation to the state just after the given number of references. Refused
+     * while a session is recorded: the recording only appends, so going back would leave the
+     * abandoned references in it, followed by the new ones.
+     * @param referenceNumber Number of references to have executed; anything from the oldest
+     *                        kept checkpoint up to the newest journaled reference.
+     */
+    public synchronized void jumpToReference(long referenceNumber) throws IOException {
+        TimeTravelDebugger debugger = requireTimeTravel();
+        if (sessionRecorder != null) {
+            throw new IllegalStateException("Time travel cannot rewrite a recorded session; stop recording first.");
+        }
+        debugger.jumpTo(referenceNumber);
+        log("Jumped to reference " + referenceNumber + ".");
+    }
+
+    /**
+     * Undo the most recent reference.
+     */
+    public synchronized void stepBack() throws IOException {
+        jumpToReference(getReferenceNumber() - 1);
+    }
+
+    /**
+     * Redo the next journaled reference after stepping back.
+     */
+    public synchronized void stepForward() throws IOException {
+        jumpToReference(getReferenceNumber() + 1);
+    }
+
+    private TimeTravelDebugger requireTimeTravel() {
+        if (timeTravelDebugger == null) {
+            throw new IllegalStateException("Time travel is not enabled.");
+        }
+        return timeTravelDebugger;
+    }
+
+    /**
+     * Re-execute journaled references without journaling, logging or delaying them.
+     * Used by the time-travel debugger after restoring a checkpoint.
+     */
+    synchronized void replayReferences(ExecutionJournal journal, long from, long to) {
+        replaying = true;
+        try {
+            for (long n = from; n < to; n++) {
+                long record = journal.getReference(n);
+                requestPage(TraceRecord.processId(record), TraceRecord.pageNumber(record), TraceRecord.isWrite(record));
+            }
+        } finally {
+            replaying = false;
+        }
+    }
+
+    /**
+     * Reference every page of a workload (a synthetic generator or a recorded trace) in order.
+     * The workload is streamed, so its length is not limited by memory. Fork and exit events
+     * in the workload are applied as they come.
+     * @param workload The references to run; it is exhausted when this returns.
+     * @return The number of references run.
+     */
+    public synchronized long runWorkload(WorkloadGenerator workload) {
+        if (loadController != null) {
+            return runWorkloadUnderLoadControl(workload);
+        }
+        long references = 0;
+        while (workload.hasNext()) {
+            if (runRecord(workload.next())) {
+                references++;
+            }
+        }
+        return references;
+    }
+
+    // Apply one workload record; true if it was a reference rather than a fork or exit
+    private boolean runRecord(long record) {
+        if (TraceRecord.isFork(record)) {
+            fork(TraceRecord.processId(record), TraceRecord.childProcessId(record));
+            return false;
+        }
+        if (TraceRecord.isExit(record)) {
+            exitProcess(TraceRecord.processId(record));
+            if (loadController != null) {
+                loadController.processExited(TraceRecord.processId(record));
+            }
+            return false;
+        }
+        requestPage(TraceRecord.processId(record), TraceRecord.pageNumber(record), TraceRecord.isWrite(record));
+        return true;
+    }
+
+    /**
+     * Run a workload while the load controller may suspend processes. References of a suspended
+     * process are held back, in order, and run once it is resumed, taking turns with the rest
+     * of the workload. Forks and exits are applied in workload order: a process they involve
+     * is resumed and runs what was held back first. So does a process whose held-back records
+     * reach MAX_HELD_BACK_RECORDS, which bounds the memory a long workload holds back. When
+     * only suspended processes are left, the first one is resumed whatever the pressure.
+     */
+    private long runWorkloadUnderLoadControl(WorkloadGenerator workload) {
+        if (loadController.isSwapOut()) {
+            requireNoTimeTravel("Swap-outs");
+        }
+        Map<Integer, HeldBackRecords> heldBack = new HashMap<>(); // Records of suspended (or held) processes
+        ArrayDeque<Integer> ready = new ArrayDeque<>(); // Resumed processes with records held back
+        long references = 0;
+        boolean workloadTurn = true;
+        while (true) {
+            long record;
+            if (!ready.isEmpty() && (!workloadTurn || !workload.hasNext())) {
+                int processId = ready.poll();
+                HeldBackRecords records = heldBack.get(processId);
+                record = records.poll();
+                if (records.isEmpty()) {
+                    heldBack.remove(processId);
+                } else if (!loadController.isSuspended(processId)) {
+                    ready.add(processId);
+                }
+            } else if (workload.hasNext()) {
+                record = workload.next();
+                int processId = TraceRecord.processId(record);
+                if (TraceRecord.isFork(record) || TraceRecord.isExit(record)) {
+                    references += runHeldBack(processId, "fork or exit", heldBack, ready);
+                    if (TraceRecord.isFork(record)) {
+                        references += runHeldBack(TraceRecord.childProcessId(record), "fork or exit", heldBack, ready);
+                    }
+                    runRecord(record);
+                    continue;
+                }
+                HeldBackRecords records = heldBack.get(processId);
+                if (records != null && records.size() == MAX_HELD_BACK_RECORDS) {
+                    references += runHeldBack(processId, "too many references held back", heldBack, ready);
+                    records = heldBack.get(processId);
+                }
+                if (loadController.isSuspended(processId) || records != null) {
+                    heldBack.computeIfAbsent(processId, id -> new HeldBackRecords()).add(record);
+                    continue;
+                }
+            } else {
+                int processId = loadController.chooseProcessToResume(true);
+                if (processId == -1) {
+                    break;
+                }
+                resumeProcess(processId, "nothing else to run", heldBack, ready);
+                continue;
+            }
+            workloadTurn = !workloadTurn;
+            runControlledReference(record, heldBack, ready);
+            references++;
+        }
+        return references;
+    }
+
+    // Run a reference and let the load controller see it
+    private void runControlledReference(long record, Map<Integer, HeldBackRecords> heldBack, ArrayDeque<Integer> ready) {
+        int processId = TraceRecord.processId(record);
+        long faults = pageFaultCounter.sum();
+        runRecord(record);
+        int pageNumber = processTable != null
+                ? processTable.translate(processId, TraceRecord.pageNumber(record)) : TraceRecord.pageNumber(record);
+        if (loadController.recordReference(processId, pageNumber, pageFaultCounter.sum() > faults,
+                simulationClock.getCurrentTime())) {
+            controlLoad(heldBack, ready);
+        }
+    }
+
+    // Resume a process and run everything held back for it, e.g. before a fork or exit involving it
+    private long runHeldBack(int processId, String reason, Map<Integer, HeldBackRecords> heldBack, ArrayDeque<Integer> ready) {
+        if (loadController.isSuspended(processId)) {
+            resumeProcess(processId, reason, heldBack, ready);
+        }
+        HeldBackRecords records = heldBack.remove(processId);
+        ready.remove(processId);
+        if (records == null) {
+            return 0;
+        }
+        long references = 0;
+        while (!records.isEmpty()) {
+            runControlledReference(records.poll(), heldBack, ready);
+            references++;
+        }
+        return references;
+    }
+
+    // Workload records held back for one process, oldest first, in a ring of at most MAX_HELD_BACK_RECORDS
+    private static class HeldBackRecords {
+        private long[] records = new long[16];
+        private int head;
+        private int size;
+
+        void add(long record) {
+            if (size == records.length) {
+                long[] grown = new long[records.length * 2];
+                for (int i = 0; i < size; i++) {
+                    grown[i] = records[(head + i) & (records.length - 1)];
+                }
+                records = grown;
+                head = 0;
+            }
+            records[(head + size++) & (records.length - 1)] = record;
+        }
+
+        long poll() {
+            long record = records[head];
+            head = (head + 1) & (records.length - 1);
+            size--;
+            return record;
+        }
+
+        int size() {
+            return size;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+    }
+
+    // Suspend a process while memory thrashes, or resume one once the pressure is gone
+    private void controlLoad(Map<Integer, HeldBackRecords> heldBack, ArrayDeque<Integer> ready) {
+        boolean thrashing = loadController.evaluate(simulationClock.getCurrentTime());
+        int processId = thrashing ? loadController.chooseProcessToSuspend() : loadController.chooseProcessToResume(false);
+        if (processId == -1) {
+            return;
+        }
+        if (!thrashing) {
+            resumeProcess(processId, "pressure dropped", heldBack, ready);
+            return;
+        }
+        loadController.suspend(processId);
+        ready.remove(processId);
+        metricsRegistry.increment(MetricsRegistry.LOAD_SUSPENSIONS);
+        int swapped = 0;
+        if (loadController.isSwapOut()) {
+            for (int pageNumber : loadController.getSwapOutPages(processId)) {
+                if (pageNumber < virtualMemory.getSize() && virtualMemory.getPage(pageNumber).isInMemory()) {
+                    removePageFromMemory(pageNumber);
+                    swapped++;
+                }
+            }
+            loadController.recordSwapOut(swapped);
+            metricsRegistry.counter(MetricsRegistry.LOAD_SWAPPED_PAGES).add(swapped);
+        }
+        log("Load Control: Thrashing (working sets " + loadController.getActiveWorkingSetSize() + " + "
+                + loadController.getWorkingSetSize(processId) + " pages, " + physicalMemory.getSize()
+                + " frames); suspended process " + processId + (loadController.isSwapOut() ? ", swapping out " + swapped + " page(s)." : "."));
+    }
+
+    private void resumeProcess(int processId, String reason, Map<Integer, HeldBackRecords> heldBack, ArrayDeque<Integer> ready) {
+        loadController.resume(processId);
+        metricsRegistry.increment(MetricsRegistry.LOAD_RESUMPTIONS);
+        releaseHeldBack(processId, heldBack, ready);
+        log("Load Control: Resumed process " + processId + " (" + reason + ").");
+    }
+
+    // Let the records held back for a process run, unless it is still suspended
+    private void releaseHeldBack(int processId, Map<Integer, HeldBackRecords> heldBack, ArrayDeque<Integer> ready) {
+        HeldBackRecords records = heldBack.get(processId);
+        if (records == null || loadController.isSuspended(processId) || ready.contains(processId)) {
+            return;
+        }
+        if (records.isEmpty()) {
+            heldBack.remove(processId);
+        } else {
+            ready.add(processId);
+        }
+    }
+
+    /**
+     * Reads ahead the pages predicted by the prefetcher. Prefetched pages only go into
+     * free frames or replace cold frames, so a wrong guess never pushes out a warm page.
+     */
+    private void performReadahead(int processId, int pageNumber, boolean pageFault) {
+        int[] candidates = readaheadPrefetcher.recordReference(processId, pageNumber, pageFault);
+        for (int candidate : candidates) {
+            if (candidate < 0 || candidate >= virtualMemory.getSize()
+                    || (faultFrequencyAllocator != null && faultFrequencyAllocator.isAtLimit(processId))) {
+                break; // Past the end, or the process holds its whole allocation
+            }
+            if (pageTable.isPageInMemory(candidate)
+                    || (processTable != null && processTable.getMapCount(candidate) == 0)) {
+                continue; // Already resident, or a page no process maps
+            }
+            Frame frame = findFreeFrame(candidate);
+            if (frame == null && evictColdFrame(candidate)) {
+                frame = findFreeFrame(candidate);
+            }
+            if (frame == null) {
+                break;
+            }
+
+            Page page = virtualMemory.getPage(candidate);
+            mapPageIntoFrame(page, frame, -1); // The TLB is left alone until the page is referenced
+            frame.setLastAccessTime(simulationClock.getReferenceCount());
+            readaheadPrefetcher.prefetchIssued(processId, candidate);
+            journal(ExecutionJournal.EventType.PREFETCH, candidate, frame.getFrameNumber(), 0);
+            metricsRegistry.increment(MetricsRegistry.PREFETCHES);
+            log("Readahead: Page " + candidate + " prefetched into Frame " + frame.getFrameNumber());
+        }
+    }
+
+    /**
+     * Writes all dirty pages back in the background, one I/O per contiguous run of pages.
+     * The flush does not stall the reference that triggered it.
+     */
+    private void flushDirtyPages(int pendingWritePage) {
+        // The caller stores the pending write's data only after the reference returns, so that page stays dirty
+        List<int[]> runs = writeBackFlusher.collectRuns(pendingWritePage);
+        int ios = 0;
+        int pagesWritten = 0;
+        for (int[] run : runs) {
+            boolean writing = false; // A page that is not resident ends the I/O in progress
+            for (int pageNumber = run[0]; pageNumber < run[0] + run[1]; pageNumber++) {
+                Page page = virtualMemory.getPage(pageNumber);
+                if (!page.isInMemory()) {
+                    writing = false;
+                    continue;
+                }
+                journal(ExecutionJournal.EventType.WRITE_BACK, pageNumber, page.getFrameNumber(), 0);
+                diskSimulator.writePageContents(pageNumber, physicalMemory.frameContents(page.getFrameNumber()));
+                diskSimulator.writePage(page);
+                metricsRegistry.increment(MetricsRegistry.DISK_WRITES);
+                pagesWritten++;
+                if (!writing) {
+                    ios++;
+                    writing = true;
+                }
+            }
+        }
+        writeBackFlusher.recordWritten(ios, pagesWritten);
+        metricsRegistry.counter(MetricsRegistry.WRITE_BACK_IOS).add(ios);
+        log("Write-Back: Flushed " + pagesWritten + " dirty page(s) in " + ios + " I/O(s).");
+    }
+
+    private boolean evictColdFrame(int pageNumber) {
+        long now = simulationClock.getReferenceCount();
+        Frame coldest = null;
+        int firstFrame = 0;
+        int endFrame = physicalMemory.getSize();
+        if (numaTopology != null && zoneReclaim) {
+            // Only a frame on the node the page belongs on makes room for it
+            int node = numaTopology.getTargetNode(allocatingProcessId, pageNumber);
+            firstFrame = numaTopology.getFirstFrame(node);
+            endFrame = numaTopology.getEndFrame(node);
+        }
+        for (int i = firstFrame; i < endFrame; i++) {
+            Frame frame = physicalMemory.getFrame(i);
+            if (!frame.isEmpty() && (coldest == null || frame.getLastAccessTime() < coldest.getLastAccessTime())) {
+                coldest = frame;
+            }
+        }
+        if (coldest == null || now - coldest.getLastAccessTime() < readaheadPrefetcher.getColdAge()) {
+            return false;
+        }
+        removePageFromMemory(coldest.getLoadedPage().getPageNumber());
+        return true;
+    }
+
+    /**
+     * Non-blocking variant of requestPage.
+     * Hits complete immediately. A fault is queued on the asynchronous disk queue so
+     * several faults can be outstanding at once; requests for a page whose fault is
+     * already in flight join that fault instead of issuing a second read. Outstanding
+     * reads complete in simulated-time order (see PendingFault), never on another thread,
+     * so the same references always give the same results.
+     * Asynchronous references are reads made on behalf of process 0. They go through the
+     * same per-reference stages as requestPage (miss ratio estimation, fault-frequency
+     * allocation, readahead, CPU caches, NUMA), which see a fault when it is issued. They are
+     * refused while time travel is on or a session is recorded, since neither can hold them.
+     * @param virtualPage The page to reference.
+     * @return A future completed with the frame holding the page.
+     */
+    public CompletableFuture<Integer> requestPageAsync(int virtualPage) {
+        if (virtualPage < 0 || virtualPage >= virtualPageCount) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException(
+                    "Page number " + virtualPage + " is out of bounds. Valid range: 0 to " + (virtualPageCount - 1)));
+        }
+
+        synchronized (this) {
+            if (timeTravelDebugger != null) {
+                return CompletableFuture.failedFuture(new IllegalStateException(
+                        "Asynchronous references cannot be journaled; disable time travel first."));
+            }
+            if (sessionRecorder != null) {
+                return CompletableFuture.failedFuture(new IllegalStateException(
+                        "Asynchronous references cannot be recorded; stop recording first."));
+            }
+            completeDueFaults();
+            int pageNumber = processTable == null ? virtualPage : processTable.translate(0, virtualPage);
+            simulationClock.recordReference();
+            referenceCounter.increment();
+            if (missRatioEstimator != null) {
+                missRatioEstimator.recordReference(pageNumber);
+            }
+            allocatingProcessId = 0;
+
+            // Step 1: Check the TLB for the page
+            simulationClock.advance(SimulationClock.Component.TLB, latencyModel.getTlbHitNanos());
+            int frameNumber = tlb.getFrameNumber(pageNumber);
+            if (frameNumber == -1) {
+                // Step 2: Check the Page Table
+                simulationClock.advance(SimulationClock.Component.PAGE_WALK, getWalkNanos(pageNumber, false));
+                frameNumber = pageTable.getFrameForPage(pageNumber);
+                if (frameNumber != -1) {
+                    addTlbEntry(pageNumber, frameNumber);
+                }
+            }
+            if (frameNumber != -1) {
+                pageReplacementAlgorithm.pageAccessed(pageNumber);
+                chargeMemoryAccess(0, pageNumber, frameNumber);
+                runReferenceStages(0, pageNumber, false, false);
+                return CompletableFuture.completedFuture(frameNumber);
+            }
+
+            // Step 3: Page fault, merged with an outstanding read of the same page if there is one
+            CompletableFuture<Integer> pendingFault = inFlightFaults.get(pageNumber);
+            if (pendingFault != null) {
+                metricsRegistry.increment(MetricsRegistry.MERGED_FAULTS);
+                log("Page Fault Merged: Page " + pageNumber + " is already being loaded.");
+                runReferenceStages(0, pageNumber, false, true);
+                return pendingFault;
+            }
+
+            pageFaultCounter.increment();
+            if (compressedSwap != null && compressedSwap.contains(pageNumber)) {
+                // Decompressing needs no I/O, so the fault completes without going through the disk queue
+                simulationClock.advance(SimulationClock.Component.COMPRESSION, compressedSwap.getDecompressNanos());
+                loadPageIntoMemory(virtualMemory.getPage(pageNumber));
+                frameNumber = virtualMemory.getPage(pageNumber).getFrameNumber();
+                chargeMemoryAccess(0, pageNumber, frameNumber);
+                runReferenceStages(0, pageNumber, false, true);
+                return frameNumber == -1
+                        ? CompletableFuture.failedFuture(new IllegalStateException("Unable to load page " + pageNumber + " into memory."))
+                        : CompletableFuture.completedFuture(frameNumber);
+            }
+            long completionTime = asyncDiskQueue.submit(pageNumber, simulationClock.getCurrentTime());
+            log("Page Fault: Page " + pageNumber + " queued for loading from secondary memory (completes at "
+                    + completionTime + " ns).");
+            CompletableFuture<Integer> fault = new PendingFault();
+            inFlightFaults.put(pageNumber, fault);
+            runReferenceStages(0, pageNumber, false, true);
+            return fault;
+        }
+    }
+
+    /**
+     * A fault waiting on the disk queue. Faults complete in simulated-time order: when a later
+     * reference finds the simulated clock past their completion time, or when a caller waits
+     * for one (get or join), which completes every earlier read first and stalls the clock
+     * until its own read is done.
+     */
+    private class PendingFault extends CompletableFuture<Integer> {
+        @Override
+        public Integer get() throws InterruptedException, ExecutionException {
+            awaitFault(this);
+            return super.get();
+        }
+
+        @Override
+        public Integer get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+            awaitFault(this);
+            return super.get(timeout, unit);
+        }
+
+        @Override
+        public Integer join() {
+            awaitFault(this);
+            return super.join();
+        }
+    }
+
+    // Complete the outstanding reads in order until the given fault is done
+    private synchronized void awaitFault(CompletableFuture<Integer> fault) {
+        while (!fault.isDone() && asyncDiskQueue.getOutstandingCount() > 0) {
+            completeNextFault();
+        }
+    }
+
+    /**
+     * Complete every outstanding asynchronous fault, in simulated-time order.
+     */
+    public synchronized void drainAsyncFaults() {
+        while (asyncDiskQueue.getOutstandingCount() > 0) {
+            completeNextFault();
+        }
+    }
+
+    // Complete the reads the simulated clock has already passed
+    private void completeDueFaults() {
+        while (asyncDiskQueue.getNextCompletionTime() <= simulationClock.getCurrentTime()) {
+            completeNextFault();
+        }
+    }
+
+    private void completeNextFault() {
+        long completionTime = asyncDiskQueue.getNextCompletionTime();
+        int pageNumber = asyncDiskQueue.completeNext();
+        completeFault(pageNumber, completionTime, inFlightFaults.remove(pageNumber));
+    }
+
+    private void completeFault(int pageNumber, long completionTime, CompletableFuture<Integer> fault) {
+        // Only the part of the read that was not overlapped with other work stalls the clock
+        simulationClock.advanceTo(SimulationClock.Component.DISK_READ, completionTime);
+        allocatingProcessId = 0; // Asynchronous references are made on behalf of process 0
+        Page page = virtualMemory.getPage(pageNumber);
+        if (!page.isInMemory()) {
+            loadPageIntoMemory(page);
+        }
+        int frameNumber = page.getFrameNumber();
+        chargeMemoryAccess(0, pageNumber, frameNumber);
+        if (frameNumber == -1) {
+            fault.completeExceptionally(new IllegalStateException("Unable to load page " + pageNumber + " into memory."));
+        } else {
+            fault.complete(frameNumber);
+        }
+    }
+
+    public synchronized void loadPageIntoMemory(Page page) {
+        loadPageIntoMemory(page, -1);
+    }
+
+    /**
+     * Loads a page into a free frame, or through the replacement algorithm when memory is full.
+     * @param contentSourcePage Page whose contents fill the frame (the shared page of a
+     *                          copy-on-write fault), or -1 to read the page's own contents.
+     */
+    private void loadPageIntoMemory(Page page, int contentSourcePage) {
+        Frame freeFrame = findFreeFrame(page.getPageNumber());
+        if (freeFrame == null && contentSourcePage != -1) {
+            // The algorithms load the page they make room for from below memory, so a copy
+            // evicts the algorithm's victim here and is filled from its source instead
+            metricsRegistry.increment(MetricsRegistry.REPLACEMENTS);
+            replacementInProgress = true;
+            try {
+                int victim = chooseVictim(pageReplacementAlgorithm, page.getPageNumber());
+                if (victim != -1) {
+                    removePageFromMemory(victim);
+                    log("Page Replaced: Page " + victim + " replaced by Page " + page.getPageNumber());
+                }
+            } finally {
+                replacementInProgress = false;
+            }
+            freeFrame = findFreeFrame(page.getPageNumber());
+            if (freeFrame == null) {
+                throw new IllegalStateException("Unable to load page " + page.getPageNumber() + " into memory.");
+            }
+        }
+
+        if (freeFrame != null) {
+            // Use free frame to load the page, then update the TLB
+            mapPageIntoFrame(page, freeFrame, contentSourcePage);
+            addTlbEntry(page.getPageNumber(), freeFrame.getFrameNumber());
+
+            log("Page Loaded: Page " + page.getPageNumber() + " loaded into Frame " + freeFrame.getFrameNumber());
+        } else {
+            // No free frames; use page replacement
+            metricsRegistry.increment(MetricsRegistry.REPLACEMENTS);
+            log("Memory Full: No free frames available. Using page replacement algorithm.");
+            replacementInProgress = true;
+            try {
+                pageReplacementAlgorithm.replacePage(page.getPageNumber(), this);
+            } catch (NullPointerException e) {
+                JOptionPane.showMessageDialog(null, "Frames are full. Unable to load new pages.",
+                        "Memory Full", JOptionPane.ERROR_MESSAGE);
+            } finally {
+                replacementInProgress = false;
+            }
+        }
+    }
+
+    private void mapPageIntoFrame(Page page, Frame frame, int contentSourcePage) {
+        physicalMemory.loadPageIntoFrame(frame, page);
+        if (cpuCaches != null) {
+            // The frame is refilled behind the caches (by DMA, or a copy), so its old lines are stale
+            cpuCaches.invalidate(addressTranslator.toPhysicalAddress(frame.getFrameNumber(), 0), getPageSize());
+        }
+        boolean staleOnDisk = false;
+        if (contentSourcePage != -1) {
+            // A private copy of a shared page: it starts as the shared page's contents and exists nowhere else
+            copyPageContents(contentSourcePage, frame.getFrameNumber());
+            staleOnDisk = true;
+        } else if (compressedSwap != null && compressedSwap.contains(page.getPageNumber())) {
+            staleOnDisk = compressedSwap.isStale(page.getPageNumber());
+            compressedSwap.loadInto(page.getPageNumber(), physicalMemory.frameContents(frame.getFrameNumber()));
+        } else {
+            metricsRegistry.increment(MetricsRegistry.DISK_READS);
+            if (!diskSimulator.readPageContents(page.getPageNumber(), physicalMemory.frameContents(frame.getFrameNumber()))) {
+                physicalMemory.clearFrame(frame.getFrameNumber()); // Never written back: the page reads as zeros
+            }
+        }
+        page.setInMemory(true);
+        if (staleOnDisk) {
+            // The pool held the only current copy, so the page is still dirty
+            page.setDirty(true);
+            if (writeBackFlusher != null) {
+                writeBackFlusher.markDirty(page.getPageNumber());
+            }
+        }
+        page.setFrameNumber(frame.getFrameNumber());
+        pageTable.mapPageToFrame(page.getPageNumber(), frame.getFrameNumber());
+        pageReplacementAlgorithm.pageLoaded(page.getPageNumber());
+        if (faultFrequencyAllocator != null) {
+            faultFrequencyAllocator.pageLoaded(page.getPageNumber(), allocatingProcessId);
+        }
+        journal(ExecutionJournal.EventType.MAP, page.getPageNumber(), frame.getFrameNumber(), 0);
+        if (hugePageManager != null) {
+            hugePageManager.pageLoaded(page.getPageNumber());
+        }
+    }
+
+    private void addHugeTlbEntry(int hugePageNumber, int firstFrameNumber) {
+        int evictedHugePage = tlb.addHugeEntry(hugePageNumber, firstFrameNumber);
+        int pagesPerHugePage = hugePageManager.getPagesPerHugePage();
+        journal(ExecutionJournal.EventType.TLB_INSERT, hugePageManager.getFirstPage(hugePageNumber), firstFrameNumber, pagesPerHugePage);
+        if (evictedHugePage != -1) {
+            journal(ExecutionJournal.EventType.TLB_EVICT, hugePageManager.getFirstPage(evictedHugePage), -1, pagesPerHugePage);
+        }
+    }
+
+    private void addTlbEntry(int pageNumber, int frameNumber) {
+        int evictedPage = tlb.addEntry(pageNumber, frameNumber);
+        journal(ExecutionJournal.EventType.TLB_INSERT, pageNumber, frameNumber, 0);
+        if (evictedPage != -1) {
+            journal(ExecutionJournal.EventType.TLB_EVICT, evictedPage, -1, 0);
+        }
+    }
+
+    private void journal(ExecutionJournal.EventType type, int pageNumber, int frameNumber, long value) {
+        if (executionJournal != null && !replaying) {
+            executionJournal.recordEvent(type, pageNumber, frameNumber, value);
+        }
+    }
+
+    private void log(String message) {
+        if (eventLogPanel != null && !replaying) {
+            eventLogPanel.log(message);
+        }
+    }
+
+    private void applySimulationSpeed() {
+        if (simulationSpeed == 0) {
+            return;
+        }
+        try {
+            Thread.sleep(simulationSpeed);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Simulation interrupted.");
+        }
+    }
+
+    /**
+     * Sets the wall-clock delay applied after each reference (for GUI animation only).
+     * Simulated time is tracked separately by the SimulationClock.
+     * @param simulationSpeed Delay in milliseconds; 0 disables the delay.
+     */
+    public void setSimulationSpeed(int simulationSpeed) {
+        if (simulationSpeed < 0) {
+            throw new IllegalArgumentException("Simulation speed must be non-negative.");
+        }
+        this.simulationSpeed = simulationSpeed;
+    }
+
+    public int getPageFaultCount() {
+        return (int) pageFaultCounter.sum();
+    }
+
+    public String getMemoryUsagePercentage() {
+        int totalFrames = physicalMemory.getSize();
+        int usedFrames = totalFrames - physicalMemory.getFreeFrameCount(); // Frames in use
+        return String.format("%.2f", (usedFrames * 100.0) / totalFrames) + "%";
+    }
+
+    public synchronized void removePageFromMemory(int pageNumber) {
+        int frameNumber = virtualMemory.getPage(pageNumber).getFrameNumber(); // Not a reference: no page table access
+        if (frameNumber != -1) {
+            if (hugePageManager != null && hugePageManager.isTracked(pageNumber)) {
+                // Losing one base page splits the huge page it belongs to
+                demoteRegion(hugePageManager.getRegion(pageNumber));
+                hugePageManager.pageEvicted(pageNumber);
+            }
+            Frame frame = physicalMemory.getFrame(frameNumber);
+            Page page = frame.getLoadedPage();
+            journal(replacementInProgress ? ExecutionJournal.EventType.EVICT : ExecutionJournal.EventType.UNMAP,
+                    pageNumber, frameNumber, frame.getLastAccessTime());
+            physicalMemory.evictPageFromFrame(frame); // Clear the frame
+            if (page != null) {
+                if (discardingPage) {
+                    // No process maps the page any more, so its contents are dropped with the frame
+                } else if (compressedSwap != null && storeCompressed(page, frameNumber)) {
+                    // Kept compressed in memory; a dirty page is written to disk only when the pool pushes it out
+                    metricsRegistry.increment(page.isDirty() ? MetricsRegistry.DIRTY_EVICTIONS : MetricsRegistry.CLEAN_EVICTIONS);
+                    page.setDirty(false);
+                    if (writeBackFlusher != null) {
+                        writeBackFlusher.markClean(pageNumber);
+                    }
+                } else if (page.isDirty()) {
+                    journal(ExecutionJournal.EventType.WRITE_BACK, pageNumber, frameNumber, 0);
+                    // Dirty victim: write it back before the frame is reused
+                    diskSimulator.writePageContents(pageNumber, physicalMemory.frameContents(frameNumber));
+                    diskSimulator.storePage(page);
+                    page.setDirty(false);
+                    simulationClock.advance(SimulationClock.Component.DISK_WRITE, diskSimulator.getWriteLatencyNanos());
+                    metricsRegistry.increment(MetricsRegistry.DIRTY_EVICTIONS);
+                    metricsRegistry.increment(MetricsRegistry.WRITE_BACK_IOS);
+                    metricsRegistry.increment(MetricsRegistry.DISK_WRITES);
+                    if (writeBackFlusher != null) {
+                        writeBackFlusher.markClean(pageNumber);
+                    }
+                } else {
+                    // Clean victim: the disk copy is current, just drop it
+                    metricsRegistry.increment(MetricsRegistry.CLEAN_EVICTIONS);
+                }
+                page.setInMemory(false);
+                page.setFrameNumber(-1);
+            }
+            pageTable.removePage(pageNumber); // Remove mapping from the Page Table
+            invalidateTlbEntry(pageNumber); // Only this mapping is no longer valid
+            pageReplacementAlgorithm.pageRemoved(pageNumber);
+            if (faultFrequencyAllocator != null) {
+                faultFrequencyAllocator.pageRemoved(pageNumber);
+            }
+            if (readaheadPrefetcher != null) {
+                readaheadPrefetcher.pageEvicted(pageNumber);
+            }
+
+            log("Page Removed: Page " + pageNumber + " removed from Frame " + frameNumber);
+        }
+    }
+
+    // Compress an evicted page into the pool, pushing its oldest entries out to disk to make room
+    private boolean storeCompressed(Page page, int frameNumber) {
+        int length = compressedSwap.compress(physicalMemory.frameContents(frameNumber));
+        simulationClock.advance(SimulationClock.Component.COMPRESSION, compressedSwap.getCompressNanos());
+        if (length == -1) {
+            log("Compressed Swap: Page " + page.getPageNumber() + " does not compress well; writing it to disk.");
+            return false;
+        }
+        while (!compressedSwap.hasRoomFor(length)) {
+            writeBackCompressed(compressedSwap.getLeastRecentPage());
+        }
+        compressedSwap.commit(page.getPageNumber(), page.isDirty());
+        log("Compressed Swap: Page " + page.getPageNumber() + " stored in " + length + " bytes.");
+        return true;
+    }
+
+    private void writeBackCompressed(int pageNumber) {
+        if (compressedSwap.isStale(pageNumber)) {
+            // The disk copy is out of date: decompress the page and write it out
+            simulationClock.advance(SimulationClock.Component.COMPRESSION, compressedSwap.getDecompressNanos());
+            journal(ExecutionJournal.EventType.WRITE_BACK, pageNumber, -1, 0);
+            diskSimulator.writePageContents(pageNumber, compressedSwap.load(pageNumber));
+            diskSimulator.storePage(virtualMemory.getPage(pageNumber));
+            simulationClock.advance(SimulationClock.Component.DISK_WRITE, diskSimulator.getWriteLatencyNanos());
+            metricsRegistry.increment(MetricsRegistry.WRITE_BACK_IOS);
+            metricsRegistry.increment(MetricsRegistry.DISK_WRITES);
+        }
+        compressedSwap.remove(pageNumber);
+        metricsRegistry.increment(MetricsRegistry.ZSWAP_WRITEBACKS);
+    }
+
+    public MemoryLogger getMemoryLogger() {
+        return memoryLogger;
+    }
+
+    public synchronized PageReplacementAlgorithm getPageReplacementAlgorithm() {
+        return pageReplacementAlgorithm;
+    }
+
+    public boolean isMemoryFull() {
+        return physicalMemory.isFull();
+    }
+
+    /**
+     * Check whether a page can be loaded without evicting another. With NUMA zone reclaim
+     * only the page's own node counts, so a node can be full while memory as a whole is not.
+     * @param pageNumber The page about to be loaded.
+     * @return True if a frame is free where the page may be placed.
+     */
+    public synchronized boolean hasFreeFrameFor(int pageNumber) {
+        return findFreeFrame(pageNumber) != null;
+    }
+
+    /**
+     * Choose the page a replacement algorithm should evict to make room for a page.
+     * Clean pages are preferred when setPreferCleanVictims is on; with NUMA zone reclaim the
+     * victim comes from the node the new page belongs on. With per-process allocations the
+     * victim is one of the faulting process's own pages when it is at its limit (local
+     * replacement), otherwise a page of a process holding more than its limit, if any.
+     * @param algorithm The algorithm whose order decides among the candidates.
+     * @param pageNumber The page about to be loaded.
+     * @return The victim, or -1 if no page is resident.
+     */
+    public synchronized int chooseVictim(PageReplacementAlgorithm algorithm, int pageNumber) {
+        IntPredicate allowed = faultFrequencyAllocator == null ? null : faultFrequencyAllocator.getVictimFilter(allocatingProcessId);
+        if (allowed != null) {
+            int victim = algorithm.selectVictim(candidate -> allowed.test(candidate) && isPreferredVictim(candidate));
+            if (victim != -1 && !allowed.test(victim)) {
+                victim = algorithm.selectVictim(allowed); // No cheap page among the allowed ones
+            }
+            if (victim != -1 && allowed.test(victim)) {
+                return victim;
+            }
+        }
+        if (numaTopology == null || !zoneReclaim) {
+            return algorithm.selectVictim(this::isPreferredVictim);
+        }
+        int node = numaTopology.getTargetNode(allocatingProcessId, pageNumber);
+        int victim = algorithm.selectVictim(candidate -> isOnNode(candidate, node) && isPreferredVictim(candidate));
+        if (victim != -1 && !isOnNode(victim, node)) {
+            victim = algorithm.selectVictim(candidate -> isOnNode(candidate, node)); // No clean page on the node
+        }
+        return victim;
+    }
+
+    private boolean isOnNode(int pageNumber, int node) {
+        int frameNumber = virtualMemory.getPage(pageNumber).getFrameNumber();
+        return frameNumber != -1 && numaTopology.getNodeOfFrame(frameNumber) == node;
+    }
+
+    // Free frame for a page: anywhere in uniform memory, else on its target node or (without zone reclaim) the nearest node.
+    // None for a process holding its whole allocation under local replacement.
+    private Frame findFreeFrame(int pageNumber) {
+        if (faultFrequencyAllocator != null && faultFrequencyAllocator.isAtLimit(allocatingProcessId)) {
+            return null;
+        }
+        if (numaTopology == null) {
+            return physicalMemory.getFreeFrame();
+        }
+        int targetNode = numaTopology.getTargetNode(allocatingProcessId, pageNumber);
+        for (int node : numaTopology.getFallbackOrder(targetNode)) {
+            Frame frame = physicalMemory.getFreeFrame(numaTopology.getFirstFrame(node), numaTopology.getEndFrame(node));
+            if (frame != null) {
+                return frame;
+            }
+            if (zoneReclaim) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    // Charge the data access, at the latency of the node holding the frame as seen from the process's node
+    private void chargeMemoryAccess(int processId, int pageNumber, int frameNumber) {
+        if (cpuCaches != null && frameNumber != -1) {
+            // The journal holds pages, not offsets, so with time travel on a page is cached by its first line
+            int level = cpuCaches.access(addressTranslator.toPhysicalAddress(frameNumber,
+                    executionJournal == null ? accessOffset : 0), false);
+            if (level != -1) {
+                simulationClock.advance(SimulationClock.Component.MEMORY, cpuCaches.getHitNanos(level));
+                return;
+            }
+        }
+        if (numaTopology == null || frameNumber == -1) {
+            simulationClock.advance(SimulationClock.Component.MEMORY, latencyModel.getMemoryAccessNanos());
+            return;
+        }
+        int cpuNode = numaTopology.getProcessNode(processId);
+        int memoryNode = numaTopology.getNodeOfFrame(frameNumber);
+        simulationClock.advance(SimulationClock.Component.MEMORY, numaTopology.getAccessNanos(cpuNode, memoryNode));
+        if (cpuNode == memoryNode) {
+            metricsRegistry.increment(MetricsRegistry.NUMA_LOCAL_ACCESSES);
+        } else {
+            metricsRegistry.increment(MetricsRegistry.NUMA_REMOTE_ACCESSES);
+            if (numaBalancer != null) {
+                numaBalancer.recordRemoteAccess(pageNumber, cpuNode);
+            }
+        }
+    }
+
+    /**
+     * Moves pages that were mostly accessed from another node to that node, when it has a
+     * free frame, as automatic NUMA balancing does. Runs in the background of a reference.
+     */
+    private void migrateRemotePages() {
+        int migrated = 0;
+        for (int[] candidate : numaBalancer.collectCandidates()) {
+            Page page = virtualMemory.getPage(candidate[0]);
+            int node = candidate[1];
+            if (!page.isInMemory() || numaTopology.getNodeOfFrame(page.getFrameNumber()) == node) {
+                continue;
+            }
+            Frame target = physicalMemory.getFreeFrame(numaTopology.getFirstFrame(node), numaTopology.getEndFrame(node));
+            if (target == null) {
+                metricsRegistry.increment(MetricsRegistry.NUMA_MIGRATIONS_FAILED);
+                continue;
+            }
+            if (hugePageManager != null && hugePageManager.isTracked(page.getPageNumber())) {
+                demoteRegion(hugePageManager.getRegion(page.getPageNumber())); // Moving one page breaks the contiguous run
+            }
+            physicalMemory.swapFrames(page.getFrameNumber(), target.getFrameNumber());
+            relocatePage(page, target.getFrameNumber());
+            metricsRegistry.increment(MetricsRegistry.NUMA_MIGRATIONS);
+            migrated++;
+        }
+        if (migrated > 0) {
+            log("NUMA Balancing: Moved " + migrated + " page(s) to the node accessing them.");
+        }
+    }
+
+    /**
+     * Split physical memory into NUMA nodes, or make it uniform again. Pages already
+     * resident stay where they are. Processes run on node (processId mod nodes) until bound
+     * otherwise through getNumaTopology().
+     * @param nodeCount Number of nodes; 1 makes memory uniform.
+     * @param remoteDistance Relative cost of a remote access (NumaTopology.LOCAL_DISTANCE is local, 20 is typical).
+     * @param policy Default allocation policy (PREFERRED prefers node 0 unless set per process).
+     * @param zoneReclaim True to evict from a full node rather than spill its pages onto other nodes.
+     * @return The topology, for binding processes and setting latencies, or null when memory is uniform.
+     */
+    public synchronized NumaTopology configureNuma(int nodeCount, int remoteDistance, NumaTopology.Policy policy, boolean zoneReclaim) {
+        if (nodeCount <= 1) {
+            numaTopology = null;
+            numaBalancer = null;
+            this.zoneReclaim = false;
+            log("NUMA disabled: memory is uniform.");
+            return null;
+        }
+        numaTopology = new NumaTopology(nodeCount, physicalMemory.getSize(), latencyModel.getMemoryAccessNanos(), remoteDistance);
+        numaTopology.setDefaultPolicy(policy, 0);
+        this.zoneReclaim = zoneReclaim;
+        log("NUMA enabled: " + nodeCount + " nodes, remote distance " + remoteDistance + ", " + policy
+                + " allocation" + (zoneReclaim ? ", zone reclaim." : "."));
+        return numaTopology;
+    }
+
+    public synchronized NumaTopology getNumaTopology() {
+        return numaTopology;
+    }
+
+    public synchronized boolean isZoneReclaim() {
+        return zoneReclaim;
+    }
+
+    /**
+     * Enable or disable the migration of remotely accessed pages. Requires NUMA.
+     * @param numaBalancer The balancer, or null to disable migration.
+     */
+    public synchronized void setNumaBalancer(NumaBalancer numaBalancer) {
+        if (numaBalancer != null && numaTopology == null) {
+            throw new IllegalStateException("NUMA balancing needs more than one node.");
+        }
+        this.numaBalancer = numaBalancer;
+    }
+
+    public synchronized NumaBalancer getNumaBalancer() {
+        return numaBalancer;
+    }
+
+    /**
+     * Local and remote accesses, migrations and per-node occupancy.
+     * @return A one-line summary.
+     */
+    public synchronized String getNumaStatistics() {
+        if (numaTopology == null) {
+            return "NUMA: off";
+        }
+        long local = metricsRegistry.getCount(MetricsRegistry.NUMA_LOCAL_ACCESSES);
+        long remote = metricsRegistry.getCount(MetricsRegistry.NUMA_REMOTE_ACCESSES);
+        StringBuilder frames = new StringBuilder();
+        for (int node = 0; node < numaTopology.getNodeCount(); node++) {
+            int used = 0;
+            for (int frame = numaTopology.getFirstFrame(node); frame < numaTopology.getEndFrame(node); frame++) {
+                if (!physicalMemory.getFrame(frame).isEmpty()) {
+                    used++;
+                }
+            }
+            frames.append(node == 0 ? "" : ", ").append(used).append('/')
+                    .append(numaTopology.getEndFrame(node) - numaTopology.getFirstFrame(node));
+        }
+        return "NUMA Local / Remote Accesses: " + local + " / " + remote
+                + " (" + String.format("%.2f", local + remote == 0 ? 0 : local * 100.0 / (local + remote)) + "% local)"
+                + ", Migrations: " + metricsRegistry.getCount(MetricsRegistry.NUMA_MIGRATIONS)
+                + " (" + metricsRegistry.getCount(MetricsRegistry.NUMA_MIGRATIONS_FAILED) + " failed)"
+                + ", Frames Used per Node: [" + frames + "]";
+    }
+
+    /**
+     * Fork a process: the child gets a copy of the parent's page map, sharing every page
+     * instead of copying it. Shared pages are copy-on-write, so a page is copied only when
+     * the parent or the child first writes it. Processes that were never forked share one
+     * address space, as threads do; forking one of them forks that space.
+     * @param parentProcessId The process forking.
+     * @param childProcessId The new process; it must not already have an address space of its own.
+     */
+    public synchronized void fork(int parentProcessId, int childProcessId) {
+        requireNoTimeTravel("Forks");
+        if (processTable == null) {
+            processTable = new ProcessTable(virtualPageCount);
+        }
+        processTable.fork(parentProcessId, childProcessId);
+        if (sessionRecorder != null && !replaying) {
+            sessionRecorder.recordEvent(TraceRecord.packFork(parentProcessId, childProcessId));
+        }
+        int shared = 0;
+        for (int virtualPage = 0; virtualPage < virtualPageCount; virtualPage++) {
+            if (virtualMemory.getPage(processTable.translate(childProcessId, virtualPage)).isInMemory()) {
+                shared++;
+            }
+        }
+        metricsRegistry.increment(MetricsRegistry.FORKS);
+        metricsRegistry.counter(MetricsRegistry.COW_SHARED_PAGES).add(shared);
+        log("Fork: Process " + parentProcessId + " forked process " + childProcessId + ", sharing " + shared + " resident page(s).");
+    }
+
+    /**
+     * End a forked process. Pages only it mapped are freed without being written back;
+     * pages still mapped by other processes stay. Exiting a process that was never forked does nothing.
+     * @param processId The exiting process.
+     */
+    public synchronized void exitProcess(int processId) {
+        requireNoTimeTravel("Process exits");
+        if (sessionRecorder != null && !replaying) {
+            sessionRecorder.recordEvent(TraceRecord.packExit(processId));
+        }
+        if (processTable == null) {
+            return;
+        }
+        int[] unmapped = processTable.exit(processId);
+        for (int pageNumber : unmapped) {
+            discardPage(pageNumber);
+        }
+        metricsRegistry.increment(MetricsRegistry.PROCESS_EXITS);
+        log("Exit: Process " + processId + " exited, freeing " + unmapped.length + " page(s).");
+    }
+
+    private void requireNoTimeTravel(String operation) {
+        if (timeTravelDebugger != null) {
+            throw new IllegalStateException(operation + " cannot be journaled; disable time travel first.");
+        }
+    }
+
+    /**
+     * Gives the writing process a private copy of a shared page. The copy is loaded like a
+     * faulted page (so it may evict another), filled from wherever the shared page is, and
+     * charged as a page copy, plus the read of the shared page if it was not resident.
+     * @return True if the shared page had to be read from below memory (a major fault).
+     */
+    private boolean copyOnWrite(int processId, int virtualPage, int sharedPage) {
+        Page source = virtualMemory.getPage(sharedPage);
+        boolean majorFault = !source.isInMemory();
+        if (majorFault) {
+            pageFaultCounter.increment();
+            if (compressedSwap != null && compressedSwap.contains(sharedPage)) {
+                simulationClock.advance(SimulationClock.Component.COMPRESSION, compressedSwap.getDecompressNanos());
+            } else {
+                simulationClock.advance(SimulationClock.Component.DISK_READ, diskSimulator.getReadLatencyNanos());
+            }
+        }
+        int copy = processTable.copyOnWrite(processId, virtualPage);
+        virtualMemory.ensurePage(copy);
+        metricsRegistry.increment(MetricsRegistry.COW_FAULTS);
+        log("Copy-on-Write: Process " + processId + " wrote shared Page " + sharedPage + "; copying it to Page " + copy);
+        simulationClock.advance(SimulationClock.Component.MEMORY, 2 * latencyModel.getMemoryAccessNanos()); // Read and write the page
+        loadPageIntoMemory(virtualMemory.getPage(copy), sharedPage);
+        return majorFault;
+    }
+
+    // Fill a frame with a page's contents, wherever the page currently is
+    private void copyPageContents(int pageNumber, int frameNumber) {
+        Page page = virtualMemory.getPage(pageNumber);
+        if (page.isInMemory()) {
+            physicalMemory.copyFrame(page.getFrameNumber(), frameNumber);
+        } else if (compressedSwap != null && compressedSwap.contains(pageNumber)) {
+            ByteBuffer target = physicalMemory.frameContents(frameNumber);
+            target.put(0, compressedSwap.load(pageNumber), 0, target.capacity());
+        } else if (!diskSimulator.readPageContents(pageNumber, physicalMemory.frameContents(frameNumber))) {
+            physicalMemory.clearFrame(frameNumber);
+        }
+    }
+
+    // Drop a page no process maps any more, from memory, the compressed pool and the disk
+    private void discardPage(int pageNumber) {
+        Page page = virtualMemory.getPage(pageNumber);
+        page.setDirty(false);
+        if (writeBackFlusher != null) {
+            writeBackFlusher.markClean(pageNumber);
+        }
+        if (page.isInMemory()) {
+            discardingPage = true;
+            try {
+                removePageFromMemory(pageNumber);
+            } finally {
+                discardingPage = false;
+            }
+        }
+        if (compressedSwap != null) {
+            compressedSwap.remove(pageNumber);
+        }
+        diskSimulator.discardPage(pageNumber);
+    }
+
+    public synchronized ProcessTable getProcessTable() {
+        return processTable;
+    }
+
+    /**
+     * Forks, copy-on-write faults, and the frames saved by sharing: resident pages mapped by
+     * n processes would take n frames each if fork copied memory.
+     * @return A one-line summary.
+     */
+    public synchronized String getForkStatistics() {
+        if (processTable == null) {
+            return "Forks: none";
+        }
+        int sharedFrames = 0;
+        long framesSaved = 0;
+        for (int i = 0; i < physicalMemory.getSize(); i++) {
+            Frame frame = physicalMemory.getFrame(i);
+            int mapCount = frame.isEmpty() ? 0 : processTable.getMapCount(frame.getLoadedPage().getPageNumber());
+            if (mapCount > 1) {
+                sharedFrames++;
+                framesSaved += mapCount - 1;
+            }
+        }
+        return "Forks / Exits: " + metricsRegistry.getCount(MetricsRegistry.FORKS)
+                + " / " + metricsRegistry.getCount(MetricsRegistry.PROCESS_EXITS)
+                + " (" + processTable.getProcessCount() + " forked process(es) running)"
+                + ", Pages Shared at Fork: " + metricsRegistry.getCount(MetricsRegistry.COW_SHARED_PAGES)
+                + ", Copy-on-Write Faults: " + metricsRegistry.getCount(MetricsRegistry.COW_FAULTS)
+                + ", Shared Frames: " + sharedFrames + " (saving " + framesSaved + " frame(s))";
+    }
+
+    /**
+     * Turn same-page merging on or off. A background scanner, like KSM's, hashes a few
+     * frames every so many references. A page whose digest did not change since its last
+     * scan is looked up by digest among pages already merged, then among the pages seen
+     * during the current full scan. When the contents of both pages compare equal byte for
+     * byte, every mapping of the page is moved to the other one and its frame is freed; the
+     * remaining page is copy-on-write, so a later write gives the writer a private copy again.
+     * The scan runs beside the simulated CPU, so it costs no simulated time; its wall-clock
+     * time is reported instead. Pages referenced without data (e.g. by workload generators)
+     * stay zero-filled, so they all merge into one.
+     * @param samePageMerger The scanner, or null to stop merging (merged pages stay shared).
+     */
+    public synchronized void setSamePageMerger(SamePageMerger samePageMerger) {
+        if (samePageMerger != null && processTable == null) {
+            processTable = new ProcessTable(virtualPageCount);
+        }
+        this.samePageMerger = samePageMerger;
+    }
+
+    public synchronized SamePageMerger getSamePageMerger() {
+        return samePageMerger;
+    }
+
+    /**
+     * Scans the next frames and merges pages with identical contents. Runs in the background
+     * of a reference; the page just referenced is left alone, since its data access follows.
+     * @param referencedPage The page of the reference being served.
+     */
+    private void mergeSamePages(int referencedPage) {
+        long start = System.nanoTime();
+        int merged = 0;
+        for (int i = 0; i < samePageMerger.getPagesPerScan(); i++) {
+            int frameNumber = samePageMerger.nextFrame(physicalMemory.getSize());
+            Frame frame = physicalMemory.getFrame(frameNumber);
+            if (frame.isEmpty() || frame.getLoadedPage().getPageNumber() == referencedPage) {
+                continue;
+            }
+            int pageNumber = frame.getLoadedPage().getPageNumber();
+            if (processTable.getMapCount(pageNumber) == 0) {
+                continue;
+            }
+            ByteBuffer contents = physicalMemory.frameContents(frameNumber);
+            long digest = SamePageMerger.digest(contents);
+            metricsRegistry.increment(MetricsRegistry.KSM_PAGES_SCANNED);
+            if (!samePageMerger.updateChecksum(pageNumber, digest)) {
+                continue; // Changed since the last scan, or never scanned: likely to change again
+            }
+            int target = samePageMerger.getStablePage(digest);
+            if (target == pageNumber || target == referencedPage) {
+                continue;
+            }
+            if (target != -1 && !canMergeInto(target, contents)) {
+                samePageMerger.removePage(digest);
+                target = -1;
+            }
+            if (target == -1) {
+                target = samePageMerger.getUnstablePage(digest);
+                if (target == referencedPage) {
+                    continue;
+                }
+                if (target == -1 || target == pageNumber || !canMergeInto(target, contents)) {
+                    samePageMerger.putUnstablePage(digest, pageNumber);
+                    continue;
+                }
+                samePageMerger.putStablePage(digest, target);
+            }
+            processTable.merge(target, pageNumber);
+            discardPage(pageNumber);
+            metricsRegistry.increment(MetricsRegistry.KSM_MERGES);
+            merged++;
+        }
+        metricsRegistry.histogram(MetricsRegistry.KSM_SCAN_CPU).record(System.nanoTime() - start);
+        if (merged > 0) {
+            log("Same-Page Merging: Merged " + merged + " page(s) into identical pages.");
+        }
+    }
+
+    // A page can absorb another if it is still mapped, resident and identical to it
+    private boolean canMergeInto(int target, ByteBuffer contents) {
+        Page page = virtualMemory.getPage(target);
+        if (processTable.getMapCount(target) == 0 || !page.isInMemory()) {
+            return false;
+        }
+        boolean equal = physicalMemory.frameContents(page.getFrameNumber()).equals(contents);
+        samePageMerger.recordCompare(equal);
+        return equal;
+    }
+
+    /**
+     * Pages scanned, merges, the frames merging saves now and the time spent scanning.
+     * @return A one-line summary.
+     */
+    public synchronized String getSamePageMergingStatistics() {
+        if (samePageMerger == null) {
+            return "Same-Page Merging: off";
+        }
+        int mergedFrames = 0;
+        long framesSaved = 0;
+        for (int pageNumber : samePageMerger.getStablePages()) {
+            int mapCount = processTable.getMapCount(pageNumber);
+            if (mapCount > 1 && virtualMemory.getPage(pageNumber).isInMemory()) {
+                mergedFrames++;
+                framesSaved += mapCount - 1;
+            }
+        }
+        LatencyHistogram scanCpu = metricsRegistry.histogram(MetricsRegistry.KSM_SCAN_CPU);
+        long scanned = metricsRegistry.getCount(MetricsRegistry.KSM_PAGES_SCANNED);
+        return "Same-Page Merging: Pages Scanned: " + scanned + " (" + samePageMerger.getFullScans() + " full scan(s))"
+                + ", Compares: " + samePageMerger.getCompares() + " (" + samePageMerger.getMismatches() + " mismatched)"
+                + ", Merges: " + metricsRegistry.getCount(MetricsRegistry.KSM_MERGES)
+                + ", Merged Frames: " + mergedFrames + " (saving " + framesSaved + " frame(s))"
+                + ", Scan Time: " + String.format("%.1f", scanCpu.getMean() / 1000.0) + " us per pass ("
+                + String.format("%.0f", scanned == 0 ? 0 : scanCpu.getMean() * scanCpu.getCount() / scanned) + " ns per page)";
+    }
+
+    /**
+     * Give every process its own resident-set limit, managed by page-fault frequency, or go
+     * back to one pool of frames. A process's allocation grows while its fault rate is above
+     * the upper threshold and shrinks while it is below the lower one. With LOCAL scope a
+     * process at its limit replaces one of its own pages, so a process with a large working
+     * set cannot push the others out; with GLOBAL scope any process may take a free frame,
+     * but pages of processes over their limit are evicted first. Pages resident before
+     * allocations were turned on belong to no process.
+     * @param faultFrequencyAllocator The allocator, or null for one pool.
+     */
+    public synchronized void setFaultFrequencyAllocator(FaultFrequencyAllocator faultFrequencyAllocator) {
+        this.faultFrequencyAllocator = faultFrequencyAllocator;
+    }
+
+    public synchronized FaultFrequencyAllocator getFaultFrequencyAllocator() {
+        return faultFrequencyAllocator;
+    }
+
+    // Move a process's allocation toward its fault rate at the end of its window
+    private void adjustAllocation(int processId, boolean pageFault) {
+        int change = faultFrequencyAllocator.recordReference(processId, pageFault);
+        if (change != 0) {
+            metricsRegistry.increment(change > 0 ? MetricsRegistry.PFF_GROWS : MetricsRegistry.PFF_SHRINKS);
+            log("Fault-Frequency Allocation: Process " + processId + (change > 0 ? " grown" : " shrunk") + " to "
+                    + faultFrequencyAllocator.getLimit(processId) + " frame(s) ("
+                    + faultFrequencyAllocator.getResident(processId) + " resident).");
+        }
+    }
+
+    /**
+     * Per-process allocations and resident frames.
+     * @return A one-line summary.
+     */
+    public synchronized String getFaultFrequencyStatistics() {
+        return faultFrequencyAllocator == null ? "Fault-Frequency Allocation: off" : faultFrequencyAllocator.getSummary();
+    }
+
+    /**
+     * Let runWorkload suspend whole processes while memory thrashes, or stop it. Every
+     * interval the controller compares the fault rate with the load controller's thresholds
+     * and the working sets of the running processes with the frames; while both say memory
+     * is overcommitted it suspends a process (holding back its references) and, with swap-out,
+     * evicts its working set. A suspended process is resumed once its working set fits again.
+     * Like the miss ratio curve estimator this is not part of snapshots or the session
+     * configuration: a recorded session holds the references in the order they ran.
+     * @param loadController The load controller, or null to run every process.
+     */
+    public synchronized void setLoadController(LoadController loadController) {
+        this.loadController = loadController;
+    }
+
+    public synchronized LoadController getLoadController() {
+        return loadController;
+    }
+
+    /**
+     * Time spent thrashing, suspensions and throughput.
+     * @return A one-line summary.
+     */
+    public synchronized String getLoadControlStatistics() {
+        return loadController == null ? "Load Control: off" : loadController.getSummary();
+    }
+
+    /**
+     * Put an MMU paging-structure cache in front of page-table walks, or remove it. Each
+     * upper level of the page table gets its own small fully associative LRU cache of
+     * entries; a walk starts below the deepest cached entry on its path, so its cost is the
+     * levels it still reads times the latency model's cost per level. Without the cache
+     * every walk reads every level.
+     * @param entries Entries cached for each level above the page entries, the root first
+     *                (as many values as the latency model's levels minus one), or none to remove the cache.
+     * @return The cache, or null when it is removed.
+     */
+    public synchronized PageWalkCache configurePageWalkCache(int... entries) {
+        pageWalkCache = entries.length == 0 ? null
+                : new PageWalkCache(latencyModel.getPageTableLevels(), PageWalkCache.DEFAULT_BITS_PER_LEVEL, entries);
+        log(pageWalkCache == null ? "Page-walk cache removed." : "Page-walk cache: " + Arrays.toString(entries) + " entries per level.");
+        return pageWalkCache;
+    }
+
+    public synchronized PageWalkCache getPageWalkCache() {
+        return pageWalkCache;
+    }
+
+    // Cost of walking the page table for a page, after the page-walk cache skips what it can
+    private long getWalkNanos(int pageNumber, boolean hugePage) {
+        if (cpuCaches != null) {
+            return getCachedWalkNanos(pageNumber, hugePage);
+        }
+        if (pageWalkCache == null) {
+            return hugePage ? latencyModel.getHugePageWalkNanos() : latencyModel.getPageWalkNanos();
+        }
+        return latencyModel.getPageWalkNanos(pageWalkCache.walk(pageNumber, hugePage));
+    }
+
+    /**
+     * Read the page-table entries of a walk through the CPU caches: an entry that hits costs
+     * the latency of its cache level, one that misses a memory read. Page-table pages are
+     * placed after physical memory, one region per level, with 8-byte entries, so the entries
+     * of neighbouring pages share cache lines as they do in a real page table.
+     */
+    private long getCachedWalkNanos(int pageNumber, boolean hugePage) {
+        int levels = latencyModel.getPageTableLevels();
+        int leafLevel = hugePage ? levels - 2 : levels - 1;
+        int read = pageWalkCache == null ? leafLevel + 1 : pageWalkCache.walk(pageNumber, hugePage);
+        long tableBase = (long) physicalMemory.getSize() * getPageSize();
+        long nanos = 0;
+        for (int level = leafLevel + 1 - read; level <= leafLevel; level++) {
+            long index = (pageNumber & 0xFFFFFFFFL) >>> (PageWalkCache.DEFAULT_BITS_PER_LEVEL * (levels - 1 - level));
+            int hitLevel = cpuCaches.access(tableBase + ((long) level << 40) + index * 8, true);
+            nanos += hitLevel == -1 ? latencyModel.getPageWalkNanosPerLevel() : cpuCaches.getHitNanos(hitLevel);
+        }
+        return nanos;
+    }
+
+    /**
+     * Hits per level and levels read per walk.
+     * @return A one-line summary.
+     */
+    public synchronized String getPageWalkCacheStatistics() {
+        return pageWalkCache == null ? "Page-Walk Cache: off" : pageWalkCache.getStatistics();
+    }
+
+    /**
+     * Put physically indexed CPU caches behind address translation, or remove them. The data
+     * access of every reference looks up its physical address (the frame plus the offset of a
+     * byte access, the frame's first byte for a page reference), and page-table walks read
+     * their entries through the same caches, so misses caused by walks are counted apart and
+     * the effect of page size, huge pages and the TLB on cache behaviour can be compared.
+     * A hit costs the latency of its level instead of a memory access; a frame refilled from
+     * disk or compressed swap has its lines invalidated. Recordings and the time-travel
+     * journal hold pages rather than byte addresses, so their replays cache page references.
+     * @param caches The hierarchy, or null to remove it.
+     * @return The hierarchy.
+     */
+    public synchronized CacheHierarchy configureCpuCaches(CacheHierarchy caches) {
+        cpuCaches = caches;
+        log(cpuCaches == null ? "CPU caches removed." : "CPU caches: " + cpuCaches.getSpecification());
+        return cpuCaches;
+    }
+
+    public synchronized CacheHierarchy getCpuCaches() {
+        return cpuCaches;
+    }
+
+    /**
+     * Hit ratio of each cache level, with page-walk misses apart.
+     * @return A one-line summary.
+     */
+    public synchronized String getCpuCacheStatistics() {
+        return cpuCaches == null ? "CPU Caches: off" : cpuCaches.getStatistics();
+    }
+
+    /**
+     * Put a compressed swap tier between memory and disk, as zswap does, or remove it.
+     * Evicted pages are compressed into a bounded off-heap pool and faulted back from there
+     * without disk I/O; when the pool is full its least recently stored pages are pushed
+     * out to disk. Pages that do not compress to three quarters of a page go straight to disk.
+     * Removing the tier writes the pages it holds that are newer than their disk copy.
+     * @param capacityBytes Size of the pool, or 0 to remove the tier.
+     * @param compressionLevel Deflater level, 1 (fastest) to 9 (smallest).
+     * @return The pool, or null when the tier is removed.
+     */
+    public synchronized CompressedSwapPool configureCompressedSwap(long capacityBytes, int compressionLevel) {
+        if (compressedSwap != null) {
+            while (compressedSwap.getLeastRecentPage() != -1) {
+                writeBackCompressed(compressedSwap.getLeastRecentPage());
+            }
+        }
+        if (capacityBytes == 0) {
+            compressedSwap = null;
+            log("Compressed swap disabled.");
+            return null;
+        }
+        compressedSwap = new CompressedSwapPool(virtualPageCount, getPageSize(), capacityBytes, compressionLevel, metricsRegistry);
+        log("Compressed swap enabled: " + compressedSwap.getCapacityBytes() / 1024 + " KB pool, level " + compressionLevel + ".");
+        return compressedSwap;
+    }
+
+    public synchronized CompressedSwapPool getCompressedSwap() {
+        return compressedSwap;
+    }
+
+    /**
+     * Pool occupancy, compression ratio, how many faults the tier served instead of the disk,
+     * and the CPU time spent compressing and decompressing (measured, not simulated).
+     * @return A one-line summary.
+     */
+    public synchronized String getCompressedSwapStatistics() {
+        if (compressedSwap == null) {
+            return "Compressed Swap: off";
+        }
+        long loads = metricsRegistry.getCount(MetricsRegistry.ZSWAP_LOADS);
+        long diskReads = metricsRegistry.getCount(MetricsRegistry.DISK_READS);
+        long compressed = metricsRegistry.getCount(MetricsRegistry.ZSWAP_COMPRESSED_BYTES);
+        LatencyHistogram compressCpu = metricsRegistry.histogram(MetricsRegistry.ZSWAP_COMPRESS_CPU);
+        LatencyHistogram decompressCpu = metricsRegistry.histogram(MetricsRegistry.ZSWAP_DECOMPRESS_CPU);
+        long faults = pageFaultCounter.sum();
+        double cpuPerFault = faults == 0 ? 0 : (compressCpu.getMean() * compressCpu.getCount()
+                + decompressCpu.getMean() * decompressCpu.getCount()) / faults;
+        return "Compressed Swap Pages: " + compressedSwap.getStoredPageCount()
+                + " (" + compressedSwap.getUsedBytes() / 1024 + " of " + compressedSwap.getCapacityBytes() / 1024 + " KB)"
+                + ", Compression Ratio: " + String.format("%.2f", compressed == 0 ? 0
+                        : metricsRegistry.getCount(MetricsRegistry.ZSWAP_UNCOMPRESSED_BYTES) / (double) compressed) + ":1"
+                + ", Tier Hit Rate: " + String.format("%.2f", loads + diskReads == 0 ? 0 : loads * 100.0 / (loads + diskReads)) + "%"
+                + ", Rejected: " + metricsRegistry.getCount(MetricsRegistry.ZSWAP_REJECTS)
+                + ", Written Back: " + metricsRegistry.getCount(MetricsRegistry.ZSWAP_WRITEBACKS)
+                + ", CPU per Compress / Decompress / Fault: " + String.format("%.0f", compressCpu.getMean())
+                + " / " + String.format("%.0f", decompressCpu.getMean()) + " / " + String.format("%.0f", cpuPerFault) + " ns";
+    }
+
+    public boolean isPageInMemory(int pageNumber) {
+        return pageTable.isPageInMemory(pageNumber);
+    }
+
+    public Page getPageFromVirtualMemory(int pageNumber) {
+        if (pageNumber < 0 || pageNumber >= virtualMemory.getSize()) {
+            throw new IllegalArgumentException("Page number " + pageNumber + " is out of bounds. Valid range: 0 to " + (virtualMemory.getSize() - 1));
+        }
+        return virtualMemory.getPage(pageNumber);
+    }
+
+    /**
+     * Effective memory access time in simulated nanoseconds per reference.
+     * @return The formatted effective access time.
+     */
+    public String getEffectiveAccessTime() {
+        return String.format("%.2f", simulationClock.getEffectiveAccessTime()) + " ns";
+    }
+
+    /**
+     * Breakdown of the effective access time by component.
+     * @return The per-reference cost of each component, e.g. "TLB 1.00 / PAGE_WALK 40.00 / ...".
+     */
+    public String getAccessTimeBreakdown() {
+        StringBuilder breakdown = new StringBuilder();
+        for (Map.Entry<SimulationClock.Component, Double> entry : simulationClock.getBreakdown().entrySet()) {
+            if (breakdown.length() > 0) {
+                breakdown.append(" / ");
+            }
+            breakdown.append(entry.getKey()).append(' ').append(String.format("%.2f", entry.getValue()));
+        }
+        return breakdown.toString();
+    }
+
+    public SimulationClock getSimulationClock() {
+        return simulationClock;
+    }
+
+    public LatencyModel getLatencyModel() {
+        return latencyModel;
+    }
+
+    public void setLatencyModel(LatencyModel latencyModel) {
+        this.latencyModel = latencyModel;
+    }
+
+    public DiskSimulator getDiskSimulator() {
+        return diskSimulator;
+    }
+
+    public AsyncDiskQueue getAsyncDiskQueue() {
+        return asyncDiskQueue;
+    }
+
+    /**
+     * Replaces the disk queue used by requestPageAsync.
+     * @param queueDepth Number of reads serviced concurrently.
+     * @param serviceTimeNanos Simulated time to service one read.
+     */
+    public synchronized void configureAsyncDiskQueue(int queueDepth, long serviceTimeNanos) {
+        drainAsyncFaults();
+        asyncDiskQueue = new AsyncDiskQueue(queueDepth, serviceTimeNanos);
+    }
+
+    public synchronized ReadaheadPrefetcher getReadaheadPrefetcher() {
+        return readaheadPrefetcher;
+    }
+
+    /**
+     * Enables readahead with the given prefetcher, or disables it when null.
+     * @param readaheadPrefetcher The prefetcher to use.
+     */
+    public synchronized void setReadaheadPrefetcher(ReadaheadPrefetcher readaheadPrefetcher) {
+        this.readaheadPrefetcher = readaheadPrefetcher;
+    }
+
+    /**
+     * Read a byte at a virtual address, translating it and faulting the page in if needed.
+     * @param processId The process making the reference.
+     * @param virtualAddress The virtual byte address.
+     * @return The byte stored at the address.
+     */
+    public synchronized byte loadByte(int processId, long virtualAddress) {
+        return physicalMemory.loadByte(translateForAccess(processId, virtualAddress, false));
+    }
+
+    /**
+     * Write a byte at a virtual address. The page becomes dirty.
+     * @param processId The process making the reference.
+     * @param virtualAddress The virtual byte address.
+     * @param value The byte to store.
+     */
+    public synchronized void storeByte(int processId, long virtualAddress, byte value) {
+        physicalMemory.storeByte(translateForAccess(processId, virtualAddress, true), value);
+    }
+
+    /**
+     * Read an 8-byte value at a virtual address. The value must not cross a page boundary.
+     * @param processId The process making the reference.
+     * @param virtualAddress The virtual byte address.
+     * @return The value stored at the address.
+     */
+    public synchronized long loadLong(int processId, long virtualAddress) {
+        return physicalMemory.loadLong(translateForAccess(processId, virtualAddress, false));
+    }
+
+    /**
+     * Write an 8-byte value at a virtual address. The value must not cross a page boundary.
+     * @param processId The process making the reference.
+     * @param virtualAddress The virtual byte address.
+     * @param value The value to store.
+     */
+    public synchronized void storeLong(int processId, long virtualAddress, long value) {
+        physicalMemory.storeLong(translateForAccess(processId, virtualAddress, true), value);
+    }
+
+    private long translateForAccess(int processId, long virtualAddress, boolean write) {
+        long physicalAddress = accessAddress(processId, virtualAddress, write);
+        if (physicalAddress == -1) {
+            throw new IllegalArgumentException("Virtual address 0x" + Long.toHexString(virtualAddress).toUpperCase() + " could not be translated.");
+        }
+        return physicalAddress;
+    }
+
+    /**
+     * Short hex dump of the start of a frame, for display.
+     * @param frameNumber The frame to describe.
+     * @return Up to the first 8 bytes of the frame in hex.
+     */
+    public String getFrameContentPreview(int frameNumber) {
+        int length = Math.min(8, physicalMemory.getFrameSize());
+        long base = addressTranslator.toAddress(frameNumber);
+        StringBuilder preview = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            preview.append(String.format("%02X", physicalMemory.loadByte(base + i)));
+        }
+        return preview.toString();
+    }
+
+    public AddressTranslator getAddressTranslator() {
+        return addressTranslator;
+    }
+
+    public int getVirtualMemorySize() {
+        return virtualPageCount;
+    }
+
+    // Number of physical frames
+    public int getPhysicalMemorySize() {
+        return physicalMemory.getSize();
+    }
+
+    public int getPageSize() {
+        return addressTranslator.getPageSize();
+    }
+
+    /**
+     * Size of the virtual address space in bytes (virtual pages times page size).
+     * @return The number of valid virtual byte addresses.
+     */
+    public long getVirtualAddressSpaceSize() {
+        return addressTranslator.toAddress(virtualPageCount);
+    }
+
+    public synchronized WriteBackFlusher getWriteBackFlusher() {
+        return writeBackFlusher;
+    }
+
+    /**
+     * Replaces the background flusher, or disables background write-back when null.
+     * @param writeBackFlusher The flusher to use.
+     */
+    public synchronized void setWriteBackFlusher(WriteBackFlusher writeBackFlusher) {
+        this.writeBackFlusher = writeBackFlusher;
+    }
+
+    public synchronized boolean isPreferCleanVictims() {
+        return preferCleanVictims;
+    }
+
+    public synchronized void setPreferCleanVictims(boolean preferCleanVictims) {
+        this.preferCleanVictims = preferCleanVictims;
+    }
+
+    /**
+     * Used by replacement algorithms to rank candidate victims.
+     * @param pageNumber A resident page.
+     * @return True if evicting the page is cheap: it is not shared by several processes (which
+     *         would all fault on it) and, when clean victims are preferred, it is clean.
+     */
+    public boolean isPreferredVictim(int pageNumber) {
+        return (!preferCleanVictims || !virtualMemory.getPage(pageNumber).isDirty())
+                && (processTable == null || processTable.getMapCount(pageNumber) <= 1);
+    }
+
+    public long getCleanEvictionCount() {
+        return metricsRegistry.getCount(MetricsRegistry.CLEAN_EVICTIONS);
+    }
+
+    public long getDirtyEvictionCount() {
+        return metricsRegistry.getCount(MetricsRegistry.DIRTY_EVICTIONS);
+    }
+
+    public long getWriteBackIoCount() {
+        return metricsRegistry.getCount(MetricsRegistry.WRITE_BACK_IOS);
+    }
+
+    public long getMergedFaultCount() {
+        return metricsRegistry.getCount(MetricsRegistry.MERGED_FAULTS);
+    }
+
+    public MetricsRegistry getMetricsRegistry() {
+        return metricsRegistry;
+    }
+
+    /**
+     * Fault rate over the most recent references (a sliding window, unlike getPageFaultRate).
+     * @return Faults per reference in the window (0 to 1).
+     */
+    public double getRecentFaultRate() {
+        long now = simulationClock.getReferenceCount();
+        long window = Math.min(now, recentFaults.getWindowLength());
+        return window == 0 ? 0 : recentFaults.getWindowTotal(now) / (double) window;
+    }
+
+    public synchronized int getInFlightFaultCount() {
+        return inFlightFaults.size();
+    }
+
+    public String getPageFaultRate() {
+        long totalRequests = referenceCounter.sum(); // Every reference, hit or fault
+        if (totalRequests == 0) {
+            return "0.00%"; // No requests, fault rate is 0%
+        }
+        return String.format("%.2f", (pageFaultCounter.sum() * 100.0) / totalRequests) + "%";
+    }
+
+    public String getPageReplacementCount() {
+        return String.valueOf(metricsRegistry.getCount(MetricsRegistry.REPLACEMENTS));
+    }
+
+    public ListModel<Object> getVirtualMemory() {
+        DefaultListModel<Object> virtualMemoryModel = new DefaultListModel<>();
+        for (int i = 0; i < virtualMemory.getSize(); i++) {
+            Page page = virtualMemory.getPage(i);
+            String pageDetails = "Page " + i + " - ";
+            if (page.isInMemory()) {
+                pageDetails += "In Memory (Frame " + page.getFrameNumber() + ")";
+            } else {
+                pageDetails += "Not in Memory";
+            }
+            virtualMemoryModel.addElement(pageDetails);
+        }
+        return virtualMemoryModel;
+    }
+
+    /**
+     * Executes a load: fetches the instruction at the given virtual address, then
+     * references each data address in the list.
+     * @param address Virtual byte address of the instruction.
+     * @param data Comma-separated virtual byte addresses in hex, each optionally prefixed with R or W.
+     */
+    public void loadInstruction(int address, String data) {
+        String[] dataItems = data.split(",");
+        log("Loading instructions at address 0x" + Integer.toHexString(address).toUpperCase() + ": " + data);
+        accessAddress(0, address, false); // Instruction fetch
+        for (String item : dataItems) {
+            try {
+                // An optional R/W prefix selects a read or a write; reads are the default
+                String token = item.trim();
+                boolean write = token.startsWith("W") || token.startsWith("w");
+                if (write || token.startsWith("R") || token.startsWith("r")) {
+                    token = token.substring(1);
+                }
+                long virtualAddress = Long.parseLong(token, 16);
+                accessAddress(0, virtualAddress, write);
+            } catch (NumberFormatException e) {
+                log("Error: Invalid data format \"" + item + "\". Skipping...");
+            }
+        }
+    }
+}
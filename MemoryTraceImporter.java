@@ -0,0 +1,403 @@
+package org.example.Model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Map;
+
+public class MemoryTraceImporter implements WorkloadGenerator, Closeable {
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final long NO_KEY = -1; // Empty slot marker in the page renumbering table
+
+    // Text formats the importer understands
+    public enum Format {
+        LACKEY, // valgrind --tool=lackey --trace-mem=yes: "I  04000000,3", " L 04222cac,8", " S ...", " M ..."
+        DINERO // Dinero "din": "<label> <hex address>", label 0 = read, 1 = write, 2 = instruction fetch
+    }
+
+    private final FileChannel channel;
+    private final Format format;
+    private final int pageShift; // log2 of the page size
+    private final int processId; // Process the references are attributed to
+    private final boolean includeInstructionFetches; // Whether instruction fetches become references
+    private final byte[] bytes; // Text read ahead from the file, parsed in place
+    private final ByteBuffer buffer; // Wraps bytes for channel reads
+    private int position; // Next unparsed byte
+    private int limit; // End of the valid bytes
+    private boolean endOfFile; // No more bytes to read from the channel
+    private int lineEnd; // Index of the newline ending the current line (limit for a last line without one)
+    private boolean lineOpen; // The current line has been handed to a parser and must be skipped next
+
+    private long pending; // Second reference of an access that crossed a page boundary
+    private boolean hasPending;
+    private long nextRecord; // Reference parsed ahead by hasNext
+    private boolean hasNextRecord;
+
+    // Dense renumbering of pages in first-touch order, so sparse 64-bit address spaces fit
+    // the simulator; null when page numbers are taken from the addresses as they are
+    private long[] renumberKeys;
+    private int[] renumberValues;
+    private int distinctPages;
+
+    private long bytesRead; // Text consumed so far
+    private long linesParsed; // Lines that produced references
+    private long linesSkipped; // Tool messages, blank lines and lines in another format
+    private long referenceCount; // References returned
+    private long pageCrossings; // Accesses split across two pages
+
+    /**
+     * Open a text trace for streaming import.
+     * @param path The trace file.
+     * @param format The text format.
+     * @param pageSize Page size in bytes (power of 2) used to turn addresses into page numbers.
+     * @param processId Process the references are attributed to.
+     * @param includeInstructionFetches Whether instruction fetches are references or skipped.
+     * @param renumberPages Number pages densely in first-touch order instead of address / page size.
+     */
+    public MemoryTraceImporter(Path path, Format format, int pageSize, int processId, boolean includeInstructionFetches, boolean renumberPages) throws IOException {
+        if (pageSize <= 0 || Integer.bitCount(pageSize) != 1) {
+            throw new IllegalArgumentException("Page size must be a power of 2.");
+        }
+        TraceRecord.pack(processId, 0, false); // Validates the process id
+        this.format = format;
+        this.pageShift = Integer.numberOfTrailingZeros(pageSize);
+        this.processId = processId;
+        this.includeInstructionFetches = includeInstructionFetches;
+        this.bytes = new byte[BUFFER_SIZE];
+        this.buffer = ByteBuffer.wrap(bytes);
+        if (renumberPages) {
+            this.renumberKeys = new long[1 << 12];
+            this.renumberValues = new int[1 << 12];
+            Arrays.fill(renumberKeys, NO_KEY);
+        }
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+    }
+
+    /**
+     * Convert a text trace into the binary trace format in one pass.
+     * @param input The text trace.
+     * @param format The text format.
+     * @param pageSize Page size in bytes.
+     * @param renumberPages Number pages densely in first-touch order.
+     * @param output The binary trace to create.
+     * @return The number of references written.
+     */
+    public static long convert(Path input, Format format, int pageSize, boolean renumberPages, Path output) throws IOException {
+        try (MemoryTraceImporter importer = new MemoryTraceImporter(input, format, pageSize, 0, true, renumberPages);
+             TraceWriter writer = new TraceWriter(output, pageSize, Map.of(
+                     "source", input.getFileName().toString(),
+                     "format", format.name(),
+                     "renumberPages", Boolean.toString(renumberPages)))) {
+            return writer.writeAll(importer);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (hasNextRecord) {
+            return true;
+        }
+        if (hasPending) {
+            hasPending = false;
+            nextRecord = pending;
+            hasNextRecord = true;
+            return true;
+        }
+        try {
+            while (nextLine()) {
+                if (format == Format.LACKEY ? parseLackeyLine() : parseDineroLine()) {
+                    linesParsed++;
+                    hasNextRecord = true;
+                    return true;
+                }
+                linesSkipped++;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return false;
+    }
+
+    @Override
+    public long next() {
+        if (!hasNext()) {
+            throw new IllegalStateException("Trace is exhausted.");
+        }
+        hasNextRecord = false;
+        referenceCount++;
+        return nextRecord;
+    }
+
+    // Advance to the next line, refilling the buffer so the whole line is in it.
+    // Lines are parsed straight out of the byte array; no String is created per line.
+    private boolean nextLine() throws IOException {
+        if (lineOpen) {
+            position = lineEnd + 1;
+            lineOpen = false;
+        }
+        int scanned = position; // Bytes before this index are known not to be newlines
+        while (true) {
+            int newline = indexOfNewline(scanned, limit);
+            if (newline >= 0) {
+                lineEnd = newline;
+                lineOpen = true;
+                return true;
+            }
+            if (endOfFile) {
+                if (position >= limit) {
+                    return false;
+                }
+                lineEnd = limit;
+                lineOpen = true;
+                return true;
+            }
+            scanned = limit - position;
+            refill();
+        }
+    }
+
+    private int indexOfNewline(int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (bytes[i] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Move the unparsed tail to the front of the buffer and read more after it
+    private void refill() throws IOException {
+        int remaining = limit - position;
+        if (remaining == bytes.length) {
+            throw new IOException("Trace line longer than " + bytes.length + " bytes.");
+        }
+        System.arraycopy(bytes, position, bytes, 0, remaining);
+        position = 0;
+        limit = remaining;
+        buffer.limit(bytes.length).position(limit);
+        int read = channel.read(buffer);
+        if (read < 0) {
+            endOfFile = true;
+        } else {
+            limit += read;
+            bytesRead += read;
+        }
+    }
+
+    // " L 04222cac,8": kind, address in hex, size in decimal. Lines that do not match
+    // (e.g. "==1234== ..." tool messages) produce no reference.
+    private boolean parseLackeyLine() {
+        int i = skipSpaces(position);
+        if (i + 1 >= lineEnd || bytes[i + 1] != ' ') {
+            return false;
+        }
+        boolean write;
+        switch (bytes[i]) {
+            case 'L' -> write = false;
+            case 'S', 'M' -> write = true; // A modify is a load and a store to the same bytes
+            case 'I' -> {
+                if (!includeInstructionFetches) {
+                    return false;
+                }
+                write = false;
+            }
+            default -> {
+                return false;
+            }
+        }
+        i = skipSpaces(i + 1);
+        int addressStart = i;
+        long address = 0;
+        int digit;
+        while (i < lineEnd && (digit = hexValue(bytes[i])) >= 0) {
+            address = (address << 4) | digit;
+            i++;
+        }
+        if (i == addressStart || i - addressStart > 16 || i >= lineEnd || bytes[i] != ',') {
+            return false;
+        }
+        i++;
+        long size = 0;
+        int sizeStart = i;
+        while (i < lineEnd && bytes[i] >= '0' && bytes[i] <= '9' && i - sizeStart < 9) {
+            size = size * 10 + (bytes[i] - '0');
+            i++;
+        }
+        if (i == sizeStart) {
+            return false;
+        }
+        emit(address, Math.max(1, size), write);
+        return true;
+    }
+
+    // "1 7fff5e8c": label, then address in hex (an optional 0x prefix is accepted)
+    private boolean parseDineroLine() {
+        int i = skipSpaces(position);
+        if (i + 1 >= lineEnd || bytes[i + 1] != ' ' && bytes[i + 1] != '\t') {
+            return false;
+        }
+        boolean write;
+        switch (bytes[i]) {
+            case '0' -> write = false;
+            case '1' -> write = true;
+            case '2' -> {
+                if (!includeInstructionFetches) {
+                    return false;
+                }
+                write = false;
+            }
+            default -> {
+                return false; // Escape records (3, 4) and anything else
+            }
+        }
+        i = skipSpaces(i + 1);
+        if (i + 1 < lineEnd && bytes[i] == '0' && (bytes[i + 1] == 'x' || bytes[i + 1] == 'X')) {
+            i += 2;
+        }
+        int addressStart = i;
+        long address = 0;
+        int digit;
+        while (i < lineEnd && (digit = hexValue(bytes[i])) >= 0) {
+            address = (address << 4) | digit;
+            i++;
+        }
+        if (i == addressStart || i - addressStart > 16) {
+            return false;
+        }
+        emit(address, 1, write);
+        return true;
+    }
+
+    private int skipSpaces(int i) {
+        while (i < lineEnd && (bytes[i] == ' ' || bytes[i] == '\t')) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int hexValue(byte b) {
+        if (b >= '0' && b <= '9') {
+            return b - '0';
+        }
+        if (b >= 'a' && b <= 'f') {
+            return b - 'a' + 10;
+        }
+        if (b >= 'A' && b <= 'F') {
+            return b - 'A' + 10;
+        }
+        return -1;
+    }
+
+    // Turn one access into one reference, or two when it straddles a page boundary
+    private void emit(long address, long size, boolean write) {
+        long firstPage = address >>> pageShift;
+        long lastPage = (address + size - 1) >>> pageShift;
+        nextRecord = TraceRecord.pack(processId, toPageNumber(firstPage), write);
+        if (lastPage != firstPage) {
+            pageCrossings++;
+            pending = TraceRecord.pack(processId, toPageNumber(lastPage), write);
+            hasPending = true;
+        }
+    }
+
+    private int toPageNumber(long page) {
+        if (renumberKeys == null) {
+            if (page > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Page 0x" + Long.toHexString(page) + " does not fit a page number; import with page renumbering.");
+            }
+            return (int) page;
+        }
+        int mask = renumberKeys.length - 1;
+        int slot = (int) (mix(page) & mask);
+        while (renumberKeys[slot] != NO_KEY) {
+            if (renumberKeys[slot] == page) {
+                return renumberValues[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        renumberKeys[slot] = page;
+        renumberValues[slot] = distinctPages;
+        if (++distinctPages * 2 > renumberKeys.length) {
+            growRenumberTable();
+        }
+        return distinctPages - 1;
+    }
+
+    private void growRenumberTable() {
+        long[] oldKeys = renumberKeys;
+        int[] oldValues = renumberValues;
+        renumberKeys = new long[oldKeys.length * 2];
+        renumberValues = new int[oldKeys.length * 2];
+        Arrays.fill(renumberKeys, NO_KEY);
+        int mask = renumberKeys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != NO_KEY) {
+                int slot = (int) (mix(oldKeys[i]) & mask);
+                while (renumberKeys[slot] != NO_KEY) {
+                    slot = (slot + 1) & mask;
+                }
+                renumberKeys[slot] = oldKeys[i];
+                renumberValues[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private static long mix(long key) {
+        key *= 0x9E3779B97F4A7C15L;
+        return key ^ (key >>> 32);
+    }
+
+    /**
+     * @return The number of distinct pages seen so far, or -1 when pages are not renumbered.
+     */
+    public int getDistinctPageCount() {
+        return renumberKeys == null ? -1 : distinctPages;
+    }
+
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    public long getLinesParsed() {
+        return linesParsed;
+    }
+
+    public long getLinesSkipped() {
+        return linesSkipped;
+    }
+
+    public long getReferenceCount() {
+        return referenceCount;
+    }
+
+    public long getPageCrossings() {
+        return pageCrossings;
+    }
+
+    public Format getFormat() {
+        return format;
+    }
+
+    public void printStatistics() {
+        System.out.println("Trace Import Statistics:");
+        System.out.println("Format: " + format);
+        System.out.println("Bytes Read: " + bytesRead);
+        System.out.println("Lines Parsed: " + linesParsed);
+        System.out.println("Lines Skipped: " + linesSkipped);
+        System.out.println("References: " + referenceCount);
+        System.out.println("Page-Crossing Accesses: " + pageCrossings);
+        if (renumberKeys != null) {
+            System.out.println("Distinct Pages: " + distinctPages);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
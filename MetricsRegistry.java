@@ -0,0 +1,197 @@
+package org.example.Model;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+public class MetricsRegistry {
+    // Counter names shared by the components that report into the registry
+    public static final String REFERENCES = "references";
+    public static final String TLB_HITS = "tlb.hits";
+    public static final String TLB_MISSES = "tlb.misses";
+    public static final String TLB_HUGE_HITS = "tlb.hits.huge"; // Part of TLB_HITS served by huge-page entries
+    public static final String PAGE_TABLE_ACCESSES = "pagetable.accesses";
+    public static final String PAGE_TABLE_MISSES = "pagetable.misses";
+    public static final String HUGE_PAGE_WALKS = "pagetable.walks.huge"; // Walks that ended at a huge-page entry
+    public static final String HUGE_PAGE_PROMOTIONS = "hugepages.promotions";
+    public static final String HUGE_PAGE_DEMOTIONS = "hugepages.demotions";
+    public static final String HUGE_PAGE_MIGRATIONS = "hugepages.migrations"; // Pages moved to collapse regions
+    public static final String PAGE_FAULTS = "faults";
+    public static final String MERGED_FAULTS = "faults.merged";
+    public static final String REPLACEMENTS = "replacements";
+    public static final String CLEAN_EVICTIONS = "evictions.clean";
+    public static final String DIRTY_EVICTIONS = "evictions.dirty";
+    public static final String WRITE_BACK_IOS = "writeback.ios";
+    public static final String DISK_READS = "disk.reads";
+    public static final String DISK_WRITES = "disk.writes";
+    public static final String PREFETCHES = "prefetch.issued";
+    public static final String NUMA_LOCAL_ACCESSES = "numa.accesses.local";
+    public static final String NUMA_REMOTE_ACCESSES = "numa.accesses.remote";
+    public static final String NUMA_MIGRATIONS = "numa.migrations";
+    public static final String NUMA_MIGRATIONS_FAILED = "numa.migrations.failed"; // Target node had no free frame
+    public static final String FORKS = "process.forks";
+    public static final String PROCESS_EXITS = "process.exits";
+    public static final String COW_FAULTS = "cow.faults"; // Writes to a shared page that copied it
+    public static final String COW_SHARED_PAGES = "cow.pages.shared"; // Resident pages shared by a fork instead of copied
+    public static final String ZSWAP_STORES = "zswap.stores"; // Evicted pages kept compressed in memory
+    public static final String ZSWAP_REJECTS = "zswap.rejects"; // Evicted pages that did not compress well enough
+    public static final String ZSWAP_LOADS = "zswap.loads"; // Faults served from the compressed pool
+    public static final String ZSWAP_WRITEBACKS = "zswap.writebacks"; // Entries pushed out of the pool to disk
+    public static final String ZSWAP_UNCOMPRESSED_BYTES = "zswap.bytes.uncompressed";
+    public static final String ZSWAP_COMPRESSED_BYTES = "zswap.bytes.compressed";
+    public static final String KSM_PAGES_SCANNED = "ksm.pages.scanned"; // Frames hashed by the same-page merger
+    public static final String POLICY_SWITCHES = "replacement.switches"; // Live policy changes made by adaptive replacement
+    public static final String PFF_GROWS = "pff.grows"; // Per-process allocations grown for a high fault rate
+    public static final String PFF_SHRINKS = "pff.shrinks"; // Per-process allocations shrunk for a low fault rate
+    public static final String LOAD_SUSPENSIONS = "load.suspensions"; // Processes suspended by load control while memory thrashed
+    public static final String LOAD_RESUMPTIONS = "load.resumptions";
+    public static final String LOAD_SWAPPED_PAGES = "load.swapped.pages"; // Pages evicted when their process was suspended
+    public static final String KSM_MERGES = "ksm.merges"; // Pages merged into an identical page, each freeing a frame
+
+    // Histogram and rate names
+    public static final String SIMULATED_LATENCY = "latency.simulated";
+    public static final String WALL_LATENCY = "latency.wall";
+    public static final String RECENT_FAULTS = "faults.recent";
+    public static final String ZSWAP_COMPRESS_CPU = "zswap.cpu.compress"; // Wall-clock nanoseconds per compressed page
+    public static final String ZSWAP_DECOMPRESS_CPU = "zswap.cpu.decompress";
+    public static final String KSM_SCAN_CPU = "ksm.cpu.scan"; // Wall-clock nanoseconds per same-page merging pass
+
+    private final Map<String, LongAdder> counters;
+    private final Map<String, LatencyHistogram> histograms;
+    private final Map<String, SlidingWindowRate> rates;
+
+    // Constructor
+    public MetricsRegistry() {
+        this.counters = new ConcurrentHashMap<>();
+        this.histograms = new ConcurrentHashMap<>();
+        this.rates = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Get (or create) a counter. Callers on hot paths should keep the returned adder
+     * rather than looking it up on every update.
+     * @param name The counter name.
+     * @return The counter.
+     */
+    public LongAdder counter(String name) {
+        return counters.computeIfAbsent(name, key -> new LongAdder());
+    }
+
+    /**
+     * Get (or create) a latency histogram.
+     * @param name The histogram name.
+     * @return The histogram.
+     */
+    public LatencyHistogram histogram(String name) {
+        return histograms.computeIfAbsent(name, key -> new LatencyHistogram());
+    }
+
+    /**
+     * Get (or create) a sliding-window rate. The shape is only used on creation.
+     * @param name The rate name.
+     * @param bucketCount Number of buckets in the window.
+     * @param bucketWidth Time units per bucket.
+     * @return The rate.
+     */
+    public SlidingWindowRate rate(String name, int bucketCount, long bucketWidth) {
+        return rates.computeIfAbsent(name, key -> new SlidingWindowRate(bucketCount, bucketWidth));
+    }
+
+    /**
+     * Increment a counter by one.
+     * @param name The counter name.
+     */
+    public void increment(String name) {
+        counter(name).increment();
+    }
+
+    /**
+     * Get the current value of a counter.
+     * @param name The counter name.
+     * @return The counter value, or 0 if it was never updated.
+     */
+    public long getCount(String name) {
+        LongAdder counter = counters.get(name);
+        return counter == null ? 0 : counter.sum();
+    }
+
+    /**
+     * Get the current value of every counter, sorted by name.
+     * @return Map of counter name to value.
+     */
+    public Map<String, Long> snapshotCounters() {
+        Map<String, Long> snapshot = new TreeMap<>();
+        counters.forEach((name, counter) -> snapshot.put(name, counter.sum()));
+        return snapshot;
+    }
+
+    /**
+     * Reset every counter, histogram and rate to zero.
+     */
+    public void reset() {
+        counters.values().forEach(LongAdder::reset);
+        histograms.values().forEach(LatencyHistogram::reset);
+        rates.values().forEach(SlidingWindowRate::reset);
+    }
+
+    /**
+     * Save every counter, histogram and rate by name.
+     * @param out The snapshot being written.
+     */
+    public void writeSnapshot(SnapshotOutput out) throws IOException {
+        Map<String, Long> counterValues = snapshotCounters();
+        out.putInt(counterValues.size());
+        for (Map.Entry<String, Long> entry : counterValues.entrySet()) {
+            out.putString(entry.getKey());
+            out.putLong(entry.getValue());
+        }
+        out.putInt(histograms.size());
+        for (Map.Entry<String, LatencyHistogram> entry : new TreeMap<>(histograms).entrySet()) {
+            out.putString(entry.getKey());
+            entry.getValue().writeSnapshot(out);
+        }
+        out.putInt(rates.size());
+        for (Map.Entry<String, SlidingWindowRate> entry : new TreeMap<>(rates).entrySet()) {
+            out.putString(entry.getKey());
+            out.putInt(entry.getValue().getBucketCount());
+            out.putLong(entry.getValue().getBucketWidth());
+            entry.getValue().writeSnapshot(out);
+        }
+    }
+
+    /**
+     * Restore the metrics saved by writeSnapshot. Existing instances are updated in place,
+     * so components that cached a counter or histogram keep reporting into it.
+     * @param in The snapshot being read.
+     */
+    public void readSnapshot(SnapshotInput in) throws IOException {
+        reset();
+        int counterCount = in.getInt();
+        for (int i = 0; i < counterCount; i++) {
+            LongAdder counter = counter(in.getString());
+            counter.add(in.getLong());
+        }
+        int histogramCount = in.getInt();
+        for (int i = 0; i < histogramCount; i++) {
+            histogram(in.getString()).readSnapshot(in);
+        }
+        int rateCount = in.getInt();
+        for (int i = 0; i < rateCount; i++) {
+            String name = in.getString();
+            int bucketCount = in.getInt();
+            long bucketWidth = in.getLong();
+            rate(name, bucketCount, bucketWidth).readSnapshot(in);
+        }
+    }
+
+    /**
+     * Print all counters and histograms.
+     */
+    public void printStatistics() {
+        System.out.println("Metrics:");
+        snapshotCounters().forEach((name, value) -> System.out.println("  " + name + ": " + value));
+        new TreeMap<>(histograms).forEach((name, histogram) -> System.out.println("  " + name + ": " + histogram.summary()));
+    }
+}
@@ -0,0 +1,300 @@
+package org.example.Model;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+public class MissRatioCurveEstimator {
+    private static final int HASH_BITS = 24; // Pages hash to [0, 2^24); a page is sampled if its hash is below the threshold
+    private static final int BUCKETS = 1024; // Distance histogram resolution
+    private static final int MIN_SLOTS = 1024;
+
+    private final int maxSampledPages; // Fixed-size mode: pages tracked at most (the threshold drops to stay below); 0 for fixed rate
+    private final int bucketPages; // Memory sizes covered by each histogram bucket
+    private int threshold; // Sampling threshold; the sampling rate is threshold / 2^HASH_BITS
+    private final double[] histogram; // Weight of sampled references per scaled reuse distance bucket
+    private double coldWeight; // Sampled first references, misses at every size
+    private double beyondWeight; // Reuse distances beyond the largest size covered
+    private long references; // All references seen, sampled or not
+    private long sampledReferences;
+
+    // Stack distances: each sampled page holds a one in a Fenwick tree at the slot of its latest reference,
+    // so the pages referenced since a slot are counted in O(log n). Slots are renumbered when they run out.
+    private final Map<Integer, Integer> lastSlots; // Sampled page -> slot of its latest reference
+    private final Map<Integer, Long> pageReferences; // Sampled page -> its references, for the error bound
+    private long trackedReferences; // Sum of pageReferences
+    private double trackedReferenceSquares; // Sum of their squares
+    private int[] slotPages; // Page at each slot, -1 once it was referenced again
+    private int[] tree; // Fenwick tree over the slots
+    private int nextSlot;
+    private final PriorityQueue<Long> pagesByHash; // Fixed-size mode: tracked pages, highest hash first, packed (hash << 32 | page)
+
+    private MissRatioCurveEstimator(double samplingRate, int maxSampledPages, int maxPages) {
+        if (maxPages <= 0) {
+            throw new IllegalArgumentException("Largest memory size must be greater than 0.");
+        }
+        this.threshold = (int) Math.max(1, Math.round(samplingRate * (1 << HASH_BITS)));
+        this.maxSampledPages = maxSampledPages;
+        this.bucketPages = (maxPages + BUCKETS - 1) / BUCKETS;
+        this.histogram = new double[BUCKETS];
+        this.lastSlots = new HashMap<>();
+        this.pageReferences = new HashMap<>();
+        this.slotPages = new int[MIN_SLOTS];
+        this.tree = new int[MIN_SLOTS + 1];
+        this.pagesByHash = maxSampledPages > 0 ? new PriorityQueue<>(Comparator.reverseOrder()) : null;
+    }
+
+    /**
+     * Sample a fixed share of the pages. Memory grows with the sampled distinct pages,
+     * that is, the sampling rate times the distinct pages of the trace.
+     * @param samplingRate Share of pages sampled, in (0, 1]; 0.01 is typical, 0.001 for very large traces.
+     * @param maxPages Largest memory size, in pages, the curve covers.
+     * @return The estimator.
+     */
+    public static MissRatioCurveEstimator fixedRate(double samplingRate, int maxPages) {
+        if (samplingRate <= 0 || samplingRate > 1) {
+            throw new IllegalArgumentException("Sampling rate must be greater than 0 and at most 1.");
+        }
+        return new MissRatioCurveEstimator(samplingRate, 0, maxPages);
+    }
+
+    /**
+     * Track at most a fixed number of pages, whatever the trace. Sampling starts at every
+     * page and the rate drops each time one more page would be tracked, so memory stays constant.
+     * @param maxSampledPages Pages tracked at most; 8192 keeps errors to a few percent.
+     * @param maxPages Largest memory size, in pages, the curve covers.
+     * @return The estimator.
+     */
+    public static MissRatioCurveEstimator fixedSize(int maxSampledPages, int maxPages) {
+        if (maxSampledPages <= 0) {
+            throw new IllegalArgumentException("Sampled pages must be greater than 0.");
+        }
+        return new MissRatioCurveEstimator(1.0, maxSampledPages, maxPages);
+    }
+
+    /**
+     * Count one reference; if its page is sampled, record its reuse distance, scaled up by
+     * the sampling rate to the distance it would have in the full trace.
+     * @param pageNumber The referenced page.
+     */
+    public void recordReference(int pageNumber) {
+        references++;
+        int hash = hash(pageNumber);
+        if (hash >= threshold) {
+            return;
+        }
+        sampledReferences++;
+        Integer lastSlot = lastSlots.get(pageNumber);
+        if (lastSlot != null) {
+            long distance = prefixSum(nextSlot) - prefixSum(lastSlot + 1) + 1; // Pages referenced since, and itself
+            recordDistance(distance / getSamplingRate());
+            add(lastSlot, -1);
+            slotPages[lastSlot] = -1;
+        } else {
+            coldWeight++;
+            if (pagesByHash != null) {
+                pagesByHash.add((long) hash << 32 | (pageNumber & 0xFFFFFFFFL));
+            }
+        }
+        if (nextSlot == slotPages.length) {
+            compactSlots();
+        }
+        slotPages[nextSlot] = pageNumber;
+        add(nextSlot, 1);
+        lastSlots.put(pageNumber, nextSlot++);
+        long count = pageReferences.merge(pageNumber, 1L, Long::sum);
+        trackedReferences++;
+        trackedReferenceSquares += 2 * count - 1;
+        if (pagesByHash != null && lastSlots.size() > maxSampledPages) {
+            lowerThreshold();
+        }
+    }
+
+    private static int hash(int pageNumber) {
+        long hash = (pageNumber & 0xFFFFFFFFL) * 0x9E3779B97F4A7C15L;
+        hash ^= hash >>> 31;
+        hash *= 0xBF58476D1CE4E5B9L;
+        return (int) (hash >>> (Long.SIZE - HASH_BITS));
+    }
+
+    private void recordDistance(double distance) {
+        long bucket = (long) Math.ceil(distance / bucketPages) - 1;
+        if (bucket < BUCKETS) {
+            histogram[(int) Math.max(0, bucket)]++;
+        } else {
+            beyondWeight++;
+        }
+    }
+
+    /**
+     * Drop the tracked pages with the highest hash, lowering the threshold to it, and
+     * rescale what was recorded at the old rate to the new one (fixed-size SHARDS).
+     */
+    private void lowerThreshold() {
+        int newThreshold = (int) (pagesByHash.peek() >>> 32);
+        while (!pagesByHash.isEmpty() && (int) (pagesByHash.peek() >>> 32) >= newThreshold) {
+            int pageNumber = (int) (long) pagesByHash.poll();
+            int slot = lastSlots.remove(pageNumber);
+            add(slot, -1);
+            slotPages[slot] = -1;
+            long count = pageReferences.remove(pageNumber);
+            trackedReferences -= count;
+            trackedReferenceSquares -= (double) count * count;
+        }
+        double scale = (double) newThreshold / threshold;
+        for (int i = 0; i < BUCKETS; i++) {
+            histogram[i] *= scale;
+        }
+        coldWeight *= scale;
+        beyondWeight *= scale;
+        threshold = newThreshold;
+    }
+
+    // Renumber the live slots from 0, in reference order, and rebuild the tree
+    private void compactSlots() {
+        int live = lastSlots.size();
+        int capacity = Math.max(MIN_SLOTS, 2 * live);
+        int[] pages = new int[capacity];
+        int count = 0;
+        for (int slot = 0; slot < nextSlot; slot++) {
+            if (slotPages[slot] != -1) {
+                pages[count] = slotPages[slot];
+                lastSlots.put(slotPages[slot], count);
+                count++;
+            }
+        }
+        slotPages = pages;
+        Arrays.fill(slotPages, count, capacity, -1);
+        tree = new int[capacity + 1];
+        for (int i = 1; i <= count; i++) {
+            tree[i]++;
+            int parent = i + (i & -i);
+            if (parent <= capacity) {
+                tree[parent] += tree[i];
+            }
+        }
+        nextSlot = count;
+    }
+
+    private void add(int slot, int delta) {
+        for (int i = slot + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    // Ones in slots [0, end)
+    private int prefixSum(int end) {
+        int sum = 0;
+        for (int i = end; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    /**
+     * Estimated LRU miss ratio of a memory of the given size. The sampled weight is adjusted
+     * to the count expected at the sampling rate, with the difference taken as hits at the
+     * smallest size (SHARDS_adj), which corrects for a few hot pages being sampled or not.
+     * @param pages Memory size in pages; sizes are rounded down to the histogram resolution.
+     * @return The miss ratio, between 0 and 1.
+     */
+    public double getMissRatio(int pages) {
+        double total = getExpectedWeight();
+        if (total <= 0) {
+            return 0;
+        }
+        double misses = coldWeight + beyondWeight;
+        for (int bucket = Math.min(BUCKETS, pages / bucketPages); bucket < BUCKETS; bucket++) {
+            misses += histogram[bucket];
+        }
+        if (pages < bucketPages) {
+            misses += total - getSampledWeight(); // The adjustment falls in the first bucket
+        }
+        return Math.min(1, Math.max(0, misses / total));
+    }
+
+    /**
+     * Approximate half-width of a 95% confidence interval of getMissRatio. Pages, not
+     * references, are sampled, so the references of a page are one draw: the effective sample
+     * size is (sum of references per page)^2 / (sum of their squares), which is far below the
+     * number of sampled pages when a few hot pages take most references. Sampling every page
+     * leaves no sampling error.
+     * @param pages Memory size in pages.
+     * @return The half-width, as a miss ratio.
+     */
+    public double getErrorBound(int pages) {
+        double missRatio = getMissRatio(pages);
+        double effectiveSamples = trackedReferenceSquares <= 0 ? 1
+                : Math.max(1, (double) trackedReferences * trackedReferences / trackedReferenceSquares);
+        return Math.min(1, 1.96 * Math.sqrt(missRatio * (1 - missRatio) * (1 - getSamplingRate()) / effectiveSamples));
+    }
+
+    private double getSampledWeight() {
+        double weight = coldWeight + beyondWeight;
+        for (double count : histogram) {
+            weight += count;
+        }
+        return weight;
+    }
+
+    private double getExpectedWeight() {
+        return Math.max(getSampledWeight(), references * getSamplingRate());
+    }
+
+    /**
+     * The estimated curve at evenly spaced memory sizes.
+     * @param points Number of sizes, from maxPages / points up to maxPages.
+     * @return Pairs of {size in pages, miss ratio}.
+     */
+    public double[][] getCurve(int points) {
+        double[][] curve = new double[points][];
+        long maxPages = (long) bucketPages * BUCKETS;
+        for (int i = 0; i < points; i++) {
+            int pages = (int) Math.max(1, maxPages * (i + 1) / points);
+            curve[i] = new double[] {pages, getMissRatio(pages)};
+        }
+        return curve;
+    }
+
+    public double getSamplingRate() {
+        return (double) threshold / (1 << HASH_BITS);
+    }
+
+    public long getReferences() {
+        return references;
+    }
+
+    public long getSampledReferences() {
+        return sampledReferences;
+    }
+
+    // Pages tracked now; bounded by maxSampledPages in fixed-size mode
+    public int getSampledPages() {
+        return lastSlots.size();
+    }
+
+    public boolean isFixedSize() {
+        return pagesByHash != null;
+    }
+
+    /**
+     * Miss ratios at a few memory sizes, with error bounds.
+     * @param sizes Memory sizes in pages.
+     * @return A one-line summary.
+     */
+    public String getSummary(int... sizes) {
+        StringBuilder summary = new StringBuilder("Miss Ratio Curve (SHARDS, ")
+                .append(isFixedSize() ? "fixed size " + maxSampledPages : "fixed rate")
+                .append(", sampling rate ").append(String.format("%.5f", getSamplingRate()))
+                .append(", ").append(sampledReferences).append(" of ").append(references).append(" references sampled, ")
+                .append(getSampledPages()).append(" pages tracked):");
+        for (int pages : sizes) {
+            summary.append(' ').append(pages).append(" pages ")
+                    .append(String.format("%.2f%% +/- %.2f%%", getMissRatio(pages) * 100, getErrorBound(pages) * 100))
+                    .append(';');
+        }
+        return summary.substring(0, summary.length() - 1);
+    }
+}
@@ -0,0 +1,158 @@
+package org.example.Model;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+public class NumaBalancer {
+    private final int scanInterval; // References between migration passes
+    private final int migrationThreshold; // Remote accesses within one interval that make a page worth moving
+    private int[] remoteAccesses; // Remote accesses per page since the last pass (grows with copy-on-write pages)
+    private int[] accessingNodes; // Node of the most recent remote access per page
+    private int[] touchedPages; // Pages with a non-zero remoteAccesses count, so a pass never scans all pages
+    private int touchedCount;
+    private long referencesSinceScan; // References observed since the last pass
+
+    private long passCount; // Migration passes performed
+    private long candidateCount; // Pages that crossed the threshold
+
+    // Default constructor
+    public NumaBalancer(int virtualPages) {
+        this(virtualPages, 256, 4);
+    }
+
+    /**
+     * @param virtualPages Number of virtual pages that can be tracked.
+     * @param scanInterval References between migration passes.
+     * @param migrationThreshold Remote accesses to a page within one interval that make it a candidate.
+     */
+    public NumaBalancer(int virtualPages, int scanInterval, int migrationThreshold) {
+        if (scanInterval <= 0 || migrationThreshold <= 0) {
+            throw new IllegalArgumentException("Scan interval and migration threshold must be greater than 0.");
+        }
+        this.scanInterval = scanInterval;
+        this.migrationThreshold = migrationThreshold;
+        this.remoteAccesses = new int[virtualPages];
+        this.accessingNodes = new int[virtualPages];
+        this.touchedPages = new int[64];
+    }
+
+    /**
+     * Record an access to a page on another node than the accessing process.
+     * @param pageNumber The page.
+     * @param cpuNode The node the process runs on.
+     */
+    public synchronized void recordRemoteAccess(int pageNumber, int cpuNode) {
+        if (pageNumber >= remoteAccesses.length) {
+            int length = Math.max(pageNumber + 1, remoteAccesses.length * 2);
+            remoteAccesses = Arrays.copyOf(remoteAccesses, length);
+            accessingNodes = Arrays.copyOf(accessingNodes, length);
+        }
+        if (remoteAccesses[pageNumber]++ == 0) {
+            if (touchedCount == touchedPages.length) {
+                touchedPages = Arrays.copyOf(touchedPages, touchedCount * 2);
+            }
+            touchedPages[touchedCount++] = pageNumber;
+        }
+        accessingNodes[pageNumber] = cpuNode;
+    }
+
+    /**
+     * Count one reference and report whether a migration pass is due.
+     * @return True when the scan interval elapsed and some page was accessed remotely.
+     */
+    public synchronized boolean recordReference() {
+        return ++referencesSinceScan >= scanInterval && touchedCount > 0;
+    }
+
+    /**
+     * Take the pages accessed remotely at least migrationThreshold times since the last pass,
+     * and start a new interval.
+     * @return {page, node to move it to} pairs, in the order the pages were first accessed remotely.
+     */
+    public synchronized int[][] collectCandidates() {
+        int count = 0;
+        for (int i = 0; i < touchedCount; i++) {
+            if (remoteAccesses[touchedPages[i]] >= migrationThreshold) {
+                count++;
+            }
+        }
+        int[][] candidates = new int[count][];
+        count = 0;
+        for (int i = 0; i < touchedCount; i++) {
+            int pageNumber = touchedPages[i];
+            if (remoteAccesses[pageNumber] >= migrationThreshold) {
+                candidates[count++] = new int[]{pageNumber, accessingNodes[pageNumber]};
+            }
+            remoteAccesses[pageNumber] = 0;
+        }
+        touchedCount = 0;
+        referencesSinceScan = 0;
+        passCount++;
+        candidateCount += count;
+        return candidates;
+    }
+
+    public int getScanInterval() {
+        return scanInterval;
+    }
+
+    public int getMigrationThreshold() {
+        return migrationThreshold;
+    }
+
+    public synchronized long getPassCount() {
+        return passCount;
+    }
+
+    public synchronized long getCandidateCount() {
+        return candidateCount;
+    }
+
+    /**
+     * Save the counts of the current interval and statistics (the configuration is saved by the caller).
+     * @param out The snapshot being written.
+     */
+    public synchronized void writeSnapshot(SnapshotOutput out) throws IOException {
+        int[] pages = Arrays.copyOf(touchedPages, touchedCount);
+        int[] counts = new int[touchedCount];
+        int[] nodes = new int[touchedCount];
+        for (int i = 0; i < touchedCount; i++) {
+            counts[i] = remoteAccesses[pages[i]];
+            nodes[i] = accessingNodes[pages[i]];
+        }
+        out.putIntArray(pages);
+        out.putIntArray(counts);
+        out.putIntArray(nodes);
+        out.putLong(referencesSinceScan);
+        out.putLong(passCount);
+        out.putLong(candidateCount);
+    }
+
+    /**
+     * Restore the state saved by writeSnapshot.
+     * @param in The snapshot being read.
+     */
+    public synchronized void readSnapshot(SnapshotInput in) throws IOException {
+        for (int i = 0; i < touchedCount; i++) {
+            remoteAccesses[touchedPages[i]] = 0;
+        }
+        int[] pages = in.getIntArray();
+        int[] counts = in.getIntArray();
+        int[] nodes = in.getIntArray();
+        for (int pageNumber : pages) {
+            if (pageNumber >= remoteAccesses.length) {
+                remoteAccesses = Arrays.copyOf(remoteAccesses, pageNumber + 1);
+                accessingNodes = Arrays.copyOf(accessingNodes, pageNumber + 1);
+            }
+        }
+        touchedPages = Arrays.copyOf(pages, Math.max(64, pages.length));
+        touchedCount = pages.length;
+        for (int i = 0; i < pages.length; i++) {
+            remoteAccesses[pages[i]] = counts[i];
+            accessingNodes[pages[i]] = nodes[i];
+        }
+        referencesSinceScan = in.getLong();
+        passCount = in.getLong();
+        candidateCount = in.getLong();
+    }
+}
@@ -0,0 +1,295 @@
+package org.example.Model;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+public class NumaTopology {
+    public static final int LOCAL_DISTANCE = 10; // Distance of a node to itself, as in the ACPI SLIT
+    public static final int MAX_NODES = 64;
+
+    /**
+     * Where new pages of a process are placed.
+     */
+    public enum Policy {
+        LOCAL, // On the node the process runs on, falling back to the nearest node with free frames
+        INTERLEAVE, // Round-robin over the nodes by page number, spreading bandwidth
+        PREFERRED // On the process's preferred node, falling back to the nearest node with free frames
+    }
+
+    private final int nodeCount;
+    private final int[] firstFrames; // First frame of each node, plus the frame count at the end
+    private final byte[] frameNodes; // Node of each frame
+    private final int[][] distances; // Relative access cost from a CPU node (row) to a memory node (column)
+    private final int[][] fallbackOrders; // Nodes by increasing distance from each node, the node itself first
+    private final long[] accessNanos; // Local access latency of each node's memory
+
+    private final Map<Integer, Integer> processNodes; // Node each process runs on
+    private final Map<Integer, Policy> processPolicies; // Allocation policy per process
+    private final Map<Integer, Integer> preferredNodes; // Preferred node per process, for PREFERRED
+    private Policy defaultPolicy;
+    private int defaultPreferredNode;
+
+    /**
+     * Split physical memory into nodes of (nearly) equal, contiguous frame ranges.
+     * @param nodeCount Number of nodes (2 to MAX_NODES, at most one per frame).
+     * @param frameCount Number of physical frames.
+     * @param localAccessNanos Access latency of local memory, for every node.
+     * @param remoteDistance Distance between different nodes (LOCAL_DISTANCE is local, 20 is typical for two sockets).
+     */
+    public NumaTopology(int nodeCount, int frameCount, long localAccessNanos, int remoteDistance) {
+        if (nodeCount < 2 || nodeCount > MAX_NODES || nodeCount > frameCount) {
+            throw new IllegalArgumentException("Node count must be between 2 and " + Math.min(MAX_NODES, frameCount) + ".");
+        }
+        if (remoteDistance < LOCAL_DISTANCE) {
+            throw new IllegalArgumentException("Remote distance must be at least " + LOCAL_DISTANCE + ".");
+        }
+        this.nodeCount = nodeCount;
+        this.firstFrames = new int[nodeCount + 1];
+        this.frameNodes = new byte[frameCount];
+        for (int node = 0; node <= nodeCount; node++) {
+            firstFrames[node] = (int) ((long) node * frameCount / nodeCount);
+        }
+        for (int node = 0; node < nodeCount; node++) {
+            Arrays.fill(frameNodes, firstFrames[node], firstFrames[node + 1], (byte) node);
+        }
+        this.distances = new int[nodeCount][nodeCount];
+        for (int from = 0; from < nodeCount; from++) {
+            for (int to = 0; to < nodeCount; to++) {
+                distances[from][to] = from == to ? LOCAL_DISTANCE : remoteDistance;
+            }
+        }
+        this.fallbackOrders = new int[nodeCount][];
+        computeFallbackOrders();
+        this.accessNanos = new long[nodeCount];
+        Arrays.fill(accessNanos, localAccessNanos);
+        this.processNodes = new HashMap<>();
+        this.processPolicies = new HashMap<>();
+        this.preferredNodes = new HashMap<>();
+        this.defaultPolicy = Policy.LOCAL;
+    }
+
+    private void computeFallbackOrders() {
+        for (int node = 0; node < nodeCount; node++) {
+            int[] order = new int[nodeCount];
+            order[0] = node;
+            int count = 1;
+            for (int other = 0; other < nodeCount; other++) {
+                if (other == node) {
+                    continue;
+                }
+                // Insertion sort by distance; equal distances keep node order
+                int position = count++;
+                while (position > 1 && distances[node][order[position - 1]] > distances[node][other]) {
+                    order[position] = order[position - 1];
+                    position--;
+                }
+                order[position] = other;
+            }
+            fallbackOrders[node] = order;
+        }
+    }
+
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    public int getNodeOfFrame(int frameNumber) {
+        return frameNodes[frameNumber];
+    }
+
+    public int getFirstFrame(int node) {
+        return firstFrames[node];
+    }
+
+    // One past the last frame of the node
+    public int getEndFrame(int node) {
+        return firstFrames[node + 1];
+    }
+
+    /**
+     * Set the distance from CPUs on one node to memory on another (e.g. from a measured SLIT).
+     * @param from The node the access is made from.
+     * @param to The node the memory is on.
+     * @param distance Relative cost; LOCAL_DISTANCE is the cost of a local access.
+     */
+    public synchronized void setDistance(int from, int to, int distance) {
+        checkNode(from);
+        checkNode(to);
+        if (distance < LOCAL_DISTANCE) {
+            throw new IllegalArgumentException("Distance must be at least " + LOCAL_DISTANCE + ".");
+        }
+        distances[from][to] = distance;
+        computeFallbackOrders();
+    }
+
+    public synchronized int getDistance(int from, int to) {
+        return distances[from][to];
+    }
+
+    /**
+     * Set the local access latency of one node's memory (e.g. a node with slower DIMMs).
+     * @param node The node.
+     * @param nanos Latency of an access from the node itself.
+     */
+    public synchronized void setAccessNanos(int node, long nanos) {
+        checkNode(node);
+        if (nanos < 0) {
+            throw new IllegalArgumentException("Access latency must be non-negative.");
+        }
+        accessNanos[node] = nanos;
+    }
+
+    /**
+     * Latency of one access, scaled by the distance between the nodes.
+     * @param cpuNode The node the accessing process runs on.
+     * @param memoryNode The node holding the frame.
+     * @return The access latency in nanoseconds.
+     */
+    public synchronized long getAccessNanos(int cpuNode, int memoryNode) {
+        return accessNanos[memoryNode] * distances[cpuNode][memoryNode] / LOCAL_DISTANCE;
+    }
+
+    /**
+     * Run a process on a node. Processes that are not bound run on node (processId mod node count).
+     * @param processId The process.
+     * @param node The node.
+     */
+    public synchronized void bindProcess(int processId, int node) {
+        checkNode(node);
+        processNodes.put(processId, node);
+    }
+
+    public synchronized int getProcessNode(int processId) {
+        Integer node = processNodes.get(processId);
+        return node != null ? node : Math.floorMod(processId, nodeCount);
+    }
+
+    /**
+     * Set the allocation policy of one process.
+     * @param processId The process.
+     * @param policy The policy.
+     * @param preferredNode The node used by PREFERRED (ignored by the other policies).
+     */
+    public synchronized void setPolicy(int processId, Policy policy, int preferredNode) {
+        checkNode(preferredNode);
+        processPolicies.put(processId, policy);
+        preferredNodes.put(processId, preferredNode);
+    }
+
+    /**
+     * Set the allocation policy of processes without a policy of their own.
+     * @param policy The policy.
+     * @param preferredNode The node used by PREFERRED (ignored by the other policies).
+     */
+    public synchronized void setDefaultPolicy(Policy policy, int preferredNode) {
+        checkNode(preferredNode);
+        this.defaultPolicy = policy;
+        this.defaultPreferredNode = preferredNode;
+    }
+
+    public synchronized Policy getDefaultPolicy() {
+        return defaultPolicy;
+    }
+
+    public synchronized Policy getPolicy(int processId) {
+        return processPolicies.getOrDefault(processId, defaultPolicy);
+    }
+
+    /**
+     * The node a new page should be placed on under the process's policy.
+     * @param processId The process faulting the page in.
+     * @param pageNumber The page.
+     * @return The target node.
+     */
+    public synchronized int getTargetNode(int processId, int pageNumber) {
+        return switch (getPolicy(processId)) {
+            case LOCAL -> getProcessNode(processId);
+            case INTERLEAVE -> Math.floorMod(pageNumber, nodeCount);
+            case PREFERRED -> preferredNodes.getOrDefault(processId, defaultPreferredNode);
+        };
+    }
+
+    /**
+     * Nodes to try when the target node has no free frame.
+     * @param node The target node.
+     * @return All nodes by increasing distance, the target node first. Must not be modified.
+     */
+    public synchronized int[] getFallbackOrder(int node) {
+        return fallbackOrders[node];
+    }
+
+    private void checkNode(int node) {
+        if (node < 0 || node >= nodeCount) {
+            throw new IllegalArgumentException("Node " + node + " does not exist.");
+        }
+    }
+
+    /**
+     * Save distances, latencies, bindings and policies (the node count is saved by the caller).
+     * @param out The snapshot being written.
+     */
+    public synchronized void writeSnapshot(SnapshotOutput out) throws IOException {
+        for (int[] row : distances) {
+            out.putIntArray(row);
+        }
+        out.putLongArray(accessNanos);
+        out.putInt(defaultPolicy.ordinal());
+        out.putInt(defaultPreferredNode);
+        putIntMap(out, processNodes);
+        putIntMap(out, preferredNodes);
+        int[] processIds = processPolicies.keySet().stream().mapToInt(Integer::intValue).toArray();
+        int[] policies = new int[processIds.length];
+        for (int i = 0; i < processIds.length; i++) {
+            policies[i] = processPolicies.get(processIds[i]).ordinal();
+        }
+        out.putIntArray(processIds);
+        out.putIntArray(policies);
+    }
+
+    /**
+     * Restore the state saved by writeSnapshot.
+     * @param in The snapshot being read.
+     */
+    public synchronized void readSnapshot(SnapshotInput in) throws IOException {
+        for (int from = 0; from < nodeCount; from++) {
+            distances[from] = in.getIntArray();
+        }
+        computeFallbackOrders();
+        long[] savedNanos = in.getLongArray();
+        System.arraycopy(savedNanos, 0, accessNanos, 0, nodeCount);
+        defaultPolicy = Policy.values()[in.getInt()];
+        defaultPreferredNode = in.getInt();
+        getIntMap(in, processNodes);
+        getIntMap(in, preferredNodes);
+        int[] processIds = in.getIntArray();
+        int[] policies = in.getIntArray();
+        processPolicies.clear();
+        for (int i = 0; i < processIds.length; i++) {
+            processPolicies.put(processIds[i], Policy.values()[policies[i]]);
+        }
+    }
+
+    private static void putIntMap(SnapshotOutput out, Map<Integer, Integer> map) throws IOException {
+        int[] keys = new int[map.size()];
+        int[] values = new int[map.size()];
+        int index = 0;
+        for (Map.Entry<Integer, Integer> entry : map.entrySet()) {
+            keys[index] = entry.getKey();
+            values[index] = entry.getValue();
+            index++;
+        }
+        out.putIntArray(keys);
+        out.putIntArray(values);
+    }
+
+    private static void getIntMap(SnapshotInput in, Map<Integer, Integer> map) throws IOException {
+        int[] keys = in.getIntArray();
+        int[] values = in.getIntArray();
+        map.clear();
+        for (int i = 0; i < keys.length; i++) {
+            map.put(keys[i], values[i]);
+        }
+    }
+}
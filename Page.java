@@ -1,34 +1,43 @@
-package org.example.Model;
-
-public class Page {
-    private int pageNumber;
-    private boolean isInMemory;
-    private int frameNumber; // -1 if not loaded into a frame
-
-    public Page(int pageNumber) {
-        this.pageNumber = pageNumber;
-        this.isInMemory = false;
-        this.frameNumber = -1;
-    }
-
-    // getters and setters
-    public int getPageNumber() {
-        return pageNumber;
-    }
-
-    public boolean isInMemory() {
-        return isInMemory;
-    }
-
-    public void setInMemory(boolean inMemory) {
-        isInMemory = inMemory;
-    }
-
-    public int getFrameNumber() {
-        return frameNumber;
-    }
-
-    public void setFrameNumber(int frameNumber) {
-        this.frameNumber = frameNumber;
-    }
-}
+package org.example.Model;
+
+public class Page {
+    private int pageNumber;
+    private boolean isInMemory;
+    private int frameNumber; // -1 if not loaded into a frame
+    private boolean dirty; // True if the page was written since it was last written back
+
+    public Page(int pageNumber) {
+        this.pageNumber = pageNumber;
+        this.isInMemory = false;
+        this.frameNumber = -1;
+    }
+
+    // getters and setters
+    public int getPageNumber() {
+        return pageNumber;
+    }
+
+    public boolean isInMemory() {
+        return isInMemory;
+    }
+
+    public void setInMemory(boolean inMemory) {
+        isInMemory = inMemory;
+    }
+
+    public int getFrameNumber() {
+        return frameNumber;
+    }
+
+    public void setFrameNumber(int frameNumber) {
+        this.frameNumber = frameNumber;
+    }
+
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    public void setDirty(boolean dirty) {
+        this.dirty = dirty;
+    }
+}
@@ -1,15 +1,126 @@
-package org.example.Model;
-
-import org.example.Controller.*;
-
-public interface PageReplacementAlgorithm {
-    /**
-     * Replaces a page in memory based on the algorithm's specific rules.
-     *
-     * @param pageNumber The page number to load into memory.
-     * @param memoryController The controller that manages memory operations.
-     */
-    void replacePage(int pageNumber, MemoryController memoryController);
-
-    int getReplacementCount( );
-}
+package org.example.Model;
+
+import org.example.Controller.*;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+public interface PageReplacementAlgorithm {
+    /**
+     * Replaces a page in memory based on the algorithm's specific rules.
+     *
+     * @param pageNumber The page number to load into memory.
+     * @param memoryController The controller that manages memory operations.
+     */
+    void replacePage(int pageNumber, MemoryController memoryController);
+
+    int getReplacementCount( );
+
+    /**
+     * Name of the algorithm, as selected in the settings and stored in recorded sessions.
+     *
+     * @return The algorithm name.
+     */
+    String getName();
+
+    /**
+     * Settings of the algorithm beyond its name, in the form forName reads them back,
+     * stored in recorded sessions and snapshots next to the name.
+     *
+     * @return The settings, or an empty string if the algorithm has none.
+     */
+    default String getParameters() {
+        return "";
+    }
+
+    /**
+     * Saves the algorithm's internal state (queue order, access stamps, counters).
+     *
+     * @param out The snapshot being written.
+     */
+    void writeSnapshot(SnapshotOutput out) throws IOException;
+
+    /**
+     * Replaces the algorithm's internal state with the state saved by writeSnapshot.
+     *
+     * @param in The snapshot being read.
+     */
+    void readSnapshot(SnapshotInput in) throws IOException;
+
+    /**
+     * Creates a fresh instance of the algorithm with the given name.
+     *
+     * @param name The algorithm name (case-insensitive), e.g. "FIFO", "LRU", "SAMPLED-LRU" or "ADAPTIVE".
+     * @return The new algorithm.
+     */
+    static PageReplacementAlgorithm forName(String name) {
+        return forName(name, "");
+    }
+
+    /**
+     * Creates a fresh instance of the algorithm with the given name and settings.
+     *
+     * @param name The algorithm name (case-insensitive).
+     * @param parameters The settings, as getParameters returns them, or an empty string for the defaults.
+     * @return The new algorithm.
+     */
+    static PageReplacementAlgorithm forName(String name, String parameters) {
+        if (parameters == null || parameters.isBlank()) {
+            return switch (name.toUpperCase()) {
+                case "FIFO" -> new FIFOReplacement();
+                case "LRU" -> new LRUReplacement();
+                case AdaptiveReplacement.NAME -> new AdaptiveReplacement();
+                case SampledLRUReplacement.NAME -> new SampledLRUReplacement();
+                default -> throw new IllegalArgumentException("Invalid algorithm selected.");
+            };
+        }
+        String[] values = parameters.split(",");
+        try {
+            return switch (name.toUpperCase()) {
+                case AdaptiveReplacement.NAME -> new AdaptiveReplacement(Integer.parseInt(values[0].trim()),
+                        Integer.parseInt(values[1].trim()),
+                        Arrays.stream(values, 2, values.length).map(String::trim).toArray(String[]::new));
+                case SampledLRUReplacement.NAME -> new SampledLRUReplacement(Integer.parseInt(values[0].trim()),
+                        Integer.parseInt(values[1].trim()), Long.parseLong(values[2].trim()));
+                default -> throw new IllegalArgumentException("Algorithm " + name + " takes no parameters.");
+            };
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid parameters \"" + parameters + "\" for algorithm " + name + ".", e);
+        }
+    }
+
+    /**
+     * Chooses the page to evict next, without evicting it.
+     *
+     * @param preferred Pages the controller would rather evict (e.g., clean pages). The first
+     *                  preferred page in the algorithm's own order is chosen; if there is none,
+     *                  the algorithm's usual victim is returned.
+     * @return The victim page number, or -1 if no page is resident.
+     */
+    int selectVictim(IntPredicate preferred);
+
+    /**
+     * Called by the controller after a page has been placed in a frame.
+     *
+     * @param pageNumber The page number that was loaded.
+     */
+    default void pageLoaded(int pageNumber) {
+    }
+
+    /**
+     * Called by the controller when a resident page is referenced.
+     *
+     * @param pageNumber The page number that was accessed.
+     */
+    default void pageAccessed(int pageNumber) {
+    }
+
+    /**
+     * Called by the controller after a page has left memory, whoever evicted it.
+     *
+     * @param pageNumber The page number that was removed.
+     */
+    default void pageRemoved(int pageNumber) {
+    }
+}
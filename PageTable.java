@@ -1,145 +1,245 @@
-package org.example.Model;
-
-import java.util.HashMap;
-import java.util.Map;
-
-public class PageTable {
-    private final Map<Integer, PageEntry> pageTable; // Maps page number to PageEntry (frame number + valid bit)
-    private int accessCount; // Tracks the total number of accesses to the page table
-    private int pageFaultCount; // Tracks the number of page faults
-
-    // Constructor
-    public PageTable() {
-        this.pageTable = new HashMap<>();
-        this.accessCount = 0;
-        this.pageFaultCount = 0;
-    }
-
-    // Get a map of valid virtual-to-physical page mappings
-    public Map<Integer, Integer> getPageTableMap() {
-        Map<Integer, Integer> resultMap = new HashMap<>();
-        for (Map.Entry<Integer, PageEntry> entry : pageTable.entrySet()) {
-            int virtualPage = entry.getKey();
-            PageEntry pageEntry = entry.getValue();
-
-            // Only include valid pages in the result map
-            if (pageEntry.valid) {
-                resultMap.put(virtualPage, pageEntry.frameNumber);
-            }
-        }
-        return resultMap;
-    }
-
-    // Inner class to store page table entries
-    private static class PageEntry {
-        int frameNumber; // Physical frame number
-        boolean valid;   // Indicates if the page is valid (in memory)
-
-        public PageEntry(int frameNumber, boolean valid) {
-            this.frameNumber = frameNumber;
-            this.valid = valid;
-        }
-    }
-
-    /**
-     * Maps a page number to a frame number and marks it as valid.
-     * If the page already exists, it updates the frame and validity status.
-     */
-    public synchronized void mapPageToFrame(int pageNumber, int frameNumber) {
-        pageTable.put(pageNumber, new PageEntry(frameNumber, true));
-        System.out.println("Mapped Virtual Page " + pageNumber + " to Physical Frame " + frameNumber);
-    }
-
-    /**
-     * Retrieves the frame number for a given page.
-     * @param pageNumber The page number to lookup.
-     * @return The frame number if the page is valid, or -1 if the page is not in memory.
-     */
-    public synchronized int getFrameForPage(int pageNumber) {
-        accessCount++;
-        PageEntry entry = pageTable.get(pageNumber);
-
-        if (entry == null || !entry.valid) {
-            pageFaultCount++;
-            System.out.println("Page Fault: Page " + pageNumber + " is not in memory.");
-            return -1; // Indicates a page fault
-        }
-
-        System.out.println("Page Hit: Page " + pageNumber + " is mapped to Frame " + entry.frameNumber);
-        return entry.frameNumber;
-    }
-
-    /**
-     * Marks a page as invalid (e.g., when it is evicted from memory).
-     * @param pageNumber The page number to mark as invalid.
-     */
-    public synchronized void invalidatePage(int pageNumber) {
-        if (pageTable.containsKey(pageNumber)) {
-            pageTable.get(pageNumber).valid = false;
-            System.out.println("Invalidated Page " + pageNumber);
-        } else {
-            System.err.println("Attempted to invalidate non-existent Page " + pageNumber);
-        }
-    }
-
-    /**
-     * Removes a page from the table completely.
-     * @param pageNumber The page number to remove.
-     */
-    public synchronized void removePage(int pageNumber) {
-        if (pageTable.remove(pageNumber) != null) {
-            System.out.println("Removed Page " + pageNumber + " from the table.");
-        } else {
-            System.err.println("Attempted to remove non-existent Page " + pageNumber);
-        }
-    }
-
-    /**
-     * Checks if a page is currently mapped to a frame and valid.
-     * @param pageNumber The page number to check.
-     * @return True if the page is valid in memory, false otherwise.
-     */
-    public synchronized boolean isPageInMemory(int pageNumber) {
-        PageEntry entry = pageTable.get(pageNumber);
-        return entry != null && entry.valid;
-    }
-
-    /**
-     * Clears the entire page table and resets statistics.
-     */
-    public synchronized void clear() {
-        pageTable.clear();
-        accessCount = 0;
-        pageFaultCount = 0;
-        System.out.println("Cleared the page table and reset statistics.");
-    }
-
-    /**
-     * Retrieves the total number of page faults.
-     * @return The number of page faults.
-     */
-    public synchronized int getPageFaultCount() {
-        return pageFaultCount;
-    }
-
-    /**
-     * Retrieves the total number of accesses to the page table.
-     * @return The access count.
-     */
-    public synchronized int getAccessCount() {
-        return accessCount;
-    }
-
-    /**
-     * Prints the current state of the page table.
-     */
-    public synchronized void printPageTable() {
-        System.out.println("Page Table:");
-        for (Map.Entry<Integer, PageEntry> entry : pageTable.entrySet()) {
-            int pageNumber = entry.getKey();
-            PageEntry pageEntry = entry.getValue();
-            System.out.println("Page " + pageNumber + " -> Frame " + pageEntry.frameNumber +
-                    " (Valid: " + pageEntry.valid + ")");
-        }
-    }
-}
+package org.example.Model;
+
+import java.io.IOException;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+public class PageTable {
+    private final Map<Integer, PageEntry> pageTable; // Maps page number to PageEntry (frame number + valid bit)
+    private final Map<Integer, Integer> hugeMappings; // Maps huge page number to its first frame, for promoted regions
+    private final LongAdder accessCount; // Tracks the total number of accesses to the page table
+    private final LongAdder pageFaultCount; // Tracks the number of lookups that found no valid mapping
+
+    // Constructor with private statistics
+    public PageTable() {
+        this(new MetricsRegistry());
+    }
+
+    // Constructor reporting accesses and misses into a shared registry
+    public PageTable(MetricsRegistry metricsRegistry) {
+        this.pageTable = new HashMap<>();
+        this.hugeMappings = new HashMap<>();
+        this.accessCount = metricsRegistry.counter(MetricsRegistry.PAGE_TABLE_ACCESSES);
+        this.pageFaultCount = metricsRegistry.counter(MetricsRegistry.PAGE_TABLE_MISSES);
+    }
+
+    // Get a map of valid virtual-to-physical page mappings
+    public Map<Integer, Integer> getPageTableMap() {
+        Map<Integer, Integer> resultMap = new HashMap<>();
+        for (Map.Entry<Integer, PageEntry> entry : pageTable.entrySet()) {
+            int virtualPage = entry.getKey();
+            PageEntry pageEntry = entry.getValue();
+
+            // Only include valid pages in the result map
+            if (pageEntry.valid) {
+                resultMap.put(virtualPage, pageEntry.frameNumber);
+            }
+        }
+        return resultMap;
+    }
+
+    // Inner class to store page table entries
+    private static class PageEntry {
+        int frameNumber; // Physical frame number
+        boolean valid;   // Indicates if the page is valid (in memory)
+
+        public PageEntry(int frameNumber, boolean valid) {
+            this.frameNumber = frameNumber;
+            this.valid = valid;
+        }
+    }
+
+    /**
+     * Maps a page number to a frame number and marks it as valid.
+     * If the page already exists, it updates the frame and validity status.
+     */
+    public synchronized void mapPageToFrame(int pageNumber, int frameNumber) {
+        pageTable.put(pageNumber, new PageEntry(frameNumber, true));
+        System.out.println("Mapped Virtual Page " + pageNumber + " to Physical Frame " + frameNumber);
+    }
+
+    /**
+     * Retrieves the frame number for a given page.
+     * @param pageNumber The page number to lookup.
+     * @return The frame number if the page is valid, or -1 if the page is not in memory.
+     */
+    public synchronized int getFrameForPage(int pageNumber) {
+        accessCount.increment();
+        PageEntry entry = pageTable.get(pageNumber);
+
+        if (entry == null || !entry.valid) {
+            pageFaultCount.increment();
+            System.out.println("Page Fault: Page " + pageNumber + " is not in memory.");
+            return -1; // Indicates a page fault
+        }
+
+        System.out.println("Page Hit: Page " + pageNumber + " is mapped to Frame " + entry.frameNumber);
+        return entry.frameNumber;
+    }
+
+    /**
+     * Marks a page as invalid (e.g., when it is evicted from memory).
+     * @param pageNumber The page number to mark as invalid.
+     */
+    public synchronized void invalidatePage(int pageNumber) {
+        if (pageTable.containsKey(pageNumber)) {
+            pageTable.get(pageNumber).valid = false;
+            System.out.println("Invalidated Page " + pageNumber);
+        } else {
+            System.err.println("Attempted to invalidate non-existent Page " + pageNumber);
+        }
+    }
+
+    /**
+     * Removes a page from the table completely.
+     * @param pageNumber The page number to remove.
+     */
+    public synchronized void removePage(int pageNumber) {
+        if (pageTable.remove(pageNumber) != null) {
+            System.out.println("Removed Page " + pageNumber + " from the table.");
+        } else {
+            System.err.println("Attempted to remove non-existent Page " + pageNumber);
+        }
+    }
+
+    /**
+     * Maps a whole aligned region as one huge page. The base-page entries of the region stay
+     * valid, so the region can be split again without rebuilding them.
+     * @param hugePageNumber The huge page (virtual page number / pages per huge page).
+     * @param firstFrameNumber The frame holding the region's first page; the others follow contiguously.
+     */
+    public synchronized void mapHugePage(int hugePageNumber, int firstFrameNumber) {
+        hugeMappings.put(hugePageNumber, firstFrameNumber); // Logged by the controller
+    }
+
+    /**
+     * Removes a huge-page mapping, leaving the base-page entries of the region in place.
+     * @param hugePageNumber The huge page to split.
+     * @return True if the region was mapped as a huge page.
+     */
+    public synchronized boolean removeHugePage(int hugePageNumber) {
+        return hugeMappings.remove(hugePageNumber) != null;
+    }
+
+    /**
+     * Retrieves the first frame of a huge page. Not counted as an access.
+     * @param hugePageNumber The huge page to look up.
+     * @return The first frame number, or -1 if the region is not mapped as a huge page.
+     */
+    public synchronized int getHugePageFrame(int hugePageNumber) {
+        Integer firstFrameNumber = hugeMappings.get(hugePageNumber);
+        return firstFrameNumber == null ? -1 : firstFrameNumber;
+    }
+
+    /**
+     * Retrieves the number of regions currently mapped as huge pages.
+     * @return The huge page count.
+     */
+    public synchronized int getHugePageCount() {
+        return hugeMappings.size();
+    }
+
+    /**
+     * Checks if a page is currently mapped to a frame and valid.
+     * @param pageNumber The page number to check.
+     * @return True if the page is valid in memory, false otherwise.
+     */
+    public synchronized boolean isPageInMemory(int pageNumber) {
+        PageEntry entry = pageTable.get(pageNumber);
+        return entry != null && entry.valid;
+    }
+
+    /**
+     * Clears the entire page table and resets statistics.
+     */
+    public synchronized void clear() {
+        pageTable.clear();
+        hugeMappings.clear();
+        accessCount.reset();
+        pageFaultCount.reset();
+        System.out.println("Cleared the page table and reset statistics.");
+    }
+
+    /**
+     * Retrieves the total number of page faults.
+     * @return The number of page faults.
+     */
+    public int getPageFaultCount() {
+        return (int) pageFaultCount.sum();
+    }
+
+    /**
+     * Retrieves the total number of accesses to the page table.
+     * @return The access count.
+     */
+    public int getAccessCount() {
+        return (int) accessCount.sum();
+    }
+
+    /**
+     * Save every entry, base and huge, as bulk arrays. Statistics live in the metrics registry and are saved with it.
+     * @param out The snapshot being written.
+     */
+    public synchronized void writeSnapshot(SnapshotOutput out) throws IOException {
+        int[] pageNumbers = new int[pageTable.size()];
+        int[] frameNumbers = new int[pageTable.size()];
+        BitSet valid = new BitSet(pageTable.size());
+        int index = 0;
+        for (Map.Entry<Integer, PageEntry> entry : pageTable.entrySet()) {
+            pageNumbers[index] = entry.getKey();
+            frameNumbers[index] = entry.getValue().frameNumber;
+            valid.set(index, entry.getValue().valid);
+            index++;
+        }
+        out.putIntArray(pageNumbers);
+        out.putIntArray(frameNumbers);
+        out.putLongArray(valid.toLongArray());
+        int[] hugePageNumbers = new int[hugeMappings.size()];
+        int[] hugeFrameNumbers = new int[hugeMappings.size()];
+        index = 0;
+        for (Map.Entry<Integer, Integer> entry : hugeMappings.entrySet()) {
+            hugePageNumbers[index] = entry.getKey();
+            hugeFrameNumbers[index] = entry.getValue();
+            index++;
+        }
+        out.putIntArray(hugePageNumbers);
+        out.putIntArray(hugeFrameNumbers);
+    }
+
+    /**
+     * Replace the entries with those saved by writeSnapshot.
+     * @param in The snapshot being read.
+     */
+    public synchronized void readSnapshot(SnapshotInput in) throws IOException {
+        int[] pageNumbers = in.getIntArray();
+        int[] frameNumbers = in.getIntArray();
+        BitSet valid = BitSet.valueOf(in.getLongArray());
+        pageTable.clear();
+        for (int i = 0; i < pageNumbers.length; i++) {
+            pageTable.put(pageNumbers[i], new PageEntry(frameNumbers[i], valid.get(i)));
+        }
+        int[] hugePageNumbers = in.getIntArray();
+        int[] hugeFrameNumbers = in.getIntArray();
+        hugeMappings.clear();
+        for (int i = 0; i < hugePageNumbers.length; i++) {
+            hugeMappings.put(hugePageNumbers[i], hugeFrameNumbers[i]);
+        }
+    }
+
+    /**
+     * Prints the current state of the page table.
+     */
+    public synchronized void printPageTable() {
+        System.out.println("Page Table:");
+        for (Map.Entry<Integer, PageEntry> entry : pageTable.entrySet()) {
+            int pageNumber = entry.getKey();
+            PageEntry pageEntry = entry.getValue();
+            System.out.println("Page " + pageNumber + " -> Frame " + pageEntry.frameNumber +
+                    " (Valid: " + pageEntry.valid + ")");
+        }
+        hugeMappings.forEach((hugePage, firstFrame) ->
+                System.out.println("Huge Page " + hugePage + " -> Frames from " + firstFrame));
+    }
+}
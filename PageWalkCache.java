@@ -0,0 +1,200 @@
+package org.example.Model;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+public class PageWalkCache {
+    public static final int DEFAULT_BITS_PER_LEVEL = 9; // 512 entries per page-table page, as on x86-64
+
+    private final int levels; // Levels of the page table, the root first; the last holds the page entries
+    private final int bitsPerLevel; // Page-number bits translated by each level
+    private final int[] entries; // Entries cached for each upper level (all but the last), 0 if that level is not cached
+    private final long[][] tags; // Per level: the page-number prefix each cached entry translates, -1 if empty
+    private final long[][] lastUse; // Per level: when each entry was last used, for LRU replacement
+    private long useClock;
+    private final long[] hits; // Walks whose deepest cached entry was at each level
+    private long walks;
+    private long levelsRead; // Page-table levels actually read by all walks
+    private long levelsSkipped; // Levels the cache saved reading
+
+    /**
+     * A cache shaped like a typical x86-64 MMU: 2 root (PML4) entries, 4 PDPT entries and
+     * 32 page-directory entries in front of a four-level page table.
+     */
+    public PageWalkCache() {
+        this(4, DEFAULT_BITS_PER_LEVEL, 2, 4, 32);
+    }
+
+    /**
+     * @param levels Levels of the page table (as in the latency model).
+     * @param bitsPerLevel Page-number bits translated by each level.
+     * @param entries Entries cached for each upper level, the root first; one value per
+     *                level above the page entries, 0 to leave a level uncached.
+     */
+    public PageWalkCache(int levels, int bitsPerLevel, int... entries) {
+        if (levels < 2 || bitsPerLevel <= 0 || entries.length != levels - 1) {
+            throw new IllegalArgumentException("A page-walk cache needs at least two levels and an entry count for each upper level.");
+        }
+        this.levels = levels;
+        this.bitsPerLevel = bitsPerLevel;
+        this.entries = entries.clone();
+        this.tags = new long[entries.length][];
+        this.lastUse = new long[entries.length][];
+        for (int level = 0; level < entries.length; level++) {
+            if (entries[level] < 0) {
+                throw new IllegalArgumentException("Entry counts must be at least 0.");
+            }
+            tags[level] = new long[entries[level]];
+            Arrays.fill(tags[level], -1);
+            lastUse[level] = new long[entries[level]];
+        }
+        this.hits = new long[entries.length];
+    }
+
+    /**
+     * Walk the page table for a page: the deepest cached upper-level entry covering the page
+     * lets the walk start below it, and the entries read on the way down are cached.
+     * @param pageNumber The page being translated.
+     * @param hugePage True if the walk ends one level early at a huge-page entry.
+     * @return The number of page-table levels read.
+     */
+    public synchronized int walk(int pageNumber, boolean hugePage) {
+        int leafLevel = hugePage ? levels - 2 : levels - 1; // Level holding the entry that maps the page
+        int start = 0;
+        for (int level = leafLevel - 1; level >= 0; level--) {
+            int way = find(level, tagOf(pageNumber, level));
+            if (way != -1) {
+                lastUse[level][way] = ++useClock;
+                hits[level]++;
+                start = level + 1;
+                break;
+            }
+        }
+        for (int level = start; level < leafLevel; level++) {
+            insert(level, tagOf(pageNumber, level));
+        }
+        int read = leafLevel + 1 - start;
+        walks++;
+        levelsRead += read;
+        levelsSkipped += start;
+        return read;
+    }
+
+    // The page-number prefix the entry at a level translates; the root entry translates the top bits
+    private long tagOf(int pageNumber, int level) {
+        return (pageNumber & 0xFFFFFFFFL) >>> (bitsPerLevel * (levels - 1 - level));
+    }
+
+    private int find(int level, long tag) {
+        long[] levelTags = tags[level];
+        for (int way = 0; way < levelTags.length; way++) {
+            if (levelTags[way] == tag) {
+                return way;
+            }
+        }
+        return -1;
+    }
+
+    // Cache an entry, replacing the least recently used one of its level
+    private void insert(int level, long tag) {
+        long[] levelTags = tags[level];
+        if (levelTags.length == 0 || find(level, tag) != -1) {
+            return;
+        }
+        int victim = find(level, -1); // An empty entry, if any
+        if (victim == -1) {
+            victim = 0;
+            for (int way = 1; way < levelTags.length; way++) {
+                if (lastUse[level][way] < lastUse[level][victim]) {
+                    victim = way;
+                }
+            }
+        }
+        levelTags[victim] = tag;
+        lastUse[level][victim] = ++useClock;
+    }
+
+    /**
+     * Drop every cached entry on the path to a page, as INVLPG does, e.g. when the
+     * directory entry of its region starts or stops mapping a huge page.
+     * @param pageNumber A page whose walk changed.
+     */
+    public synchronized void invalidate(int pageNumber) {
+        for (int level = 0; level < tags.length; level++) {
+            int way = find(level, tagOf(pageNumber, level));
+            if (way != -1) {
+                tags[level][way] = -1;
+            }
+        }
+    }
+
+    public int getLevels() {
+        return levels;
+    }
+
+    public int getBitsPerLevel() {
+        return bitsPerLevel;
+    }
+
+    public int[] getEntries() {
+        return entries.clone();
+    }
+
+    public synchronized long getWalks() {
+        return walks;
+    }
+
+    /**
+     * @param level An upper level, 0 for the root.
+     * @return Walks that started below a cached entry of this level.
+     */
+    public synchronized long getHits(int level) {
+        return hits[level];
+    }
+
+    /**
+     * Walks, hits per level and the levels the cache saved reading.
+     * @return A one-line summary.
+     */
+    public synchronized String getStatistics() {
+        StringBuilder summary = new StringBuilder("Page-Walk Cache: Walks: ").append(walks);
+        for (int level = 0; level < entries.length; level++) {
+            summary.append(", Level ").append(level).append(" (").append(entries[level]).append(" entries): ")
+                    .append(String.format("%.1f", walks == 0 ? 0.0 : hits[level] * 100.0 / walks)).append("% hits");
+        }
+        return summary.append(", Levels Read per Walk: ").append(String.format("%.2f", walks == 0 ? 0.0 : (double) levelsRead / walks))
+                .append(" (").append(levelsSkipped).append(" skipped)").toString();
+    }
+
+    /**
+     * Save the cached entries and statistics (the configuration is saved by the caller).
+     * @param out The snapshot being written.
+     */
+    public synchronized void writeSnapshot(SnapshotOutput out) throws IOException {
+        for (int level = 0; level < tags.length; level++) {
+            out.putLongArray(tags[level]);
+            out.putLongArray(lastUse[level]);
+        }
+        out.putLong(useClock);
+        out.putLongArray(hits);
+        out.putLong(walks);
+        out.putLong(levelsRead);
+        out.putLong(levelsSkipped);
+    }
+
+    /**
+     * Restore the state saved by writeSnapshot.
+     * @param in The snapshot being read.
+     */
+    public synchronized void readSnapshot(SnapshotInput in) throws IOException {
+        for (int level = 0; level < tags.length; level++) {
+            System.arraycopy(in.getLongArray(), 0, tags[level], 0, tags[level].length);
+            System.arraycopy(in.getLongArray(), 0, lastUse[level], 0, lastUse[level].length);
+        }
+        useClock = in.getLong();
+        System.arraycopy(in.getLongArray(), 0, hits, 0, hits.length);
+        walks = in.getLong();
+        levelsRead = in.getLong();
+        levelsSkipped = in.getLong();
+    }
+}
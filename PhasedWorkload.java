@@ -0,0 +1,55 @@
+package org.example.Model;
+
+import java.util.List;
+
+public class PhasedWorkload implements WorkloadGenerator {
+    private final WorkloadGenerator[] phases; // Run one after another
+    private int currentPhase; // Index of the phase producing references
+
+    /**
+     * A workload whose locality changes over time: each phase runs to completion before the
+     * next begins, e.g. a hot set that moves to another region, or a scan between two hot phases.
+     * @param phases The phases, in order.
+     */
+    public PhasedWorkload(List<? extends WorkloadGenerator> phases) {
+        if (phases.isEmpty()) {
+            throw new IllegalArgumentException("A phased workload needs at least one phase.");
+        }
+        this.phases = phases.toArray(new WorkloadGenerator[0]);
+    }
+
+    public PhasedWorkload(WorkloadGenerator... phases) {
+        this(List.of(phases));
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (currentPhase < phases.length) {
+            if (phases[currentPhase].hasNext()) {
+                return true;
+            }
+            currentPhase++;
+        }
+        return false;
+    }
+
+    @Override
+    public long next() {
+        if (!hasNext()) {
+            throw new IllegalStateException("Workload is exhausted.");
+        }
+        return phases[currentPhase].next();
+    }
+
+    /**
+     * @return The index of the phase the next reference comes from (the phase count once exhausted).
+     */
+    public int getCurrentPhase() {
+        hasNext();
+        return currentPhase;
+    }
+
+    public int getPhaseCount() {
+        return phases.length;
+    }
+}
@@ -1,149 +1,415 @@
-package org.example.Model;
-
-import java.util.ArrayList;
-import java.util.List;
-
-public class PhysicalMemory {
-    private final List<Frame> frames; // List of frames representing physical memory
-    private final int size; // Total size of physical memory (number of frames)
-    private int loadedPageCount; // Tracks the number of loaded pages
-
-    // Constructor
-    public PhysicalMemory(int size) {
-        if (size <= 0) {
-            throw new IllegalArgumentException("Physical memory size must be greater than 0.");
-        }
-        this.size = size;
-        this.frames = new ArrayList<>();
-        this.loadedPageCount = 0;
-
-        // Initialize frames with unique frame numbers
-        for (int i = 0; i < size; i++) {
-            frames.add(new Frame(i));
-        }
-    }
-
-    /**
-     * Retrieve a specific frame by its frame number.
-     * @param frameNumber The frame number to retrieve.
-     * @return The corresponding frame.
-     * @throws IndexOutOfBoundsException if the frame number is invalid.
-     */
-    public synchronized Frame getFrame(int frameNumber) {
-        if (frameNumber < 0 || frameNumber >= size) {
-            throw new IndexOutOfBoundsException("Frame number " + frameNumber + " is out of bounds.");
-        }
-        return frames.get(frameNumber);
-    }
-
-    /**
-     * Find the first available free frame.
-     * @return The first free frame, or null if none are available.
-     */
-    public synchronized Frame getFreeFrame() {
-        for (Frame frame : frames) {
-            if (frame.isEmpty()) {
-                return frame; // Return the first empty frame
-            }
-        }
-        System.out.println("No free frames available.");
-        return null; // No free frames available
-    }
-
-    /**
-     * Check if physical memory is full (no free frames).
-     * @return True if no free frames are available, false otherwise.
-     */
-    public synchronized boolean isFull() {
-        return loadedPageCount == size;
-    }
-
-    /**
-     * Clear all frames in physical memory.
-     * This removes all pages from the frames.
-     */
-    public synchronized void clear() {
-        for (Frame frame : frames) {
-            frame.setLoadedPage(null); // Remove the page from each frame
-        }
-        loadedPageCount = 0; // Reset loaded page count
-        System.out.println("Physical memory cleared.");
-    }
-
-    /**
-     * Get the current memory usage as a percentage.
-     * @return The memory usage as a formatted string percentage.
-     */
-    public synchronized String getMemoryUsagePercentage() {
-        return String.format("%.2f", (loadedPageCount * 100.0) / size) + "%";
-    }
-
-    /**
-     * Get the total number of frames in physical memory.
-     * @return The total number of frames.
-     */
-    public synchronized int getSize() {
-        return size;
-    }
-
-    /**
-     * Calculate the number of currently free frames in physical memory.
-     * @return The count of free frames.
-     */
-    public synchronized int getFreeFrameCount() {
-        return size - loadedPageCount;
-    }
-
-    /**
-     * Get a list of all frames in physical memory.
-     * @return A list of all frames.
-     */
-    public synchronized List<Frame> getFrames() {
-        return new ArrayList<>(frames); // Return a copy to prevent direct modification
-    }
-
-    /**
-     * Load a page into a specific frame.
-     * @param frame The frame to load the page into.
-     * @param page The page to load.
-     */
-    public synchronized void loadPageIntoFrame(Frame frame, Page page) {
-        if (frame == null || page == null) {
-            throw new IllegalArgumentException("Frame and page cannot be null.");
-        }
-        if (!frame.isEmpty()) {
-            System.out.println("Evicting Page " + frame.getLoadedPage().getPageNumber() +
-                    " from Frame " + frame.getFrameNumber());
-        }
-        frame.setLoadedPage(page);
-        loadedPageCount++;
-        System.out.println("Loaded Page " + page.getPageNumber() + " into Frame " + frame.getFrameNumber());
-    }
-
-    /**
-     * Evict a page from a specific frame.
-     * @param frame The frame to evict the page from.
-     */
-    public synchronized void evictPageFromFrame(Frame frame) {
-        if (frame == null) {
-            throw new IllegalArgumentException("Frame cannot be null.");
-        }
-        if (!frame.isEmpty()) {
-            System.out.println("Evicting Page " + frame.getLoadedPage().getPageNumber() +
-                    " from Frame " + frame.getFrameNumber());
-            frame.setLoadedPage(null);
-            loadedPageCount--;
-        }
-    }
-
-    /**
-     * Print the current state of all frames for debugging purposes.
-     */
-    public synchronized void printMemoryState() {
-        System.out.println("Physical Memory State:");
-        for (Frame frame : frames) {
-            String status = frame.isEmpty() ? "Empty" : "Page " + frame.getLoadedPage().getPageNumber();
-            System.out.println("Frame " + frame.getFrameNumber() + ": " + status);
-        }
-    }
-}
+package org.example.Model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+public class PhysicalMemory {
+    private final List<Frame> frames; // List of frames representing physical memory
+    private final int size; // Total size of physical memory (number of frames)
+    private int loadedPageCount; // Tracks the number of loaded pages
+
+    private static final int MAX_CHUNK_BITS = 26; // Off-heap storage is allocated in chunks of at most 64 MB
+    private final int frameSize; // Bytes per frame (power of 2), 0 if frames carry no data
+    private final int frameBits; // log2(frameSize)
+    private final int chunkBits; // log2(bytes per storage chunk)
+    private final long chunkMask; // Bytes per chunk - 1
+    private final AtomicReferenceArray<ByteBuffer> chunks; // Direct buffers holding frame contents, allocated on first write
+
+    // Constructor for frames without contents
+    public PhysicalMemory(int size) {
+        this(size, 0);
+    }
+
+    /**
+     * Creates physical memory whose frames hold real data.
+     * Contents live off-heap in direct buffers that are sliced per frame, so
+     * large memories do not put millions of small arrays on the Java heap.
+     * @param size Number of frames.
+     * @param frameSize Bytes per frame (power of 2), or 0 for frames without contents.
+     */
+    public PhysicalMemory(int size, int frameSize) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Physical memory size must be greater than 0.");
+        }
+        if (frameSize < 0 || (frameSize & (frameSize - 1)) != 0) {
+            throw new IllegalArgumentException("Frame size must be a power of 2.");
+        }
+        this.size = size;
+        this.frames = new ArrayList<>();
+        this.loadedPageCount = 0;
+        this.frameSize = frameSize;
+        if (frameSize > 0) {
+            this.frameBits = Integer.numberOfTrailingZeros(frameSize);
+            long totalBytes = (long) size << frameBits;
+            int totalBits = 64 - Long.numberOfLeadingZeros(totalBytes - 1);
+            this.chunkBits = Math.max(frameBits, Math.min(MAX_CHUNK_BITS, totalBits));
+            this.chunkMask = (1L << chunkBits) - 1;
+            this.chunks = new AtomicReferenceArray<>((int) ((totalBytes + chunkMask) >>> chunkBits));
+        } else {
+            this.frameBits = 0;
+            this.chunkBits = 0;
+            this.chunkMask = 0;
+            this.chunks = null;
+        }
+
+        // Initialize frames with unique frame numbers
+        for (int i = 0; i < size; i++) {
+            frames.add(new Frame(i));
+        }
+    }
+
+    /**
+     * Retrieve a specific frame by its frame number.
+     * @param frameNumber The frame number to retrieve.
+     * @return The corresponding frame.
+     * @throws IndexOutOfBoundsException if the frame number is invalid.
+     */
+    public synchronized Frame getFrame(int frameNumber) {
+        if (frameNumber < 0 || frameNumber >= size) {
+            throw new IndexOutOfBoundsException("Frame number " + frameNumber + " is out of bounds.");
+        }
+        return frames.get(frameNumber);
+    }
+
+    /**
+     * Find the first available free frame.
+     * @return The first free frame, or null if none are available.
+     */
+    public synchronized Frame getFreeFrame() {
+        for (Frame frame : frames) {
+            if (frame.isEmpty()) {
+                return frame; // Return the first empty frame
+            }
+        }
+        System.out.println("No free frames available.");
+        return null; // No free frames available
+    }
+
+    /**
+     * Find the first available free frame within a range of frames (e.g. one NUMA node).
+     * @param firstFrame The first frame to consider.
+     * @param endFrame One past the last frame to consider.
+     * @return The first free frame of the range, or null if none are available.
+     */
+    public synchronized Frame getFreeFrame(int firstFrame, int endFrame) {
+        for (int i = firstFrame; i < endFrame; i++) {
+            Frame frame = frames.get(i);
+            if (frame.isEmpty()) {
+                return frame;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Check if physical memory is full (no free frames).
+     * @return True if no free frames are available, false otherwise.
+     */
+    public synchronized boolean isFull() {
+        return loadedPageCount == size;
+    }
+
+    /**
+     * Clear all frames in physical memory.
+     * This removes all pages from the frames.
+     */
+    public synchronized void clear() {
+        for (Frame frame : frames) {
+            frame.setLoadedPage(null); // Remove the page from each frame
+        }
+        loadedPageCount = 0; // Reset loaded page count
+        System.out.println("Physical memory cleared.");
+    }
+
+    /**
+     * Get the current memory usage as a percentage.
+     * @return The memory usage as a formatted string percentage.
+     */
+    public synchronized String getMemoryUsagePercentage() {
+        return String.format("%.2f", (loadedPageCount * 100.0) / size) + "%";
+    }
+
+    /**
+     * Get the total number of frames in physical memory.
+     * @return The total number of frames.
+     */
+    public synchronized int getSize() {
+        return size;
+    }
+
+    /**
+     * Calculate the number of currently free frames in physical memory.
+     * @return The count of free frames.
+     */
+    public synchronized int getFreeFrameCount() {
+        return size - loadedPageCount;
+    }
+
+    /**
+     * Get a list of all frames in physical memory.
+     * @return A list of all frames.
+     */
+    public synchronized List<Frame> getFrames() {
+        return new ArrayList<>(frames); // Return a copy to prevent direct modification
+    }
+
+    /**
+     * Load a page into a specific frame.
+     * @param frame The frame to load the page into.
+     * @param page The page to load.
+     */
+    public synchronized void loadPageIntoFrame(Frame frame, Page page) {
+        if (frame == null || page == null) {
+            throw new IllegalArgumentException("Frame and page cannot be null.");
+        }
+        if (!frame.isEmpty()) {
+            System.out.println("Evicting Page " + frame.getLoadedPage().getPageNumber() +
+                    " from Frame " + frame.getFrameNumber());
+        }
+        frame.setLoadedPage(page);
+        loadedPageCount++;
+        System.out.println("Loaded Page " + page.getPageNumber() + " into Frame " + frame.getFrameNumber());
+    }
+
+    /**
+     * Evict a page from a specific frame.
+     * @param frame The frame to evict the page from.
+     */
+    public synchronized void evictPageFromFrame(Frame frame) {
+        if (frame == null) {
+            throw new IllegalArgumentException("Frame cannot be null.");
+        }
+        if (!frame.isEmpty()) {
+            System.out.println("Evicting Page " + frame.getLoadedPage().getPageNumber() +
+                    " from Frame " + frame.getFrameNumber());
+            frame.setLoadedPage(null);
+            loadedPageCount--;
+        }
+    }
+
+    /**
+     * Get the number of bytes held by each frame.
+     * @return The frame size, or 0 if frames carry no data.
+     */
+    public int getFrameSize() {
+        return frameSize;
+    }
+
+    /**
+     * Read one byte at a physical address.
+     * @param physicalAddress The physical byte address.
+     * @return The stored byte (0 if never written).
+     */
+    public byte loadByte(long physicalAddress) {
+        ByteBuffer chunk = chunkFor(physicalAddress, false);
+        return chunk == null ? 0 : chunk.get((int) (physicalAddress & chunkMask));
+    }
+
+    /**
+     * Write one byte at a physical address.
+     * @param physicalAddress The physical byte address.
+     * @param value The byte to store.
+     */
+    public void storeByte(long physicalAddress, byte value) {
+        chunkFor(physicalAddress, true).put((int) (physicalAddress & chunkMask), value);
+    }
+
+    /**
+     * Read an 8-byte value at a physical address. The value must not cross a frame boundary.
+     * @param physicalAddress The physical byte address.
+     * @return The stored value (0 if never written).
+     */
+    public long loadLong(long physicalAddress) {
+        checkWithinFrame(physicalAddress, Long.BYTES);
+        ByteBuffer chunk = chunkFor(physicalAddress, false);
+        return chunk == null ? 0 : chunk.getLong((int) (physicalAddress & chunkMask));
+    }
+
+    /**
+     * Write an 8-byte value at a physical address. The value must not cross a frame boundary.
+     * @param physicalAddress The physical byte address.
+     * @param value The value to store.
+     */
+    public void storeLong(long physicalAddress, long value) {
+        checkWithinFrame(physicalAddress, Long.BYTES);
+        chunkFor(physicalAddress, true).putLong((int) (physicalAddress & chunkMask), value);
+    }
+
+    /**
+     * Get a view of a frame's contents. Writes through the view change the frame.
+     * @param frameNumber The frame to view.
+     * @return A buffer of frameSize bytes backed by the frame.
+     */
+    public ByteBuffer frameContents(int frameNumber) {
+        long address = frameAddress(frameNumber);
+        return chunkFor(address, true).slice((int) (address & chunkMask), frameSize);
+    }
+
+    /**
+     * Copy one frame's contents into another with a single bulk copy.
+     * @param sourceFrame The frame to copy from.
+     * @param targetFrame The frame to copy into.
+     */
+    public void copyFrame(int sourceFrame, int targetFrame) {
+        long source = frameAddress(sourceFrame);
+        long target = frameAddress(targetFrame);
+        ByteBuffer sourceChunk = chunkFor(source, false);
+        if (sourceChunk == null) {
+            clearFrame(targetFrame);
+            return;
+        }
+        chunkFor(target, true).put((int) (target & chunkMask), sourceChunk, (int) (source & chunkMask), frameSize);
+    }
+
+    /**
+     * Exchange two frames: their pages, access stamps and contents. Used to move pages
+     * into place when collapsing a region into a huge page. Page and page-table mappings
+     * are left to the caller.
+     * @param firstFrame One frame.
+     * @param secondFrame The other frame (either may be empty).
+     */
+    public synchronized void swapFrames(int firstFrame, int secondFrame) {
+        Frame first = getFrame(firstFrame);
+        Frame second = getFrame(secondFrame);
+        Page page = first.getLoadedPage();
+        first.setLoadedPage(second.getLoadedPage());
+        second.setLoadedPage(page);
+        long lastAccessTime = first.getLastAccessTime();
+        first.setLastAccessTime(second.getLastAccessTime());
+        second.setLastAccessTime(lastAccessTime);
+        if (frameSize == 0 || (chunkFor(frameAddress(firstFrame), false) == null && chunkFor(frameAddress(secondFrame), false) == null)) {
+            return; // No contents to exchange
+        }
+        ByteBuffer firstContents = frameContents(firstFrame);
+        ByteBuffer secondContents = frameContents(secondFrame);
+        int i = 0;
+        for (; i + Long.BYTES <= frameSize; i += Long.BYTES) {
+            long value = firstContents.getLong(i);
+            firstContents.putLong(i, secondContents.getLong(i));
+            secondContents.putLong(i, value);
+        }
+        for (; i < frameSize; i++) {
+            byte value = firstContents.get(i);
+            firstContents.put(i, secondContents.get(i));
+            secondContents.put(i, value);
+        }
+    }
+
+    /**
+     * Zero a frame's contents.
+     * @param frameNumber The frame to clear.
+     */
+    public void clearFrame(int frameNumber) {
+        long address = frameAddress(frameNumber);
+        ByteBuffer chunk = chunkFor(address, false);
+        if (chunk != null) {
+            int index = (int) (address & chunkMask);
+            int i = 0;
+            for (; i + Long.BYTES <= frameSize; i += Long.BYTES) {
+                chunk.putLong(index + i, 0L);
+            }
+            for (; i < frameSize; i++) {
+                chunk.put(index + i, (byte) 0);
+            }
+        }
+    }
+
+    private long frameAddress(int frameNumber) {
+        if (frameSize == 0) {
+            throw new IllegalStateException("Frames of this physical memory carry no data.");
+        }
+        if (frameNumber < 0 || frameNumber >= size) {
+            throw new IndexOutOfBoundsException("Frame number " + frameNumber + " is out of bounds.");
+        }
+        return (long) frameNumber << frameBits;
+    }
+
+    private void checkWithinFrame(long physicalAddress, int length) {
+        if (frameSize != 0 && (physicalAddress & (frameSize - 1)) + length > frameSize) {
+            throw new IllegalArgumentException("Access at physical address " + physicalAddress + " crosses a frame boundary.");
+        }
+    }
+
+    private ByteBuffer chunkFor(long physicalAddress, boolean allocate) {
+        frameAddress((int) (physicalAddress >>> frameBits)); // Validates the address
+        int index = (int) (physicalAddress >>> chunkBits);
+        ByteBuffer chunk = chunks.get(index);
+        if (chunk == null && allocate) {
+            long remaining = ((long) size << frameBits) - ((long) index << chunkBits);
+            chunks.compareAndSet(index, null, ByteBuffer.allocateDirect((int) Math.min(chunkMask + 1, remaining)));
+            chunk = chunks.get(index);
+        }
+        return chunk;
+    }
+
+    /**
+     * Save which page each frame holds, the access stamps and the frame contents.
+     * Contents are written chunk by chunk straight from the off-heap buffers.
+     * @param out The snapshot being written.
+     */
+    public synchronized void writeSnapshot(SnapshotOutput out) throws IOException {
+        int[] loadedPages = new int[size];
+        long[] lastAccessTimes = new long[size];
+        for (int i = 0; i < size; i++) {
+            Frame frame = frames.get(i);
+            loadedPages[i] = frame.isEmpty() ? -1 : frame.getLoadedPage().getPageNumber();
+            lastAccessTimes[i] = frame.getLastAccessTime();
+        }
+        out.putIntArray(loadedPages);
+        out.putLongArray(lastAccessTimes);
+        out.putInt(chunks == null ? 0 : chunks.length());
+        for (int i = 0; chunks != null && i < chunks.length(); i++) {
+            ByteBuffer chunk = chunks.get(i);
+            out.putBoolean(chunk != null);
+            if (chunk != null) {
+                out.putLong(chunk.capacity());
+                out.putBuffer(chunk.duplicate().clear());
+            }
+        }
+    }
+
+    /**
+     * Restore the state saved by writeSnapshot into a physical memory of the same shape.
+     * Frame contents are mapped copy-on-write from the snapshot file instead of copied,
+     * so they are only read from disk as frames are touched.
+     * @param in The snapshot being read.
+     * @param virtualMemory The restored virtual memory, to resolve the pages held by frames.
+     */
+    public synchronized void readSnapshot(SnapshotInput in, VirtualMemory virtualMemory) throws IOException {
+        int[] loadedPages = in.getIntArray();
+        long[] lastAccessTimes = in.getLongArray();
+        if (loadedPages.length != size || lastAccessTimes.length != size) {
+            throw new IOException("Snapshot has " + loadedPages.length + " frames, expected " + size + ".");
+        }
+        loadedPageCount = 0;
+        for (int i = 0; i < size; i++) {
+            Frame frame = frames.get(i);
+            frame.setLoadedPage(loadedPages[i] == -1 ? null : virtualMemory.getPage(loadedPages[i]));
+            frame.setLastAccessTime(lastAccessTimes[i]);
+            if (loadedPages[i] != -1) {
+                loadedPageCount++;
+            }
+        }
+        int chunkCount = in.getInt();
+        if (chunkCount != (chunks == null ? 0 : chunks.length())) {
+            throw new IOException("Snapshot frame contents do not match the frame size.");
+        }
+        for (int i = 0; i < chunkCount; i++) {
+            chunks.set(i, in.getBoolean() ? in.mapPrivate(in.getLong()) : null);
+        }
+    }
+
+    /**
+     * Print the current state of all frames for debugging purposes.
+     */
+    public synchronized void printMemoryState() {
+        System.out.println("Physical Memory State:");
+        for (Frame frame : frames) {
+            String status = frame.isEmpty() ? "Empty" : "Page " + frame.getLoadedPage().getPageNumber();
+            System.out.println("Frame " + frame.getFrameNumber() + ": " + status);
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package org.example.Model;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ProcessTable {
+    private final int virtualPages; // Pages in every address space
+    private final List<int[]> spaces; // Page map of each address space (virtual page -> page), null once its process exited
+    private final Map<Integer, Integer> processSpaces; // Address space of each forked process; all others share space 0
+    private int[] mapCounts; // Address spaces mapping each page; a page mapped more than once is copy-on-write
+    private int[] freePages; // Pages no longer mapped anywhere, reused for copies
+    private int freePageCount;
+    private int pageCount; // Pages handed out so far; new pages are numbered from here
+
+    /**
+     * Start with a single address space, shared by every process, that maps each virtual
+     * page to the page with the same number (the simulation without forks).
+     * @param virtualPages Number of virtual pages in an address space.
+     */
+    public ProcessTable(int virtualPages) {
+        this.virtualPages = virtualPages;
+        this.spaces = new ArrayList<>();
+        int[] initialSpace = new int[virtualPages];
+        Arrays.setAll(initialSpace, page -> page);
+        spaces.add(initialSpace);
+        this.processSpaces = new HashMap<>();
+        this.mapCounts = new int[virtualPages];
+        Arrays.fill(mapCounts, 1);
+        this.freePages = new int[16];
+        this.pageCount = virtualPages;
+    }
+
+    /**
+     * Look up the page a process's virtual page is mapped to.
+     * @param processId The process.
+     * @param virtualPage The virtual page.
+     * @return The page, possibly shared with other processes.
+     */
+    public synchronized int translate(int processId, int virtualPage) {
+        return spaces.get(getSpace(processId))[virtualPage];
+    }
+
+    private int getSpace(int processId) {
+        Integer space = processSpaces.get(processId);
+        return space != null ? space : 0;
+    }
+
+    /**
+     * Give a child process a copy of its parent's page map. No page is copied: every page
+     * of the parent becomes shared, and copy-on-write, until one of them writes it.
+     * @param parentProcessId The process forking.
+     * @param childProcessId The new process; must not be forked already (and not exited).
+     */
+    public synchronized void fork(int parentProcessId, int childProcessId) {
+        if (parentProcessId == childProcessId || processSpaces.containsKey(childProcessId)) {
+            throw new IllegalArgumentException("Process " + childProcessId + " already has an address space.");
+        }
+        int[] childSpace = spaces.get(getSpace(parentProcessId)).clone();
+        for (int page : childSpace) {
+            mapCounts[page]++;
+        }
+        processSpaces.put(childProcessId, spaces.size());
+        spaces.add(childSpace);
+    }
+
+    /**
+     * Give a process a private page for a shared virtual page it is about to write.
+     * The caller fills the new page with the contents of the shared one.
+     * @param processId The writing process.
+     * @param virtualPage The virtual page.
+     * @return The new page now mapped at the virtual page.
+     */
+    public synchronized int copyOnWrite(int processId, int virtualPage) {
+        int[] space = spaces.get(getSpace(processId));
+        int copy;
+        if (freePageCount > 0) {
+            copy = freePages[--freePageCount];
+        } else {
+            copy = pageCount++;
+            if (copy == mapCounts.length) {
+                mapCounts = Arrays.copyOf(mapCounts, mapCounts.length * 2);
+            }
+        }
+        mapCounts[space[virtualPage]]--;
+        mapCounts[copy] = 1;
+        space[virtualPage] = copy;
+        return copy;
+    }
+
+    /**
+     * Map every virtual page mapped to a duplicate to the page with the same contents
+     * instead. The kept page becomes shared, and copy-on-write, like a page after a fork.
+     * @param page The page kept.
+     * @param duplicate The page merged into it; no longer mapped anywhere afterwards.
+     */
+    public synchronized void merge(int page, int duplicate) {
+        if (page == duplicate || mapCounts[duplicate] == 0) {
+            throw new IllegalArgumentException("Page " + duplicate + " cannot be merged into page " + page + ".");
+        }
+        for (int[] space : spaces) {
+            if (space == null) {
+                continue;
+            }
+            for (int virtualPage = 0; virtualPage < virtualPages; virtualPage++) {
+                if (space[virtualPage] == duplicate) {
+                    space[virtualPage] = page;
+                }
+            }
+        }
+        mapCounts[page] += mapCounts[duplicate];
+        mapCounts[duplicate] = 0;
+        if (freePageCount == freePages.length) {
+            freePages = Arrays.copyOf(freePages, freePageCount * 2);
+        }
+        freePages[freePageCount++] = duplicate;
+    }
+
+    /**
+     * Drop a forked process's address space. A process that was never forked shares the
+     * initial space with the others, which stays.
+     * @param processId The exiting process.
+     * @return The pages no longer mapped by any process; the caller discards them.
+     */
+    public synchronized int[] exit(int processId) {
+        Integer space = processSpaces.remove(processId);
+        if (space == null) {
+            return new int[0];
+        }
+        int[] unmapped = new int[virtualPages];
+        int unmappedCount = 0;
+        for (int page : spaces.get(space)) {
+            if (--mapCounts[page] == 0) {
+                unmapped[unmappedCount++] = page;
+                if (freePageCount == freePages.length) {
+                    freePages = Arrays.copyOf(freePages, freePageCount * 2);
+                }
+                freePages[freePageCount++] = page;
+            }
+        }
+        spaces.set(space, null);
+        while (spaces.get(spaces.size() - 1) == null) {
+            spaces.remove(spaces.size() - 1); // Space 0 is never dropped, so this stops there
+        }
+        return Arrays.copyOf(unmapped, unmappedCount);
+    }
+
+    /**
+     * @param page A page.
+     * @return Number of address spaces mapping it; 0 for a page no process maps.
+     */
+    public synchronized int getMapCount(int page) {
+        return page < pageCount ? mapCounts[page] : 0;
+    }
+
+    // One past the highest page handed out
+    public synchronized int getPageCount() {
+        return pageCount;
+    }
+
+    // Forked processes that have not exited
+    public synchronized int getProcessCount() {
+        return processSpaces.size();
+    }
+
+    /**
+     * Save every address space, the map counts and the free pages.
+     * @param out The snapshot being written.
+     */
+    public synchronized void writeSnapshot(SnapshotOutput out) throws IOException {
+        out.putInt(pageCount);
+        out.putInt(spaces.size());
+        for (int[] space : spaces) {
+            out.putBoolean(space != null);
+            if (space != null) {
+                out.putIntArray(space);
+            }
+        }
+        int[] processIds = new int[processSpaces.size()];
+        int[] processSpaceIndexes = new int[processSpaces.size()];
+        int index = 0;
+        for (Map.Entry<Integer, Integer> entry : processSpaces.entrySet()) {
+            processIds[index] = entry.getKey();
+            processSpaceIndexes[index] = entry.getValue();
+            index++;
+        }
+        out.putIntArray(processIds);
+        out.putIntArray(processSpaceIndexes);
+        out.putIntArray(mapCounts, pageCount);
+        out.putIntArray(freePages, freePageCount);
+    }
+
+    /**
+     * Restore the state saved by writeSnapshot.
+     * @param in The snapshot being read.
+     */
+    public synchronized void readSnapshot(SnapshotInput in) throws IOException {
+        pageCount = in.getInt();
+        int spaceCount = in.getInt();
+        spaces.clear();
+        for (int i = 0; i < spaceCount; i++) {
+            spaces.add(in.getBoolean() ? in.getIntArray() : null);
+        }
+        int[] processIds = in.getIntArray();
+        int[] processSpaceIndexes = in.getIntArray();
+        processSpaces.clear();
+        for (int i = 0; i < processIds.length; i++) {
+            processSpaces.put(processIds[i], processSpaceIndexes[i]);
+        }
+        int[] savedCounts = in.getIntArray();
+        mapCounts = Arrays.copyOf(savedCounts, Math.max(virtualPages, savedCounts.length));
+        int[] savedFree = in.getIntArray();
+        freePages = Arrays.copyOf(savedFree, Math.max(16, savedFree.length));
+        freePageCount = savedFree.length;
+    }
+}
@@ -0,0 +1,258 @@
+package org.example.Model;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+public class ReadaheadPrefetcher {
+    private final int initialWindow; // Pages read ahead when a stream is first detected
+    private final int maxWindow; // Upper bound for the adaptive window
+    private final int maxStride; // Largest stride (in pages) still treated as a stream
+    private final long coldAge; // References since last access after which a frame counts as cold
+    private final Map<Integer, Stream> streams; // Stream state per process
+    private final Map<Integer, Stream> pendingPrefetches; // Prefetched pages not yet referenced, with their stream
+
+    private long issuedCount; // Pages read ahead
+    private long usefulCount; // Prefetched pages referenced before eviction
+    private long wastedCount; // Prefetched pages evicted without being referenced
+    private long demandFaultCount; // Faults the prefetcher did not prevent
+
+    // Inner class to store the stream detected for one process
+    private static class Stream {
+        int lastPage = -1; // Last page referenced by the process
+        int stride; // Distance between the last two references
+        int confirmations; // Consecutive references that repeated the stride
+        int window; // Pages to read ahead on the next trigger
+
+        Stream(int window) {
+            this.window = window;
+        }
+    }
+
+    // Default constructor
+    public ReadaheadPrefetcher() {
+        this(4, 32, 8, 32);
+    }
+
+    public ReadaheadPrefetcher(int initialWindow, int maxWindow, int maxStride, long coldAge) {
+        if (initialWindow <= 0 || maxWindow < initialWindow) {
+            throw new IllegalArgumentException("Readahead window must be positive and not exceed the maximum window.");
+        }
+        if (maxStride <= 0 || coldAge <= 0) {
+            throw new IllegalArgumentException("Maximum stride and cold age must be greater than 0.");
+        }
+        this.initialWindow = initialWindow;
+        this.maxWindow = maxWindow;
+        this.maxStride = maxStride;
+        this.coldAge = coldAge;
+        this.streams = new HashMap<>();
+        this.pendingPrefetches = new HashMap<>();
+    }
+
+    /**
+     * Observe a demand reference and decide which pages to read ahead.
+     * Readahead is triggered by a fault or by the first use of a prefetched page
+     * once the process has repeated the same stride twice in a row.
+     * @param processId The process that made the reference.
+     * @param pageNumber The referenced page.
+     * @param pageFault Whether the reference faulted.
+     * @return The pages to read ahead, nearest first (may be empty).
+     */
+    public synchronized int[] recordReference(int processId, int pageNumber, boolean pageFault) {
+        Stream stream = streams.computeIfAbsent(processId, id -> new Stream(initialWindow));
+
+        Stream owner = pendingPrefetches.remove(pageNumber);
+        boolean prefetchHit = owner != null;
+        if (prefetchHit) {
+            usefulCount++;
+            owner.window = Math.min(maxWindow, owner.window * 2);
+        }
+        if (pageFault) {
+            demandFaultCount++;
+        }
+
+        if (stream.lastPage != -1 && pageNumber != stream.lastPage) {
+            int distance = pageNumber - stream.lastPage;
+            if (Math.abs(distance) > maxStride) {
+                stream.confirmations = 0;
+            } else if (distance == stream.stride) {
+                stream.confirmations++;
+            } else {
+                stream.stride = distance;
+                stream.confirmations = 1;
+            }
+        }
+        stream.lastPage = pageNumber;
+
+        if (stream.confirmations < 2 || !(pageFault || prefetchHit)) {
+            return new int[0];
+        }
+
+        int[] candidates = new int[stream.window];
+        int count = 0;
+        for (int i = 1; i <= stream.window; i++) {
+            int candidate = pageNumber + stream.stride * i;
+            if (!pendingPrefetches.containsKey(candidate)) {
+                candidates[count++] = candidate;
+            }
+        }
+        int[] result = new int[count];
+        System.arraycopy(candidates, 0, result, 0, count);
+        return result;
+    }
+
+    /**
+     * Record that a page was actually read ahead for a process.
+     * @param processId The process whose stream triggered the readahead.
+     * @param pageNumber The page that was loaded.
+     */
+    public synchronized void prefetchIssued(int processId, int pageNumber) {
+        pendingPrefetches.put(pageNumber, streams.computeIfAbsent(processId, id -> new Stream(initialWindow)));
+        issuedCount++;
+    }
+
+    /**
+     * Record that a page left memory. An unreferenced prefetch shrinks its stream's window.
+     * @param pageNumber The page that was evicted.
+     */
+    public synchronized void pageEvicted(int pageNumber) {
+        Stream owner = pendingPrefetches.remove(pageNumber);
+        if (owner != null) {
+            wastedCount++;
+            owner.window = Math.max(1, owner.window / 2);
+        }
+    }
+
+    /**
+     * Check whether a page was prefetched and has not been referenced yet.
+     * @param pageNumber The page to check.
+     * @return True if the page is an outstanding prefetch.
+     */
+    public synchronized boolean isPendingPrefetch(int pageNumber) {
+        return pendingPrefetches.containsKey(pageNumber);
+    }
+
+    public int getInitialWindow() {
+        return initialWindow;
+    }
+
+    public int getMaxWindow() {
+        return maxWindow;
+    }
+
+    public int getMaxStride() {
+        return maxStride;
+    }
+
+    public long getColdAge() {
+        return coldAge;
+    }
+
+    /**
+     * Save the per-process streams, the outstanding prefetches with the process that
+     * issued them, and the statistics (the configuration is saved by the caller).
+     * @param out The snapshot being written.
+     */
+    public synchronized void writeSnapshot(SnapshotOutput out) throws IOException {
+        int[] processIds = new int[streams.size()];
+        int[] streamState = new int[streams.size() * 4];
+        Map<Stream, Integer> owners = new IdentityHashMap<>();
+        int index = 0;
+        for (Map.Entry<Integer, Stream> entry : streams.entrySet()) {
+            Stream stream = entry.getValue();
+            processIds[index] = entry.getKey();
+            streamState[index * 4] = stream.lastPage;
+            streamState[index * 4 + 1] = stream.stride;
+            streamState[index * 4 + 2] = stream.confirmations;
+            streamState[index * 4 + 3] = stream.window;
+            owners.put(stream, entry.getKey());
+            index++;
+        }
+        int[] pendingPages = new int[pendingPrefetches.size()];
+        int[] pendingOwners = new int[pendingPrefetches.size()];
+        index = 0;
+        for (Map.Entry<Integer, Stream> entry : pendingPrefetches.entrySet()) {
+            pendingPages[index] = entry.getKey();
+            pendingOwners[index] = owners.get(entry.getValue());
+            index++;
+        }
+        out.putIntArray(processIds);
+        out.putIntArray(streamState);
+        out.putIntArray(pendingPages);
+        out.putIntArray(pendingOwners);
+        out.putLong(issuedCount);
+        out.putLong(usefulCount);
+        out.putLong(wastedCount);
+        out.putLong(demandFaultCount);
+    }
+
+    /**
+     * Restore the state saved by writeSnapshot.
+     * @param in The snapshot being read.
+     */
+    public synchronized void readSnapshot(SnapshotInput in) throws IOException {
+        int[] processIds = in.getIntArray();
+        int[] streamState = in.getIntArray();
+        int[] pendingPages = in.getIntArray();
+        int[] pendingOwners = in.getIntArray();
+        streams.clear();
+        for (int i = 0; i < processIds.length; i++) {
+            Stream stream = new Stream(streamState[i * 4 + 3]);
+            stream.lastPage = streamState[i * 4];
+            stream.stride = streamState[i * 4 + 1];
+            stream.confirmations = streamState[i * 4 + 2];
+            streams.put(processIds[i], stream);
+        }
+        pendingPrefetches.clear();
+        for (int i = 0; i < pendingPages.length; i++) {
+            pendingPrefetches.put(pendingPages[i], streams.get(pendingOwners[i]));
+        }
+        issuedCount = in.getLong();
+        usefulCount = in.getLong();
+        wastedCount = in.getLong();
+        demandFaultCount = in.getLong();
+    }
+
+    public synchronized long getIssuedCount() {
+        return issuedCount;
+    }
+
+    public synchronized long getUsefulCount() {
+        return usefulCount;
+    }
+
+    public synchronized long getWastedCount() {
+        return wastedCount;
+    }
+
+    /**
+     * Get the prefetch accuracy (prefetched pages that were later referenced).
+     * @return The accuracy as a percentage (0 to 100).
+     */
+    public synchronized double getAccuracy() {
+        return issuedCount == 0 ? 0 : (usefulCount / (double) issuedCount) * 100;
+    }
+
+    /**
+     * Get the prefetch coverage (misses that readahead turned into hits).
+     * @return The coverage as a percentage (0 to 100).
+     */
+    public synchronized double getCoverage() {
+        long misses = usefulCount + demandFaultCount;
+        return misses == 0 ? 0 : (usefulCount / (double) misses) * 100;
+    }
+
+    /**
+     * Print prefetcher statistics.
+     */
+    public synchronized void printStatistics() {
+        System.out.println("Readahead Statistics:");
+        System.out.println("Prefetched Pages: " + issuedCount);
+        System.out.println("Useful: " + usefulCount);
+        System.out.println("Wasted: " + wastedCount);
+        System.out.println("Demand Faults: " + demandFaultCount);
+        System.out.println("Accuracy: " + String.format("%.2f", getAccuracy()) + "%");
+        System.out.println("Coverage: " + String.format("%.2f", getCoverage()) + "%");
+    }
+}
@@ -0,0 +1,240 @@
+package org.example.Model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+public class SamePageMerger {
+    private final int pagesPerScan; // Frames examined per pass
+    private final int scanInterval; // References between passes
+    private long referencesSinceScan;
+    private int scanCursor; // Next frame to examine; frames are scanned round-robin
+
+    private long[] checksums; // Digest of each page when it was last scanned
+    private final BitSet checksummed; // Pages with a digest in checksums
+    private final Map<Long, Integer> stableIndex; // Digest -> merged page, kept across scans
+    private final Map<Long, Integer> unstableIndex; // Digest -> page waiting for a twin, rebuilt every full scan
+
+    private long pagesScanned;
+    private long fullScans;
+    private long compares; // Full content compares before merging
+    private long mismatches; // Compares that found different contents behind equal digests
+
+    // Default constructor: 100 frames every 200 references
+    public SamePageMerger() {
+        this(100, 200);
+    }
+
+    /**
+     * @param pagesPerScan Frames examined per pass.
+     * @param scanInterval References between passes.
+     */
+    public SamePageMerger(int pagesPerScan, int scanInterval) {
+        if (pagesPerScan <= 0 || scanInterval <= 0) {
+            throw new IllegalArgumentException("Pages per scan and scan interval must be greater than 0.");
+        }
+        this.pagesPerScan = pagesPerScan;
+        this.scanInterval = scanInterval;
+        this.checksums = new long[64];
+        this.checksummed = new BitSet();
+        this.stableIndex = new HashMap<>();
+        this.unstableIndex = new HashMap<>();
+    }
+
+    /**
+     * Count one reference and report whether a pass is due.
+     * @return True when the scan interval elapsed.
+     */
+    public synchronized boolean recordReference() {
+        if (++referencesSinceScan < scanInterval) {
+            return false;
+        }
+        referencesSinceScan = 0;
+        return true;
+    }
+
+    /**
+     * The next frame to examine. Wrapping around ends a full scan, which forgets the
+     * unstable index, since its pages may have changed since they were indexed.
+     * @param frameCount Number of frames.
+     * @return The frame number.
+     */
+    public synchronized int nextFrame(int frameCount) {
+        if (scanCursor >= frameCount) {
+            scanCursor = 0;
+            fullScans++;
+            unstableIndex.clear();
+        }
+        pagesScanned++;
+        return scanCursor++;
+    }
+
+    /**
+     * Hash a page's contents, 8 bytes at a time.
+     * @param contents The contents, from the buffer's position to its limit.
+     * @return The 64-bit digest.
+     */
+    public static long digest(ByteBuffer contents) {
+        long hash = 0x9E3779B97F4A7C15L ^ contents.remaining();
+        int end = contents.limit() - Long.BYTES;
+        int position = contents.position();
+        for (; position <= end; position += Long.BYTES) {
+            hash = Long.rotateLeft((hash ^ contents.getLong(position)) * 0xC2B2AE3D27D4EB4FL, 31);
+        }
+        for (; position < contents.limit(); position++) {
+            hash = (hash ^ contents.get(position)) * 0x100000001B3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        return hash ^ (hash >>> 33);
+    }
+
+    /**
+     * Remember the digest of a page, as KSM does, so pages being written are not indexed.
+     * @param pageNumber The page scanned.
+     * @param digest Its digest now.
+     * @return True if the page had the same digest when it was last scanned.
+     */
+    public synchronized boolean updateChecksum(int pageNumber, long digest) {
+        if (pageNumber >= checksums.length) {
+            checksums = Arrays.copyOf(checksums, Math.max(pageNumber + 1, checksums.length * 2));
+        }
+        boolean unchanged = checksummed.get(pageNumber) && checksums[pageNumber] == digest;
+        checksums[pageNumber] = digest;
+        checksummed.set(pageNumber);
+        return unchanged;
+    }
+
+    /**
+     * @return The merged page with this digest, or -1.
+     */
+    public synchronized int getStablePage(long digest) {
+        Integer page = stableIndex.get(digest);
+        return page != null ? page : -1;
+    }
+
+    /**
+     * @return The page seen with this digest during the current full scan, or -1.
+     */
+    public synchronized int getUnstablePage(long digest) {
+        Integer page = unstableIndex.get(digest);
+        return page != null ? page : -1;
+    }
+
+    // Index a page until its twin turns up or the full scan ends
+    public synchronized void putUnstablePage(long digest, int pageNumber) {
+        unstableIndex.put(digest, pageNumber);
+    }
+
+    // A page others were merged into; it stays indexed until it changes or goes away
+    public synchronized void putStablePage(long digest, int pageNumber) {
+        unstableIndex.remove(digest);
+        stableIndex.put(digest, pageNumber);
+    }
+
+    // Drop an index entry whose page no longer matches its digest
+    public synchronized void removePage(long digest) {
+        stableIndex.remove(digest);
+        unstableIndex.remove(digest);
+    }
+
+    /**
+     * Count one full compare of two pages with equal digests.
+     * @param equal Whether the contents were equal.
+     */
+    public synchronized void recordCompare(boolean equal) {
+        compares++;
+        if (!equal) {
+            mismatches++;
+        }
+    }
+
+    // Pages kept as merge targets
+    public synchronized int[] getStablePages() {
+        return stableIndex.values().stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    public int getPagesPerScan() {
+        return pagesPerScan;
+    }
+
+    public int getScanInterval() {
+        return scanInterval;
+    }
+
+    public synchronized long getPagesScanned() {
+        return pagesScanned;
+    }
+
+    public synchronized long getFullScans() {
+        return fullScans;
+    }
+
+    public synchronized long getCompares() {
+        return compares;
+    }
+
+    public synchronized long getMismatches() {
+        return mismatches;
+    }
+
+    /**
+     * Save the scan position, digests, both indexes and statistics (the configuration is saved by the caller).
+     * @param out The snapshot being written.
+     */
+    public synchronized void writeSnapshot(SnapshotOutput out) throws IOException {
+        out.putLong(referencesSinceScan);
+        out.putInt(scanCursor);
+        out.putLongArray(checksums);
+        out.putLongArray(checksummed.toLongArray());
+        putIndex(out, stableIndex);
+        putIndex(out, unstableIndex);
+        out.putLong(pagesScanned);
+        out.putLong(fullScans);
+        out.putLong(compares);
+        out.putLong(mismatches);
+    }
+
+    /**
+     * Restore the state saved by writeSnapshot.
+     * @param in The snapshot being read.
+     */
+    public synchronized void readSnapshot(SnapshotInput in) throws IOException {
+        referencesSinceScan = in.getLong();
+        scanCursor = in.getInt();
+        checksums = in.getLongArray();
+        checksummed.clear();
+        checksummed.or(BitSet.valueOf(in.getLongArray()));
+        getIndex(in, stableIndex);
+        getIndex(in, unstableIndex);
+        pagesScanned = in.getLong();
+        fullScans = in.getLong();
+        compares = in.getLong();
+        mismatches = in.getLong();
+    }
+
+    private static void putIndex(SnapshotOutput out, Map<Long, Integer> index) throws IOException {
+        long[] digests = new long[index.size()];
+        int[] pages = new int[index.size()];
+        int position = 0;
+        for (Map.Entry<Long, Integer> entry : index.entrySet()) {
+            digests[position] = entry.getKey();
+            pages[position] = entry.getValue();
+            position++;
+        }
+        out.putLongArray(digests);
+        out.putIntArray(pages);
+    }
+
+    private static void getIndex(SnapshotInput in, Map<Long, Integer> index) throws IOException {
+        long[] digests = in.getLongArray();
+        int[] pages = in.getIntArray();
+        index.clear();
+        for (int i = 0; i < digests.length; i++) {
+            index.put(digests[i], pages[i]);
+        }
+    }
+}
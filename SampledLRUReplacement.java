@@ -0,0 +1,252 @@
+package org.example.Model;
+
+import org.example.Controller.MemoryController;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+public class SampledLRUReplacement implements PageReplacementAlgorithm {
+    public static final String NAME = "SAMPLED-LRU";
+
+    private final int sampleSize; // Resident pages sampled per eviction
+    private final int poolSize; // Candidates kept across evictions, 0 for none
+    private int[] residents; // Resident pages, in no order, so a random one is picked in O(1)
+    private int residentCount;
+    private int[] positions; // Index of each page in residents, -1 if not resident
+    private long[] accessStamps; // Logical time of each page's latest access; the only per-access work
+    private long accessClock;
+    private final int[] poolPages; // Eviction pool, oldest access first
+    private final long[] poolStamps; // Access stamp of each candidate when it was pooled
+    private int poolCount;
+    private final long seed;
+    private long randomState; // xorshift64* state, saved with snapshots so runs repeat
+    private long samples; // Pages sampled by all evictions
+    private long staleCandidates; // Pool entries dropped because their page was accessed after being pooled
+    private int replacementCount;
+
+    // Default constructor: 5 samples and a pool of 16, as Redis evicts
+    public SampledLRUReplacement() {
+        this(5, 16, 1);
+    }
+
+    /**
+     * @param sampleSize Resident pages sampled per eviction.
+     * @param poolSize Good candidates kept from one eviction to the next, 0 to use only the samples.
+     * @param seed Seed of the sampling.
+     */
+    public SampledLRUReplacement(int sampleSize, int poolSize, long seed) {
+        if (sampleSize <= 0 || poolSize < 0) {
+            throw new IllegalArgumentException("Sample size must be greater than 0 and pool size at least 0.");
+        }
+        this.sampleSize = sampleSize;
+        this.poolSize = poolSize;
+        this.residents = new int[64];
+        this.positions = new int[64];
+        Arrays.fill(positions, -1);
+        this.accessStamps = new long[64];
+        this.poolPages = new int[Math.max(poolSize, sampleSize)];
+        this.poolStamps = new long[poolPages.length];
+        this.seed = seed;
+        this.randomState = seed == 0 ? 0x9E3779B97F4A7C15L : seed;
+    }
+
+    @Override
+    public void replacePage(int pageNumber, MemoryController memoryController) {
+        if (memoryController.isPageInMemory(pageNumber)) {
+            memoryController.getMemoryLogger().log("Page " + pageNumber + " is already in memory.");
+            pageAccessed(pageNumber);
+            return;
+        }
+
+        if (!memoryController.hasFreeFrameFor(pageNumber) && residentCount > 0) {
+            int victim = memoryController.chooseVictim(this, pageNumber);
+            memoryController.removePageFromMemory(victim); // Counted rather than logged: this runs once per eviction
+            replacementCount++;
+        }
+
+        memoryController.loadPageIntoMemory(memoryController.getPageFromVirtualMemory(pageNumber));
+    }
+
+    /**
+     * Sample resident pages at random into the pool and return the candidate accessed
+     * longest ago (preferring a preferred one). Candidates accessed or evicted since they
+     * were pooled are dropped; without a pool only this eviction's samples are compared.
+     */
+    @Override
+    public int selectVictim(IntPredicate preferred) {
+        if (residentCount == 0) {
+            return -1;
+        }
+        if (poolSize == 0) {
+            poolCount = 0;
+        }
+        for (int i = 0; i < sampleSize; i++) {
+            offer(residents[(int) Long.remainderUnsigned(nextRandom(), residentCount)]);
+        }
+        samples += sampleSize;
+        int victim = -1;
+        boolean victimPreferred = false;
+        int write = 0;
+        for (int read = 0; read < poolCount; read++) {
+            int page = poolPages[read];
+            if (positions[page] == -1) {
+                continue; // Evicted, usually as the previous victim
+            }
+            if (accessStamps[page] != poolStamps[read]) {
+                staleCandidates++; // Accessed since it was pooled, so no longer old
+                continue;
+            }
+            poolPages[write] = page;
+            poolStamps[write++] = poolStamps[read];
+            if (victim == -1 || (!victimPreferred && preferred.test(page))) {
+                victim = page;
+                victimPreferred = preferred.test(page);
+            }
+        }
+        poolCount = write;
+        return victim;
+    }
+
+    // Put a page into the pool, in access order, if it is older than the pool's newest candidate or there is room
+    private void offer(int page) {
+        long stamp = accessStamps[page];
+        int capacity = poolSize > 0 ? poolSize : sampleSize;
+        int index = 0;
+        while (index < poolCount && poolStamps[index] < stamp) {
+            index++;
+        }
+        if (index < poolCount && poolPages[index] == page) {
+            return; // Sampled again
+        }
+        if (poolCount == capacity) {
+            if (index == capacity) {
+                return; // Newer than every candidate
+            }
+            poolCount--; // Drop the newest candidate
+        }
+        System.arraycopy(poolPages, index, poolPages, index + 1, poolCount - index);
+        System.arraycopy(poolStamps, index, poolStamps, index + 1, poolCount - index);
+        poolPages[index] = page;
+        poolStamps[index] = stamp;
+        poolCount++;
+    }
+
+    private long nextRandom() {
+        randomState ^= randomState >>> 12;
+        randomState ^= randomState << 25;
+        randomState ^= randomState >>> 27;
+        return randomState * 0x2545F4914F6CDD1DL;
+    }
+
+    @Override
+    public void pageLoaded(int pageNumber) {
+        if (pageNumber >= positions.length) {
+            int oldLength = positions.length;
+            positions = Arrays.copyOf(positions, Math.max(pageNumber + 1, oldLength * 2));
+            Arrays.fill(positions, oldLength, positions.length, -1);
+            accessStamps = Arrays.copyOf(accessStamps, positions.length);
+        }
+        if (residentCount == residents.length) {
+            residents = Arrays.copyOf(residents, residentCount * 2);
+        }
+        positions[pageNumber] = residentCount;
+        residents[residentCount++] = pageNumber;
+        accessStamps[pageNumber] = ++accessClock;
+    }
+
+    @Override
+    public void pageAccessed(int pageNumber) {
+        accessStamps[pageNumber] = ++accessClock;
+    }
+
+    @Override
+    public void pageRemoved(int pageNumber) {
+        int position = positions[pageNumber];
+        int last = residents[--residentCount];
+        residents[position] = last;
+        positions[last] = position;
+        positions[pageNumber] = -1;
+    }
+
+    public int getSampleSize() {
+        return sampleSize;
+    }
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    /**
+     * Evictions, samples taken and pool candidates dropped as stale.
+     * @return A one-line summary.
+     */
+    public String getStatistics() {
+        return "Sampled LRU: Samples per Eviction: " + sampleSize + ", Pool: " + poolSize + ", Evictions: " + replacementCount
+                + ", Samples: " + samples + ", Stale Candidates: " + staleCandidates;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    // Sample size, pool size and seed, e.g. "5,16,1"
+    @Override
+    public String getParameters() {
+        return sampleSize + "," + poolSize + "," + seed;
+    }
+
+    @Override
+    public int getReplacementCount() {
+        return replacementCount;
+    }
+
+    @Override
+    public void writeSnapshot(SnapshotOutput out) throws IOException {
+        out.putInt(sampleSize);
+        out.putInt(poolSize); // The saved pool is at most this long
+        int[] pages = Arrays.copyOf(residents, residentCount);
+        long[] stamps = new long[residentCount];
+        for (int i = 0; i < residentCount; i++) {
+            stamps[i] = accessStamps[pages[i]];
+        }
+        out.putIntArray(pages);
+        out.putLongArray(stamps);
+        out.putLong(accessClock);
+        out.putIntArray(poolPages, poolCount);
+        out.putLongArray(Arrays.copyOf(poolStamps, poolCount));
+        out.putLong(randomState);
+        out.putLong(samples);
+        out.putLong(staleCandidates);
+        out.putInt(replacementCount);
+    }
+
+    @Override
+    public void readSnapshot(SnapshotInput in) throws IOException {
+        int savedSampleSize = in.getInt();
+        int savedPoolSize = in.getInt();
+        if (savedSampleSize != sampleSize || savedPoolSize != poolSize) {
+            throw new IOException("Snapshot sampled LRU takes " + savedSampleSize + " samples with a pool of " + savedPoolSize
+                    + " but this simulation uses " + sampleSize + " and " + poolSize + ".");
+        }
+        int[] pages = in.getIntArray();
+        long[] stamps = in.getLongArray();
+        Arrays.fill(positions, -1);
+        residentCount = 0;
+        for (int i = 0; i < pages.length; i++) {
+            pageLoaded(pages[i]);
+            accessStamps[pages[i]] = stamps[i];
+        }
+        accessClock = in.getLong();
+        int[] pooled = in.getIntArray();
+        long[] pooledStamps = in.getLongArray();
+        poolCount = pooled.length;
+        System.arraycopy(pooled, 0, poolPages, 0, poolCount);
+        System.arraycopy(pooledStamps, 0, poolStamps, 0, poolCount);
+        randomState = in.getLong();
+        samples = in.getLong();
+        staleCandidates = in.getLong();
+        replacementCount = in.getInt();
+    }
+}
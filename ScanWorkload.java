@@ -0,0 +1,80 @@
+package org.example.Model;
+
+public class ScanWorkload extends SyntheticWorkload {
+    private final int firstPage; // Lowest page of the scanned region
+    private final int pageCount; // Number of pages in the region
+    private final int stride; // Distance in pages between consecutive references
+    private int lane; // Offset of the current pass, so a strided scan eventually touches every page
+    private int cursor; // Offset of the next page within the region
+
+    /**
+     * A sequential (stride 1) or strided scan over a region. When the scan runs off the
+     * end it starts the next pass one page further in, and after stride passes it wraps
+     * to the start, so a scan longer than the region loops over it.
+     * @param firstPage Lowest page of the region.
+     * @param pageCount Number of pages in the region.
+     * @param stride Pages between consecutive references (at least 1).
+     * @param processId Process the references are attributed to.
+     * @param length Number of references.
+     * @param writeFraction Probability that a reference is a write.
+     * @param seed Random seed (only used to pick reads and writes).
+     */
+    public ScanWorkload(int firstPage, int pageCount, int stride, int processId, long length, double writeFraction, long seed) {
+        super(processId, length, writeFraction, seed);
+        if (firstPage < 0 || pageCount <= 0 || (long) firstPage + pageCount > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Page region must be non-empty and within the page number range.");
+        }
+        if (stride <= 0) {
+            throw new IllegalArgumentException("Stride must be greater than 0.");
+        }
+        this.firstPage = firstPage;
+        this.pageCount = pageCount;
+        this.stride = stride;
+    }
+
+    /**
+     * A loop that sweeps the same pages in order, iteration after iteration. With more
+     * pages than frames this is the case where LRU and FIFO evict every page just before
+     * it is needed again.
+     * @param firstPage Lowest page of the loop.
+     * @param loopPages Pages touched by one iteration.
+     * @param iterations Number of iterations.
+     * @param processId Process the references are attributed to.
+     * @param writeFraction Probability that a reference is a write.
+     * @param seed Random seed (only used to pick reads and writes).
+     * @return The loop workload.
+     */
+    public static ScanWorkload loop(int firstPage, int loopPages, long iterations, int processId, double writeFraction, long seed) {
+        if (loopPages <= 0 || iterations <= 0 || iterations > Long.MAX_VALUE / loopPages) {
+            throw new IllegalArgumentException("Loop size and iteration count must be greater than 0.");
+        }
+        return new ScanWorkload(firstPage, loopPages, 1, processId, loopPages * iterations, writeFraction, seed);
+    }
+
+    @Override
+    protected int nextPage() {
+        int pageNumber = firstPage + cursor;
+        int next = cursor + stride;
+        if (next >= pageCount || next < 0) {
+            lane++;
+            if (lane >= stride || lane >= pageCount) {
+                lane = 0;
+            }
+            next = lane;
+        }
+        cursor = next;
+        return pageNumber;
+    }
+
+    public int getFirstPage() {
+        return firstPage;
+    }
+
+    public int getPageCount() {
+        return pageCount;
+    }
+
+    public int getStride() {
+        return stride;
+    }
+}
@@ -0,0 +1,125 @@
+package org.example.Model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+
+public class SessionRecorder implements Closeable {
+    // Configuration keys stored in the trace header
+    public static final String VIRTUAL_PAGES = "virtualPages";
+    public static final String PHYSICAL_FRAMES = "physicalFrames";
+    public static final String PAGE_SIZE = "pageSize";
+    public static final String TLB_ENTRIES = "tlbEntries";
+    public static final String HUGE_PAGE_SIZE = "hugePageSize"; // Bytes, 0 when huge pages are off
+    public static final String HUGE_TLB_ENTRIES = "hugeTlbEntries";
+    public static final String NUMA_NODES = "numaNodes"; // 1 when memory is uniform
+    public static final String NUMA_POLICY = "numaPolicy";
+    public static final String NUMA_REMOTE_DISTANCE = "numaRemoteDistance";
+    public static final String NUMA_ZONE_RECLAIM = "numaZoneReclaim";
+    public static final String NUMA_BALANCING = "numaBalancing";
+    public static final String COMPRESSED_SWAP_BYTES = "compressedSwapBytes"; // Pool size, 0 when the tier is off
+    public static final String COMPRESSION_LEVEL = "compressionLevel";
+    public static final String SAME_PAGE_MERGING = "samePageMerging";
+    public static final String MERGE_PAGES_PER_SCAN = "mergePagesPerScan";
+    public static final String MERGE_SCAN_INTERVAL = "mergeScanInterval";
+    public static final String FAULT_FREQUENCY_SCOPE = "faultFrequencyScope"; // OFF, LOCAL or GLOBAL
+    public static final String FAULT_FREQUENCY_INITIAL_FRAMES = "faultFrequencyInitialFrames";
+    public static final String FAULT_FREQUENCY_WINDOW = "faultFrequencyWindow";
+    public static final String FAULT_FREQUENCY_LOWER = "faultFrequencyLower";
+    public static final String FAULT_FREQUENCY_UPPER = "faultFrequencyUpper";
+    public static final String PAGE_WALK_CACHE = "pageWalkCache"; // Entries per upper page-table level, root first (e.g. "2,4,32"), or "off"
+    public static final String CPU_CACHES = "cpuCaches"; // size/ways/lineSize/replacement/hitNanos per level, L1 first, or "off"
+    public static final String ALGORITHM = "algorithm";
+    public static final String ALGORITHM_PARAMETERS = "algorithmParameters"; // The algorithm's settings (e.g. "1000,8,FIFO,LRU"), empty for none
+    public static final String READAHEAD = "readahead";
+    public static final String WRITE_BACK = "writeBack";
+    public static final String PREFER_CLEAN_VICTIMS = "preferCleanVictims";
+
+    private final Path path; // Trace file being written
+    private final TraceWriter writer; // Appends records through a buffered channel
+    private IOException failure; // First write error; recording stops after it
+
+    /**
+     * Start a session trace. The configuration goes into the header, so the trace alone
+     * is enough to rebuild the simulation and replay it.
+     * @param path The trace file to create.
+     * @param pageSize Page size in bytes.
+     * @param configuration The simulation settings (see the keys above).
+     */
+    public SessionRecorder(Path path, int pageSize, Map<String, String> configuration) throws IOException {
+        this.path = path;
+        this.writer = new TraceWriter(path, pageSize, configuration);
+    }
+
+    /**
+     * Append one reference. Records are only appended, never rewritten; a failed write
+     * stops the recording instead of interrupting the simulation.
+     * @param processId The process making the reference.
+     * @param pageNumber The referenced page.
+     * @param write True for a write, false for a read.
+     */
+    public synchronized void record(int processId, int pageNumber, boolean write) {
+        if (failure != null) {
+            return;
+        }
+        try {
+            writer.write(processId, pageNumber, write);
+        } catch (IOException e) {
+            failure = e;
+        }
+    }
+
+    /**
+     * Append a process event (a fork or an exit, packed by TraceRecord).
+     * @param record The packed event.
+     */
+    public synchronized void recordEvent(long record) {
+        if (failure != null) {
+            return;
+        }
+        try {
+            writer.write(record);
+        } catch (IOException e) {
+            failure = e;
+        }
+    }
+
+    /**
+     * Push buffered records to the file, e.g. at the end of each interactive step,
+     * so an abrupt exit loses at most the current step.
+     */
+    public synchronized void flush() {
+        if (failure != null) {
+            return;
+        }
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            failure = e;
+        }
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public synchronized long getRecordCount() {
+        return writer.getRecordCount();
+    }
+
+    /**
+     * @return The error that stopped the recording, or null while it is healthy.
+     */
+    public synchronized IOException getFailure() {
+        return failure;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        writer.close();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package org.example.Controller;
+
+import org.example.Model.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class SessionReplayer {
+    private SessionReplayer() {
+    }
+
+    /**
+     * Build a headless simulation with the configuration stored in a session trace.
+     * @param configuration The trace header properties (see SessionRecorder).
+     * @param pageSize Page size in bytes, from the trace header.
+     * @return A controller with no event log and no animation delay.
+     */
+    public static MemoryController createController(Map<String, String> configuration, int pageSize) {
+        MemoryController memoryController = new MemoryController(
+                requireInt(configuration, SessionRecorder.VIRTUAL_PAGES),
+                requireInt(configuration, SessionRecorder.PHYSICAL_FRAMES),
+                pageSize,
+                PageReplacementAlgorithm.forName(require(configuration, SessionRecorder.ALGORITHM),
+                        configuration.get(SessionRecorder.ALGORITHM_PARAMETERS)),
+                requireInt(configuration, SessionRecorder.TLB_ENTRIES),
+                null);
+        memoryController.setSimulationSpeed(0);
+        int hugePageSize = configuration.containsKey(SessionRecorder.HUGE_PAGE_SIZE)
+                ? requireInt(configuration, SessionRecorder.HUGE_PAGE_SIZE) : 0;
+        if (hugePageSize != 0) {
+            memoryController.configureHugePages(hugePageSize, requireInt(configuration, SessionRecorder.HUGE_TLB_ENTRIES));
+        }
+        int numaNodes = configuration.containsKey(SessionRecorder.NUMA_NODES)
+                ? requireInt(configuration, SessionRecorder.NUMA_NODES) : 1;
+        if (numaNodes > 1) {
+            memoryController.configureNuma(numaNodes,
+                    configuration.containsKey(SessionRecorder.NUMA_REMOTE_DISTANCE)
+                            ? requireInt(configuration, SessionRecorder.NUMA_REMOTE_DISTANCE) : 2 * NumaTopology.LOCAL_DISTANCE,
+                    NumaTopology.Policy.valueOf(configuration.getOrDefault(SessionRecorder.NUMA_POLICY, "LOCAL").toUpperCase()),
+                    Boolean.parseBoolean(configuration.get(SessionRecorder.NUMA_ZONE_RECLAIM)));
+            if (Boolean.parseBoolean(configuration.get(SessionRecorder.NUMA_BALANCING))) {
+                memoryController.setNumaBalancer(new NumaBalancer(memoryController.getVirtualMemorySize()));
+            }
+        }
+        long compressedSwapBytes = configuration.containsKey(SessionRecorder.COMPRESSED_SWAP_BYTES)
+                ? Long.parseLong(configuration.get(SessionRecorder.COMPRESSED_SWAP_BYTES)) : 0;
+        if (compressedSwapBytes != 0) {
+            memoryController.configureCompressedSwap(compressedSwapBytes,
+                    configuration.containsKey(SessionRecorder.COMPRESSION_LEVEL)
+                            ? requireInt(configuration, SessionRecorder.COMPRESSION_LEVEL) : 1);
+        }
+        if (Boolean.parseBoolean(configuration.get(SessionRecorder.SAME_PAGE_MERGING))) {
+            memoryController.setSamePageMerger(new SamePageMerger(
+                    requireInt(configuration, SessionRecorder.MERGE_PAGES_PER_SCAN),
+                    requireInt(configuration, SessionRecorder.MERGE_SCAN_INTERVAL)));
+        }
+        String faultFrequencyScope = configuration.getOrDefault(SessionRecorder.FAULT_FREQUENCY_SCOPE, "OFF").toUpperCase();
+        if (!faultFrequencyScope.equals("OFF")) {
+            int frames = memoryController.getPhysicalMemorySize();
+            memoryController.setFaultFrequencyAllocator(new FaultFrequencyAllocator(frames,
+                    configuration.containsKey(SessionRecorder.FAULT_FREQUENCY_INITIAL_FRAMES)
+                            ? requireInt(configuration, SessionRecorder.FAULT_FREQUENCY_INITIAL_FRAMES) : Math.max(1, frames / 8),
+                    configuration.containsKey(SessionRecorder.FAULT_FREQUENCY_WINDOW)
+                            ? requireInt(configuration, SessionRecorder.FAULT_FREQUENCY_WINDOW) : 200,
+                    Double.parseDouble(configuration.getOrDefault(SessionRecorder.FAULT_FREQUENCY_LOWER, "0.02")),
+                    Double.parseDouble(configuration.getOrDefault(SessionRecorder.FAULT_FREQUENCY_UPPER, "0.10")),
+                    FaultFrequencyAllocator.Scope.valueOf(faultFrequencyScope)));
+        }
+        String pageWalkCache = configuration.getOrDefault(SessionRecorder.PAGE_WALK_CACHE, "off");
+        if (!pageWalkCache.equalsIgnoreCase("off")) {
+            memoryController.configurePageWalkCache(Arrays.stream(pageWalkCache.split(","))
+                    .mapToInt(entries -> Integer.parseInt(entries.trim())).toArray());
+        }
+        String cpuCaches = configuration.getOrDefault(SessionRecorder.CPU_CACHES, "off");
+        if (!cpuCaches.equalsIgnoreCase("off")) {
+            memoryController.configureCpuCaches(cpuCaches.equalsIgnoreCase("default") ? new CacheHierarchy()
+                    : CacheHierarchy.parse(cpuCaches));
+        }
+        if (Boolean.parseBoolean(configuration.get(SessionRecorder.READAHEAD))) {
+            memoryController.setReadaheadPrefetcher(new ReadaheadPrefetcher());
+        }
+        if ("false".equals(configuration.get(SessionRecorder.WRITE_BACK))) {
+            memoryController.setWriteBackFlusher(null);
+        }
+        memoryController.setPreferCleanVictims(Boolean.parseBoolean(configuration.get(SessionRecorder.PREFER_CLEAN_VICTIMS)));
+        return memoryController;
+    }
+
+    /**
+     * Replay a session trace from start to end.
+     * @param path The session trace.
+     * @param overrides Settings replacing the recorded ones (e.g. another algorithm or frame count).
+     * @return The controller after the replay, for inspecting its statistics.
+     */
+    public static MemoryController replay(Path path, Map<String, String> overrides) throws IOException {
+        return replay(path, overrides, null);
+    }
+
+    /**
+     * Replay a session trace from start to end, estimating its miss ratio curve in the same pass.
+     * @param path The session trace.
+     * @param overrides Settings replacing the recorded ones.
+     * @param missRatioEstimator Fed every reference of the trace, or null.
+     * @return The controller after the replay.
+     */
+    public static MemoryController replay(Path path, Map<String, String> overrides,
+                                          MissRatioCurveEstimator missRatioEstimator) throws IOException {
+        return replay(path, overrides, missRatioEstimator, null);
+    }
+
+    /**
+     * Replay a session trace from start to end under load control.
+     * @param path The session trace.
+     * @param overrides Settings replacing the recorded ones.
+     * @param missRatioEstimator Fed every reference of the trace, or null.
+     * @param loadController Suspends processes while memory thrashes, or null.
+     * @return The controller after the replay.
+     */
+    public static MemoryController replay(Path path, Map<String, String> overrides, MissRatioCurveEstimator missRatioEstimator,
+                                          LoadController loadController) throws IOException {
+        try (TraceReader reader = new TraceReader(path)) {
+            Map<String, String> configuration = new LinkedHashMap<>(reader.getProperties());
+            if (overrides.containsKey(SessionRecorder.ALGORITHM)) {
+                configuration.remove(SessionRecorder.ALGORITHM_PARAMETERS); // The recorded settings belong to the recorded algorithm
+            }
+            configuration.putAll(overrides);
+            MemoryController memoryController = createController(configuration, reader.getPageSize());
+            memoryController.setMissRatioEstimator(missRatioEstimator);
+            memoryController.setLoadController(loadController);
+            memoryController.runWorkload(reader);
+            return memoryController;
+        }
+    }
+
+    /**
+     * Replay a session trace on top of a snapshot, e.g. a memory that was already warmed up.
+     * The configuration recorded in the trace is ignored; the snapshot's is used.
+     * @param path The session trace.
+     * @param snapshot The snapshot to start from.
+     * @return The controller after the replay.
+     */
+    public static MemoryController replayFromSnapshot(Path path, Path snapshot) throws IOException {
+        return replayFromSnapshot(path, snapshot, null);
+    }
+
+    /**
+     * Replay a session trace on top of a snapshot, estimating its miss ratio curve in the same pass.
+     * @param path The session trace.
+     * @param snapshot The snapshot to start from.
+     * @param missRatioEstimator Fed every reference of the trace, or null.
+     * @return The controller after the replay.
+     */
+    public static MemoryController replayFromSnapshot(Path path, Path snapshot,
+                                                      MissRatioCurveEstimator missRatioEstimator) throws IOException {
+        return replayFromSnapshot(path, snapshot, missRatioEstimator, null);
+    }
+
+    /**
+     * Replay a session trace on top of a snapshot under load control.
+     * @param path The session trace.
+     * @param snapshot The snapshot to start from.
+     * @param missRatioEstimator Fed every reference of the trace, or null.
+     * @param loadController Suspends processes while memory thrashes, or null.
+     * @return The controller after the replay.
+     */
+    public static MemoryController replayFromSnapshot(Path path, Path snapshot, MissRatioCurveEstimator missRatioEstimator,
+                                                      LoadController loadController) throws IOException {
+        MemoryController memoryController = MemoryController.restoreSnapshot(snapshot, null);
+        memoryController.setSimulationSpeed(0);
+        memoryController.setMissRatioEstimator(missRatioEstimator);
+        memoryController.setLoadController(loadController);
+        try (TraceReader reader = new TraceReader(path)) {
+            memoryController.runWorkload(reader);
+        }
+        return memoryController;
+    }
+
+    // One replay for main, from the start or from a snapshot, with an optional load controller
+    private static MemoryController replay(String trace, String restore, Map<String, String> overrides,
+                                           MissRatioCurveEstimator missRatioEstimator, LoadController.Policy loadControlPolicy,
+                                           boolean loadControlSwapOut) throws IOException {
+        LoadController loadController = null;
+        if (loadControlPolicy != null) {
+            int frames;
+            if (restore != null) {
+                frames = MemoryController.restoreSnapshot(Path.of(restore), null).getPhysicalMemorySize();
+            } else {
+                try (TraceReader reader = new TraceReader(Path.of(trace))) {
+                    Map<String, String> configuration = new LinkedHashMap<>(reader.getProperties());
+                    configuration.putAll(overrides);
+                    frames = requireInt(configuration, SessionRecorder.PHYSICAL_FRAMES);
+                }
+            }
+            loadController = new LoadController(frames, loadControlPolicy, loadControlSwapOut);
+        }
+        return restore != null
+                ? replayFromSnapshot(Path.of(trace), Path.of(restore), missRatioEstimator, loadController)
+                : replay(Path.of(trace), overrides, missRatioEstimator, loadController);
+    }
+
+    private static String require(Map<String, String> configuration, String key) {
+        String value = configuration.get(key);
+        if (value == null) {
+            throw new IllegalArgumentException("Trace does not record the setting \"" + key + "\".");
+        }
+        return value;
+    }
+
+    private static int requireInt(Map<String, String> configuration, String key) {
+        try {
+            return Integer.parseInt(require(configuration, key));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Setting \"" + key + "\" must be an integer.");
+        }
+    }
+
+    /**
+     * Replay a session trace without the GUI and print its statistics.
+     * Usage: SessionReplayer trace-file [key=value ...], e.g. algorithm=LRU physicalFrames=64,
+     * or hugePageSize=2097152 hugeTlbEntries=32 to measure huge pages on a recorded trace, or
+     * numaNodes=2 numaPolicy=INTERLEAVE numaZoneReclaim=true numaBalancing=true for NUMA placement,
+     * or compressedSwapBytes=1048576 compressionLevel=1 to trade CPU for disk I/O with a compressed swap tier,
+     * or faultFrequencyScope=LOCAL faultFrequencyInitialFrames=16 for per-process allocations,
+     * or pageWalkCache=2,4,32 to cache upper-level page-table entries (one count per level, root first),
+     * or cpuCaches=32768/8/64/LRU/1,1048576/16/64/LRU/4 for CPU caches behind translation (size, ways,
+     * line size, replacement and hit latency per level, L1 first; cpuCaches=default for a desktop L1/L2/LLC).
+     * restore=snapshot starts from a saved snapshot instead of an empty memory, and
+     * checkpoint=snapshot saves the state reached at the end of the replay.
+     * mrcRate=0.01 or mrcSize=8192 estimates the LRU miss ratio curve in the same pass, sampling
+     * a fixed share of the pages or a fixed number of them, for sizing memory on traces of any length.
+     * loadControl=LARGEST_WORKING_SET (or LAST_ACTIVATED) suspends processes while memory thrashes,
+     * loadControlSwapOut=true also evicts their working sets; the trace is replayed a second time
+     * with loadControl=MONITOR to report thrashing and throughput without load control.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: SessionReplayer <trace-file> [setting=value ...]");
+            System.exit(2);
+        }
+        Map<String, String> overrides = new LinkedHashMap<>();
+        for (int i = 1; i < args.length; i++) {
+            int separator = args[i].indexOf('=');
+            if (separator <= 0) {
+                System.err.println("Invalid setting \"" + args[i] + "\", expected key=value.");
+                System.exit(2);
+            }
+            overrides.put(args[i].substring(0, separator), args[i].substring(separator + 1));
+        }
+
+        // The model logs every step to standard output; keep it out of the report
+        String restore = overrides.remove("restore");
+        String checkpoint = overrides.remove("checkpoint");
+        String mrcRate = overrides.remove("mrcRate");
+        String mrcSize = overrides.remove("mrcSize");
+        String loadControl = overrides.remove("loadControl");
+        boolean loadControlSwapOut = Boolean.parseBoolean(overrides.remove("loadControlSwapOut"));
+        MissRatioCurveEstimator missRatioEstimator = null;
+        if (mrcRate != null || mrcSize != null) {
+            int virtualPages;
+            try (TraceReader reader = new TraceReader(Path.of(args[0]))) {
+                virtualPages = requireInt(reader.getProperties(), SessionRecorder.VIRTUAL_PAGES);
+            }
+            missRatioEstimator = mrcRate != null
+                    ? MissRatioCurveEstimator.fixedRate(Double.parseDouble(mrcRate), virtualPages)
+                    : MissRatioCurveEstimator.fixedSize(Integer.parseInt(mrcSize), virtualPages);
+        }
+        LoadController.Policy loadControlPolicy = loadControl == null ? null
+                : LoadController.Policy.valueOf(loadControl.toUpperCase());
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        long start = System.nanoTime();
+        MemoryController memoryController;
+        MemoryController unconstrained = null; // The same replay without load control, for comparison
+        double seconds;
+        try {
+            memoryController = replay(args[0], restore, overrides, missRatioEstimator, loadControlPolicy, loadControlSwapOut);
+            seconds = (System.nanoTime() - start) / 1e9;
+            if (checkpoint != null) {
+                memoryController.saveSnapshot(Path.of(checkpoint));
+            }
+            if (loadControlPolicy != null && loadControlPolicy != LoadController.Policy.MONITOR) {
+                unconstrained = replay(args[0], restore, overrides, null, LoadController.Policy.MONITOR, false);
+            }
+        } finally {
+            System.setOut(console);
+        }
+
+        long references = memoryController.getMetricsRegistry().getCount(MetricsRegistry.REFERENCES);
+        System.out.println("Replayed " + references + " references in " + String.format("%.3f", seconds) + " s ("
+                + String.format("%.0f", references / Math.max(seconds, 1e-9)) + " references/s)");
+        System.out.println("Configuration: " + memoryController.getSessionConfiguration());
+        System.out.println("Page Fault Rate: " + memoryController.getPageFaultRate());
+        System.out.println("Page Replacements: " + memoryController.getPageReplacementCount());
+        System.out.println("Effective Access Time: " + memoryController.getEffectiveAccessTime());
+        System.out.println(memoryController.getHugePageStatistics());
+        System.out.println(memoryController.getPageWalkCacheStatistics());
+        System.out.println(memoryController.getCpuCacheStatistics());
+        System.out.println(memoryController.getNumaStatistics());
+        System.out.println(memoryController.getCompressedSwapStatistics());
+        System.out.println(memoryController.getForkStatistics());
+        System.out.println(memoryController.getSamePageMergingStatistics());
+        System.out.println(memoryController.getFaultFrequencyStatistics());
+        System.out.println(memoryController.getLoadControlStatistics());
+        if (unconstrained != null) {
+            double speedup = memoryController.getLoadController().getThroughput()
+                    / Math.max(1e-9, unconstrained.getLoadController().getThroughput());
+            System.out.println("Without " + unconstrained.getLoadControlStatistics() + " (throughput x"
+                    + String.format("%.2f", speedup) + " with load control)");
+        }
+        if (memoryController.getPageReplacementAlgorithm() instanceof AdaptiveReplacement adaptive) {
+            System.out.println(adaptive.getStatistics());
+        }
+        if (memoryController.getPageReplacementAlgorithm() instanceof SampledLRUReplacement sampled) {
+            System.out.println(sampled.getStatistics());
+        }
+        if (missRatioEstimator != null) {
+            int frames = memoryController.getPhysicalMemorySize();
+            System.out.println(missRatioEstimator.getSummary(
+                    Math.max(1, frames / 4), Math.max(1, frames / 2), frames, 2 * frames, 4 * frames));
+        }
+        memoryController.getMetricsRegistry().printStatistics();
+    }
+}
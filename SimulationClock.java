@@ -0,0 +1,155 @@
+package org.example.Model;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+public class SimulationClock {
+    /**
+     * The parts of a memory reference that consume simulated time.
+     */
+    public enum Component {
+        TLB,
+        PAGE_WALK,
+        MEMORY,
+        DISK_READ,
+        DISK_WRITE,
+        COMPRESSION // Compressing evicted pages into, and decompressing faulted pages out of, the compressed swap pool
+    }
+
+    private long currentTime; // Simulated time in nanoseconds since the start of the run
+    private final long[] componentTime; // Accumulated nanoseconds per component
+    private long referenceCount; // Number of memory references charged to the clock
+
+    // Constructor
+    public SimulationClock() {
+        this.componentTime = new long[Component.values().length];
+        reset();
+    }
+
+    /**
+     * Advances simulated time and charges the elapsed nanoseconds to a component.
+     * @param component The part of the reference that consumed the time.
+     * @param nanos The number of nanoseconds to advance.
+     */
+    public synchronized void advance(Component component, long nanos) {
+        if (nanos < 0) {
+            throw new IllegalArgumentException("Simulated time cannot move backwards.");
+        }
+        currentTime += nanos;
+        componentTime[component.ordinal()] += nanos;
+    }
+
+    /**
+     * Advances simulated time up to a point in the future, charging only the part
+     * that has not already elapsed (e.g., the unhidden part of an overlapped disk read).
+     * @param component The part of the reference that consumed the time.
+     * @param time The simulated time to advance to.
+     * @return The number of nanoseconds actually charged.
+     */
+    public synchronized long advanceTo(Component component, long time) {
+        long elapsed = Math.max(0, time - currentTime);
+        advance(component, elapsed);
+        return elapsed;
+    }
+
+    /**
+     * Counts one completed memory reference for the effective access time.
+     */
+    public synchronized void recordReference() {
+        referenceCount++;
+    }
+
+    /**
+     * Resets the clock to time zero and clears the breakdown.
+     */
+    public synchronized void reset() {
+        currentTime = 0;
+        referenceCount = 0;
+        for (int i = 0; i < componentTime.length; i++) {
+            componentTime[i] = 0;
+        }
+    }
+
+    /**
+     * Get the current simulated time.
+     * @return The simulated time in nanoseconds.
+     */
+    public synchronized long getCurrentTime() {
+        return currentTime;
+    }
+
+    /**
+     * Get the number of references charged to the clock.
+     * @return The reference count.
+     */
+    public synchronized long getReferenceCount() {
+        return referenceCount;
+    }
+
+    /**
+     * Get the time accumulated by a single component.
+     * @param component The component to query.
+     * @return The accumulated time in nanoseconds.
+     */
+    public synchronized long getComponentTime(Component component) {
+        return componentTime[component.ordinal()];
+    }
+
+    /**
+     * Get the effective memory access time (simulated nanoseconds per reference).
+     * @return The effective access time, or 0 if no references were made.
+     */
+    public synchronized double getEffectiveAccessTime() {
+        return referenceCount == 0 ? 0 : currentTime / (double) referenceCount;
+    }
+
+    /**
+     * Get the contribution of each component to the effective access time.
+     * @return Map of component to nanoseconds per reference.
+     */
+    public synchronized Map<Component, Double> getBreakdown() {
+        Map<Component, Double> breakdown = new EnumMap<>(Component.class);
+        for (Component component : Component.values()) {
+            double perReference = referenceCount == 0 ? 0 : componentTime[component.ordinal()] / (double) referenceCount;
+            breakdown.put(component, perReference);
+        }
+        return breakdown;
+    }
+
+    /**
+     * Save the simulated time, the per-component breakdown and the reference count.
+     * @param out The snapshot being written.
+     */
+    public synchronized void writeSnapshot(SnapshotOutput out) throws IOException {
+        out.putLong(currentTime);
+        out.putLong(referenceCount);
+        out.putLongArray(componentTime);
+    }
+
+    /**
+     * Restore the state saved by writeSnapshot.
+     * @param in The snapshot being read.
+     */
+    public synchronized void readSnapshot(SnapshotInput in) throws IOException {
+        currentTime = in.getLong();
+        referenceCount = in.getLong();
+        long[] saved = in.getLongArray();
+        if (saved.length != componentTime.length) {
+            throw new IOException("Snapshot clock has " + saved.length + " components, expected " + componentTime.length + ".");
+        }
+        System.arraycopy(saved, 0, componentTime, 0, saved.length);
+    }
+
+    /**
+     * Print the effective access time and its breakdown.
+     */
+    public synchronized void printStatistics() {
+        System.out.println("Simulated Time Statistics:");
+        System.out.println("References: " + referenceCount);
+        System.out.println("Total Time: " + currentTime + " ns");
+        System.out.println("Effective Access Time: " + String.format("%.2f", getEffectiveAccessTime()) + " ns");
+        getBreakdown().forEach((component, nanos) ->
+                System.out.println("  " + component + ": " + String.format("%.2f", nanos) + " ns"));
+    }
+}
@@ -1,4 +1,4 @@
-package org.example.Controller;
-
-public class SimulatorEventHandler {
-}
+package org.example.Controller;
+
+public class SimulatorEventHandler {
+}
@@ -1,233 +1,349 @@
-package org.example.View;
-
-import org.example.Controller.MemoryController;
-import org.example.Model.*;
-import org.example.Model.Frame;
-
-import javax.swing.*;
-import java.awt.*;
-import java.util.List;
-import java.util.Map;
-
-public class SimulatorGUI extends JFrame {
-    private SettingsPanel settingsPanel;
-    private MemoryPanel memoryPanel;
-    private StatusPanel statusPanel;
-    private EventLogPanel eventLogPanel;
-    private LoadInstructionPanel loadInstructionPanel;
-
-    private MemoryController memoryController;
-
-    public SimulatorGUI() {
-        setTitle("Virtual Memory Simulator");
-        setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-        setLayout(new BorderLayout());
-        setExtendedState(JFrame.MAXIMIZED_BOTH); // Fullscreen layout
-
-        // Title Panel
-        add(createTitlePanel(), BorderLayout.NORTH);
-
-        // Main Panels Layout
-        JPanel mainPanel = new JPanel(new BorderLayout(5, 5));
-        add(mainPanel, BorderLayout.CENTER);
-
-        // Left Panel (Settings and Load Instruction)
-        JPanel leftPanel = new JPanel(new GridLayout(2, 1, 5, 5));
-        settingsPanel = new SettingsPanel();
-        loadInstructionPanel = new LoadInstructionPanel();
-        leftPanel.add(settingsPanel);
-        leftPanel.add(loadInstructionPanel);
-        mainPanel.add(leftPanel, BorderLayout.WEST);
-
-        // Center Panel (Memory Visualization) with extended width
-        JPanel centerPanel = new JPanel(new BorderLayout());
-        memoryPanel = new MemoryPanel();
-        centerPanel.add(memoryPanel, BorderLayout.CENTER);
-        centerPanel.setPreferredSize(new Dimension(
-                (int) (Toolkit.getDefaultToolkit().getScreenSize().getWidth() * 0.6),
-                (int) Toolkit.getDefaultToolkit().getScreenSize().getHeight())); // Extend memory panel width
-        mainPanel.add(centerPanel, BorderLayout.CENTER);
-
-        // Right Panel (Statistics)
-        statusPanel = new StatusPanel();
-        mainPanel.add(statusPanel, BorderLayout.EAST);
-
-        // Bottom Panel (Event Log)
-        eventLogPanel = new EventLogPanel();
-        add(eventLogPanel, BorderLayout.SOUTH);
-
-        pack();
-        setVisible(true);
-
-        // Attach functionality to buttons
-        attachListeners();
-    }
-
-    private JPanel createTitlePanel() {
-        JPanel titlePanel = new JPanel();
-        titlePanel.setBorder(BorderFactory.createEmptyBorder(20, 0, 20, 0));
-        JLabel title = new JLabel("VIRTUAL MEMORY SIMULATOR");
-        title.setFont(new Font("Arial", Font.BOLD, 20));
-        titlePanel.add(title);
-        return titlePanel;
-    }
-
-    private void attachListeners() {
-        // Attach functionality for simulation settings
-        settingsPanel.setSubmitButtonFunction(this::handleSimulationSetup);
-        settingsPanel.setResetButtonFunction(this::resetSimulation);
-
-        // Attach functionality for load instructions
-        loadInstructionPanel.setGenerateRandomFunction(() -> loadInstructionPanel.generateRandomLoad(memoryController));
-        loadInstructionPanel.setSubmitFunction(this::handleInstructionSubmission);
-    }
-
-    private void handleSimulationSetup() {
-        try {
-            // Get inputs from Settings Panel
-            int virtualMemorySize = settingsPanel.getVirtualMemorySize();
-            int physicalMemorySize = settingsPanel.getPhysicalPageSize();
-            int tlbEntries = settingsPanel.getTlbEntries();
-            String selectedAlgorithm = settingsPanel.getSelectedAlgorithm();
-
-            // Select page replacement algorithm
-            PageReplacementAlgorithm algorithm = switch (selectedAlgorithm.toUpperCase()) {
-                case "FIFO" -> new FIFOReplacement();
-                case "LRU" -> new LRUReplacement();
-                default -> throw new IllegalArgumentException("Invalid algorithm selected.");
-            };
-
-            // Calculate offsets and table sizes
-            int offsetBits = 2; // Fixed value since we're dividing by 2^2
-            int physicalPageRows = physicalMemorySize / (int) Math.pow(2, offsetBits); // Divide by 2^2
-            int pageTableRows = virtualMemorySize / 4; // Virtual Memory Size divided by Page Size (4)
-
-            // Log the calculations in the Event Log Panel
-            eventLogPanel.appendLog("Physical Page Rows = " + physicalMemorySize + " / 2^" + offsetBits + " = " + physicalPageRows + " rows\n");
-            eventLogPanel.appendLog("Page Table Rows = " + virtualMemorySize + " / 4 = " + pageTableRows + " rows\n");
-            eventLogPanel.appendLog("TLB Rows = " + tlbEntries + " rows\n");
-
-            // Initialize Memory Controller
-            memoryController = new MemoryController(
-                    virtualMemorySize,         // Virtual Memory Size
-                    physicalMemorySize,        // Physical Memory Size
-                    algorithm,                 // Page Replacement Algorithm (FIFO, LRU, etc.)
-                    tlbEntries,                // Number of TLB Entries
-                    eventLogPanel              // Pass the EventLogPanel instance for logging
-            );
-
-            // Initialize GUI tables
-            initializeMemoryPanel(physicalPageRows, pageTableRows, tlbEntries);
-
-            // Update the Statistics Panel
-            statusPanel.updateStatistics(memoryController);
-
-            // Log initialization completion
-            eventLogPanel.appendLog("Simulation initialized with " + selectedAlgorithm + " algorithm.\n");
-
-        } catch (NumberFormatException ex) {
-            JOptionPane.showMessageDialog(this, "Please enter valid numbers for simulation settings.", "Input Error", JOptionPane.ERROR_MESSAGE);
-        } catch (IllegalArgumentException ex) {
-            JOptionPane.showMessageDialog(this, ex.getMessage(), "Algorithm Selection Error", JOptionPane.ERROR_MESSAGE);
-        }
-    }
-
-    private void initializeMemoryPanel(int physicalPageRows, int pageTableRows, int tlbEntries) {
-        // Initialize TLB
-        Object[][] tlbData = new Object[tlbEntries][3];
-        for (int i = 0; i < tlbEntries; i++) {
-            tlbData[i][0] = i; // Entry #
-            tlbData[i][1] = null; // Virtual Page#
-            tlbData[i][2] = null; // Physical Page#
-        }
-        memoryPanel.updateTLBEntries(tlbData);
-
-        // Initialize Page Table
-        Object[][] pageTableData = new Object[pageTableRows][3];
-        for (int i = 0; i < pageTableRows; i++) {
-            pageTableData[i][0] = i; // Index
-            pageTableData[i][1] = "0"; // Valid bit
-            pageTableData[i][2] = "-"; // No physical page
-        }
-        memoryPanel.updatePageTable(pageTableData);
-
-        // Initialize Physical Memory
-        Object[][] physicalMemoryData = new Object[physicalPageRows][2];
-        for (int i = 0; i < physicalPageRows; i++) {
-            physicalMemoryData[i][0] = i; // Physical Page#
-            physicalMemoryData[i][1] = "Empty"; // No data
-        }
-        memoryPanel.updatePhysicalMemory(physicalMemoryData);
-    }
-
-    private void resetSimulation() {
-        // Clear memory controller
-        memoryController = null;
-
-        // Clear memory visualization
-        memoryPanel.updateTLBEntries(new Object[0][3]); // Clear TLB
-        memoryPanel.updatePageTable(new Object[0][3]); // Clear Page Table
-        memoryPanel.updatePhysicalMemory(new Object[0][2]); // Clear Physical Memory
-
-        // Reset statistics panel
-        statusPanel.updateStatistics(null); // Pass null to reset statistics safely
-
-        // Clear event log
-        eventLogPanel.clearLog();
-        eventLogPanel.appendLog("Simulation reset.\n");
-    }
-
-    private void refreshTables() {
-        if (memoryController == null) return;
-
-        // Refresh TLB Table
-        Map<Integer, Integer> tlbEntries = memoryController.getTLBEntries();
-        Object[][] tlbData = new Object[tlbEntries.size()][3];
-        int index = 0;
-        for (Map.Entry<Integer, Integer> entry : tlbEntries.entrySet()) {
-            tlbData[index][0] = index; // Entry #
-            tlbData[index][1] = entry.getKey(); // Virtual Page#
-            tlbData[index][2] = entry.getValue(); // Physical Page#
-            index++;
-        }
-        memoryPanel.updateTLBEntries(tlbData);
-
-        // Refresh Page Table
-        Map<Integer, Integer> pageTableEntries = memoryController.getPageTableMap();
-        Object[][] pageTableData = new Object[pageTableEntries.size()][3];
-        index = 0;
-        for (Map.Entry<Integer, Integer> entry : pageTableEntries.entrySet()) {
-            pageTableData[index][0] = entry.getKey(); // Index
-            pageTableData[index][1] = entry.getValue() != -1 ? "1" : "0"; // Valid Bit
-            pageTableData[index][2] = entry.getValue() != -1 ? entry.getValue().toString() : "-"; // Physical Page#
-            index++;
-        }
-        memoryPanel.updatePageTable(pageTableData);
-
-        // Refresh Physical Memory
-        List<Frame> frames = memoryController.getPhysicalMemoryFrames();
-        Object[][] physicalMemoryData = new Object[frames.size()][2];
-        for (int i = 0; i < frames.size(); i++) {
-            Frame frame = frames.get(i);
-            physicalMemoryData[i][0] = frame.getFrameNumber();
-            physicalMemoryData[i][1] = frame.isEmpty() ? "Empty" : "Page " + frame.getLoadedPage().getPageNumber();
-        }
-        memoryPanel.updatePhysicalMemory(physicalMemoryData);
-    }
-
-    private void handleInstructionSubmission() {
-        if (memoryController == null) {
-            JOptionPane.showMessageDialog(this, "Please initialize the simulation first.", "Error", JOptionPane.ERROR_MESSAGE);
-            return;
-        }
-
-        // Process instructions
-        loadInstructionPanel.handleLoadSubmit(memoryController, eventLogPanel);
-
-        // Refresh tables
-        refreshTables();
-
-        // Update statistics
-        statusPanel.updateStatistics(memoryController);
-    }
-}
+package org.example.View;
+
+import org.example.Controller.MemoryController;
+import org.example.Controller.TimeTravelDebugger;
+import org.example.Model.*;
+import org.example.Model.Frame;
+
+import javax.swing.*;
+import java.awt.*;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+public class SimulatorGUI extends JFrame {
+    private static final int CHECKPOINT_INTERVAL = 100; // References between time-travel checkpoints
+    private static final int CHECKPOINTS_KEPT = 50; // Checkpoints kept, bounding how far back one can step
+
+    private SettingsPanel settingsPanel;
+    private MemoryPanel memoryPanel;
+    private StatusPanel statusPanel;
+    private EventLogPanel eventLogPanel;
+    private LoadInstructionPanel loadInstructionPanel;
+    private TimeTravelPanel timeTravelPanel;
+
+    private MemoryController memoryController;
+
+    public SimulatorGUI() {
+        setTitle("Virtual Memory Simulator");
+        setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        setLayout(new BorderLayout());
+        setExtendedState(JFrame.MAXIMIZED_BOTH); // Fullscreen layout
+
+        // Title Panel
+        add(createTitlePanel(), BorderLayout.NORTH);
+
+        // Main Panels Layout
+        JPanel mainPanel = new JPanel(new BorderLayout(5, 5));
+        add(mainPanel, BorderLayout.CENTER);
+
+        // Left Panel (Settings, Load Instruction and Time Travel)
+        JPanel leftPanel = new JPanel(new GridLayout(3, 1, 5, 5));
+        settingsPanel = new SettingsPanel();
+        loadInstructionPanel = new LoadInstructionPanel();
+        timeTravelPanel = new TimeTravelPanel();
+        leftPanel.add(settingsPanel);
+        leftPanel.add(loadInstructionPanel);
+        leftPanel.add(timeTravelPanel);
+        mainPanel.add(leftPanel, BorderLayout.WEST);
+
+        // Center Panel (Memory Visualization) with extended width
+        JPanel centerPanel = new JPanel(new BorderLayout());
+        memoryPanel = new MemoryPanel();
+        centerPanel.add(memoryPanel, BorderLayout.CENTER);
+        centerPanel.setPreferredSize(new Dimension(
+                (int) (Toolkit.getDefaultToolkit().getScreenSize().getWidth() * 0.6),
+                (int) Toolkit.getDefaultToolkit().getScreenSize().getHeight())); // Extend memory panel width
+        mainPanel.add(centerPanel, BorderLayout.CENTER);
+
+        // Right Panel (Statistics)
+        statusPanel = new StatusPanel();
+        mainPanel.add(statusPanel, BorderLayout.EAST);
+
+        // Bottom Panel (Event Log)
+        eventLogPanel = new EventLogPanel();
+        add(eventLogPanel, BorderLayout.SOUTH);
+
+        pack();
+        setVisible(true);
+
+        // Attach functionality to buttons
+        attachListeners();
+    }
+
+    private JPanel createTitlePanel() {
+        JPanel titlePanel = new JPanel();
+        titlePanel.setBorder(BorderFactory.createEmptyBorder(20, 0, 20, 0));
+        JLabel title = new JLabel("VIRTUAL MEMORY SIMULATOR");
+        title.setFont(new Font("Arial", Font.BOLD, 20));
+        titlePanel.add(title);
+        return titlePanel;
+    }
+
+    private void attachListeners() {
+        // Attach functionality for simulation settings
+        settingsPanel.setSubmitButtonFunction(this::handleSimulationSetup);
+        settingsPanel.setResetButtonFunction(this::resetSimulation);
+
+        // Attach functionality for load instructions
+        loadInstructionPanel.setGenerateRandomFunction(() -> loadInstructionPanel.generateRandomLoad(memoryController));
+        loadInstructionPanel.setSubmitFunction(this::handleInstructionSubmission);
+
+        // Attach functionality for time travel
+        timeTravelPanel.setStepBackFunction(() -> travel(() -> memoryController.stepBack()));
+        timeTravelPanel.setStepForwardFunction(() -> travel(() -> memoryController.stepForward()));
+        timeTravelPanel.setJumpFunction(() -> travel(() -> memoryController.jumpToReference(timeTravelPanel.getTargetReference())));
+    }
+
+    private void handleSimulationSetup() {
+        try {
+            // Get inputs from Settings Panel
+            int virtualMemorySize = settingsPanel.getVirtualMemorySize();
+            int physicalMemorySize = settingsPanel.getPhysicalMemorySize();
+            int pageSize = settingsPanel.getPageSize();
+            int tlbEntries = settingsPanel.getTlbEntries();
+            String selectedAlgorithm = settingsPanel.getSelectedAlgorithm();
+
+            // Select page replacement algorithm
+            PageReplacementAlgorithm algorithm = PageReplacementAlgorithm.forName(selectedAlgorithm);
+
+            // Calculate offsets and table sizes
+            int offsetBits = Integer.numberOfTrailingZeros(pageSize); // Page size is a power of 2
+            int physicalPageRows = physicalMemorySize >> offsetBits; // Divide by 2^offsetBits
+            int pageTableRows = virtualMemorySize >> offsetBits; // Virtual Memory Size divided by Page Size
+            if (physicalPageRows == 0 || pageTableRows == 0) {
+                throw new IllegalArgumentException("Memory sizes must be at least one page (" + pageSize + " bytes).");
+            }
+
+            // Log the calculations in the Event Log Panel
+            eventLogPanel.appendLog("Physical Page Rows = " + physicalMemorySize + " / 2^" + offsetBits + " = " + physicalPageRows + " rows\n");
+            eventLogPanel.appendLog("Page Table Rows = " + virtualMemorySize + " / 2^" + offsetBits + " = " + pageTableRows + " rows\n");
+            eventLogPanel.appendLog("TLB Rows = " + tlbEntries + " rows\n");
+
+            // Close the recording and checkpoints of the previous simulation, if any
+            stopRecording();
+            disableTimeTravel();
+
+            // Initialize Memory Controller
+            memoryController = new MemoryController(
+                    pageTableRows,             // Number of virtual pages
+                    physicalPageRows,          // Number of physical frames
+                    pageSize,                  // Page size used to translate addresses
+                    algorithm,                 // Page Replacement Algorithm (FIFO, LRU, etc.)
+                    tlbEntries,                // Number of TLB Entries
+                    eventLogPanel              // Pass the EventLogPanel instance for logging
+            );
+
+            // Initialize GUI tables
+            initializeMemoryPanel(physicalPageRows, pageTableRows, tlbEntries);
+
+            // Update the Statistics Panel
+            statusPanel.updateStatistics(memoryController);
+
+            // Log initialization completion
+            eventLogPanel.appendLog("Simulation initialized with " + selectedAlgorithm + " algorithm.\n");
+
+            // Record the session so it can be replayed headlessly
+            if (settingsPanel.isRecordSessionSelected()) {
+                Path sessionFile = Path.of("sessions", "session-" + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date()) + ".vmtrace");
+                Files.createDirectories(sessionFile.getParent());
+                memoryController.startRecording(sessionFile);
+                eventLogPanel.appendLog("Recording session to " + sessionFile.toAbsolutePath() + "\n");
+                eventLogPanel.appendLog("Time travel is off while the session is recorded.\n");
+            } else {
+                // Journal references and checkpoint periodically so the simulation can be stepped back
+                memoryController.enableTimeTravel(CHECKPOINT_INTERVAL, CHECKPOINTS_KEPT);
+                updateTimeTravelPosition();
+            }
+
+        } catch (NumberFormatException ex) {
+            JOptionPane.showMessageDialog(this, "Please enter valid numbers for simulation settings.", "Input Error", JOptionPane.ERROR_MESSAGE);
+        } catch (IllegalArgumentException ex) {
+            JOptionPane.showMessageDialog(this, ex.getMessage(), "Algorithm Selection Error", JOptionPane.ERROR_MESSAGE);
+        } catch (IOException ex) {
+            JOptionPane.showMessageDialog(this, "Could not start session recording or time travel: " + ex.getMessage(), "Setup Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    private void disableTimeTravel() {
+        if (memoryController != null) {
+            memoryController.disableTimeTravel();
+        }
+        timeTravelPanel.clearPosition();
+    }
+
+    /**
+     * A move through the simulation's history that may fail to read a checkpoint.
+     */
+    private interface TimeTravelMove {
+        void run() throws IOException;
+    }
+
+    private void travel(TimeTravelMove move) {
+        if (memoryController == null) {
+            JOptionPane.showMessageDialog(this, "Please initialize the simulation first.", "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        if (memoryController.getTimeTravelDebugger() == null) {
+            JOptionPane.showMessageDialog(this, "Time travel is off while the session is recorded.", "Time Travel Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        try {
+            move.run();
+        } catch (NumberFormatException ex) {
+            JOptionPane.showMessageDialog(this, "Please enter a valid reference number.", "Input Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        } catch (IllegalArgumentException | IllegalStateException ex) {
+            JOptionPane.showMessageDialog(this, ex.getMessage(), "Time Travel Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        } catch (IOException ex) {
+            JOptionPane.showMessageDialog(this, "Could not read checkpoint: " + ex.getMessage(), "Time Travel Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+
+        // Show what the reference that led to this state did
+        long current = memoryController.getReferenceNumber();
+        ExecutionJournal journal = memoryController.getExecutionJournal();
+        if (current > journal.getFirstReference()) {
+            eventLogPanel.appendLog("Now after " + journal.describeReference(current - 1) + "\n");
+            for (String event : journal.describeEvents(current - 1)) {
+                eventLogPanel.appendLog("  " + event + "\n");
+            }
+        }
+        refreshTables();
+        statusPanel.updateStatistics(memoryController);
+        updateTimeTravelPosition();
+    }
+
+    private void updateTimeTravelPosition() {
+        TimeTravelDebugger debugger = memoryController.getTimeTravelDebugger();
+        if (debugger != null) {
+            timeTravelPanel.updatePosition(memoryController.getReferenceNumber(),
+                    debugger.getOldestReference(), debugger.getNewestReference());
+        }
+    }
+
+    private void stopRecording() {
+        if (memoryController == null || memoryController.getSessionRecorder() == null) {
+            return;
+        }
+        try {
+            memoryController.stopRecording();
+        } catch (IOException ex) {
+            JOptionPane.showMessageDialog(this, "Session recording was incomplete: " + ex.getMessage(), "Recording Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    private void initializeMemoryPanel(int physicalPageRows, int pageTableRows, int tlbEntries) {
+        // Initialize TLB
+        Object[][] tlbData = new Object[tlbEntries][3];
+        for (int i = 0; i < tlbEntries; i++) {
+            tlbData[i][0] = i; // Entry #
+            tlbData[i][1] = null; // Virtual Page#
+            tlbData[i][2] = null; // Physical Page#
+        }
+        memoryPanel.updateTLBEntries(tlbData);
+
+        // Initialize Page Table
+        Object[][] pageTableData = new Object[pageTableRows][3];
+        for (int i = 0; i < pageTableRows; i++) {
+            pageTableData[i][0] = i; // Index
+            pageTableData[i][1] = "0"; // Valid bit
+            pageTableData[i][2] = "-"; // No physical page
+        }
+        memoryPanel.updatePageTable(pageTableData);
+
+        // Initialize Physical Memory
+        Object[][] physicalMemoryData = new Object[physicalPageRows][2];
+        for (int i = 0; i < physicalPageRows; i++) {
+            physicalMemoryData[i][0] = i; // Physical Page#
+            physicalMemoryData[i][1] = "Empty"; // No data
+        }
+        memoryPanel.updatePhysicalMemory(physicalMemoryData);
+    }
+
+    private void resetSimulation() {
+        // Close the session recording and checkpoints, and clear memory controller
+        stopRecording();
+        disableTimeTravel();
+        memoryController = null;
+
+        // Clear memory visualization
+        memoryPanel.updateTLBEntries(new Object[0][3]); // Clear TLB
+        memoryPanel.updatePageTable(new Object[0][3]); // Clear Page Table
+        memoryPanel.updatePhysicalMemory(new Object[0][2]); // Clear Physical Memory
+
+        // Reset statistics panel
+        statusPanel.updateStatistics(null); // Pass null to reset statistics safely
+
+        // Clear event log
+        eventLogPanel.clearLog();
+        eventLogPanel.appendLog("Simulation reset.\n");
+    }
+
+    private void refreshTables() {
+        if (memoryController == null) return;
+
+        // Refresh TLB Table
+        Map<Integer, Integer> tlbEntries = memoryController.getTLBEntries();
+        Object[][] tlbData = new Object[tlbEntries.size()][3];
+        int index = 0;
+        for (Map.Entry<Integer, Integer> entry : tlbEntries.entrySet()) {
+            tlbData[index][0] = index; // Entry #
+            tlbData[index][1] = entry.getKey(); // Virtual Page#
+            tlbData[index][2] = entry.getValue(); // Physical Page#
+            index++;
+        }
+        memoryPanel.updateTLBEntries(tlbData);
+
+        // Refresh Page Table
+        Map<Integer, Integer> pageTableEntries = memoryController.getPageTableMap();
+        Object[][] pageTableData = new Object[pageTableEntries.size()][3];
+        index = 0;
+        for (Map.Entry<Integer, Integer> entry : pageTableEntries.entrySet()) {
+            pageTableData[index][0] = entry.getKey(); // Index
+            pageTableData[index][1] = entry.getValue() != -1 ? "1" : "0"; // Valid Bit
+            pageTableData[index][2] = entry.getValue() != -1 ? entry.getValue().toString() : "-"; // Physical Page#
+            index++;
+        }
+        memoryPanel.updatePageTable(pageTableData);
+
+        // Refresh Physical Memory
+        List<Frame> frames = memoryController.getPhysicalMemoryFrames();
+        Object[][] physicalMemoryData = new Object[frames.size()][2];
+        for (int i = 0; i < frames.size(); i++) {
+            Frame frame = frames.get(i);
+            physicalMemoryData[i][0] = frame.getFrameNumber();
+            physicalMemoryData[i][1] = frame.isEmpty() ? "Empty" : MemoryPanel.formatPhysicalMemoryContent(
+                    frame.getLoadedPage().getPageNumber(), memoryController.getFrameContentPreview(frame.getFrameNumber()));
+        }
+        memoryPanel.updatePhysicalMemory(physicalMemoryData);
+    }
+
+    private void handleInstructionSubmission() {
+        if (memoryController == null) {
+            JOptionPane.showMessageDialog(this, "Please initialize the simulation first.", "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+
+        // Process instructions
+        loadInstructionPanel.handleLoadSubmit(memoryController, eventLogPanel);
+
+        // Persist the recorded references of this step
+        SessionRecorder sessionRecorder = memoryController.getSessionRecorder();
+        if (sessionRecorder != null) {
+            sessionRecorder.flush();
+        }
+
+        // Refresh tables
+        refreshTables();
+
+        // Update statistics
+        statusPanel.updateStatistics(memoryController);
+        updateTimeTravelPosition();
+    }
+}
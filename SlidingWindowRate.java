@@ -0,0 +1,125 @@
+package org.example.Model;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class SlidingWindowRate {
+    private final int bucketCount; // Number of buckets in the window
+    private final long bucketWidth; // Time units covered by each bucket
+    private final AtomicLongArray counts; // Events per bucket
+    private final AtomicLongArray epochs; // Which bucket-width period each slot currently holds
+
+    /**
+     * Creates a window of bucketCount * bucketWidth time units. The time unit is up to the
+     * caller (simulated nanoseconds, reference count, ...).
+     * @param bucketCount Number of buckets.
+     * @param bucketWidth Time units per bucket.
+     */
+    public SlidingWindowRate(int bucketCount, long bucketWidth) {
+        if (bucketCount <= 0 || bucketWidth <= 0) {
+            throw new IllegalArgumentException("Bucket count and width must be greater than 0.");
+        }
+        this.bucketCount = bucketCount;
+        this.bucketWidth = bucketWidth;
+        this.counts = new AtomicLongArray(bucketCount);
+        this.epochs = new AtomicLongArray(bucketCount);
+        for (int i = 0; i < bucketCount; i++) {
+            epochs.set(i, -1);
+        }
+    }
+
+    /**
+     * Record events at a point in time. Lock-free; an event racing with the rollover
+     * of its bucket to a new period may be dropped, which only makes the rate approximate.
+     * @param time The current time.
+     * @param amount The number of events.
+     */
+    public void record(long time, long amount) {
+        long epoch = time / bucketWidth;
+        int slot = (int) (epoch % bucketCount);
+        long seen = epochs.get(slot);
+        if (seen != epoch && epochs.compareAndSet(slot, seen, epoch)) {
+            counts.set(slot, 0);
+        }
+        counts.addAndGet(slot, amount);
+    }
+
+    /**
+     * Get the number of events recorded within the window ending at the given time.
+     * @param now The current time.
+     * @return The event count in the window.
+     */
+    public long getWindowTotal(long now) {
+        long currentEpoch = now / bucketWidth;
+        long total = 0;
+        for (int i = 0; i < bucketCount; i++) {
+            long epoch = epochs.get(i);
+            if (epoch >= 0 && epoch > currentEpoch - bucketCount && epoch <= currentEpoch) {
+                total += counts.get(i);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Get the event rate over the window ending at the given time.
+     * @param now The current time.
+     * @return Events per time unit.
+     */
+    public double getRate(long now) {
+        return getWindowTotal(now) / (double) getWindowLength();
+    }
+
+    public long getWindowLength() {
+        return bucketCount * bucketWidth;
+    }
+
+    /**
+     * Save the bucket counts and the period each bucket holds.
+     * @param out The snapshot being written.
+     */
+    public void writeSnapshot(SnapshotOutput out) throws IOException {
+        long[] savedCounts = new long[bucketCount];
+        long[] savedEpochs = new long[bucketCount];
+        for (int i = 0; i < bucketCount; i++) {
+            savedCounts[i] = counts.get(i);
+            savedEpochs[i] = epochs.get(i);
+        }
+        out.putLongArray(savedCounts);
+        out.putLongArray(savedEpochs);
+    }
+
+    /**
+     * Restore the buckets saved by writeSnapshot into a window of the same shape.
+     * @param in The snapshot being read.
+     */
+    public void readSnapshot(SnapshotInput in) throws IOException {
+        long[] savedCounts = in.getLongArray();
+        long[] savedEpochs = in.getLongArray();
+        if (savedCounts.length != bucketCount || savedEpochs.length != bucketCount) {
+            throw new IOException("Snapshot rate has " + savedCounts.length + " buckets, expected " + bucketCount + ".");
+        }
+        for (int i = 0; i < bucketCount; i++) {
+            counts.set(i, savedCounts[i]);
+            epochs.set(i, savedEpochs[i]);
+        }
+    }
+
+    public int getBucketCount() {
+        return bucketCount;
+    }
+
+    public long getBucketWidth() {
+        return bucketWidth;
+    }
+
+    /**
+     * Clear all buckets.
+     */
+    public void reset() {
+        for (int i = 0; i < bucketCount; i++) {
+            epochs.set(i, -1);
+            counts.set(i, 0);
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package org.example.Model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class SnapshotInput implements Closeable {
+    private static final long WINDOW_SIZE = 1L << 28; // The file is mapped 256 MB at a time
+
+    private final Path path;
+    private final FileChannel channel;
+    private final long fileSize;
+    private FileChannel privateChannel; // Opened for copy-on-write mappings, which need a writable channel
+    private boolean privateMappingUnavailable; // The file cannot be opened for writing; contents are copied instead
+    private MappedByteBuffer window; // Read-only mapping of the part of the file being read
+    private long windowStart; // File offset of the window
+
+    /**
+     * Open a snapshot file written by {@link SnapshotOutput}. The file is memory-mapped
+     * rather than read, so restoring costs little more than touching the mapped pages.
+     * @param path The snapshot file.
+     */
+    public SnapshotInput(Path path) throws IOException {
+        this.path = path;
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            this.fileSize = channel.size();
+            mapWindow(0);
+            if (fileSize < 2 * Integer.BYTES || getInt() != SnapshotOutput.MAGIC) {
+                throw new IOException("Not a snapshot file: " + path);
+            }
+            int version = getInt();
+            if (version != SnapshotOutput.VERSION) {
+                throw new IOException("Unsupported snapshot version " + version + " in " + path);
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private void mapWindow(long start) throws IOException {
+        windowStart = start;
+        window = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(WINDOW_SIZE, fileSize - start));
+    }
+
+    // Make sure the next bytes are inside the window, moving it forward if needed
+    private void ensure(int bytes) throws IOException {
+        if (window.remaining() < bytes) {
+            long position = position();
+            if (fileSize - position < bytes) {
+                throw new IOException("Truncated snapshot.");
+            }
+            mapWindow(position);
+        }
+    }
+
+    /**
+     * @return The file offset of the next unread byte.
+     */
+    public long position() {
+        return windowStart + window.position();
+    }
+
+    public int getInt() throws IOException {
+        ensure(Integer.BYTES);
+        return window.getInt();
+    }
+
+    public long getLong() throws IOException {
+        ensure(Long.BYTES);
+        return window.getLong();
+    }
+
+    public boolean getBoolean() throws IOException {
+        ensure(1);
+        return window.get() != 0;
+    }
+
+    public String getString() throws IOException {
+        int length = getInt();
+        byte[] bytes = new byte[length];
+        getBytes(bytes, 0, length);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Read an array written by {@link SnapshotOutput#putIntArray}.
+     */
+    public int[] getIntArray() throws IOException {
+        int length = getInt();
+        int[] values = new int[length];
+        int read = 0;
+        while (read < length) {
+            ensure(Integer.BYTES);
+            int count = Math.min(length - read, window.remaining() / Integer.BYTES);
+            window.asIntBuffer().get(values, read, count);
+            window.position(window.position() + count * Integer.BYTES);
+            read += count;
+        }
+        return values;
+    }
+
+    /**
+     * Read an array written by {@link SnapshotOutput#putLongArray}.
+     */
+    public long[] getLongArray() throws IOException {
+        int length = getInt();
+        long[] values = new long[length];
+        int read = 0;
+        while (read < length) {
+            ensure(Long.BYTES);
+            int count = Math.min(length - read, window.remaining() / Long.BYTES);
+            window.asLongBuffer().get(values, read, count);
+            window.position(window.position() + count * Long.BYTES);
+            read += count;
+        }
+        return values;
+    }
+
+    public void getBytes(byte[] values, int offset, int length) throws IOException {
+        int read = 0;
+        while (read < length) {
+            ensure(1);
+            int count = Math.min(length - read, window.remaining());
+            window.get(values, offset + read, count);
+            read += count;
+        }
+    }
+
+    /**
+     * Map the next bytes of the file copy-on-write. The buffer can be written like any
+     * direct buffer, but changes stay private to this process and never reach the file,
+     * so several experiments can start from the same snapshot. If the file is read-only
+     * the bytes are copied into a new direct buffer instead.
+     * @param length Number of bytes to map (at most Integer.MAX_VALUE).
+     * @return The private mapping.
+     */
+    public ByteBuffer mapPrivate(long length) throws IOException {
+        long position = position();
+        if (length > Integer.MAX_VALUE || fileSize - position < length) {
+            throw new IOException("Truncated snapshot.");
+        }
+        if (privateChannel == null && !privateMappingUnavailable) {
+            try {
+                privateChannel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            } catch (IOException e) {
+                privateMappingUnavailable = true;
+            }
+        }
+        ByteBuffer mapped;
+        if (privateChannel != null) {
+            mapped = privateChannel.map(FileChannel.MapMode.PRIVATE, position, length);
+        } else {
+            mapped = ByteBuffer.allocateDirect((int) length);
+            mapped.put(channel.map(FileChannel.MapMode.READ_ONLY, position, length)).clear();
+        }
+        long next = position + length;
+        if (next - windowStart <= window.limit()) {
+            window.position((int) (next - windowStart));
+        } else {
+            mapWindow(next);
+        }
+        return mapped;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            channel.close();
+        } finally {
+            if (privateChannel != null) {
+                privateChannel.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package org.example.Model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class SnapshotOutput implements Closeable {
+    public static final int MAGIC = 0x564D534E; // "VMSN"
+    public static final int VERSION = 11; // 2: huge-page entries in the TLB and page table, 3: NUMA nodes, 4: compressed swap, 5: forked address spaces, 6: same-page merging, 7: per-process allocations, 8: page-walk cache, 9: CPU caches, 10: replacement settings, 11: off-heap disk contents
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer; // Small values are batched here; large arrays go through it in bulk
+
+    /**
+     * Create (or truncate) a snapshot file and write its header.
+     * @param path The snapshot file.
+     */
+    public SnapshotOutput(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        buffer.putInt(MAGIC).putInt(VERSION);
+    }
+
+    private void ensureRoom(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            drain();
+        }
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    public void putInt(int value) throws IOException {
+        ensureRoom(Integer.BYTES);
+        buffer.putInt(value);
+    }
+
+    public void putLong(long value) throws IOException {
+        ensureRoom(Long.BYTES);
+        buffer.putLong(value);
+    }
+
+    public void putBoolean(boolean value) throws IOException {
+        ensureRoom(1);
+        buffer.put((byte) (value ? 1 : 0));
+    }
+
+    public void putString(String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        putInt(bytes.length);
+        putBytes(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Write the first length elements of an array, preceded by the length.
+     */
+    public void putIntArray(int[] values, int length) throws IOException {
+        putInt(length);
+        int written = 0;
+        while (written < length) {
+            ensureRoom(Integer.BYTES);
+            int count = Math.min(length - written, buffer.remaining() / Integer.BYTES);
+            buffer.asIntBuffer().put(values, written, count);
+            buffer.position(buffer.position() + count * Integer.BYTES);
+            written += count;
+        }
+    }
+
+    public void putIntArray(int[] values) throws IOException {
+        putIntArray(values, values.length);
+    }
+
+    /**
+     * Write the first length elements of an array, preceded by the length.
+     */
+    public void putLongArray(long[] values, int length) throws IOException {
+        putInt(length);
+        int written = 0;
+        while (written < length) {
+            ensureRoom(Long.BYTES);
+            int count = Math.min(length - written, buffer.remaining() / Long.BYTES);
+            buffer.asLongBuffer().put(values, written, count);
+            buffer.position(buffer.position() + count * Long.BYTES);
+            written += count;
+        }
+    }
+
+    public void putLongArray(long[] values) throws IOException {
+        putLongArray(values, values.length);
+    }
+
+    /**
+     * Write raw bytes (no length prefix).
+     */
+    public void putBytes(byte[] values, int offset, int length) throws IOException {
+        int written = 0;
+        while (written < length) {
+            ensureRoom(1);
+            int count = Math.min(length - written, buffer.remaining());
+            buffer.put(values, offset + written, count);
+            written += count;
+        }
+    }
+
+    /**
+     * Write the remaining bytes of a buffer (no length prefix). Large buffers, such as
+     * frame contents, are written to the file directly instead of being copied.
+     */
+    public void putBuffer(ByteBuffer values) throws IOException {
+        ByteBuffer source = values.duplicate();
+        if (source.remaining() <= buffer.remaining()) {
+            buffer.put(source);
+            return;
+        }
+        drain();
+        while (source.hasRemaining()) {
+            channel.write(source);
+        }
+    }
+
+    /**
+     * @return The number of bytes written so far.
+     */
+    public long position() throws IOException {
+        return channel.position() + buffer.position();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            drain();
+        } finally {
+            channel.close();
+        }
+    }
+}
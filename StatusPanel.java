@@ -1,43 +1,65 @@
-package org.example.View;
-
-import org.example.Controller.MemoryController;
-
-import javax.swing.*;
-import java.awt.*;
-
-public class StatusPanel extends JPanel {
-    private JLabel pageFaultLabel;
-    private JLabel replacementCountLabel;
-    private JLabel memoryUsageLabel;
-    private JLabel faultRateLabel;
-
-    public StatusPanel() {
-        setBorder(BorderFactory.createTitledBorder("Statistics"));
-        setLayout(new GridLayout(4, 1, 5, 5));
-
-        pageFaultLabel = new JLabel("Page Fault Count: [ 0 ]");
-        replacementCountLabel = new JLabel("Page Replacement Count: [ 0 ]");
-        memoryUsageLabel = new JLabel("Memory Usage: [ 0% ]");
-        faultRateLabel = new JLabel("Page Fault Rate: [ 0% ]");
-
-        add(pageFaultLabel);
-        add(replacementCountLabel);
-        add(memoryUsageLabel);
-        add(faultRateLabel);
-    }
-
-    public void updateStatistics(MemoryController memoryController) {
-        if (memoryController == null) {
-            pageFaultLabel.setText("Page Fault Count: [ 0 ]");
-            replacementCountLabel.setText("Page Replacement Count: [ 0 ]");
-            memoryUsageLabel.setText("Memory Usage: [ 0% ]");
-            faultRateLabel.setText("Page Fault Rate: [ 0% ]");
-        } else {
-            pageFaultLabel.setText("Page Fault Count: [ " + memoryController.getPageFaultCount() + " ]");
-            replacementCountLabel.setText("Page Replacement Count: [ " + memoryController.getPageReplacementCount() + " ]");
-            memoryUsageLabel.setText("Memory Usage: [ " + memoryController.getMemoryUsagePercentage() + "% ]");
-            faultRateLabel.setText("Page Fault Rate: [ " + memoryController.getPageFaultRate() + "% ]");
-        }
-    }
-
-}
+package org.example.View;
+
+import org.example.Controller.MemoryController;
+
+import javax.swing.*;
+import java.awt.*;
+
+public class StatusPanel extends JPanel {
+    private JLabel pageFaultLabel;
+    private JLabel replacementCountLabel;
+    private JLabel memoryUsageLabel;
+    private JLabel faultRateLabel;
+    private JLabel accessTimeLabel;
+    private JLabel accessTimeBreakdownLabel;
+    private JLabel evictionLabel;
+    private JLabel hugePageLabel;
+
+    public StatusPanel() {
+        setBorder(BorderFactory.createTitledBorder("Statistics"));
+        setLayout(new GridLayout(8, 1, 5, 5));
+
+        pageFaultLabel = new JLabel("Page Fault Count: [ 0 ]");
+        replacementCountLabel = new JLabel("Page Replacement Count: [ 0 ]");
+        memoryUsageLabel = new JLabel("Memory Usage: [ 0% ]");
+        faultRateLabel = new JLabel("Page Fault Rate: [ 0% ]");
+        accessTimeLabel = new JLabel("Effective Access Time: [ 0 ns ]");
+        accessTimeBreakdownLabel = new JLabel("Access Time Breakdown: [ - ]");
+        evictionLabel = new JLabel("Evictions Clean / Dirty: [ 0 / 0 ], Write-Backs: [ 0 ]");
+        hugePageLabel = new JLabel("TLB Hits Base / Huge: [ 0 / 0 ], Huge Pages: [ 0 ]");
+
+        add(pageFaultLabel);
+        add(replacementCountLabel);
+        add(memoryUsageLabel);
+        add(faultRateLabel);
+        add(accessTimeLabel);
+        add(accessTimeBreakdownLabel);
+        add(evictionLabel);
+        add(hugePageLabel);
+    }
+
+    public void updateStatistics(MemoryController memoryController) {
+        if (memoryController == null) {
+            pageFaultLabel.setText("Page Fault Count: [ 0 ]");
+            replacementCountLabel.setText("Page Replacement Count: [ 0 ]");
+            memoryUsageLabel.setText("Memory Usage: [ 0% ]");
+            faultRateLabel.setText("Page Fault Rate: [ 0% ]");
+            accessTimeLabel.setText("Effective Access Time: [ 0 ns ]");
+            accessTimeBreakdownLabel.setText("Access Time Breakdown: [ - ]");
+            evictionLabel.setText("Evictions Clean / Dirty: [ 0 / 0 ], Write-Backs: [ 0 ]");
+            hugePageLabel.setText("TLB Hits Base / Huge: [ 0 / 0 ], Huge Pages: [ 0 ]");
+        } else {
+            pageFaultLabel.setText("Page Fault Count: [ " + memoryController.getPageFaultCount() + " ]");
+            replacementCountLabel.setText("Page Replacement Count: [ " + memoryController.getPageReplacementCount() + " ]");
+            memoryUsageLabel.setText("Memory Usage: [ " + memoryController.getMemoryUsagePercentage() + " ]");
+            faultRateLabel.setText("Page Fault Rate: [ " + memoryController.getPageFaultRate() + " ]");
+            accessTimeLabel.setText("Effective Access Time: [ " + memoryController.getEffectiveAccessTime() + " ]");
+            accessTimeBreakdownLabel.setText("Access Time Breakdown: [ " + memoryController.getAccessTimeBreakdown() + " ]");
+            evictionLabel.setText("Evictions Clean / Dirty: [ " + memoryController.getCleanEvictionCount() + " / "
+                    + memoryController.getDirtyEvictionCount() + " ], Write-Backs: [ " + memoryController.getWriteBackIoCount() + " ]");
+            hugePageLabel.setText("TLB Hits Base / Huge: [ " + memoryController.getTlbBaseHitCount() + " / "
+                    + memoryController.getTlbHugeHitCount() + " ], Huge Pages: [ " + memoryController.getHugePageCount() + " ]");
+        }
+    }
+
+}
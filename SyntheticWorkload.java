@@ -0,0 +1,61 @@
+package org.example.Model;
+
+import java.util.SplittableRandom;
+
+public abstract class SyntheticWorkload implements WorkloadGenerator {
+    private final int processId; // Process every reference is attributed to
+    private final long length; // Number of references to generate
+    private final double writeFraction; // Probability that a reference is a write
+    protected final SplittableRandom random; // Seeded source, so the same seed replays the same workload
+    private long generated; // References produced so far
+
+    protected SyntheticWorkload(int processId, long length, double writeFraction, long seed) {
+        if (processId < 0 || processId > TraceRecord.MAX_PROCESS_ID) {
+            throw new IllegalArgumentException("Process id must be between 0 and " + TraceRecord.MAX_PROCESS_ID + ".");
+        }
+        if (length <= 0) {
+            throw new IllegalArgumentException("Workload length must be greater than 0.");
+        }
+        if (writeFraction < 0 || writeFraction > 1) {
+            throw new IllegalArgumentException("Write fraction must be between 0 and 1.");
+        }
+        this.processId = processId;
+        this.length = length;
+        this.writeFraction = writeFraction;
+        this.random = new SplittableRandom(seed);
+    }
+
+    /**
+     * Produce the page of the next reference.
+     * @return The page number.
+     */
+    protected abstract int nextPage();
+
+    @Override
+    public boolean hasNext() {
+        return generated < length;
+    }
+
+    @Override
+    public long next() {
+        if (generated >= length) {
+            throw new IllegalStateException("Workload is exhausted.");
+        }
+        generated++;
+        int pageNumber = nextPage();
+        boolean write = writeFraction > 0 && random.nextDouble() < writeFraction;
+        return TraceRecord.pack(processId, pageNumber, write);
+    }
+
+    public int getProcessId() {
+        return processId;
+    }
+
+    public long getLength() {
+        return length;
+    }
+
+    public long getGeneratedCount() {
+        return generated;
+    }
+}
@@ -0,0 +1,167 @@
+package org.example.Controller;
+
+import org.example.Model.ExecutionJournal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class TimeTravelDebugger {
+    private final MemoryController memoryController;
+    private final ExecutionJournal journal;
+    private final int checkpointInterval;
+    private final Path directory; // Temporary directory holding the checkpoint snapshots
+
+    // Checkpoints in a ring, oldest first: the reference count each was taken at and its file
+    private final long[] checkpointReferences;
+    private final Path[] checkpointFiles;
+    private int oldestCheckpoint;
+    private int checkpointCount;
+
+    /**
+     * Created by MemoryController.enableTimeTravel, which takes the first checkpoint through it.
+     * @param memoryController The simulation to checkpoint and move.
+     * @param checkpointInterval References between checkpoints.
+     * @param checkpointsKept Checkpoints kept on disk (at least 1).
+     */
+    TimeTravelDebugger(MemoryController memoryController, int checkpointInterval, int checkpointsKept) throws IOException {
+        if (checkpointInterval <= 0 || checkpointsKept <= 0) {
+            throw new IllegalArgumentException("Checkpoint interval and count must be greater than 0.");
+        }
+        this.memoryController = memoryController;
+        this.checkpointInterval = checkpointInterval;
+        this.checkpointReferences = new long[checkpointsKept];
+        this.checkpointFiles = new Path[checkpointsKept];
+        // One interval more than the checkpoints span, so every reference after the oldest checkpoint is held
+        int referenceCapacity = (int) Math.min(Integer.MAX_VALUE - 8, (checkpointsKept + 1L) * checkpointInterval);
+        int eventCapacity = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1 << 16, 8L * referenceCapacity));
+        long now = memoryController.getReferenceNumber();
+        this.journal = new ExecutionJournal(referenceCapacity, eventCapacity, now);
+        this.directory = Files.createTempDirectory("vmsim-checkpoints");
+        takeCheckpoint(now);
+    }
+
+    /**
+     * Called by the controller before a live reference. A reference made after stepping back
+     * starts a new history, so the journal and checkpoints beyond it are dropped.
+     * @param record The reference, packed by TraceRecord.
+     */
+    void beforeReference(long record) {
+        long referenceNumber = memoryController.getReferenceNumber();
+        if (referenceNumber < journal.getReferenceEnd()) {
+            journal.truncate(referenceNumber);
+            while (checkpointCount > 1 && newestCheckpointReference() > referenceNumber) {
+                deleteQuietly(checkpointFiles[(oldestCheckpoint + --checkpointCount) % checkpointFiles.length]);
+            }
+        }
+        journal.recordReference(record);
+    }
+
+    /**
+     * Called by the controller after a live reference; takes a checkpoint on every interval boundary.
+     */
+    void afterReference() {
+        long referenceNumber = memoryController.getReferenceNumber();
+        if (referenceNumber % checkpointInterval == 0 && newestCheckpointReference() < referenceNumber) {
+            try {
+                takeCheckpoint(referenceNumber);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not write checkpoint at reference " + referenceNumber, e);
+            }
+        }
+    }
+
+    /**
+     * Move the simulation to the state after the given number of references: restore the
+     * nearest checkpoint at or before it, then re-execute the journaled references in between.
+     * Moving forward from the current state re-executes without restoring.
+     * @param referenceNumber Between getOldestReference and getNewestReference.
+     */
+    void jumpTo(long referenceNumber) throws IOException {
+        if (referenceNumber < getOldestReference() || referenceNumber > getNewestReference()) {
+            throw new IllegalArgumentException("Reference " + referenceNumber + " is outside the journaled range "
+                    + getOldestReference() + " to " + getNewestReference() + ".");
+        }
+        int checkpoint = checkpointCount - 1;
+        while (checkpointReferences[(oldestCheckpoint + checkpoint) % checkpointReferences.length] > referenceNumber) {
+            checkpoint--;
+        }
+        int slot = (oldestCheckpoint + checkpoint) % checkpointReferences.length;
+        long current = memoryController.getReferenceNumber();
+        long from = checkpointReferences[slot];
+        if (current > referenceNumber || current < from) {
+            memoryController.readState(checkpointFiles[slot]);
+            current = from;
+        }
+        memoryController.replayReferences(journal, current, referenceNumber);
+    }
+
+    /**
+     * Delete the checkpoint files. Called when time travel is disabled.
+     */
+    void close() {
+        for (int i = 0; i < checkpointCount; i++) {
+            deleteQuietly(checkpointFiles[(oldestCheckpoint + i) % checkpointFiles.length]);
+        }
+        checkpointCount = 0;
+        deleteQuietly(directory);
+    }
+
+    public ExecutionJournal getJournal() {
+        return journal;
+    }
+
+    public int getCheckpointInterval() {
+        return checkpointInterval;
+    }
+
+    public int getCheckpointCount() {
+        return checkpointCount;
+    }
+
+    /**
+     * @return The earliest reference count the simulation can be moved back to.
+     */
+    public long getOldestReference() {
+        for (int i = 0; i < checkpointCount; i++) {
+            long reference = checkpointReferences[(oldestCheckpoint + i) % checkpointReferences.length];
+            if (reference >= journal.getFirstReference()) {
+                return reference;
+            }
+        }
+        return journal.getReferenceEnd();
+    }
+
+    /**
+     * @return The latest reference count the simulation can be moved forward to.
+     */
+    public long getNewestReference() {
+        return journal.getReferenceEnd();
+    }
+
+    private long newestCheckpointReference() {
+        return checkpointReferences[(oldestCheckpoint + checkpointCount - 1) % checkpointReferences.length];
+    }
+
+    private void takeCheckpoint(long referenceNumber) throws IOException {
+        Path file = directory.resolve("checkpoint-" + referenceNumber + ".vmsnap");
+        memoryController.writeState(file);
+        if (checkpointCount == checkpointFiles.length) {
+            deleteQuietly(checkpointFiles[oldestCheckpoint]);
+            oldestCheckpoint = (oldestCheckpoint + 1) % checkpointFiles.length;
+            checkpointCount--;
+        }
+        int slot = (oldestCheckpoint + checkpointCount++) % checkpointFiles.length;
+        checkpointReferences[slot] = referenceNumber;
+        checkpointFiles[slot] = file;
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            // A leftover temporary file is harmless
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package org.example.View;
+
+import javax.swing.*;
+import java.awt.*;
+
+public class TimeTravelPanel extends JPanel {
+    private static final long serialVersionUID = 1L;
+
+    private JButton stepBackButton;
+    private JButton stepForwardButton;
+    private JTextField referenceField;
+    private JButton jumpButton;
+    private JLabel positionLabel;
+
+    public TimeTravelPanel() {
+        setBorder(BorderFactory.createTitledBorder("Time Travel"));
+        setLayout(new GridLayout(3, 2, 5, 5));
+
+        // Row 1: Step buttons
+        stepBackButton = new JButton("Step Back");
+        stepForwardButton = new JButton("Step Forward");
+        add(stepBackButton);
+        add(stepForwardButton);
+
+        // Row 2: Reference number and Jump button
+        referenceField = new JTextField();
+        jumpButton = new JButton("Jump to Ref #");
+        add(referenceField);
+        add(jumpButton);
+
+        // Row 3: Current position and the range that can be reached
+        positionLabel = new JLabel("Reference: [ - ]");
+        add(positionLabel);
+        add(new JLabel("")); // Empty cell to keep the grid aligned
+    }
+
+    /**
+     * Parse the reference number typed into the field.
+     * @return The reference number.
+     * @throws NumberFormatException If the field does not hold a decimal number.
+     */
+    public long getTargetReference() {
+        return Long.parseLong(referenceField.getText().trim());
+    }
+
+    /**
+     * Show where the simulation stands within the journaled history.
+     * @param current References executed so far.
+     * @param oldest Earliest reference count that can be reached.
+     * @param newest Latest reference count that can be reached.
+     */
+    public void updatePosition(long current, long oldest, long newest) {
+        positionLabel.setText("Reference: [ " + current + " of " + oldest + ".." + newest + " ]");
+    }
+
+    /**
+     * Clear the position, e.g. when the simulation is reset.
+     */
+    public void clearPosition() {
+        positionLabel.setText("Reference: [ - ]");
+    }
+
+    /**
+     * Set functionality for the "Step Back" button.
+     * @param function The function to execute when the button is clicked.
+     */
+    public void setStepBackFunction(Runnable function) {
+        stepBackButton.addActionListener(e -> function.run());
+    }
+
+    /**
+     * Set functionality for the "Step Forward" button.
+     * @param function The function to execute when the button is clicked.
+     */
+    public void setStepForwardFunction(Runnable function) {
+        stepForwardButton.addActionListener(e -> function.run());
+    }
+
+    /**
+     * Set functionality for the "Jump" button.
+     * @param function The function to execute when the button is clicked.
+     */
+    public void setJumpFunction(Runnable function) {
+        jumpButton.addActionListener(e -> function.run());
+    }
+}
@@ -0,0 +1,125 @@
+package org.example.Model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class TraceReader implements WorkloadGenerator, Closeable {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer; // Holds the records read ahead from the file
+    private final int pageSize; // Page size in bytes the page numbers refer to
+    private final Map<String, String> properties; // Settings stored with the trace
+    private boolean endOfFile; // No more bytes to read from the channel
+    private long recordCount; // Records returned so far
+
+    /**
+     * Open a trace file written by {@link TraceWriter} and read its header.
+     * A partial record at the end of the file (e.g. from an interrupted writer) is ignored.
+     * @param path The trace file.
+     */
+    public TraceReader(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        this.buffer.limit(0);
+        try {
+            ensureAvailable(4 * Integer.BYTES);
+            if (buffer.getInt() != TraceWriter.MAGIC) {
+                throw new IOException("Not a trace file: " + path);
+            }
+            int version = buffer.getInt();
+            if (version != TraceWriter.VERSION) {
+                throw new IOException("Unsupported trace version " + version + " in " + path);
+            }
+            this.pageSize = buffer.getInt();
+            int propertyCount = buffer.getInt();
+            Map<String, String> read = new LinkedHashMap<>();
+            for (int i = 0; i < propertyCount; i++) {
+                String key = readString();
+                read.put(key, readString());
+            }
+            this.properties = Collections.unmodifiableMap(read);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private String readString() throws IOException {
+        ensureAvailable(Integer.BYTES);
+        int length = buffer.getInt();
+        if (length < 0 || length > BUFFER_SIZE - Integer.BYTES) {
+            throw new IOException("Corrupt trace header.");
+        }
+        ensureAvailable(length);
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Make sure at least count bytes are buffered; fails on a truncated header
+    private void ensureAvailable(int count) throws IOException {
+        if (!fill(count)) {
+            throw new IOException("Truncated trace header.");
+        }
+    }
+
+    // Read from the channel until count bytes are buffered or the file ends
+    private boolean fill(int count) throws IOException {
+        if (buffer.remaining() >= count) {
+            return true;
+        }
+        buffer.compact();
+        while (buffer.position() < count && !endOfFile) {
+            if (channel.read(buffer) < 0) {
+                endOfFile = true;
+            }
+        }
+        buffer.flip();
+        return buffer.remaining() >= count;
+    }
+
+    @Override
+    public boolean hasNext() {
+        try {
+            return fill(Long.BYTES);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public long next() {
+        if (!hasNext()) {
+            throw new IllegalStateException("Trace is exhausted.");
+        }
+        recordCount++;
+        return buffer.getLong();
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public Map<String, String> getProperties() {
+        return properties;
+    }
+
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
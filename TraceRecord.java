@@ -0,0 +1,103 @@
+package org.example.Model;
+
+public final class TraceRecord {
+    // A reference packed into one long: bits 0-31 page number, bits 32-61 process id,
+    // bit 62 write flag, bit 63 reserved (must be 0 in a reference record).
+    // With bit 63 set the record is a process event instead: bits 32-61 hold the process,
+    // bit 62 is set for an exit and clear for a fork, and bits 0-31 hold the forked child
+    public static final int MAX_PROCESS_ID = (1 << 30) - 1;
+    private static final long PAGE_MASK = 0xFFFFFFFFL;
+    private static final long WRITE_BIT = 1L << 62;
+    private static final long RESERVED_BIT = 1L << 63;
+
+    private TraceRecord() {
+    }
+
+    /**
+     * Pack one reference into a long, so traces can be streamed and stored without objects.
+     * @param processId The process making the reference (0 to MAX_PROCESS_ID).
+     * @param pageNumber The referenced page (not negative).
+     * @param write True for a write, false for a read.
+     * @return The packed reference.
+     */
+    public static long pack(int processId, int pageNumber, boolean write) {
+        if (processId < 0 || processId > MAX_PROCESS_ID) {
+            throw new IllegalArgumentException("Process id must be between 0 and " + MAX_PROCESS_ID + ".");
+        }
+        if (pageNumber < 0) {
+            throw new IllegalArgumentException("Page number cannot be negative.");
+        }
+        return ((long) processId << 32) | pageNumber | (write ? WRITE_BIT : 0);
+    }
+
+    public static int processId(long record) {
+        return (int) ((record >>> 32) & MAX_PROCESS_ID);
+    }
+
+    public static int pageNumber(long record) {
+        return (int) (record & PAGE_MASK);
+    }
+
+    public static boolean isWrite(long record) {
+        return (record & WRITE_BIT) != 0;
+    }
+
+    public static boolean isReference(long record) {
+        return (record & RESERVED_BIT) == 0;
+    }
+
+    /**
+     * Pack a fork, so traces can carry the process structure along with the references.
+     * @param parentProcessId The process forking.
+     * @param childProcessId The new process (0 to MAX_PROCESS_ID).
+     * @return The packed event.
+     */
+    public static long packFork(int parentProcessId, int childProcessId) {
+        if (childProcessId < 0 || childProcessId > MAX_PROCESS_ID) {
+            throw new IllegalArgumentException("Process id must be between 0 and " + MAX_PROCESS_ID + ".");
+        }
+        return pack(parentProcessId, childProcessId, false) | RESERVED_BIT;
+    }
+
+    /**
+     * Pack the exit of a process.
+     * @param processId The exiting process.
+     * @return The packed event.
+     */
+    public static long packExit(int processId) {
+        return pack(processId, 0, true) | RESERVED_BIT;
+    }
+
+    public static boolean isFork(long record) {
+        return (record & (RESERVED_BIT | WRITE_BIT)) == RESERVED_BIT;
+    }
+
+    public static boolean isExit(long record) {
+        return (record & (RESERVED_BIT | WRITE_BIT)) == (RESERVED_BIT | WRITE_BIT);
+    }
+
+    // The child of a fork event
+    public static int childProcessId(long record) {
+        return (int) (record & MAX_PROCESS_ID);
+    }
+
+    /**
+     * The same reference, attributed to another process.
+     * @param record A packed reference.
+     * @param processId The new process id.
+     * @return The packed reference with its process id replaced.
+     */
+    public static long withProcessId(long record, int processId) {
+        return pack(processId, pageNumber(record), isWrite(record));
+    }
+
+    public static String toString(long record) {
+        if (isFork(record)) {
+            return "FORK pid " + processId(record) + " -> pid " + childProcessId(record);
+        }
+        if (isExit(record)) {
+            return "EXIT pid " + processId(record);
+        }
+        return (isWrite(record) ? "W" : "R") + " pid " + processId(record) + " page " + pageNumber(record);
+    }
+}
@@ -0,0 +1,122 @@
+package org.example.Model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+
+public class TraceWriter implements Closeable {
+    // File layout: magic, version, page size, property count, then for each property
+    // (key length, key UTF-8, value length, value UTF-8), then packed 8-byte records
+    // (see TraceRecord) until the end of the file. All values are big-endian.
+    public static final int MAGIC = 0x564D5452; // "VMTR"
+    public static final int VERSION = 1;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer; // Records are batched here and written a buffer at a time
+    private long recordCount; // Records written through this writer
+
+    /**
+     * Create (or truncate) a trace file and write its header.
+     * @param path The trace file.
+     * @param pageSize Page size in bytes the page numbers refer to.
+     * @param properties Free-form settings stored with the trace (e.g. how it was generated).
+     */
+    public TraceWriter(Path path, int pageSize, Map<String, String> properties) throws IOException {
+        if (pageSize <= 0 || Integer.bitCount(pageSize) != 1) {
+            throw new IllegalArgumentException("Page size must be a power of 2.");
+        }
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        try {
+            writeHeader(pageSize, properties);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private void writeHeader(int pageSize, Map<String, String> properties) throws IOException {
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(pageSize).putInt(properties.size());
+        for (Map.Entry<String, String> property : properties.entrySet()) {
+            putString(property.getKey());
+            putString(property.getValue());
+        }
+        drain();
+    }
+
+    private void putString(String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (buffer.remaining() < Integer.BYTES + bytes.length) {
+            drain();
+        }
+        if (buffer.remaining() < Integer.BYTES + bytes.length) {
+            throw new IllegalArgumentException("Trace property is too long.");
+        }
+        buffer.putInt(bytes.length).put(bytes);
+    }
+
+    /**
+     * Append one packed reference.
+     * @param record The reference, packed by {@link TraceRecord#pack}.
+     */
+    public void write(long record) throws IOException {
+        if (!buffer.hasRemaining()) {
+            drain();
+        }
+        buffer.putLong(record);
+        recordCount++;
+    }
+
+    public void write(int processId, int pageNumber, boolean write) throws IOException {
+        write(TraceRecord.pack(processId, pageNumber, write));
+    }
+
+    /**
+     * Stream a whole workload into the trace.
+     * @param workload The workload; it is exhausted when this returns.
+     * @return The number of references written.
+     */
+    public long writeAll(WorkloadGenerator workload) throws IOException {
+        long written = 0;
+        while (workload.hasNext()) {
+            write(workload.next());
+            written++;
+        }
+        return written;
+    }
+
+    // Write out everything buffered so far
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Push buffered records to the file.
+     */
+    public void flush() throws IOException {
+        drain();
+    }
+
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            drain();
+        } finally {
+            channel.close();
+        }
+    }
+}
@@ -1,139 +1,327 @@
-package org.example.Model;
-
-import java.util.LinkedHashMap;
-import java.util.Map;
-
-public class TranslationLookasideBuffer {
-    private final int maxEntries; // Maximum number of TLB entries
-    private final LinkedHashMap<Integer, Integer> tlb; // Maps virtual page numbers to physical frame numbers
-    private int accessCount; // Tracks total number of accesses to the TLB
-    private int hitCount; // Tracks number of TLB hits
-    private int missCount; // Tracks number of TLB misses
-
-    // Constructor
-    public TranslationLookasideBuffer(int maxEntries) {
-        this.maxEntries = maxEntries;
-
-        // Initialize as an access-order LinkedHashMap to emulate LRU behavior
-        this.tlb = new LinkedHashMap<>(maxEntries, 0.75f, true) {
-            @Override
-            protected boolean removeEldestEntry(Map.Entry<Integer, Integer> eldest) {
-                return size() > maxEntries; // Automatically evict the oldest entry if capacity is exceeded
-            }
-        };
-
-        this.accessCount = 0;
-        this.hitCount = 0;
-        this.missCount = 0;
-    }
-
-    /**
-     * Add a mapping from virtual page number to physical frame number.
-     * If the TLB is full, it evicts the least recently used entry.
-     */
-    public synchronized void addEntry(int virtualPageNumber, int physicalFrameNumber) {
-        if (virtualPageNumber < 0 || physicalFrameNumber < 0) {
-            throw new IllegalArgumentException("Page and frame numbers must be non-negative.");
-        }
-        tlb.put(virtualPageNumber, physicalFrameNumber); // Add or update the mapping
-        System.out.println("TLB Update: Added Virtual Page " + virtualPageNumber + " -> Physical Frame " + physicalFrameNumber);
-    }
-
-    /**
-     * Retrieve the physical frame number for a given virtual page number.
-     * @param virtualPageNumber The virtual page number to lookup.
-     * @return The physical frame number if found, or -1 if not present (miss).
-     */
-    public synchronized int getFrameNumber(int virtualPageNumber) {
-        accessCount++; // Increment access count
-        if (tlb.containsKey(virtualPageNumber)) {
-            hitCount++; // Increment hit count
-            System.out.println("TLB Hit: Virtual Page " + virtualPageNumber + " -> Physical Frame " + tlb.get(virtualPageNumber));
-            return tlb.get(virtualPageNumber);
-        } else {
-            missCount++; // Increment miss count
-            System.out.println("TLB Miss: Virtual Page " + virtualPageNumber + " not found in TLB.");
-            return -1; // Indicate a TLB miss
-        }
-    }
-
-    /**
-     * Check if a virtual page number is in the TLB.
-     * @param virtualPageNumber The virtual page number to check.
-     * @return True if the page is in the TLB, false otherwise.
-     */
-    public synchronized boolean containsPage(int virtualPageNumber) {
-        return tlb.containsKey(virtualPageNumber);
-    }
-
-    /**
-     * Get all entries in the TLB (for visualization or debugging).
-     * @return A copy of the TLB entries.
-     */
-    public synchronized Map<Integer, Integer> getEntries() {
-        return new LinkedHashMap<>(tlb); // Return a copy of the TLB entries
-    }
-
-    /**
-     * Clear all entries in the TLB.
-     */
-    public synchronized void clear() {
-        tlb.clear();
-        accessCount = 0;
-        hitCount = 0;
-        missCount = 0;
-        System.out.println("TLB Cleared: All entries and statistics reset.");
-    }
-
-    /**
-     * Get the total number of accesses to the TLB.
-     * @return The total access count.
-     */
-    public synchronized int getAccessCount() {
-        return accessCount;
-    }
-
-    /**
-     * Get the number of TLB hits.
-     * @return The TLB hit count.
-     */
-    public synchronized int getHitCount() {
-        return hitCount;
-    }
-
-    /**
-     * Get the number of TLB misses.
-     * @return The TLB miss count.
-     */
-    public synchronized int getMissCount() {
-        return missCount;
-    }
-
-    /**
-     * Get the TLB hit ratio.
-     * @return The hit ratio as a percentage (0 to 100).
-     */
-    public synchronized double getHitRatio() {
-        return accessCount == 0 ? 0 : (hitCount / (double) accessCount) * 100;
-    }
-
-    /**
-     * Print the current state of the TLB.
-     */
-    public synchronized void printTLBState() {
-        System.out.println("Current TLB State:");
-        tlb.forEach((virtualPage, physicalFrame) ->
-                System.out.println("Virtual Page " + virtualPage + " -> Physical Frame " + physicalFrame));
-    }
-
-    /**
-     * Print TLB statistics (hits, misses, and hit ratio).
-     */
-    public synchronized void printStatistics() {
-        System.out.println("TLB Statistics:");
-        System.out.println("Total Accesses: " + accessCount);
-        System.out.println("Hits: " + hitCount);
-        System.out.println("Misses: " + missCount);
-        System.out.println("Hit Ratio: " + String.format("%.2f", getHitRatio()) + "%");
-    }
-}
+package org.example.Model;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+public class TranslationLookasideBuffer {
+    private final int maxEntries; // Maximum number of TLB entries
+    private final LinkedHashMap<Integer, Integer> tlb; // Maps virtual page numbers to physical frame numbers
+    private final LongAdder hitCount; // Tracks number of TLB hits
+    private final LongAdder missCount; // Tracks number of TLB misses
+    private int lastEvictedPage; // Page pushed out by the most recent addEntry, -1 if none
+
+    // Separate array for huge pages, so base pages cannot crowd the huge entries out (and vice versa)
+    private int hugeMaxEntries; // Maximum number of huge-page entries, 0 when huge pages are off
+    private int hugePageShift; // log2(base pages per huge page)
+    private final LinkedHashMap<Integer, Integer> hugeTlb; // Maps huge-page numbers to their first physical frame
+    private final LongAdder hugeHitCount; // Tracks hits served by huge-page entries (included in hitCount)
+    private int lastEvictedRegion; // Huge page pushed out by the most recent addHugeEntry, -1 if none
+
+    // Constructor with private statistics
+    public TranslationLookasideBuffer(int maxEntries) {
+        this(maxEntries, new MetricsRegistry());
+    }
+
+    // Constructor reporting hits and misses into a shared registry
+    public TranslationLookasideBuffer(int maxEntries, MetricsRegistry metricsRegistry) {
+        this.maxEntries = maxEntries;
+
+        // Initialize as an access-order LinkedHashMap to emulate LRU behavior
+        this.tlb = new LinkedHashMap<>(maxEntries, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Integer> eldest) {
+                if (size() > maxEntries) { // Automatically evict the oldest entry if capacity is exceeded
+                    lastEvictedPage = eldest.getKey();
+                    return true;
+                }
+                return false;
+            }
+        };
+
+        this.hugeTlb = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Integer> eldest) {
+                if (size() > hugeMaxEntries) {
+                    lastEvictedRegion = eldest.getKey();
+                    return true;
+                }
+                return false;
+            }
+        };
+
+        this.hitCount = metricsRegistry.counter(MetricsRegistry.TLB_HITS);
+        this.missCount = metricsRegistry.counter(MetricsRegistry.TLB_MISSES);
+        this.hugeHitCount = metricsRegistry.counter(MetricsRegistry.TLB_HUGE_HITS);
+    }
+
+    /**
+     * Give the TLB an array of huge-page entries, or remove it. Existing huge entries are dropped.
+     * @param pagesPerHugePage Base pages covered by one huge page (power of 2, at least 2).
+     * @param hugeEntries Number of huge-page entries; 0 turns huge pages off.
+     */
+    public synchronized void configureHugePages(int pagesPerHugePage, int hugeEntries) {
+        if (hugeEntries < 0) {
+            throw new IllegalArgumentException("Huge TLB entries must be non-negative.");
+        }
+        if (hugeEntries > 0 && (pagesPerHugePage < 2 || (pagesPerHugePage & (pagesPerHugePage - 1)) != 0)) {
+            throw new IllegalArgumentException("A huge page must span a power of 2 (at least 2) of base pages.");
+        }
+        hugeTlb.clear();
+        this.hugeMaxEntries = hugeEntries;
+        this.hugePageShift = hugeEntries == 0 ? 0 : Integer.numberOfTrailingZeros(pagesPerHugePage);
+    }
+
+    /**
+     * Add a mapping from virtual page number to physical frame number.
+     * If the TLB is full, it evicts the least recently used entry.
+     * @return The virtual page number of the evicted entry, or -1 if nothing was evicted.
+     */
+    public synchronized int addEntry(int virtualPageNumber, int physicalFrameNumber) {
+        if (virtualPageNumber < 0 || physicalFrameNumber < 0) {
+            throw new IllegalArgumentException("Page and frame numbers must be non-negative.");
+        }
+        lastEvictedPage = -1;
+        tlb.put(virtualPageNumber, physicalFrameNumber); // Add or update the mapping
+        System.out.println("TLB Update: Added Virtual Page " + virtualPageNumber + " -> Physical Frame " + physicalFrameNumber);
+        return lastEvictedPage;
+    }
+
+    /**
+     * Retrieve the physical frame number for a given virtual page number.
+     * @param virtualPageNumber The virtual page number to lookup.
+     * @return The physical frame number if found, or -1 if not present (miss).
+     */
+    public synchronized int getFrameNumber(int virtualPageNumber) {
+        Integer frameNumber = tlb.get(virtualPageNumber); // Single lookup, also refreshes the LRU order
+        if (frameNumber != null) {
+            hitCount.increment(); // Increment hit count
+            System.out.println("TLB Hit: Virtual Page " + virtualPageNumber + " -> Physical Frame " + frameNumber);
+            return frameNumber;
+        }
+        Integer hugeFrame = hugeMaxEntries == 0 ? null : hugeTlb.get(virtualPageNumber >>> hugePageShift);
+        if (hugeFrame != null) {
+            // Both arrays are searched in parallel in hardware, so a huge hit costs the same as a base hit
+            hitCount.increment();
+            hugeHitCount.increment();
+            int frame = hugeFrame + (virtualPageNumber & ((1 << hugePageShift) - 1));
+            System.out.println("TLB Hit: Virtual Page " + virtualPageNumber + " -> Physical Frame " + frame + " (huge page)");
+            return frame;
+        } else {
+            missCount.increment(); // Increment miss count
+            System.out.println("TLB Miss: Virtual Page " + virtualPageNumber + " not found in TLB.");
+            return -1; // Indicate a TLB miss
+        }
+    }
+
+    /**
+     * Add a mapping for a whole huge page. If the huge-page array is full, it evicts its least recently used entry.
+     * @param hugePageNumber The huge page (virtual page number / pages per huge page).
+     * @param firstFrameNumber The physical frame holding its first base page; the others follow contiguously.
+     * @return The huge page number of the evicted entry, or -1 if nothing was evicted.
+     */
+    public synchronized int addHugeEntry(int hugePageNumber, int firstFrameNumber) {
+        if (hugeMaxEntries == 0) {
+            throw new IllegalStateException("Huge pages are not configured.");
+        }
+        lastEvictedRegion = -1;
+        hugeTlb.put(hugePageNumber, firstFrameNumber);
+        System.out.println("TLB Update: Added Huge Page " + hugePageNumber + " -> Physical Frame " + firstFrameNumber);
+        return lastEvictedRegion;
+    }
+
+    /**
+     * Remove the mapping for a huge page (e.g., when it is split back into base pages).
+     * @param hugePageNumber The huge page to invalidate.
+     * @return True if the huge page was in the TLB.
+     */
+    public synchronized boolean removeHugeEntry(int hugePageNumber) {
+        if (hugeTlb.remove(hugePageNumber) != null) {
+            System.out.println("TLB Update: Removed Huge Page " + hugePageNumber);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Remove the mapping for a single virtual page (e.g., when the page is evicted).
+     * Statistics are left untouched.
+     * @param virtualPageNumber The virtual page number to invalidate.
+     */
+    public synchronized void removeEntry(int virtualPageNumber) {
+        if (tlb.remove(virtualPageNumber) != null) {
+            System.out.println("TLB Update: Removed Virtual Page " + virtualPageNumber);
+        }
+    }
+
+    /**
+     * Check if a virtual page number is in the TLB.
+     * @param virtualPageNumber The virtual page number to check.
+     * @return True if the page is in the TLB, false otherwise.
+     */
+    public synchronized boolean containsPage(int virtualPageNumber) {
+        return tlb.containsKey(virtualPageNumber);
+    }
+
+    /**
+     * Get all entries in the TLB (for visualization or debugging).
+     * @return A copy of the TLB entries.
+     */
+    public synchronized Map<Integer, Integer> getEntries() {
+        return new LinkedHashMap<>(tlb); // Return a copy of the TLB entries
+    }
+
+    /**
+     * Get all huge-page entries (for visualization or debugging).
+     * @return A copy of the huge-page entries, huge page number to first frame.
+     */
+    public synchronized Map<Integer, Integer> getHugeEntries() {
+        return new LinkedHashMap<>(hugeTlb);
+    }
+
+    /**
+     * Clear all entries in the TLB.
+     */
+    public synchronized void clear() {
+        tlb.clear();
+        hugeTlb.clear();
+        hugeHitCount.reset();
+        hitCount.reset();
+        missCount.reset();
+        System.out.println("TLB Cleared: All entries and statistics reset.");
+    }
+
+    /**
+     * Get the capacity of the TLB.
+     * @return The maximum number of entries.
+     */
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * Get the capacity of the huge-page array.
+     * @return The maximum number of huge-page entries, 0 when huge pages are off.
+     */
+    public int getHugeMaxEntries() {
+        return hugeMaxEntries;
+    }
+
+    /**
+     * Get the total number of accesses to the TLB.
+     * @return The total access count.
+     */
+    public int getAccessCount() {
+        return (int) (hitCount.sum() + missCount.sum());
+    }
+
+    /**
+     * Get the number of TLB hits.
+     * @return The TLB hit count.
+     */
+    public int getHitCount() {
+        return (int) hitCount.sum();
+    }
+
+    /**
+     * Get the number of TLB misses.
+     * @return The TLB miss count.
+     */
+    public int getMissCount() {
+        return (int) missCount.sum();
+    }
+
+    /**
+     * Get the number of hits served by base-page entries.
+     * @return The base-page hit count.
+     */
+    public int getBaseHitCount() {
+        return (int) (hitCount.sum() - hugeHitCount.sum());
+    }
+
+    /**
+     * Get the number of hits served by huge-page entries.
+     * @return The huge-page hit count.
+     */
+    public int getHugeHitCount() {
+        return (int) hugeHitCount.sum();
+    }
+
+    /**
+     * Get the TLB hit ratio.
+     * @return The hit ratio as a percentage (0 to 100).
+     */
+    public double getHitRatio() {
+        long hits = hitCount.sum();
+        long accesses = hits + missCount.sum();
+        return accesses == 0 ? 0 : (hits / (double) accesses) * 100;
+    }
+
+    /**
+     * Save the entries of both arrays in LRU order (least recently used first), so the
+     * restored TLB evicts in the same order. The huge-page configuration is not saved. Statistics are saved with the metrics registry.
+     * @param out The snapshot being written.
+     */
+    public synchronized void writeSnapshot(SnapshotOutput out) throws IOException {
+        int[] pageNumbers = new int[tlb.size()];
+        int[] frameNumbers = new int[tlb.size()];
+        int index = 0;
+        for (Map.Entry<Integer, Integer> entry : tlb.entrySet()) {
+            pageNumbers[index] = entry.getKey();
+            frameNumbers[index] = entry.getValue();
+            index++;
+        }
+        out.putIntArray(pageNumbers);
+        out.putIntArray(frameNumbers);
+        int[] hugePageNumbers = new int[hugeTlb.size()];
+        int[] hugeFrameNumbers = new int[hugeTlb.size()];
+        index = 0;
+        for (Map.Entry<Integer, Integer> entry : hugeTlb.entrySet()) {
+            hugePageNumbers[index] = entry.getKey();
+            hugeFrameNumbers[index] = entry.getValue();
+            index++;
+        }
+        out.putIntArray(hugePageNumbers);
+        out.putIntArray(hugeFrameNumbers);
+    }
+
+    /**
+     * Replace the entries with those saved by writeSnapshot, preserving their order.
+     * @param in The snapshot being read.
+     */
+    public synchronized void readSnapshot(SnapshotInput in) throws IOException {
+        int[] pageNumbers = in.getIntArray();
+        int[] frameNumbers = in.getIntArray();
+        tlb.clear();
+        for (int i = 0; i < pageNumbers.length; i++) {
+            tlb.put(pageNumbers[i], frameNumbers[i]);
+        }
+        int[] hugePageNumbers = in.getIntArray();
+        int[] hugeFrameNumbers = in.getIntArray();
+        hugeTlb.clear();
+        for (int i = 0; i < hugePageNumbers.length; i++) {
+            hugeTlb.put(hugePageNumbers[i], hugeFrameNumbers[i]);
+        }
+    }
+
+    /**
+     * Print the current state of the TLB.
+     */
+    public synchronized void printTLBState() {
+        System.out.println("Current TLB State:");
+        tlb.forEach((virtualPage, physicalFrame) ->
+                System.out.println("Virtual Page " + virtualPage + " -> Physical Frame " + physicalFrame));
+    }
+
+    /**
+     * Print TLB statistics (hits, misses, and hit ratio).
+     */
+    public synchronized void printStatistics() {
+        System.out.println("TLB Statistics:");
+        System.out.println("Total Accesses: " + getAccessCount());
+        System.out.println("Hits: " + hitCount.sum() + " (" + hugeHitCount.sum() + " from huge pages)");
+        System.out.println("Misses: " + missCount.sum());
+        System.out.println("Hit Ratio: " + String.format("%.2f", getHitRatio()) + "%");
+    }
+}
@@ -1,28 +1,82 @@
-package org.example.Model;
-
-import java.util.ArrayList;
-import java.util.List;
-
-public class VirtualMemory {
-    private List<Page> pages;
-
-    public VirtualMemory(int size) {
-        pages = new ArrayList<>();
-        for (int i = 0; i < size; i++) {
-            pages.add(new Page(i));
-        }
-    }
-
-    public Page getPage(int pageNumber) {
-        return pages.get(pageNumber);
-    }
-
-    public List<Page> getPages() {
-        return pages;
-    }
-
-    public int getSize() {// Returns the number of pages in virtual memory
-        return pages.size();
-    }
-}
-
+package org.example.Model;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+public class VirtualMemory {
+    private List<Page> pages;
+    private final int initialSize; // Pages created up front; private copies made by copy-on-write are added after them
+
+    public VirtualMemory(int size) {
+        pages = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            pages.add(new Page(i));
+        }
+        this.initialSize = size;
+    }
+
+    /**
+     * Make sure a page exists, adding pages up to it (e.g. a copy made on a write to a shared page).
+     * @param pageNumber The page.
+     */
+    public void ensurePage(int pageNumber) {
+        while (pages.size() <= pageNumber) {
+            pages.add(new Page(pages.size()));
+        }
+    }
+
+    public Page getPage(int pageNumber) {
+        return pages.get(pageNumber);
+    }
+
+    public List<Page> getPages() {
+        return pages;
+    }
+
+    public int getSize() {// Returns the number of pages in virtual memory
+        return pages.size();
+    }
+
+    /**
+     * Save the state of every page (frame, residency, dirty bit) as bulk arrays.
+     * @param out The snapshot being written.
+     */
+    public void writeSnapshot(SnapshotOutput out) throws IOException {
+        int[] frameNumbers = new int[pages.size()];
+        BitSet inMemory = new BitSet(pages.size());
+        BitSet dirty = new BitSet(pages.size());
+        for (int i = 0; i < pages.size(); i++) {
+            Page page = pages.get(i);
+            frameNumbers[i] = page.getFrameNumber();
+            inMemory.set(i, page.isInMemory());
+            dirty.set(i, page.isDirty());
+        }
+        out.putIntArray(frameNumbers);
+        out.putLongArray(inMemory.toLongArray());
+        out.putLongArray(dirty.toLongArray());
+    }
+
+    /**
+     * Restore the state saved by writeSnapshot into a virtual memory of the same initial size,
+     * adding or dropping the pages created after it.
+     * @param in The snapshot being read.
+     */
+    public void readSnapshot(SnapshotInput in) throws IOException {
+        int[] frameNumbers = in.getIntArray();
+        if (frameNumbers.length < initialSize) {
+            throw new IOException("Snapshot has " + frameNumbers.length + " virtual pages, expected " + initialSize + ".");
+        }
+        ensurePage(frameNumbers.length - 1);
+        pages.subList(frameNumbers.length, pages.size()).clear();
+        BitSet inMemory = BitSet.valueOf(in.getLongArray());
+        BitSet dirty = BitSet.valueOf(in.getLongArray());
+        for (int i = 0; i < pages.size(); i++) {
+            Page page = pages.get(i);
+            page.setFrameNumber(frameNumbers[i]);
+            page.setInMemory(inMemory.get(i));
+            page.setDirty(dirty.get(i));
+        }
+    }
+}
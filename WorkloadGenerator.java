@@ -0,0 +1,16 @@
+package org.example.Model;
+
+public interface WorkloadGenerator {
+    /**
+     * Whether the workload has more references.
+     * @return False once the workload is exhausted.
+     */
+    boolean hasNext();
+
+    /**
+     * Produce the next reference. References are generated on demand, so a workload
+     * of any length is streamed without being held in memory.
+     * @return The reference, packed as described in {@link TraceRecord}.
+     */
+    long next();
+}
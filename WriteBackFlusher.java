@@ -0,0 +1,185 @@
+package org.example.Model;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+public class WriteBackFlusher {
+    private final int flushInterval; // References between background flushes
+    private final int dirtyThreshold; // Dirty page count that forces an early flush
+    private final int maxRunLength; // Largest number of contiguous pages written in one I/O
+    private final BitSet dirtyPages; // Resident pages that differ from their disk copy
+    private int dirtyCount; // Number of bits set in dirtyPages
+    private long referencesSinceFlush; // References observed since the last flush
+
+    private long flushCount; // Background flushes performed
+    private long runsWritten; // Write I/Os issued by the flusher (one per contiguous run)
+    private long pagesWritten; // Pages cleaned by the flusher
+
+    // Default constructor
+    public WriteBackFlusher() {
+        this(100, 32, 16);
+    }
+
+    public WriteBackFlusher(int flushInterval, int dirtyThreshold, int maxRunLength) {
+        if (flushInterval <= 0 || dirtyThreshold <= 0 || maxRunLength <= 0) {
+            throw new IllegalArgumentException("Flush interval, dirty threshold and run length must be greater than 0.");
+        }
+        this.flushInterval = flushInterval;
+        this.dirtyThreshold = dirtyThreshold;
+        this.maxRunLength = maxRunLength;
+        this.dirtyPages = new BitSet();
+    }
+
+    /**
+     * Record that a resident page was written to.
+     * @param pageNumber The page that became dirty.
+     */
+    public synchronized void markDirty(int pageNumber) {
+        if (!dirtyPages.get(pageNumber)) {
+            dirtyPages.set(pageNumber);
+            dirtyCount++;
+        }
+    }
+
+    /**
+     * Record that a page no longer needs writing (written back on eviction, or flushed).
+     * @param pageNumber The page that became clean.
+     */
+    public synchronized void markClean(int pageNumber) {
+        if (dirtyPages.get(pageNumber)) {
+            dirtyPages.clear(pageNumber);
+            dirtyCount--;
+        }
+    }
+
+    /**
+     * Count one reference and report whether a background flush is due.
+     * @return True when the flush interval elapsed or too many pages are dirty.
+     */
+    public synchronized boolean recordReference() {
+        referencesSinceFlush++;
+        return dirtyCount > 0 && (referencesSinceFlush >= flushInterval || dirtyCount >= dirtyThreshold);
+    }
+
+    /**
+     * Take every dirty page, coalesced into runs of contiguous page numbers.
+     * The pages are considered clean once this returns, except the kept page, which
+     * stays dirty and splits the run it falls in.
+     * @param keptPage A page that must not be written yet (e.g. one whose write is still
+     *                 in progress), or -1 for none.
+     * @return The runs as {firstPage, length} pairs, in ascending page order.
+     */
+    public synchronized List<int[]> collectRuns(int keptPage) {
+        boolean keep = keptPage >= 0 && dirtyPages.get(keptPage);
+        if (keep) {
+            dirtyPages.clear(keptPage);
+        }
+        List<int[]> runs = new ArrayList<>();
+        int page = dirtyPages.nextSetBit(0);
+        while (page >= 0) {
+            int runEnd = dirtyPages.nextClearBit(page);
+            int length = Math.min(runEnd - page, maxRunLength);
+            runs.add(new int[]{page, length});
+            page = dirtyPages.nextSetBit(page + length);
+        }
+        flushCount++;
+        dirtyPages.clear();
+        dirtyCount = 0;
+        if (keep) {
+            dirtyPages.set(keptPage);
+            dirtyCount = 1;
+        }
+        referencesSinceFlush = 0;
+        return runs;
+    }
+
+    /**
+     * Count what a flush actually wrote; pages of a run that could not be written split it.
+     * @param ios Write I/Os issued.
+     * @param pages Pages written.
+     */
+    public synchronized void recordWritten(int ios, int pages) {
+        runsWritten += ios;
+        pagesWritten += pages;
+    }
+
+    public int getFlushInterval() {
+        return flushInterval;
+    }
+
+    public int getDirtyThreshold() {
+        return dirtyThreshold;
+    }
+
+    public int getMaxRunLength() {
+        return maxRunLength;
+    }
+
+    /**
+     * Save the dirty set and statistics (the configuration is saved by the caller).
+     * @param out The snapshot being written.
+     */
+    public synchronized void writeSnapshot(SnapshotOutput out) throws IOException {
+        out.putLongArray(dirtyPages.toLongArray());
+        out.putLong(referencesSinceFlush);
+        out.putLong(flushCount);
+        out.putLong(runsWritten);
+        out.putLong(pagesWritten);
+    }
+
+    /**
+     * Restore the state saved by writeSnapshot.
+     * @param in The snapshot being read.
+     */
+    public synchronized void readSnapshot(SnapshotInput in) throws IOException {
+        dirtyPages.clear();
+        dirtyPages.or(BitSet.valueOf(in.getLongArray()));
+        dirtyCount = dirtyPages.cardinality();
+        referencesSinceFlush = in.getLong();
+        flushCount = in.getLong();
+        runsWritten = in.getLong();
+        pagesWritten = in.getLong();
+    }
+
+    public synchronized boolean isDirty(int pageNumber) {
+        return dirtyPages.get(pageNumber);
+    }
+
+    public synchronized int getDirtyCount() {
+        return dirtyCount;
+    }
+
+    public synchronized long getFlushCount() {
+        return flushCount;
+    }
+
+    public synchronized long getRunsWritten() {
+        return runsWritten;
+    }
+
+    public synchronized long getPagesWritten() {
+        return pagesWritten;
+    }
+
+    /**
+     * Get the average number of pages written per flusher I/O.
+     * @return The average run length, or 0 if nothing was flushed.
+     */
+    public synchronized double getAverageRunLength() {
+        return runsWritten == 0 ? 0 : pagesWritten / (double) runsWritten;
+    }
+
+    /**
+     * Print flusher statistics.
+     */
+    public synchronized void printStatistics() {
+        System.out.println("Write-Back Flusher Statistics:");
+        System.out.println("Flushes: " + flushCount);
+        System.out.println("Write I/Os: " + runsWritten);
+        System.out.println("Pages Written: " + pagesWritten);
+        System.out.println("Average Run Length: " + String.format("%.2f", getAverageRunLength()));
+        System.out.println("Currently Dirty: " + dirtyCount);
+    }
+}
@@ -0,0 +1,129 @@
+package org.example.Model;
+
+public class ZipfWorkload extends SyntheticWorkload {
+    private final int firstPage; // Lowest page of the region the workload touches
+    private final int pageCount; // Number of pages in the region
+    private final double exponent; // Skew; 0.99 is typical of web and key-value workloads
+    private final long scatterMultiplier; // Maps ranks to pages so the hot set is spread over the region
+    private final long scatterOffset;
+
+    // Constants of the rejection-inversion sampler (Hormann and Derflinger), which
+    // draws a rank in O(1) time and memory however many pages there are
+    private final double hIntegralX1;
+    private final double hIntegralPageCount;
+    private final double acceptanceBound;
+
+    public ZipfWorkload(int firstPage, int pageCount, double exponent, int processId, long length, double writeFraction, long seed) {
+        this(firstPage, pageCount, exponent, true, processId, length, writeFraction, seed);
+    }
+
+    /**
+     * A Zipfian hot set: page of rank k is referenced with probability proportional to 1 / k^exponent.
+     * @param firstPage Lowest page of the region.
+     * @param pageCount Number of pages in the region.
+     * @param exponent Skew of the distribution (greater than 0).
+     * @param scatter Spread ranks over the region; when false the hottest page is firstPage, the next firstPage + 1, and so on.
+     * @param processId Process the references are attributed to.
+     * @param length Number of references.
+     * @param writeFraction Probability that a reference is a write.
+     * @param seed Random seed.
+     */
+    public ZipfWorkload(int firstPage, int pageCount, double exponent, boolean scatter, int processId, long length, double writeFraction, long seed) {
+        super(processId, length, writeFraction, seed);
+        if (firstPage < 0 || pageCount <= 0 || (long) firstPage + pageCount > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Page region must be non-empty and within the page number range.");
+        }
+        if (!(exponent > 0)) {
+            throw new IllegalArgumentException("Zipf exponent must be greater than 0.");
+        }
+        this.firstPage = firstPage;
+        this.pageCount = pageCount;
+        this.exponent = exponent;
+        this.scatterMultiplier = scatter ? coprimeMultiplier(pageCount) : 1;
+        this.scatterOffset = scatter ? Math.floorMod(random.nextLong(), (long) pageCount) : 0;
+        this.hIntegralX1 = hIntegral(1.5) - 1;
+        this.hIntegralPageCount = hIntegral(pageCount + 0.5);
+        this.acceptanceBound = 2 - hIntegralInverse(hIntegral(2.5) - h(2));
+    }
+
+    @Override
+    protected int nextPage() {
+        long rank = sampleRank() - 1;
+        return firstPage + (int) ((rank * scatterMultiplier + scatterOffset) % pageCount);
+    }
+
+    private int sampleRank() {
+        while (true) {
+            double u = hIntegralPageCount + random.nextDouble() * (hIntegralX1 - hIntegralPageCount);
+            double x = hIntegralInverse(u);
+            int k = (int) (x + 0.5);
+            if (k < 1) {
+                k = 1;
+            } else if (k > pageCount) {
+                k = pageCount;
+            }
+            if (k - x <= acceptanceBound || u >= hIntegral(k + 0.5) - h(k)) {
+                return k;
+            }
+        }
+    }
+
+    // A multiplier near pageCount / golden ratio that is coprime with pageCount,
+    // so rank -> page is a bijection and neighbouring ranks land far apart
+    private static long coprimeMultiplier(int pageCount) {
+        if (pageCount == 1) {
+            return 1;
+        }
+        long multiplier = Math.max(1, (long) (pageCount * 0.6180339887498949));
+        while (gcd(multiplier, pageCount) != 1) {
+            multiplier++;
+        }
+        return multiplier;
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+
+    private double h(double x) {
+        return Math.exp(-exponent * Math.log(x));
+    }
+
+    private double hIntegral(double x) {
+        double logX = Math.log(x);
+        return expm1OverX((1 - exponent) * logX) * logX;
+    }
+
+    private double hIntegralInverse(double x) {
+        double t = x * (1 - exponent);
+        if (t < -1) {
+            t = -1; // Guards against rounding just below the domain of log1p
+        }
+        return Math.exp(log1pOverX(t) * x);
+    }
+
+    private static double log1pOverX(double x) {
+        return Math.abs(x) > 1e-8 ? Math.log1p(x) / x : 1 - x * (0.5 - x * (1.0 / 3 - 0.25 * x));
+    }
+
+    private static double expm1OverX(double x) {
+        return Math.abs(x) > 1e-8 ? Math.expm1(x) / x : 1 + x * 0.5 * (1 + x / 3 * (1 + 0.25 * x));
+    }
+
+    public int getFirstPage() {
+        return firstPage;
+    }
+
+    public int getPageCount() {
+        return pageCount;
+    }
+
+    public double getExponent() {
+        return exponent;
+    }
+}
@@ -0,0 +1,64 @@
+package org.example.benchmarks;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Random;
+
+/**
+ * Reference streams shared by the benchmarks. Streams are generated up front so
+ * that producing the next page number costs nothing inside the measured loop.
+ */
+public enum AccessPattern {
+    UNIFORM,
+    ZIPF,
+    SEQUENTIAL;
+
+    public static final int STREAM_LENGTH = 1 << 16; // Power of 2 so callers can wrap with a mask
+    private static final double ZIPF_EXPONENT = 0.99;
+
+    /**
+     * Generate a reference stream over pages [0, pageCount).
+     * @param pageCount Number of distinct pages.
+     * @param seed Random seed, so every fork sees the same stream.
+     * @return STREAM_LENGTH page numbers.
+     */
+    public int[] generate(int pageCount, long seed) {
+        Random random = new Random(seed);
+        int[] pages = new int[STREAM_LENGTH];
+        switch (this) {
+            case UNIFORM -> {
+                for (int i = 0; i < pages.length; i++) {
+                    pages[i] = random.nextInt(pageCount);
+                }
+            }
+            case ZIPF -> {
+                double[] cumulative = new double[pageCount];
+                double total = 0;
+                for (int rank = 0; rank < pageCount; rank++) {
+                    total += 1 / Math.pow(rank + 1, ZIPF_EXPONENT);
+                    cumulative[rank] = total;
+                }
+                for (int i = 0; i < pages.length; i++) {
+                    int rank = java.util.Arrays.binarySearch(cumulative, random.nextDouble() * total);
+                    rank = rank >= 0 ? rank : -rank - 1;
+                    // Scatter the hot ranks over the page range so hot pages are not all adjacent
+                    pages[i] = (int) ((Math.min(rank, pageCount - 1) * 0x9E3779B1L) % pageCount);
+                }
+            }
+            case SEQUENTIAL -> {
+                for (int i = 0; i < pages.length; i++) {
+                    pages[i] = i % pageCount;
+                }
+            }
+        }
+        return pages;
+    }
+
+    /**
+     * The simulator logs every step to standard output; discard it so the
+     * console does not dominate the measurement or the benchmark output.
+     */
+    public static void silenceStandardOutput() {
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+}
@@ -0,0 +1,40 @@
+package org.example.benchmarks;
+
+import org.example.Model.PageTable;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PageTableBenchmark {
+    @Param({"1024", "65536"})
+    int frames;
+
+    @Param({"UNIFORM", "ZIPF", "SEQUENTIAL"})
+    AccessPattern pattern;
+
+    private PageTable pageTable;
+    private int[] pages;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        AccessPattern.silenceStandardOutput();
+        pageTable = new PageTable();
+        for (int frame = 0; frame < frames; frame++) {
+            pageTable.mapPageToFrame(frame * 2, frame); // Every other page is resident
+        }
+        pages = pattern.generate(frames * 2, 42);
+    }
+
+    @Benchmark
+    public int getFrameForPage() {
+        int page = pages[next++ & (AccessPattern.STREAM_LENGTH - 1)];
+        return pageTable.getFrameForPage(page);
+    }
+}
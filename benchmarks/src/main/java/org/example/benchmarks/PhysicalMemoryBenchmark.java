@@ -0,0 +1,36 @@
+package org.example.benchmarks;
+
+import org.example.Model.Frame;
+import org.example.Model.Page;
+import org.example.Model.PhysicalMemory;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PhysicalMemoryBenchmark {
+    @Param({"1024", "65536", "1048576"})
+    int frames;
+
+    private PhysicalMemory physicalMemory;
+
+    @Setup
+    public void setUp() {
+        AccessPattern.silenceStandardOutput();
+        physicalMemory = new PhysicalMemory(frames);
+        // Fill every frame but the last, the worst case for finding a free frame
+        for (int frame = 0; frame < frames - 1; frame++) {
+            physicalMemory.loadPageIntoFrame(physicalMemory.getFrame(frame), new Page(frame));
+        }
+    }
+
+    @Benchmark
+    public Frame getFreeFrame() {
+        return physicalMemory.getFreeFrame();
+    }
+}
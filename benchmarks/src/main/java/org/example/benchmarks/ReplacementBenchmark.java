@@ -0,0 +1,50 @@
+package org.example.benchmarks;
+
+import org.example.Controller.MemoryController;
+import org.example.Model.PageReplacementAlgorithm;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ReplacementBenchmark {
+    @Param({"FIFO", "LRU", "SAMPLED-LRU"})
+    String algorithm;
+
+    @Param({"64", "1024", "16384"})
+    int frames;
+
+    private PageReplacementAlgorithm replacementAlgorithm;
+    private MemoryController memoryController;
+    private int pageCount;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        AccessPattern.silenceStandardOutput();
+        replacementAlgorithm = PageReplacementAlgorithm.forName(algorithm);
+        pageCount = frames * 4;
+        memoryController = new MemoryController(pageCount, frames, 64, replacementAlgorithm, 64, null);
+        memoryController.setSimulationSpeed(0);
+        for (int page = 0; page < frames; page++) {
+            memoryController.requestPage(page); // Fill memory so every replacePage evicts
+        }
+        next = frames;
+    }
+
+    /**
+     * Cycling over four times as many pages as frames, the next page is never resident
+     * under FIFO or LRU (and rarely under sampled LRU), so each call selects and evicts a
+     * victim and loads the page.
+     */
+    @Benchmark
+    public void replacePage() {
+        replacementAlgorithm.replacePage(next, memoryController);
+        next = next + 1 == pageCount ? 0 : next + 1;
+    }
+}
@@ -0,0 +1,43 @@
+package org.example.benchmarks;
+
+import org.example.Controller.MemoryController;
+import org.example.Model.PageReplacementAlgorithm;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RequestPageBenchmark {
+    @Param({"FIFO", "LRU", "SAMPLED-LRU"})
+    String algorithm;
+
+    @Param({"64", "4096"})
+    int frames;
+
+    @Param({"UNIFORM", "ZIPF", "SEQUENTIAL"})
+    AccessPattern pattern;
+
+    private MemoryController memoryController;
+    private int[] pages;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        AccessPattern.silenceStandardOutput();
+        int pageCount = frames * 4;
+        memoryController = new MemoryController(pageCount, frames, 64, PageReplacementAlgorithm.forName(algorithm), 64, null);
+        memoryController.setSimulationSpeed(0);
+        pages = pattern.generate(pageCount, 42);
+    }
+
+    @Benchmark
+    public int requestPage() {
+        int page = pages[next++ & (AccessPattern.STREAM_LENGTH - 1)];
+        return memoryController.requestPage(0, page, false);
+    }
+}
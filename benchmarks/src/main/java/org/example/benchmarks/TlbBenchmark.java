@@ -0,0 +1,43 @@
+package org.example.benchmarks;
+
+import org.example.Model.TranslationLookasideBuffer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TlbBenchmark {
+    @Param({"16", "64", "512"})
+    int tlbEntries;
+
+    @Param({"UNIFORM", "ZIPF", "SEQUENTIAL"})
+    AccessPattern pattern;
+
+    private TranslationLookasideBuffer tlb;
+    private int[] pages;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        AccessPattern.silenceStandardOutput();
+        int pageCount = tlbEntries * 4; // A quarter of the pages fit in the TLB
+        tlb = new TranslationLookasideBuffer(tlbEntries);
+        pages = pattern.generate(pageCount, 42);
+        for (int page : pages) {
+            if (tlb.getFrameNumber(page) == -1) {
+                tlb.addEntry(page, page);
+            }
+        }
+    }
+
+    @Benchmark
+    public int getFrameNumber() {
+        int page = pages[next++ & (AccessPattern.STREAM_LENGTH - 1)];
+        return tlb.getFrameNumber(page);
+    }
+}